@@ -4,6 +4,7 @@ import com.example.carsharingapp.security.JwtAuthenticationFilter;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
@@ -37,6 +38,8 @@ public class SecurityConfig {
                         auth -> auth
                                 .requestMatchers("/auth/**", "/swagger-ui/**", "/v3/api-docs/**")
                                 .permitAll()
+                                .requestMatchers(HttpMethod.POST, "/payment/webhook")
+                                .permitAll()
                                 .anyRequest()
                                 .authenticated())
                 .sessionManagement(session -> session
@@ -1,8 +1,16 @@
 package com.example.carsharingapp.controller.car;
 
+import com.example.carsharingapp.dto.car.CacheStatsDto;
+import com.example.carsharingapp.dto.car.CarAvailabilityDto;
+import com.example.carsharingapp.dto.car.CarCursorPageDto;
+import com.example.carsharingapp.dto.car.CarCursorRequestDto;
+import com.example.carsharingapp.dto.car.CarFacetsDto;
+import com.example.carsharingapp.dto.car.CarImportResultDto;
 import com.example.carsharingapp.dto.car.CarRequestDto;
 import com.example.carsharingapp.dto.car.CarResponseDto;
 import com.example.carsharingapp.dto.car.CarSearchParamsDto;
+import com.example.carsharingapp.dto.car.CarSuggestionDto;
+import com.example.carsharingapp.service.car.CarImportService;
 import com.example.carsharingapp.service.car.CarService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -10,10 +18,17 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import jakarta.validation.Valid;
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -21,7 +36,9 @@ import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
 
@@ -30,6 +47,7 @@ import org.springframework.web.bind.annotation.RestController;
 @RequiredArgsConstructor
 public class CarController {
     private final CarService carService;
+    private final CarImportService carImportService;
 
     @Operation(summary = "Create a new car", description = "Creates a new car (admin only)")
     @ApiResponses(value = {
@@ -45,6 +63,23 @@ public class CarController {
         return carService.create(requestDto);
     }
 
+    @Operation(summary = "Import cars", description = "Streams cars from a CSV (header "
+            + "brand,model,type,dailyFee,inventory) or NDJSON body and saves them in batches. "
+            + "Existing models get their inventory increased (manager only)")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Import finished, see per-row errors"),
+            @ApiResponse(responseCode = "400", description = "Invalid file"),
+            @ApiResponse(responseCode = "403", description = "Forbidden")
+    })
+    @PreAuthorize("hasRole('MANAGER')")
+    @ResponseStatus(HttpStatus.OK)
+    @PostMapping(value = "/import", consumes = {"text/csv", "application/x-ndjson"})
+    public CarImportResultDto importCars(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            InputStream inputStream) {
+        return carImportService.importCars(inputStream, MediaType.parseMediaType(contentType));
+    }
+
     @Operation(summary = "Get all cars", description = "Returns pages of all cars")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Car was found"),
@@ -69,6 +104,71 @@ public class CarController {
         return carService.searchCarsByParams(searchParamsDto, pageable);
     }
 
+    @Operation(summary = "Get all cars by cursor", description = "Returns a slice of cars "
+            + "after the given cursor ordered by id or daily fee, without counting total "
+            + "elements")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Cars were found"),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor")
+    })
+    @ResponseStatus(HttpStatus.OK)
+    @GetMapping("/cursor")
+    public CarCursorPageDto getAllCarsByCursor(@Valid CarCursorRequestDto cursorRequestDto) {
+        return carService.getAllCarsByCursor(cursorRequestDto);
+    }
+
+    @Operation(summary = "Get cars with filters by cursor", description = "Returns a slice "
+            + "of cars matching the filters after the given cursor, without counting total "
+            + "elements")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Car matching search criteria"),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor")
+    })
+    @ResponseStatus(HttpStatus.OK)
+    @GetMapping("/search/cursor")
+    public CarCursorPageDto getCarByDetailsByCursor(CarSearchParamsDto searchParamsDto,
+                                                    @Valid CarCursorRequestDto cursorRequestDto) {
+        return carService.searchCarsByCursor(searchParamsDto, cursorRequestDto);
+    }
+
+    @Operation(summary = "Get facet counts for car search", description = "Returns "
+            + "per-brand, per-type and per-fee-bucket counts of cars matching the filters, "
+            + "computed in one aggregated query")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Facet counts were returned")
+    })
+    @ResponseStatus(HttpStatus.OK)
+    @GetMapping("/search/facets")
+    public CarFacetsDto getFacets(CarSearchParamsDto searchParamsDto) {
+        return carService.getFacets(searchParamsDto);
+    }
+
+    @Operation(summary = "Get cars available in a period", description = "Returns cars "
+            + "that have at least one unit not booked by active rentals between from and to")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Available cars were returned"),
+            @ApiResponse(responseCode = "400", description = "Invalid period")
+    })
+    @ResponseStatus(HttpStatus.OK)
+    @GetMapping("/available")
+    public List<CarAvailabilityDto> getAvailableCars(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        return carService.findAvailable(from, to);
+    }
+
+    @Operation(summary = "Suggest brands and models", description = "Returns brands and "
+            + "models starting with the given prefix, served from memory")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Suggestions were returned")
+    })
+    @ResponseStatus(HttpStatus.OK)
+    @GetMapping("/suggest")
+    public List<CarSuggestionDto> suggest(@RequestParam("q") String query,
+                                          @RequestParam(defaultValue = "10") int limit) {
+        return carService.suggest(query, limit);
+    }
+
     @Operation(summary = "Update a car", description = "Updates an existing "
             + "car by ID (manager only)")
     @ApiResponses(value = {
@@ -99,4 +199,17 @@ public class CarController {
     public void delete(@PathVariable Long id) {
         carService.deleteById(id);
     }
+
+    @Operation(summary = "Get car catalog cache statistics", description = "Returns hit, miss "
+            + "and eviction counters of car listing caches (manager only)")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Statistics were returned"),
+            @ApiResponse(responseCode = "403", description = "Forbidden")
+    })
+    @ResponseStatus(HttpStatus.OK)
+    @PreAuthorize("hasRole('ROLE_MANAGER')")
+    @GetMapping("/cache-stats")
+    public Map<String, CacheStatsDto> getCacheStats() {
+        return carService.getCacheStats();
+    }
 }
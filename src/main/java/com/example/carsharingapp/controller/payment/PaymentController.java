@@ -1,8 +1,15 @@
 package com.example.carsharingapp.controller.payment;
 
+import com.example.carsharingapp.dto.payment.FineJobStatsDto;
+import com.example.carsharingapp.dto.payment.PaymentQuoteResponseDto;
 import com.example.carsharingapp.dto.payment.PaymentRequestDto;
 import com.example.carsharingapp.dto.payment.PaymentResponseDto;
 import com.example.carsharingapp.dto.payment.PaymentStatusResponseDto;
+import com.example.carsharingapp.dto.payment.ReconciliationStatsDto;
+import com.example.carsharingapp.dto.payment.StripeResilienceStatsDto;
+import com.example.carsharingapp.model.enums.ExportFormat;
+import com.example.carsharingapp.service.export.ExportService;
+import com.example.carsharingapp.service.idempotency.IdempotencyStore;
 import com.example.carsharingapp.service.payment.PaymentService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -10,24 +17,36 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import jakarta.validation.Valid;
+import java.time.LocalDateTime;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @RestController
 @RequestMapping("/payment")
 @RequiredArgsConstructor
 public class PaymentController {
+    private static final String STRIPE_SIGNATURE = "Stripe-Signature";
     private final PaymentService paymentService;
+    private final ExportService exportService;
+    private final IdempotencyStore idempotencyStore;
 
     @Operation(summary = "Create a new payment", description = "User create "
             + "a payment as he wants to pay for renting car")
@@ -36,12 +55,36 @@ public class PaymentController {
                     content = @Content(schema = @Schema(implementation
                             = PaymentResponseDto.class))),
             @ApiResponse(responseCode = "400", description = "Invalid input"),
-            @ApiResponse(responseCode = "403", description = "Forbidden")
+            @ApiResponse(responseCode = "403", description = "Forbidden"),
+            @ApiResponse(responseCode = "409", description = "Checkout session is still "
+                    + "being created, retry shortly")
     })
     @ResponseStatus(HttpStatus.CREATED)
     @PostMapping
-    public PaymentResponseDto create(@Valid @RequestBody PaymentRequestDto requestDto) {
-        return paymentService.create(requestDto);
+    public PaymentResponseDto create(
+            @RequestHeader(value = IdempotencyStore.HEADER, required = false)
+            String idempotencyKey,
+            @Valid @RequestBody PaymentRequestDto requestDto) {
+        return idempotencyStore.execute(idempotencyKey, "POST /payment", requestDto,
+                PaymentResponseDto.class, () -> paymentService.create(requestDto));
+    }
+
+    @Operation(summary = "Quote a rental price", description = "Returns the price of renting "
+            + "a car between from and to under the current pricing rules")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Quote was returned",
+                    content = @Content(schema = @Schema(implementation
+                            = PaymentQuoteResponseDto.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid period"),
+            @ApiResponse(responseCode = "404", description = "Car was not found")
+    })
+    @ResponseStatus(HttpStatus.OK)
+    @GetMapping("/quote")
+    public PaymentQuoteResponseDto quote(
+            @RequestParam Long carId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        return paymentService.quote(carId, from, to);
     }
 
     @Operation(summary = "Get payments by user id", description = "Get page of payments By user id")
@@ -87,4 +130,74 @@ public class PaymentController {
     public PaymentStatusResponseDto getPaymentCancel(@RequestParam String sessionId) {
         return paymentService.getPaymentStatus(sessionId);
     }
+
+    @Operation(summary = "Receive Stripe webhook", description = "Verifies the Stripe "
+            + "signature and marks the payment as paid when its checkout session completes")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Event was accepted"),
+            @ApiResponse(responseCode = "400", description = "Invalid signature")
+    })
+    @ResponseStatus(HttpStatus.OK)
+    @PostMapping("/webhook")
+    public void receiveWebhook(@RequestHeader(value = STRIPE_SIGNATURE, required = false)
+                               String signatureHeader, @RequestBody String payload) {
+        paymentService.handleWebhook(payload, signatureHeader);
+    }
+
+    @Operation(summary = "Get overdue fine job statistics", description = "Returns run count, "
+            + "issued fines and throughput of the overdue rentals scanner (manager only)")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Statistics were returned"),
+            @ApiResponse(responseCode = "403", description = "Forbidden")
+    })
+    @ResponseStatus(HttpStatus.OK)
+    @PreAuthorize("hasRole('ROLE_MANAGER')")
+    @GetMapping("/fines/stats")
+    public FineJobStatsDto getFineJobStats() {
+        return paymentService.getFineJobStats();
+    }
+
+    @Operation(summary = "Get Stripe resilience statistics", description = "Returns circuit "
+            + "breaker state, bulkhead usage and call outcomes of the Stripe client (manager only)")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Statistics were returned"),
+            @ApiResponse(responseCode = "403", description = "Forbidden")
+    })
+    @ResponseStatus(HttpStatus.OK)
+    @PreAuthorize("hasRole('ROLE_MANAGER')")
+    @GetMapping("/stripe/stats")
+    public StripeResilienceStatsDto getStripeStats() {
+        return paymentService.getStripeStats();
+    }
+
+    @Operation(summary = "Get payment reconciliation statistics", description = "Returns run "
+            + "count and checked and reconciled pending payments of the reconciliation job "
+            + "(manager only)")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Statistics were returned"),
+            @ApiResponse(responseCode = "403", description = "Forbidden")
+    })
+    @ResponseStatus(HttpStatus.OK)
+    @PreAuthorize("hasRole('ROLE_MANAGER')")
+    @GetMapping("/reconciliation/stats")
+    public ReconciliationStatsDto getReconciliationStats() {
+        return paymentService.getReconciliationStats();
+    }
+
+    @Operation(summary = "Export all payments", description = "Streams all payments "
+            + "as CSV or NDJSON (manager only)")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Export is streamed"),
+            @ApiResponse(responseCode = "403", description = "Forbidden")
+    })
+    @PreAuthorize("hasRole('ROLE_MANAGER')")
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportPayments(
+            @RequestParam(defaultValue = "CSV") ExportFormat format) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(format.getMediaType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("payments." + format.getExtension()).build().toString())
+                .body(outputStream -> exportService.exportPayments(outputStream, format));
+    }
 }
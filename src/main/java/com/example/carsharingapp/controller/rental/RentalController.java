@@ -1,12 +1,19 @@
 package com.example.carsharingapp.controller.rental;
 
 import com.example.carsharingapp.dto.rental.RentalActiveOrNotActiveRequestDto;
+import com.example.carsharingapp.dto.rental.RentalCursorPageDto;
+import com.example.carsharingapp.dto.rental.RentalCursorRequestDto;
 import com.example.carsharingapp.dto.rental.RentalDeciderDto;
+import com.example.carsharingapp.dto.rental.RentalHoldResponseDto;
 import com.example.carsharingapp.dto.rental.RentalRequestDto;
 import com.example.carsharingapp.dto.rental.RentalResponseDto;
 import com.example.carsharingapp.dto.rental.RentalResponseDtoWithoutActualReturnDate;
 import com.example.carsharingapp.dto.rental.RentalReturnDto;
+import com.example.carsharingapp.model.enums.ExportFormat;
 import com.example.carsharingapp.model.user.User;
+import com.example.carsharingapp.service.export.ExportService;
+import com.example.carsharingapp.service.idempotency.IdempotencyStore;
+import com.example.carsharingapp.service.rental.RentalHoldService;
 import com.example.carsharingapp.service.rental.RentalService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -17,21 +24,32 @@ import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @RestController
 @RequestMapping("/rentals")
 @RequiredArgsConstructor
 public class RentalController {
     private final RentalService rentalService;
+    private final RentalHoldService rentalHoldService;
+    private final ExportService exportService;
+    private final IdempotencyStore idempotencyStore;
 
     @Operation(summary = "Create a new rental", description = "Creates a new rental")
     @ApiResponses(value = {
@@ -42,9 +60,32 @@ public class RentalController {
     })
     @ResponseStatus(HttpStatus.CREATED)
     @PostMapping
-    public RentalResponseDtoWithoutActualReturnDate create(@Valid @RequestBody
-                                                           RentalRequestDto requestDto) {
-        return rentalService.create(requestDto);
+    public RentalResponseDtoWithoutActualReturnDate create(
+            @RequestHeader(value = IdempotencyStore.HEADER, required = false)
+            String idempotencyKey,
+            @Valid @RequestBody RentalRequestDto requestDto) {
+        return idempotencyStore.execute(idempotencyKey, "POST /rentals", requestDto,
+                RentalResponseDtoWithoutActualReturnDate.class,
+                () -> rentalService.create(requestDto));
+    }
+
+    @Operation(summary = "Hold a car", description = "Reserves a car for a limited time; "
+            + "the hold is released automatically unless its payment is completed")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "201", description = "Hold was placed successfully",
+                    content = @Content(schema = @Schema(
+                            implementation = RentalHoldResponseDto.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid input"),
+            @ApiResponse(responseCode = "403", description = "Forbidden")
+    })
+    @ResponseStatus(HttpStatus.CREATED)
+    @PostMapping("/holds")
+    public RentalHoldResponseDto hold(
+            @RequestHeader(value = IdempotencyStore.HEADER, required = false)
+            String idempotencyKey,
+            @Valid @RequestBody RentalRequestDto requestDto) {
+        return idempotencyStore.execute(idempotencyKey, "POST /rentals/holds", requestDto,
+                RentalHoldResponseDto.class, () -> rentalHoldService.hold(requestDto));
     }
 
     @Operation(summary = "Return a car", description = "Return a car"
@@ -78,6 +119,21 @@ public class RentalController {
         return rentalService.returnUserRentals(user.getId(), pageable, requestDto);
     }
 
+    @Operation(summary = "Return active or not active user's rentals by cursor",
+            description = "Returns a slice of the user's rentals after the given cursor, "
+                    + "newest first, without counting total elements")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Rentals were returned successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor"),
+            @ApiResponse(responseCode = "403", description = "Forbidden")
+    })
+    @ResponseStatus(HttpStatus.OK)
+    @GetMapping("/cursor")
+    public RentalCursorPageDto getRentalsByUserIdByCursor(
+            @AuthenticationPrincipal User user, @Valid RentalCursorRequestDto cursorRequestDto) {
+        return rentalService.returnUserRentalsByCursor(user.getId(), cursorRequestDto);
+    }
+
     @Operation(summary = "Return rental by user Id and rental id", description = "Return "
             + "rental by user Id and rental id")
     @ApiResponses(value = {
@@ -92,4 +148,21 @@ public class RentalController {
                                                          @PathVariable Long id) {
         return rentalService.returnRentalByRentalIdAndUserId(user.getId(), id);
     }
+
+    @Operation(summary = "Export all rentals", description = "Streams active and returned rentals, "
+            + "including archived ones, as CSV or NDJSON (manager only)")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Export is streamed"),
+            @ApiResponse(responseCode = "403", description = "Forbidden")
+    })
+    @PreAuthorize("hasRole('ROLE_MANAGER')")
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportRentals(
+            @RequestParam(defaultValue = "CSV") ExportFormat format) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(format.getMediaType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("rentals." + format.getExtension()).build().toString())
+                .body(outputStream -> exportService.exportRentals(outputStream, format));
+    }
 }
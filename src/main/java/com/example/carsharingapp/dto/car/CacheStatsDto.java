@@ -0,0 +1,4 @@
+package com.example.carsharingapp.dto.car;
+
+public record CacheStatsDto(long hits, long misses, long evictions, long invalidations, int size) {
+}
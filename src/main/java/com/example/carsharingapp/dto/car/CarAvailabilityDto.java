@@ -0,0 +1,21 @@
+package com.example.carsharingapp.dto.car;
+
+import com.example.carsharingapp.model.enums.Type;
+import java.math.BigDecimal;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.experimental.Accessors;
+
+@Data
+@Accessors(chain = true)
+@NoArgsConstructor
+@AllArgsConstructor
+public class CarAvailabilityDto {
+    private Long carId;
+    private String brand;
+    private String model;
+    private Type type;
+    private BigDecimal dailyFee;
+    private int availableUnits;
+}
@@ -0,0 +1,12 @@
+package com.example.carsharingapp.dto.car;
+
+import java.util.List;
+import lombok.Data;
+import lombok.experimental.Accessors;
+
+@Data
+@Accessors(chain = true)
+public class CarCursorPageDto {
+    private List<CarResponseDto> content;
+    private String nextCursor;
+}
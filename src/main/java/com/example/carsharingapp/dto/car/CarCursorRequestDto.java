@@ -0,0 +1,19 @@
+package com.example.carsharingapp.dto.car;
+
+import com.example.carsharingapp.model.enums.CarCursorOrder;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+import lombok.experimental.Accessors;
+
+@Data
+@Accessors(chain = true)
+public class CarCursorRequestDto {
+    private String after;
+    @Min(1)
+    @Max(100)
+    private int size = 20;
+    @NotNull
+    private CarCursorOrder orderBy = CarCursorOrder.ID;
+}
@@ -0,0 +1,16 @@
+package com.example.carsharingapp.dto.car;
+
+import com.example.carsharingapp.model.enums.Type;
+import java.util.List;
+import java.util.Map;
+import lombok.Data;
+import lombok.experimental.Accessors;
+
+@Data
+@Accessors(chain = true)
+public class CarFacetsDto {
+    private long total;
+    private Map<String, Long> brands;
+    private Map<Type, Long> types;
+    private List<FeeBucketDto> dailyFees;
+}
@@ -0,0 +1,17 @@
+package com.example.carsharingapp.dto.car;
+
+import java.util.ArrayList;
+import java.util.List;
+import lombok.Data;
+import lombok.experimental.Accessors;
+
+@Data
+@Accessors(chain = true)
+public class CarImportResultDto {
+    private long processed;
+    private long inserted;
+    private long updated;
+    private long merged;
+    private long failed;
+    private List<CarImportErrorDto> errors = new ArrayList<>();
+}
@@ -2,10 +2,14 @@ package com.example.carsharingapp.dto.car;
 
 import com.example.carsharingapp.model.enums.Type;
 import java.math.BigDecimal;
+import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 import lombok.experimental.Accessors;
 
 @Data
+@AllArgsConstructor
+@NoArgsConstructor
 @Accessors(chain = true)
 public class CarResponseDto {
     private Long id;
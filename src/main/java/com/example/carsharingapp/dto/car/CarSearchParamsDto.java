@@ -10,6 +10,8 @@ import lombok.experimental.Accessors;
 public class CarSearchParamsDto {
     private String[] brands;
     private String[] models;
-    private Type type;
+    private Type[] type;
     private BigDecimal dailyFee;
+    private BigDecimal minDailyFee;
+    private BigDecimal maxDailyFee;
 }
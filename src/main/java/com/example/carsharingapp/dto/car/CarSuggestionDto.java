@@ -0,0 +1,15 @@
+package com.example.carsharingapp.dto.car;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.experimental.Accessors;
+
+@Data
+@Accessors(chain = true)
+@NoArgsConstructor
+@AllArgsConstructor
+public class CarSuggestionDto {
+    private String value;
+    private String field;
+}
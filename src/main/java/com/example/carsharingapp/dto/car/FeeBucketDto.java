@@ -0,0 +1,17 @@
+package com.example.carsharingapp.dto.car;
+
+import java.math.BigDecimal;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.experimental.Accessors;
+
+@Data
+@Accessors(chain = true)
+@NoArgsConstructor
+@AllArgsConstructor
+public class FeeBucketDto {
+    private BigDecimal from;
+    private BigDecimal to;
+    private long count;
+}
@@ -0,0 +1,5 @@
+package com.example.carsharingapp.dto.payment;
+
+public record FineJobStatsDto(long runs, long finesIssued, long lastRunFines, long lastRunMillis,
+                              double lastRunFinesPerSecond) {
+}
@@ -0,0 +1,22 @@
+package com.example.carsharingapp.dto.payment;
+
+import com.example.carsharingapp.model.enums.Type;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.experimental.Accessors;
+
+@Data
+@Accessors(chain = true)
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaymentQuoteResponseDto {
+    private Long carId;
+    private String brand;
+    private Type type;
+    private LocalDateTime from;
+    private LocalDateTime to;
+    private BigDecimal amountToPay;
+}
@@ -0,0 +1,6 @@
+package com.example.carsharingapp.dto.payment;
+
+public record ReconciliationStatsDto(long runs, long skippedRuns, long paymentsChecked,
+                                     long paymentsReconciled, long lastRunChecked,
+                                     long lastRunReconciled, long lastRunMillis) {
+}
@@ -0,0 +1,9 @@
+package com.example.carsharingapp.dto.payment;
+
+import com.example.carsharingapp.model.enums.CircuitState;
+
+public record StripeResilienceStatsDto(CircuitState state, long calls, long successes,
+                                       long failures, long rejectedByBulkhead,
+                                       long rejectedByCircuit, long timesOpened,
+                                       long timesHalfOpened, long timesClosed, int inFlight) {
+}
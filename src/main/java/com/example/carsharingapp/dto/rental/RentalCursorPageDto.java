@@ -0,0 +1,12 @@
+package com.example.carsharingapp.dto.rental;
+
+import java.util.List;
+import lombok.Data;
+import lombok.experimental.Accessors;
+
+@Data
+@Accessors(chain = true)
+public class RentalCursorPageDto {
+    private List<RentalDeciderDto> content;
+    private String nextCursor;
+}
@@ -0,0 +1,16 @@
+package com.example.carsharingapp.dto.rental;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import lombok.Data;
+import lombok.experimental.Accessors;
+
+@Data
+@Accessors(chain = true)
+public class RentalCursorRequestDto {
+    private boolean active;
+    private String after;
+    @Min(1)
+    @Max(100)
+    private int size = 20;
+}
@@ -1,10 +1,14 @@
 package com.example.carsharingapp.dto.rental;
 
 import java.time.LocalDateTime;
+import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 import lombok.experimental.Accessors;
 
 @Data
+@AllArgsConstructor
+@NoArgsConstructor
 @Accessors(chain = true)
 public class RentalResponseDtoWithoutActualReturnDate extends RentalDeciderDto {
     private Long id;
@@ -0,0 +1,6 @@
+package com.example.carsharingapp.event.car;
+
+import com.example.carsharingapp.dto.car.CarResponseDto;
+
+public record CarChangedEvent(Long carId, CarResponseDto before, CarResponseDto after) {
+}
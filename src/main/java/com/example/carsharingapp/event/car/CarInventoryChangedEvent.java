@@ -0,0 +1,6 @@
+package com.example.carsharingapp.event.car;
+
+import java.util.Set;
+
+public record CarInventoryChangedEvent(Set<Long> carIds) {
+}
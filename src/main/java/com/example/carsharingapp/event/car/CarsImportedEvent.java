@@ -0,0 +1,4 @@
+package com.example.carsharingapp.event.car;
+
+public record CarsImportedEvent(long inserted, long updated) {
+}
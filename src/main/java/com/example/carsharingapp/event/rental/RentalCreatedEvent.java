@@ -0,0 +1,7 @@
+package com.example.carsharingapp.event.rental;
+
+import java.time.LocalDateTime;
+
+public record RentalCreatedEvent(Long rentalId, Long carId, LocalDateTime rentalDate,
+                                 LocalDateTime returnDate) {
+}
@@ -0,0 +1,6 @@
+package com.example.carsharingapp.event.rental;
+
+import java.time.LocalDateTime;
+
+public record RentalHoldPlacedEvent(Long rentalId, LocalDateTime holdExpiresAt) {
+}
@@ -0,0 +1,6 @@
+package com.example.carsharingapp.event.rental;
+
+import java.util.List;
+
+public record RentalHoldsReleasedEvent(List<String> sessionIds) {
+}
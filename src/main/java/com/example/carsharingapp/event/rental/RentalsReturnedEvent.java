@@ -0,0 +1,6 @@
+package com.example.carsharingapp.event.rental;
+
+import java.util.Map;
+
+public record RentalsReturnedEvent(Map<Long, Long> carIdsByRentalId) {
+}
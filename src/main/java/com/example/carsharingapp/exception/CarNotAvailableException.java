@@ -0,0 +1,7 @@
+package com.example.carsharingapp.exception;
+
+public class CarNotAvailableException extends RuntimeException {
+    public CarNotAvailableException(String msg) {
+        super(msg);
+    }
+}
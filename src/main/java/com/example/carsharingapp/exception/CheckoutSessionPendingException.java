@@ -0,0 +1,7 @@
+package com.example.carsharingapp.exception;
+
+public class CheckoutSessionPendingException extends RuntimeException {
+    public CheckoutSessionPendingException(String msg) {
+        super(msg);
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.carsharingapp.exception;
+
+public class IdempotencyKeyReuseException extends RuntimeException {
+    public IdempotencyKeyReuseException(String msg) {
+        super(msg);
+    }
+}
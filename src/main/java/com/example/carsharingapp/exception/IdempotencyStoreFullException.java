@@ -0,0 +1,7 @@
+package com.example.carsharingapp.exception;
+
+public class IdempotencyStoreFullException extends RuntimeException {
+    public IdempotencyStoreFullException(String msg) {
+        super(msg);
+    }
+}
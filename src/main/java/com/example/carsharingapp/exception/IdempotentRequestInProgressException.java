@@ -0,0 +1,7 @@
+package com.example.carsharingapp.exception;
+
+public class IdempotentRequestInProgressException extends RuntimeException {
+    public IdempotentRequestInProgressException(String msg) {
+        super(msg);
+    }
+}
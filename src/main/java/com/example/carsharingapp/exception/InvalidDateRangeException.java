@@ -0,0 +1,7 @@
+package com.example.carsharingapp.exception;
+
+public class InvalidDateRangeException extends RuntimeException {
+    public InvalidDateRangeException(String msg) {
+        super(msg);
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.carsharingapp.exception;
+
+public class InvalidImportFileException extends RuntimeException {
+    public InvalidImportFileException(String msg) {
+        super(msg);
+    }
+}
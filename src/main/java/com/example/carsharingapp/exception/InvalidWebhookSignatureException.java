@@ -0,0 +1,7 @@
+package com.example.carsharingapp.exception;
+
+public class InvalidWebhookSignatureException extends RuntimeException {
+    public InvalidWebhookSignatureException(String msg) {
+        super(msg);
+    }
+}
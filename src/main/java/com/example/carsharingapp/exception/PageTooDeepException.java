@@ -0,0 +1,7 @@
+package com.example.carsharingapp.exception;
+
+public class PageTooDeepException extends RuntimeException {
+    public PageTooDeepException(String msg) {
+        super(msg);
+    }
+}
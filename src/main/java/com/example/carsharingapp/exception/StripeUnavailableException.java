@@ -0,0 +1,7 @@
+package com.example.carsharingapp.exception;
+
+public class StripeUnavailableException extends RuntimeException {
+    public StripeUnavailableException(String msg) {
+        super(msg);
+    }
+}
@@ -1,6 +1,7 @@
 package com.example.carsharingapp.mapper.rental;
 
 import com.example.carsharingapp.config.mapper.MapperConfig;
+import com.example.carsharingapp.dto.rental.RentalHoldResponseDto;
 import com.example.carsharingapp.dto.rental.RentalRequestDto;
 import com.example.carsharingapp.dto.rental.RentalResponseDto;
 import com.example.carsharingapp.dto.rental.RentalResponseDtoWithoutActualReturnDate;
@@ -21,4 +22,8 @@ public interface RentalMapper {
     @Mapping(target = "carId", source = "car.id")
     @Mapping(target = "userId", source = "user.id")
     RentalResponseDtoWithoutActualReturnDate toResponseDtoWithoutActualReturnDate(Rental rental);
+
+    @Mapping(target = "carId", source = "car.id")
+    @Mapping(target = "userId", source = "user.id")
+    RentalHoldResponseDto toHoldResponseDto(Rental rental);
 }
@@ -0,0 +1,6 @@
+package com.example.carsharingapp.model.enums;
+
+public enum CarCursorOrder {
+    ID,
+    DAILY_FEE
+}
@@ -0,0 +1,7 @@
+package com.example.carsharingapp.model.enums;
+
+public enum CircuitState {
+    CLOSED,
+    OPEN,
+    HALF_OPEN
+}
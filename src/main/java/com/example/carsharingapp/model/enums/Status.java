@@ -2,5 +2,7 @@ package com.example.carsharingapp.model.enums;
 
 public enum Status {
     PENDING,
-    PAID
+    PAID,
+    CANCELED,
+    REFUND_REQUIRED
 }
@@ -0,0 +1,34 @@
+package com.example.carsharingapp.model.payment;
+
+import com.example.carsharingapp.model.enums.PaymentType;
+import com.example.carsharingapp.model.enums.Status;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import lombok.Getter;
+import org.hibernate.annotations.Immutable;
+
+@Entity
+@Getter
+@Immutable
+@Table(name = "payments_archive")
+public class ArchivedPayment {
+    @Id
+    private Long id;
+    @Enumerated(EnumType.STRING)
+    private Status status;
+    @Enumerated(EnumType.STRING)
+    private PaymentType type;
+    private Long rentalId;
+    private Long userId;
+    @Column(columnDefinition = "TEXT")
+    private String sessionUrl;
+    private String sessionId;
+    private BigDecimal amountToPay;
+    private LocalDateTime archivedAt;
+}
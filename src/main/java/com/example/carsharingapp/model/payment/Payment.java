@@ -14,6 +14,7 @@ import jakarta.persistence.Id;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.experimental.Accessors;
@@ -39,10 +40,12 @@ public class Payment {
     private PaymentType type;
     @ManyToOne(fetch = FetchType.LAZY)
     private Rental rental;
-    @Column(nullable = false, columnDefinition = "TEXT")
-    private String sessionUrl;
     @Column(nullable = false)
+    private Long userId;
+    @Column(columnDefinition = "TEXT")
+    private String sessionUrl;
     private String sessionId;
+    private LocalDateTime sessionExpiresAt;
     @Column(nullable = false)
     private BigDecimal amountToPay;
     @Column(nullable = false)
@@ -0,0 +1,31 @@
+package com.example.carsharingapp.model.payment;
+
+import com.example.carsharingapp.model.enums.PaymentType;
+import com.example.carsharingapp.model.enums.Status;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import java.math.BigDecimal;
+import lombok.Getter;
+import org.hibernate.annotations.Immutable;
+
+@Entity
+@Getter
+@Immutable
+@Table(name = "user_payments")
+public class UserPayment {
+    @Id
+    private Long id;
+    @Enumerated(EnumType.STRING)
+    private Status status;
+    @Enumerated(EnumType.STRING)
+    private PaymentType type;
+    private BigDecimal amountToPay;
+    private String sessionId;
+    @Column(columnDefinition = "TEXT")
+    private String sessionUrl;
+    private Long userId;
+}
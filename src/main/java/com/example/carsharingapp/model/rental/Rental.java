@@ -34,6 +34,7 @@ public class Rental {
     @Column(nullable = false)
     private LocalDateTime returnDate;
     private LocalDateTime actualReturnDate;
+    private LocalDateTime holdExpiresAt;
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "car_id", nullable = false)
     private Car car;
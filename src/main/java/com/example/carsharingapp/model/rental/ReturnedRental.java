@@ -0,0 +1,22 @@
+package com.example.carsharingapp.model.rental;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import java.time.LocalDateTime;
+import lombok.Getter;
+import org.hibernate.annotations.Immutable;
+
+@Entity
+@Getter
+@Immutable
+@Table(name = "returned_rentals")
+public class ReturnedRental {
+    @Id
+    private Long id;
+    private LocalDateTime rentalDate;
+    private LocalDateTime returnDate;
+    private LocalDateTime actualReturnDate;
+    private Long carId;
+    private Long userId;
+}
@@ -0,0 +1,11 @@
+package com.example.carsharingapp.repository.car;
+
+import com.example.carsharingapp.model.car.Car;
+import java.math.BigDecimal;
+import java.util.List;
+import org.springframework.data.jpa.domain.Specification;
+
+public interface CarFacetRepository {
+    List<CarFacetRow> countFacets(Specification<Car> carSpecification,
+                                  List<BigDecimal> feeBoundaries);
+}
@@ -0,0 +1,60 @@
+package com.example.carsharingapp.repository.car;
+
+import com.example.carsharingapp.model.car.Car;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import java.math.BigDecimal;
+import java.util.List;
+import org.springframework.data.jpa.domain.Specification;
+
+public class CarFacetRepositoryImpl implements CarFacetRepository {
+    private static final String BRAND = "brand";
+    private static final String TYPE = "type";
+    private static final String DAILY_FEE = "dailyFee";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<CarFacetRow> countFacets(Specification<Car> carSpecification,
+                                         List<BigDecimal> feeBoundaries) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<CarFacetRow> query = criteriaBuilder.createQuery(CarFacetRow.class);
+        Root<Car> root = query.from(Car.class);
+        Expression<Integer> feeBucket = feeBucket(criteriaBuilder, root.get(DAILY_FEE),
+                feeBoundaries);
+        query.select(criteriaBuilder.construct(CarFacetRow.class,
+                root.get(BRAND), root.get(TYPE), feeBucket, criteriaBuilder.count(root)));
+        if (carSpecification != null) {
+            Predicate predicate = carSpecification.toPredicate(root, query, criteriaBuilder);
+            if (predicate != null) {
+                query.where(predicate);
+            }
+        }
+        if (feeBoundaries.isEmpty()) {
+            query.groupBy(root.get(BRAND), root.get(TYPE));
+        } else {
+            query.groupBy(root.get(BRAND), root.get(TYPE), feeBucket);
+        }
+        return entityManager.createQuery(query).getResultList();
+    }
+
+    private Expression<Integer> feeBucket(CriteriaBuilder criteriaBuilder,
+                                          Expression<BigDecimal> dailyFee,
+                                          List<BigDecimal> feeBoundaries) {
+        if (feeBoundaries.isEmpty()) {
+            return criteriaBuilder.literal(0);
+        }
+        CriteriaBuilder.Case<Integer> bucket = criteriaBuilder.selectCase();
+        for (int i = 0; i < feeBoundaries.size(); i++) {
+            bucket = bucket.when(criteriaBuilder.lessThan(dailyFee,
+                    criteriaBuilder.literal(feeBoundaries.get(i))), criteriaBuilder.literal(i));
+        }
+        return bucket.otherwise(criteriaBuilder.literal(feeBoundaries.size()));
+    }
+}
@@ -0,0 +1,6 @@
+package com.example.carsharingapp.repository.car;
+
+import com.example.carsharingapp.model.enums.Type;
+
+public record CarFacetRow(String brand, Type type, Integer feeBucket, Long count) {
+}
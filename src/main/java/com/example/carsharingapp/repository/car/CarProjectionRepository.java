@@ -0,0 +1,11 @@
+package com.example.carsharingapp.repository.car;
+
+import com.example.carsharingapp.dto.car.CarResponseDto;
+import com.example.carsharingapp.model.car.Car;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+
+public interface CarProjectionRepository {
+    Page<CarResponseDto> findAllProjected(Specification<Car> carSpecification, Pageable pageable);
+}
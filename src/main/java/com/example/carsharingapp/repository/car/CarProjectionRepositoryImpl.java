@@ -0,0 +1,71 @@
+package com.example.carsharingapp.repository.car;
+
+import com.example.carsharingapp.dto.car.CarResponseDto;
+import com.example.carsharingapp.model.car.Car;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import java.util.List;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+
+public class CarProjectionRepositoryImpl implements CarProjectionRepository {
+    private static final String ID = "id";
+    private static final String MODEL = "model";
+    private static final String BRAND = "brand";
+    private static final String INVENTORY = "inventory";
+    private static final String TYPE = "type";
+    private static final String DAILY_FEE = "dailyFee";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Page<CarResponseDto> findAllProjected(Specification<Car> carSpecification,
+                                                 Pageable pageable) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<CarResponseDto> query = criteriaBuilder.createQuery(CarResponseDto.class);
+        Root<Car> root = query.from(Car.class);
+        query.select(criteriaBuilder.construct(CarResponseDto.class, root.get(ID),
+                root.get(MODEL), root.get(BRAND), root.get(INVENTORY), root.get(TYPE),
+                root.get(DAILY_FEE)));
+        applySpecification(carSpecification, root, query, criteriaBuilder);
+        if (pageable.getSort().isSorted()) {
+            query.orderBy(QueryUtils.toOrders(pageable.getSort(), root, criteriaBuilder));
+        }
+        TypedQuery<CarResponseDto> typedQuery = entityManager.createQuery(query);
+        if (pageable.isPaged()) {
+            typedQuery.setFirstResult((int) pageable.getOffset());
+            typedQuery.setMaxResults(pageable.getPageSize());
+        }
+        List<CarResponseDto> content = typedQuery.getResultList();
+        return PageableExecutionUtils.getPage(content, pageable,
+                () -> count(carSpecification));
+    }
+
+    private long count(Specification<Car> carSpecification) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = criteriaBuilder.createQuery(Long.class);
+        Root<Car> root = query.from(Car.class);
+        query.select(criteriaBuilder.count(root));
+        applySpecification(carSpecification, root, query, criteriaBuilder);
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    private void applySpecification(Specification<Car> carSpecification, Root<Car> root,
+                                    CriteriaQuery<?> query, CriteriaBuilder criteriaBuilder) {
+        if (carSpecification != null) {
+            Predicate predicate = carSpecification.toPredicate(root, query, criteriaBuilder);
+            if (predicate != null) {
+                query.where(predicate);
+            }
+        }
+    }
+}
@@ -1,14 +1,32 @@
 package com.example.carsharingapp.repository.car;
 
 import com.example.carsharingapp.model.car.Car;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
-public interface CarRepository extends JpaRepository<Car,Long> {
+public interface CarRepository extends JpaRepository<Car,Long>, JpaSpecificationExecutor<Car>,
+        CarFacetRepository, CarProjectionRepository {
     Page<Car> findAll(Specification<Car> carSpecification, Pageable pageable);
 
     Optional<Car> findByModel(String model);
+
+    List<Car> findAllByModelIn(Collection<String> models);
+
+    @Modifying
+    @Query("UPDATE Car c SET c.inventory = c.inventory - 1 "
+            + "WHERE c.id = :id AND c.inventory > 0 AND c.isDeleted = false")
+    int decreaseInventory(@Param("id") Long id);
+
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Car c SET c.inventory = c.inventory + :amount WHERE c.id IN :ids")
+    int increaseInventory(@Param("ids") Collection<Long> ids, @Param("amount") int amount);
 }
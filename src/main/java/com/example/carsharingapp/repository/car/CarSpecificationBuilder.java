@@ -1,6 +1,7 @@
 package com.example.carsharingapp.repository.car;
 
 import static com.example.carsharingapp.repository.car.spec.BrandSpecificationProvider.BRAND_KEY;
+import static com.example.carsharingapp.repository.car.spec.DailyFeeRangeSpecificationProvider.DAILY_FEE_RANGE_KEY;
 import static com.example.carsharingapp.repository.car.spec.DailyFeeSpecificationProvider.DAILY_FEE_KEY;
 import static com.example.carsharingapp.repository.car.spec.ModelSpecificationProvider.MODEL_KEY;
 import static com.example.carsharingapp.repository.car.spec.TypeSpecificationProvider.TYPE_KEY;
@@ -9,6 +10,8 @@ import com.example.carsharingapp.dto.car.CarSearchParamsDto;
 import com.example.carsharingapp.model.car.Car;
 import com.example.carsharingapp.repository.SpecificationBuilder;
 import com.example.carsharingapp.repository.SpecificationProviderManager;
+import java.math.BigDecimal;
+import java.util.Arrays;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Component;
@@ -21,24 +24,28 @@ public class CarSpecificationBuilder implements SpecificationBuilder<Car> {
     @Override
     public Specification<Car> build(CarSearchParamsDto searchParameters) {
         Specification<Car> spec = null;
-        if (searchParameters.getModels() != null && searchParameters.getModels().length > 0) {
+        String[] models = trim(searchParameters.getModels());
+        if (models.length > 0) {
             Specification<Car> modelSpec = carSpecificationProviderManager
                     .getSpecificationProvider(MODEL_KEY)
-                    .getSpecification(searchParameters.getModels());
+                    .getSpecification(pad(models));
             spec = spec == null ? modelSpec : spec.and(modelSpec);
         }
-        if (searchParameters.getBrands() != null && searchParameters.getBrands().length > 0) {
+        String[] brands = trim(searchParameters.getBrands());
+        if (brands.length > 0) {
             Specification<Car> brandSpec = carSpecificationProviderManager
                     .getSpecificationProvider(BRAND_KEY)
-                    .getSpecification(searchParameters.getBrands());
+                    .getSpecification(pad(brands));
             spec = spec == null ? brandSpec : spec.and(brandSpec);
         }
-        if (searchParameters.getType() != null) {
+        if (searchParameters.getType() != null && searchParameters.getType().length > 0) {
+            String[] types = pad(Arrays.stream(searchParameters.getType())
+                    .map(String::valueOf)
+                    .toArray(String[]::new));
             Specification<Car> typeSpecification = carSpecificationProviderManager
                     .getSpecificationProvider(TYPE_KEY)
-                    .getSpecification(new String[]{String.valueOf(searchParameters.getType())});
+                    .getSpecification(types);
             spec = spec == null ? typeSpecification : spec.and(typeSpecification);
-
         }
 
         if (searchParameters.getDailyFee() != null) {
@@ -47,6 +54,42 @@ public class CarSpecificationBuilder implements SpecificationBuilder<Car> {
                     .getSpecification(new String[]{String.valueOf(searchParameters.getDailyFee())});
             spec = spec == null ? dailyFeeSpecification : spec.and(dailyFeeSpecification);
         }
+        if (searchParameters.getMinDailyFee() != null
+                || searchParameters.getMaxDailyFee() != null) {
+            Specification<Car> dailyFeeRangeSpecification = carSpecificationProviderManager
+                    .getSpecificationProvider(DAILY_FEE_RANGE_KEY)
+                    .getSpecification(new String[]{
+                            toPlainString(searchParameters.getMinDailyFee()),
+                            toPlainString(searchParameters.getMaxDailyFee())});
+            spec = spec == null
+                    ? dailyFeeRangeSpecification
+                    : spec.and(dailyFeeRangeSpecification);
+        }
         return spec;
     }
+
+    private String[] trim(String[] values) {
+        if (values == null) {
+            return new String[0];
+        }
+        return Arrays.stream(values)
+                .filter(value -> value != null && !value.isBlank())
+                .map(String::trim)
+                .toArray(String[]::new);
+    }
+
+    private String[] pad(String[] values) {
+        String[] distinct = Arrays.stream(values).distinct().toArray(String[]::new);
+        int size = 1;
+        while (size < distinct.length) {
+            size <<= 1;
+        }
+        String[] padded = Arrays.copyOf(distinct, size);
+        Arrays.fill(padded, distinct.length, size, distinct[distinct.length - 1]);
+        return padded;
+    }
+
+    private String toPlainString(BigDecimal value) {
+        return value == null ? null : value.toPlainString();
+    }
 }
@@ -0,0 +1,42 @@
+package com.example.carsharingapp.repository.car.spec;
+
+import static com.example.carsharingapp.repository.car.spec.DailyFeeSpecificationProvider.DAILY_FEE_FIELD;
+
+import com.example.carsharingapp.model.car.Car;
+import com.example.carsharingapp.repository.SpecificationProvider;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Component;
+
+@Component
+public class DailyFeeRangeSpecificationProvider implements SpecificationProvider<Car> {
+    public static final String DAILY_FEE_RANGE_KEY = "daily_fee_range";
+    private static final int MIN_INDEX = 0;
+    private static final int MAX_INDEX = 1;
+
+    @Override
+    public String getKey() {
+        return DAILY_FEE_RANGE_KEY;
+    }
+
+    @Override
+    public Specification<Car> getSpecification(String[] params) {
+        return ((root, query, criteriaBuilder) -> {
+            Path<BigDecimal> dailyFee = root.get(DAILY_FEE_FIELD);
+            List<Predicate> predicates = new ArrayList<>();
+            if (params[MIN_INDEX] != null) {
+                predicates.add(criteriaBuilder.greaterThanOrEqualTo(dailyFee,
+                        new BigDecimal(params[MIN_INDEX])));
+            }
+            if (params[MAX_INDEX] != null) {
+                predicates.add(criteriaBuilder.lessThanOrEqualTo(dailyFee,
+                        new BigDecimal(params[MAX_INDEX])));
+            }
+            return criteriaBuilder.and(predicates.toArray(new Predicate[0]));
+        });
+    }
+}
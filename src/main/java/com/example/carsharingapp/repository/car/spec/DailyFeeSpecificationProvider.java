@@ -2,6 +2,7 @@ package com.example.carsharingapp.repository.car.spec;
 
 import com.example.carsharingapp.model.car.Car;
 import com.example.carsharingapp.repository.SpecificationProvider;
+import java.math.BigDecimal;
 import java.util.Arrays;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Component;
@@ -9,6 +10,7 @@ import org.springframework.stereotype.Component;
 @Component
 public class DailyFeeSpecificationProvider implements SpecificationProvider<Car> {
     public static final String DAILY_FEE_KEY = "daily_fee";
+    public static final String DAILY_FEE_FIELD = "dailyFee";
 
     @Override
     public String getKey() {
@@ -17,7 +19,7 @@ public class DailyFeeSpecificationProvider implements SpecificationProvider<Car>
 
     @Override
     public Specification<Car> getSpecification(String[] params) {
-        return ((root, query, criteriaBuilder) -> root.get(DAILY_FEE_KEY)
-                .in(Arrays.stream(params).toArray()));
+        return ((root, query, criteriaBuilder) -> root.get(DAILY_FEE_FIELD)
+                .in(Arrays.stream(params).map(BigDecimal::new).toArray()));
     }
 }
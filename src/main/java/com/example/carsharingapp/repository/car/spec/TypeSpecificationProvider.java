@@ -1,6 +1,7 @@
 package com.example.carsharingapp.repository.car.spec;
 
 import com.example.carsharingapp.model.car.Car;
+import com.example.carsharingapp.model.enums.Type;
 import com.example.carsharingapp.repository.SpecificationProvider;
 import java.util.Arrays;
 import org.springframework.data.jpa.domain.Specification;
@@ -18,6 +19,6 @@ public class TypeSpecificationProvider implements SpecificationProvider<Car> {
     @Override
     public Specification<Car> getSpecification(String[] params) {
         return ((root, query, criteriaBuilder) -> root.get(TYPE_KEY)
-                .in(Arrays.stream(params).toArray()));
+                .in(Arrays.stream(params).map(Type::valueOf).toArray()));
     }
 }
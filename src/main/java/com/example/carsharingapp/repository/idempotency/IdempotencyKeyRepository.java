@@ -0,0 +1,68 @@
+package com.example.carsharingapp.repository.idempotency;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+@Repository
+@RequiredArgsConstructor
+public class IdempotencyKeyRepository {
+    private static final String IN_FLIGHT = "IN_FLIGHT";
+    private static final String COMPLETED = "COMPLETED";
+    private static final String SELECT_RECORD = "SELECT request_hash, response "
+            + "FROM idempotency_keys WHERE key_hash = ? AND created_at > ?";
+    private static final String DELETE_EXPIRED_KEY = "DELETE FROM idempotency_keys "
+            + "WHERE key_hash = ? AND created_at <= ?";
+    private static final String INSERT_CLAIM = "INSERT INTO idempotency_keys "
+            + "(key_hash, request_hash, state, created_at, claimed_at) VALUES (?, ?, ?, ?, ?)";
+    private static final String TAKE_OVER_CLAIM = "UPDATE idempotency_keys SET claimed_at = ? "
+            + "WHERE key_hash = ? AND request_hash = ? AND state = ? "
+            + "AND (claimed_at IS NULL OR claimed_at <= ?)";
+    private static final String COMPLETE_CLAIM = "UPDATE idempotency_keys "
+            + "SET state = ?, response = ? WHERE key_hash = ? AND state = ? AND claimed_at = ?";
+    private static final String RELEASE_CLAIM = "DELETE FROM idempotency_keys "
+            + "WHERE key_hash = ? AND state = ? AND claimed_at = ?";
+    private static final String DELETE_CREATED_BEFORE = "DELETE FROM idempotency_keys "
+            + "WHERE created_at <= ?";
+    private final JdbcTemplate jdbcTemplate;
+
+    public Optional<IdempotencyRecord> findCreatedAfter(String keyHash,
+                                                        LocalDateTime createdAfter) {
+        List<IdempotencyRecord> records = jdbcTemplate.query(SELECT_RECORD,
+                (rs, rowNum) -> new IdempotencyRecord(rs.getString(1), rs.getString(2)),
+                keyHash, Timestamp.valueOf(createdAfter));
+        return records.stream().findFirst();
+    }
+
+    public boolean claim(String keyHash, String requestHash, LocalDateTime claimedAt,
+                         LocalDateTime staleBefore, LocalDateTime expiredBefore) {
+        jdbcTemplate.update(DELETE_EXPIRED_KEY, keyHash, Timestamp.valueOf(expiredBefore));
+        try {
+            jdbcTemplate.update(INSERT_CLAIM, keyHash, requestHash, IN_FLIGHT,
+                    Timestamp.valueOf(claimedAt), Timestamp.valueOf(claimedAt));
+            return true;
+        } catch (DuplicateKeyException e) {
+            return jdbcTemplate.update(TAKE_OVER_CLAIM, Timestamp.valueOf(claimedAt), keyHash,
+                    requestHash, IN_FLIGHT, Timestamp.valueOf(staleBefore)) == 1;
+        }
+    }
+
+    public int complete(String keyHash, LocalDateTime claimedAt, String response) {
+        return jdbcTemplate.update(COMPLETE_CLAIM, COMPLETED, response, keyHash, IN_FLIGHT,
+                Timestamp.valueOf(claimedAt));
+    }
+
+    public int release(String keyHash, LocalDateTime claimedAt) {
+        return jdbcTemplate.update(RELEASE_CLAIM, keyHash, IN_FLIGHT,
+                Timestamp.valueOf(claimedAt));
+    }
+
+    public int deleteCreatedBefore(LocalDateTime createdBefore) {
+        return jdbcTemplate.update(DELETE_CREATED_BEFORE, Timestamp.valueOf(createdBefore));
+    }
+}
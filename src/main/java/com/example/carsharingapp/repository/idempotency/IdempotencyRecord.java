@@ -0,0 +1,7 @@
+package com.example.carsharingapp.repository.idempotency;
+
+public record IdempotencyRecord(String requestHash, String response) {
+    public boolean inFlight() {
+        return response == null;
+    }
+}
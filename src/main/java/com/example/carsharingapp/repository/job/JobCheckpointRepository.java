@@ -0,0 +1,57 @@
+package com.example.carsharingapp.repository.job;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+@Repository
+@RequiredArgsConstructor
+public class JobCheckpointRepository {
+    private static final String SELECT_LAST_ID = "SELECT last_id FROM job_checkpoints "
+            + "WHERE job_name = ?";
+    private static final String UPSERT_LAST_ID = "INSERT INTO job_checkpoints "
+            + "(job_name, last_id, updated_at) VALUES (?, ?, ?) "
+            + "ON DUPLICATE KEY UPDATE last_id = VALUES(last_id), updated_at = VALUES(updated_at)";
+    private static final String INSERT_IF_ABSENT = "INSERT IGNORE INTO job_checkpoints "
+            + "(job_name, last_id, updated_at) VALUES (?, 0, ?)";
+    private static final String ACQUIRE_LEASE = "UPDATE job_checkpoints "
+            + "SET lease_owner = ?, lease_until = TIMESTAMPADD(SECOND, ?, NOW()) "
+            + "WHERE job_name = ? AND (lease_owner IS NULL OR lease_owner = ? "
+            + "OR lease_until < NOW())";
+    private static final String SAVE_LAST_ID_AND_RENEW_LEASE = "UPDATE job_checkpoints "
+            + "SET last_id = ?, updated_at = ?, lease_until = TIMESTAMPADD(SECOND, ?, NOW()) "
+            + "WHERE job_name = ? AND lease_owner = ?";
+    private static final String RELEASE_LEASE = "UPDATE job_checkpoints "
+            + "SET lease_owner = NULL, lease_until = NULL WHERE job_name = ? AND lease_owner = ?";
+    private final JdbcTemplate jdbcTemplate;
+
+    public long findLastId(String jobName) {
+        List<Long> lastIds = jdbcTemplate.queryForList(SELECT_LAST_ID, Long.class, jobName);
+        return lastIds.isEmpty() ? 0 : lastIds.get(0);
+    }
+
+    public void saveLastId(String jobName, long lastId) {
+        jdbcTemplate.update(UPSERT_LAST_ID, jobName, lastId, Timestamp.valueOf(LocalDateTime.now()));
+    }
+
+    public boolean tryAcquireLease(String jobName, String owner, Duration duration) {
+        jdbcTemplate.update(INSERT_IF_ABSENT, jobName, Timestamp.valueOf(LocalDateTime.now()));
+        return jdbcTemplate.update(ACQUIRE_LEASE, owner, duration.toSeconds(), jobName,
+                owner) == 1;
+    }
+
+    public boolean saveLastIdAndRenewLease(String jobName, long lastId, String owner,
+                                           Duration duration) {
+        return jdbcTemplate.update(SAVE_LAST_ID_AND_RENEW_LEASE, lastId,
+                Timestamp.valueOf(LocalDateTime.now()), duration.toSeconds(), jobName,
+                owner) == 1;
+    }
+
+    public void releaseLease(String jobName, String owner) {
+        jdbcTemplate.update(RELEASE_LEASE, jobName, owner);
+    }
+}
@@ -1,15 +1,103 @@
 package com.example.carsharingapp.repository.payment;
 
+import com.example.carsharingapp.dto.payment.PaymentResponseDto;
+import com.example.carsharingapp.model.enums.PaymentType;
+import com.example.carsharingapp.model.enums.Status;
 import com.example.carsharingapp.model.payment.Payment;
+import jakarta.persistence.QueryHint;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
 public interface PaymentRepository extends JpaRepository<Payment, Long> {
     Optional<Payment> findBySessionId(String sessionId);
 
+    @Query("select p.status from Payment p where p.sessionId = :sessionId")
+    Optional<Status> findStatusBySessionId(@Param("sessionId") String sessionId);
+
+    @Query("select p from Payment p where p.rental.id = :rentalId and p.type = :type "
+            + "and p.status = :status and ((p.sessionId is null and p.sessionExpiresAt > :now) "
+            + "or (p.sessionId is not null and p.sessionExpiresAt > :reusableUntil)) "
+            + "order by p.id desc")
+    List<Payment> findOpenPayments(@Param("rentalId") Long rentalId,
+                                   @Param("type") PaymentType type,
+                                   @Param("status") Status status,
+                                   @Param("now") LocalDateTime now,
+                                   @Param("reusableUntil") LocalDateTime reusableUntil);
+
+    @Query("select p from Payment p where p.rental.id = :rentalId and p.type = :type "
+            + "and p.status = :status and p.sessionId is null "
+            + "and (p.sessionExpiresAt is null or p.sessionExpiresAt <= :now) order by p.id")
+    List<Payment> findUnclaimedPayments(@Param("rentalId") Long rentalId,
+                                        @Param("type") PaymentType type,
+                                        @Param("status") Status status,
+                                        @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("update Payment p set p.sessionExpiresAt = null "
+            + "where p.id = :id and p.sessionId is null")
+    int releaseReservation(@Param("id") Long id);
+
+    @Modifying
+    @Query("update Payment p set p.sessionId = :sessionId, p.sessionUrl = :sessionUrl, "
+            + "p.sessionExpiresAt = :sessionExpiresAt where p.id = :id")
+    int attachSession(@Param("id") Long id, @Param("sessionId") String sessionId,
+                      @Param("sessionUrl") String sessionUrl,
+                      @Param("sessionExpiresAt") LocalDateTime sessionExpiresAt);
+
+    @Modifying
+    @Query("update Payment p set p.status = :status "
+            + "where p.sessionId = :sessionId and p.status = :expected")
+    int updateStatusBySessionId(@Param("sessionId") String sessionId,
+                                @Param("expected") Status expected,
+                                @Param("status") Status status);
+
+    @Query("select p.sessionId from Payment p where p.rental.id in :rentalIds "
+            + "and p.status = :status and p.sessionId is not null")
+    List<String> findSessionIdsByRentalIdInAndStatus(
+            @Param("rentalIds") Collection<Long> rentalIds, @Param("status") Status status);
+
+    @Modifying
+    @Query("update Payment p set p.status = :status "
+            + "where p.rental.id in :rentalIds and p.status = :expected")
+    int updateStatusByRentalIdIn(@Param("rentalIds") Collection<Long> rentalIds,
+                                 @Param("expected") Status expected,
+                                 @Param("status") Status status);
+
     @Query("select p from Payment p join fetch p.rental r where r.user.id = :userId")
     Page<Payment> findByUserId(Long userId, Pageable pageable);
+
+    @Query(value = "select new com.example.carsharingapp.dto.payment.PaymentResponseDto("
+            + "p.id, p.status, p.type, p.amountToPay, p.sessionId, p.sessionUrl) "
+            + "from UserPayment p where p.userId = :userId",
+            countQuery = "select count(p) from UserPayment p where p.userId = :userId")
+    Page<PaymentResponseDto> findResponseDtosByUserId(@Param("userId") Long userId,
+                                                      Pageable pageable);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select new com.example.carsharingapp.dto.payment.PaymentResponseDto("
+            + "p.id, p.status, p.type, p.amountToPay, p.sessionId, p.sessionUrl) from Payment p")
+    Stream<PaymentResponseDto> streamAllResponseDtos();
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select new com.example.carsharingapp.dto.payment.PaymentResponseDto("
+            + "p.id, p.status, p.type, p.amountToPay, p.sessionId, p.sessionUrl) "
+            + "from ArchivedPayment p")
+    Stream<PaymentResponseDto> streamArchivedResponseDtos();
 }
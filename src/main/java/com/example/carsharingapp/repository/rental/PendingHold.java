@@ -0,0 +1,9 @@
+package com.example.carsharingapp.repository.rental;
+
+import java.time.LocalDateTime;
+
+public interface PendingHold {
+    Long getRentalId();
+
+    LocalDateTime getHoldExpiresAt();
+}
@@ -1,10 +1,23 @@
 package com.example.carsharingapp.repository.rental;
 
+import com.example.carsharingapp.dto.rental.RentalResponseDto;
+import com.example.carsharingapp.dto.rental.RentalResponseDtoWithoutActualReturnDate;
 import com.example.carsharingapp.model.rental.Rental;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
 public interface RentalRepository extends JpaRepository<Rental, Long> {
@@ -12,7 +25,131 @@ public interface RentalRepository extends JpaRepository<Rental, Long> {
 
     List<Rental> findByUserIdAndActualReturnDateIsNotNull(Long userId);
 
+    List<Rental> findAllByActualReturnDateIsNull();
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM Rental r JOIN FETCH r.car c WHERE r.user.id = :userId "
+            + "AND r.actualReturnDate IS NULL AND c.id IN :carIds")
+    List<Rental> findActiveByUserIdAndCarIdIn(@Param("userId") Long userId,
+                                              @Param("carIds") Collection<Long> carIds);
+
+    @Query("SELECT r FROM Rental r JOIN FETCH r.car WHERE r.id = :id")
+    Optional<Rental> findWithCarById(@Param("id") Long id);
+
+    @Query(value = "SELECT id FROM rentals WHERE id = :id FOR UPDATE", nativeQuery = true)
+    Optional<Long> lockById(@Param("id") Long id);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM Rental r JOIN FETCH r.car WHERE r.id IN :ids "
+            + "AND r.holdExpiresAt <= :now AND r.actualReturnDate IS NULL")
+    List<Rental> findExpiredHoldsByIdIn(@Param("ids") Collection<Long> ids,
+                                        @Param("now") LocalDateTime now);
+
+    @Query("SELECT r.id AS rentalId, r.holdExpiresAt AS holdExpiresAt FROM Rental r "
+            + "WHERE r.holdExpiresAt IS NOT NULL AND r.actualReturnDate IS NULL")
+    List<PendingHold> findPendingHolds();
+
+    @Modifying
+    @Query("UPDATE Rental r SET r.isDeleted = true WHERE r.id IN :ids")
+    int deleteHolds(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("UPDATE Rental r SET r.holdExpiresAt = NULL "
+            + "WHERE r.id = :id AND r.holdExpiresAt IS NOT NULL AND r.isDeleted = false")
+    int confirmHold(@Param("id") Long id);
+
+    @Modifying
+    @Query("UPDATE Rental r SET r.actualReturnDate = :actualReturnDate "
+            + "WHERE r.id IN :ids AND r.actualReturnDate IS NULL")
+    int markReturned(@Param("ids") Collection<Long> ids,
+                     @Param("actualReturnDate") LocalDateTime actualReturnDate);
+
+    @Query(value = "SELECT new com.example.carsharingapp.dto.rental"
+            + ".RentalResponseDtoWithoutActualReturnDate("
+            + "r.id, r.rentalDate, r.returnDate, r.car.id, r.user.id) "
+            + "FROM Rental r WHERE r.user.id = :userId AND r.actualReturnDate IS NULL",
+            countQuery = "SELECT count(r) FROM Rental r "
+                    + "WHERE r.user.id = :userId AND r.actualReturnDate IS NULL")
+    Page<RentalResponseDtoWithoutActualReturnDate> findActiveResponseDtosByUserId(
+            @Param("userId") Long userId, Pageable pageable);
+
+    @Query(value = "SELECT new com.example.carsharingapp.dto.rental.RentalResponseDto("
+            + "r.id, r.rentalDate, r.returnDate, r.actualReturnDate, r.carId, r.userId) "
+            + "FROM ReturnedRental r WHERE r.userId = :userId",
+            countQuery = "SELECT count(r) FROM ReturnedRental r WHERE r.userId = :userId")
+    Page<RentalResponseDto> findReturnedResponseDtosByUserId(@Param("userId") Long userId,
+                                                             Pageable pageable);
+
+    @Query("SELECT new com.example.carsharingapp.dto.rental"
+            + ".RentalResponseDtoWithoutActualReturnDate("
+            + "r.id, r.rentalDate, r.returnDate, r.car.id, r.user.id) "
+            + "FROM Rental r WHERE r.user.id = :userId AND r.actualReturnDate IS NULL "
+            + "AND (:afterId IS NULL OR r.id < :afterId) "
+            + "ORDER BY r.id DESC")
+    List<RentalResponseDtoWithoutActualReturnDate> findActiveResponseDtosByUserIdBefore(
+            @Param("userId") Long userId, @Param("afterId") Long afterId, Pageable pageable);
+
+    @Query("SELECT count(r) FROM Rental r "
+            + "WHERE r.user.id = :userId AND r.actualReturnDate IS NOT NULL")
+    long countReturnedByUserId(@Param("userId") Long userId);
+
+    @Query("SELECT count(r) FROM ArchivedRental r WHERE r.userId = :userId")
+    long countArchivedByUserId(@Param("userId") Long userId);
+
+    @Query("SELECT new com.example.carsharingapp.dto.rental.RentalResponseDto("
+            + "r.id, r.rentalDate, r.returnDate, r.actualReturnDate, r.car.id, r.user.id) "
+            + "FROM Rental r WHERE r.user.id = :userId AND r.actualReturnDate IS NOT NULL "
+            + "AND (:afterDate IS NULL OR r.actualReturnDate < :afterDate "
+            + "OR (r.actualReturnDate = :afterDate AND r.id < :afterId)) "
+            + "ORDER BY r.actualReturnDate DESC, r.id DESC")
+    List<RentalResponseDto> findReturnedResponseDtosByUserIdBefore(
+            @Param("userId") Long userId, @Param("afterDate") LocalDateTime afterDate,
+            @Param("afterId") Long afterId, Pageable pageable);
+
+    @Query("SELECT new com.example.carsharingapp.dto.rental.RentalResponseDto("
+            + "r.id, r.rentalDate, r.returnDate, r.actualReturnDate, r.carId, r.userId) "
+            + "FROM ArchivedRental r WHERE r.userId = :userId "
+            + "AND (:afterDate IS NULL OR r.actualReturnDate < :afterDate "
+            + "OR (r.actualReturnDate = :afterDate AND r.id < :afterId)) "
+            + "ORDER BY r.actualReturnDate DESC, r.id DESC")
+    List<RentalResponseDto> findArchivedResponseDtosByUserIdBefore(
+            @Param("userId") Long userId, @Param("afterDate") LocalDateTime afterDate,
+            @Param("afterId") Long afterId, Pageable pageable);
+
     @Query("SELECT o FROM Rental o WHERE o.user.id = :userId AND o.id = :rentalId")
     Optional<Rental> findByUserIdAndRentalId(@Param("userId") Long userId,
                                              @Param("rentalId") Long rentalId);
+
+    @Query("SELECT new com.example.carsharingapp.dto.rental.RentalResponseDto("
+            + "r.id, r.rentalDate, r.returnDate, r.actualReturnDate, r.carId, r.userId) "
+            + "FROM ArchivedRental r WHERE r.userId = :userId AND r.id = :rentalId")
+    Optional<RentalResponseDto> findArchivedResponseDtoByUserIdAndRentalId(
+            @Param("userId") Long userId, @Param("rentalId") Long rentalId);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT new com.example.carsharingapp.dto.rental.RentalResponseDto("
+            + "r.id, r.rentalDate, r.returnDate, r.actualReturnDate, r.car.id, r.user.id) "
+            + "FROM Rental r WHERE r.actualReturnDate IS NULL")
+    Stream<RentalResponseDto> streamActiveResponseDtos();
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT new com.example.carsharingapp.dto.rental.RentalResponseDto("
+            + "r.id, r.rentalDate, r.returnDate, r.actualReturnDate, r.car.id, r.user.id) "
+            + "FROM Rental r WHERE r.actualReturnDate IS NOT NULL")
+    Stream<RentalResponseDto> streamReturnedResponseDtos();
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT new com.example.carsharingapp.dto.rental.RentalResponseDto("
+            + "r.id, r.rentalDate, r.returnDate, r.actualReturnDate, r.carId, r.userId) "
+            + "FROM ArchivedRental r")
+    Stream<RentalResponseDto> streamArchivedResponseDtos();
 }
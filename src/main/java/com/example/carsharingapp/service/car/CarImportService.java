@@ -0,0 +1,9 @@
+package com.example.carsharingapp.service.car;
+
+import com.example.carsharingapp.dto.car.CarImportResultDto;
+import java.io.InputStream;
+import org.springframework.http.MediaType;
+
+public interface CarImportService {
+    CarImportResultDto importCars(InputStream inputStream, MediaType contentType);
+}
@@ -1,8 +1,17 @@
 package com.example.carsharingapp.service.car;
 
+import com.example.carsharingapp.dto.car.CacheStatsDto;
+import com.example.carsharingapp.dto.car.CarAvailabilityDto;
+import com.example.carsharingapp.dto.car.CarCursorPageDto;
+import com.example.carsharingapp.dto.car.CarCursorRequestDto;
+import com.example.carsharingapp.dto.car.CarFacetsDto;
 import com.example.carsharingapp.dto.car.CarRequestDto;
 import com.example.carsharingapp.dto.car.CarResponseDto;
 import com.example.carsharingapp.dto.car.CarSearchParamsDto;
+import com.example.carsharingapp.dto.car.CarSuggestionDto;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
@@ -13,7 +22,20 @@ public interface CarService {
 
     Page<CarResponseDto> searchCarsByParams(CarSearchParamsDto searchParamsDto, Pageable pageable);
 
+    CarCursorPageDto getAllCarsByCursor(CarCursorRequestDto cursorRequestDto);
+
+    CarCursorPageDto searchCarsByCursor(CarSearchParamsDto searchParamsDto,
+                                        CarCursorRequestDto cursorRequestDto);
+
+    CarFacetsDto getFacets(CarSearchParamsDto searchParamsDto);
+
+    List<CarAvailabilityDto> findAvailable(LocalDateTime from, LocalDateTime to);
+
+    List<CarSuggestionDto> suggest(String query, int limit);
+
     CarResponseDto update(Long id, CarRequestDto requestDto);
 
     void deleteById(Long id);
+
+    Map<String, CacheStatsDto> getCacheStats();
 }
@@ -0,0 +1,216 @@
+package com.example.carsharingapp.service.car.availability;
+
+import com.example.carsharingapp.dto.car.CarAvailabilityDto;
+import com.example.carsharingapp.dto.car.CarResponseDto;
+import com.example.carsharingapp.event.car.CarChangedEvent;
+import com.example.carsharingapp.event.car.CarsImportedEvent;
+import com.example.carsharingapp.event.rental.RentalCreatedEvent;
+import com.example.carsharingapp.event.rental.RentalsReturnedEvent;
+import com.example.carsharingapp.model.car.Car;
+import com.example.carsharingapp.model.enums.Type;
+import com.example.carsharingapp.model.rental.Rental;
+import com.example.carsharingapp.repository.car.CarRepository;
+import com.example.carsharingapp.repository.rental.RentalRepository;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@Component
+@RequiredArgsConstructor
+public class CarAvailabilityIndex {
+    private final CarRepository carRepository;
+    private final RentalRepository rentalRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Object rebuildLock = new Object();
+    private volatile Map<Long, Timeline> timelines = new ConcurrentHashMap<>();
+    private List<Consumer<Map<Long, Timeline>>> pendingChanges;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        synchronized (rebuildLock) {
+            recordChanges(new ArrayList<>());
+            try {
+                swap(transactionTemplate.execute(status -> read()));
+            } finally {
+                recordChanges(null);
+            }
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCarChanged(CarChangedEvent event) {
+        apply(target -> {
+            CarResponseDto after = event.after();
+            if (after == null) {
+                target.remove(event.carId());
+                return;
+            }
+            Timeline current = target.get(event.carId());
+            Calendar calendar = current == null ? Calendar.EMPTY : current.calendar();
+            target.put(event.carId(), new Timeline(after.getBrand(), after.getModel(),
+                    after.getType(), after.getDailyFee(),
+                    after.getInventory() + calendar.size(), calendar));
+        });
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCarsImported(CarsImportedEvent event) {
+        load();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRentalCreated(RentalCreatedEvent event) {
+        apply(target -> {
+            Timeline current = target.get(event.carId());
+            if (current != null && !current.calendar().contains(event.rentalId())) {
+                target.put(event.carId(), current.withCalendar(current.calendar().with(
+                        new Interval(event.rentalId(), event.rentalDate(),
+                                event.returnDate()))));
+            }
+        });
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRentalsReturned(RentalsReturnedEvent event) {
+        apply(target -> event.carIdsByRentalId().forEach((rentalId, carId) -> {
+            Timeline current = target.get(carId);
+            if (current != null && current.calendar().contains(rentalId)) {
+                target.put(carId, current.withCalendar(current.calendar().without(rentalId)));
+            }
+        }));
+    }
+
+    public List<CarAvailabilityDto> findAvailable(LocalDateTime from, LocalDateTime to) {
+        LocalDateTime now = LocalDateTime.now();
+        List<CarAvailabilityDto> available = new ArrayList<>();
+        timelines.forEach((carId, timeline) -> {
+            int freeUnits = timeline.capacity()
+                    - timeline.calendar().countOverlapping(from, to, now);
+            if (freeUnits > 0) {
+                available.add(new CarAvailabilityDto(carId, timeline.brand(), timeline.model(),
+                        timeline.type(), timeline.dailyFee(), freeUnits));
+            }
+        });
+        available.sort(Comparator.comparing(CarAvailabilityDto::getCarId));
+        return available;
+    }
+
+    private Map<Long, Timeline> read() {
+        Map<Long, Map<Long, Interval>> intervalsByCar = new HashMap<>();
+        for (Rental rental : rentalRepository.findAllByActualReturnDateIsNull()) {
+            intervalsByCar.computeIfAbsent(rental.getCar().getId(), id -> new HashMap<>())
+                    .put(rental.getId(), new Interval(rental.getId(), rental.getRentalDate(),
+                            rental.getReturnDate()));
+        }
+        Map<Long, Timeline> rebuilt = new ConcurrentHashMap<>();
+        for (Car car : carRepository.findAll()) {
+            Calendar calendar = Calendar.of(intervalsByCar.getOrDefault(car.getId(), Map.of()));
+            rebuilt.put(car.getId(), new Timeline(car.getBrand(), car.getModel(),
+                    car.getType(), car.getDailyFee(), car.getInventory() + calendar.size(),
+                    calendar));
+        }
+        return rebuilt;
+    }
+
+    private synchronized void apply(Consumer<Map<Long, Timeline>> change) {
+        change.accept(timelines);
+        if (pendingChanges != null) {
+            pendingChanges.add(change);
+        }
+    }
+
+    private synchronized void recordChanges(List<Consumer<Map<Long, Timeline>>> changes) {
+        pendingChanges = changes;
+    }
+
+    private synchronized void swap(Map<Long, Timeline> rebuilt) {
+        pendingChanges.forEach(change -> change.accept(rebuilt));
+        timelines = rebuilt;
+    }
+
+    private record Interval(Long rentalId, LocalDateTime start, LocalDateTime end) {
+        private LocalDateTime bookedUntil() {
+            return end.isBefore(start) ? start : end;
+        }
+    }
+
+    private record Timeline(String brand, String model, Type type, BigDecimal dailyFee,
+                            int capacity, Calendar calendar) {
+        private Timeline withCalendar(Calendar newCalendar) {
+            return new Timeline(brand, model, type, dailyFee, capacity, newCalendar);
+        }
+    }
+
+    private record Calendar(Map<Long, Interval> intervals, LocalDateTime[] starts,
+                            LocalDateTime[] ends) {
+        private static final Calendar EMPTY = of(Map.of());
+
+        private static Calendar of(Map<Long, Interval> intervals) {
+            LocalDateTime[] starts = intervals.values().stream()
+                    .map(Interval::start)
+                    .sorted()
+                    .toArray(LocalDateTime[]::new);
+            LocalDateTime[] ends = intervals.values().stream()
+                    .map(Interval::bookedUntil)
+                    .sorted()
+                    .toArray(LocalDateTime[]::new);
+            return new Calendar(Map.copyOf(intervals), starts, ends);
+        }
+
+        private int size() {
+            return intervals.size();
+        }
+
+        private boolean contains(Long rentalId) {
+            return intervals.containsKey(rentalId);
+        }
+
+        private Calendar with(Interval interval) {
+            Map<Long, Interval> copy = new HashMap<>(intervals);
+            copy.put(interval.rentalId(), interval);
+            return of(copy);
+        }
+
+        private Calendar without(Long rentalId) {
+            Map<Long, Interval> copy = new HashMap<>(intervals);
+            copy.remove(rentalId);
+            return of(copy);
+        }
+
+        private int countOverlapping(LocalDateTime from, LocalDateTime to, LocalDateTime now) {
+            int startedBeforeEnd = countBefore(starts, to);
+            if (from.isBefore(now)) {
+                return startedBeforeEnd;
+            }
+            int endedInTime = countBefore(ends, from.plusNanos(1)) - countBefore(ends, now);
+            return startedBeforeEnd - endedInTime;
+        }
+
+        private static int countBefore(LocalDateTime[] points, LocalDateTime limit) {
+            int low = 0;
+            int high = points.length;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (points[middle].isBefore(limit)) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low;
+        }
+    }
+}
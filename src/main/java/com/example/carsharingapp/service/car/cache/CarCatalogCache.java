@@ -0,0 +1,140 @@
+package com.example.carsharingapp.service.car.cache;
+
+import com.example.carsharingapp.dto.car.CacheStatsDto;
+import com.example.carsharingapp.dto.car.CarResponseDto;
+import com.example.carsharingapp.event.car.CarChangedEvent;
+import com.example.carsharingapp.event.car.CarInventoryChangedEvent;
+import com.example.carsharingapp.event.car.CarsImportedEvent;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+@Component
+public class CarCatalogCache {
+    private static final String INVENTORY = "inventory";
+
+    private final int maxSize;
+    private final long ttlNanos;
+    private final Map<CarCatalogCacheKey, Entry> entries;
+    private long generation;
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long invalidations;
+
+    public CarCatalogCache(@Value("${car.catalog.cache.max-size:1000}") int maxSize,
+                           @Value("${car.catalog.cache.ttl:PT1M}") Duration ttl) {
+        this.maxSize = maxSize;
+        this.ttlNanos = ttl.toNanos();
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<CarCatalogCacheKey, Entry> eldest) {
+                if (size() > CarCatalogCache.this.maxSize) {
+                    evictions++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    public Page<CarResponseDto> getOrLoad(CarCatalogCacheKey key,
+                                          Supplier<Page<CarResponseDto>> loader) {
+        long loadGeneration;
+        synchronized (this) {
+            Entry entry = entries.get(key);
+            if (entry != null) {
+                if (entry.expiresAt - System.nanoTime() > 0) {
+                    hits++;
+                    return entry.toPage();
+                }
+                entries.remove(key);
+                evictions++;
+            }
+            misses++;
+            loadGeneration = generation;
+        }
+        Page<CarResponseDto> page = loader.get();
+        synchronized (this) {
+            if (generation == loadGeneration && maxSize > 0) {
+                List<CarResponseDto> content = page.getContent().stream()
+                        .map(CarCatalogCache::copy)
+                        .toList();
+                Set<Long> carIds = content.stream()
+                        .map(CarResponseDto::getId)
+                        .collect(Collectors.toUnmodifiableSet());
+                entries.put(key, new Entry(content, page.getPageable(), page.getTotalElements(),
+                        carIds, System.nanoTime() + ttlNanos));
+            }
+        }
+        return page;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCarChanged(CarChangedEvent event) {
+        invalidate((key, entry) -> entry.carIds.contains(event.carId())
+                || key.matches(event.before())
+                || key.matches(event.after()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCarInventoryChanged(CarInventoryChangedEvent event) {
+        invalidate((key, entry) -> key.sortsBy(INVENTORY)
+                || entry.carIds.stream().anyMatch(event.carIds()::contains));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCarsImported(CarsImportedEvent event) {
+        clear();
+    }
+
+    public synchronized void clear() {
+        generation++;
+        invalidations += entries.size();
+        entries.clear();
+    }
+
+    public synchronized CacheStatsDto getStats() {
+        return new CacheStatsDto(hits, misses, evictions, invalidations, entries.size());
+    }
+
+    private synchronized void invalidate(EntryPredicate predicate) {
+        generation++;
+        Iterator<Map.Entry<CarCatalogCacheKey, Entry>> iterator = entries.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<CarCatalogCacheKey, Entry> next = iterator.next();
+            if (predicate.test(next.getKey(), next.getValue())) {
+                iterator.remove();
+                invalidations++;
+            }
+        }
+    }
+
+    private static CarResponseDto copy(CarResponseDto car) {
+        return new CarResponseDto(car.getId(), car.getModel(), car.getBrand(),
+                car.getInventory(), car.getType(), car.getDailyFee());
+    }
+
+    private interface EntryPredicate {
+        boolean test(CarCatalogCacheKey key, Entry entry);
+    }
+
+    private record Entry(List<CarResponseDto> content, Pageable pageable, long total,
+                         Set<Long> carIds, long expiresAt) {
+        private Page<CarResponseDto> toPage() {
+            return new PageImpl<>(content.stream().map(CarCatalogCache::copy).toList(),
+                    pageable, total);
+        }
+    }
+}
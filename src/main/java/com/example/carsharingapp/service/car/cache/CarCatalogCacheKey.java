@@ -0,0 +1,77 @@
+package com.example.carsharingapp.service.car.cache;
+
+import com.example.carsharingapp.dto.car.CarResponseDto;
+import com.example.carsharingapp.dto.car.CarSearchParamsDto;
+import com.example.carsharingapp.model.enums.Type;
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import org.springframework.data.domain.Pageable;
+
+public record CarCatalogCacheKey(List<String> brands, List<String> models, List<Type> types,
+                                 BigDecimal dailyFee, BigDecimal minDailyFee,
+                                 BigDecimal maxDailyFee, int page, int size, String sort) {
+
+    public static CarCatalogCacheKey of(CarSearchParamsDto params, Pageable pageable) {
+        int page = pageable.isPaged() ? pageable.getPageNumber() : 0;
+        int size = pageable.isPaged() ? pageable.getPageSize() : -1;
+        String sort = pageable.getSort().toString();
+        if (params == null) {
+            return new CarCatalogCacheKey(List.of(), List.of(), List.of(), null, null, null,
+                    page, size, sort);
+        }
+        return new CarCatalogCacheKey(
+                normalize(params.getBrands()),
+                normalize(params.getModels()),
+                params.getType() == null ? List.of() : Arrays.stream(params.getType())
+                        .filter(Objects::nonNull)
+                        .distinct()
+                        .sorted()
+                        .toList(),
+                strip(params.getDailyFee()),
+                strip(params.getMinDailyFee()),
+                strip(params.getMaxDailyFee()),
+                page, size, sort);
+    }
+
+    public boolean matches(CarResponseDto car) {
+        if (car == null) {
+            return false;
+        }
+        return (brands.isEmpty() || brands.contains(lowerCase(car.getBrand())))
+                && (models.isEmpty() || models.contains(lowerCase(car.getModel())))
+                && (types.isEmpty() || types.contains(car.getType()))
+                && (dailyFee == null || (car.getDailyFee() != null
+                        && dailyFee.compareTo(car.getDailyFee()) == 0))
+                && (minDailyFee == null || (car.getDailyFee() != null
+                        && minDailyFee.compareTo(car.getDailyFee()) <= 0))
+                && (maxDailyFee == null || (car.getDailyFee() != null
+                        && maxDailyFee.compareTo(car.getDailyFee()) >= 0));
+    }
+
+    public boolean sortsBy(String property) {
+        return sort.contains(property + ":");
+    }
+
+    private static List<String> normalize(String[] values) {
+        if (values == null) {
+            return List.of();
+        }
+        return Arrays.stream(values)
+                .filter(value -> value != null && !value.isBlank())
+                .map(CarCatalogCacheKey::lowerCase)
+                .distinct()
+                .sorted()
+                .toList();
+    }
+
+    private static BigDecimal strip(BigDecimal value) {
+        return value == null ? null : value.stripTrailingZeros();
+    }
+
+    private static String lowerCase(String value) {
+        return value == null ? null : value.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.carsharingapp.service.car.cursor;
+
+import com.example.carsharingapp.exception.InvalidCursorException;
+import com.example.carsharingapp.model.car.Car;
+import com.example.carsharingapp.model.enums.CarCursorOrder;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+
+public record CarCursor(CarCursorOrder order, BigDecimal dailyFee, Long id) {
+    private static final String SEPARATOR = ":";
+    private static final String ID = "id";
+    private static final String DAILY_FEE = "dailyFee";
+
+    public static CarCursor of(Car car, CarCursorOrder order) {
+        return new CarCursor(order, order == CarCursorOrder.DAILY_FEE ? car.getDailyFee() : null,
+                car.getId());
+    }
+
+    public static CarCursor decode(String token, CarCursorOrder order) {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(token),
+                    StandardCharsets.UTF_8).split(SEPARATOR);
+            CarCursorOrder tokenOrder = CarCursorOrder.valueOf(parts[0]);
+            if (tokenOrder != order) {
+                throw new InvalidCursorException("Cursor was issued for order "
+                        + tokenOrder + " but " + order + " was requested");
+            }
+            if (order == CarCursorOrder.DAILY_FEE) {
+                return new CarCursor(order, new BigDecimal(parts[1]), Long.valueOf(parts[2]));
+            }
+            return new CarCursor(order, null, Long.valueOf(parts[1]));
+        } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+            throw new InvalidCursorException("Invalid cursor: " + token);
+        }
+    }
+
+    public static Sort sort(CarCursorOrder order) {
+        if (order == CarCursorOrder.DAILY_FEE) {
+            return Sort.by(DAILY_FEE, ID);
+        }
+        return Sort.by(ID);
+    }
+
+    public String encode() {
+        String value = order == CarCursorOrder.DAILY_FEE
+                ? order + SEPARATOR + dailyFee.toPlainString() + SEPARATOR + id
+                : order + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public ScrollPosition toScrollPosition() {
+        Map<String, Object> keys = new LinkedHashMap<>();
+        if (order == CarCursorOrder.DAILY_FEE) {
+            keys.put(DAILY_FEE, dailyFee);
+        }
+        keys.put(ID, id);
+        return ScrollPosition.forward(keys);
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.carsharingapp.service.car.facet;
+
+import com.example.carsharingapp.dto.car.CarFacetsDto;
+import com.example.carsharingapp.dto.car.FeeBucketDto;
+import com.example.carsharingapp.model.enums.Type;
+import com.example.carsharingapp.repository.car.CarFacetRow;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+@Component
+public class CarFacetAggregator {
+    private final BigDecimal[] boundaries;
+
+    public CarFacetAggregator(
+            @Value("${car.search.facets.fee-buckets:50,100,200,500}") List<BigDecimal> boundaries) {
+        this.boundaries = boundaries.stream().sorted().distinct().toArray(BigDecimal[]::new);
+    }
+
+    public List<BigDecimal> getFeeBoundaries() {
+        return List.of(boundaries);
+    }
+
+    public CarFacetsDto aggregate(List<CarFacetRow> matchingRows, List<CarFacetRow> brandRows,
+                                  List<CarFacetRow> typeRows, List<CarFacetRow> feeRows) {
+        long total = 0;
+        for (CarFacetRow row : matchingRows) {
+            total += row.count();
+        }
+        Map<String, Long> brands = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        for (CarFacetRow row : brandRows) {
+            brands.merge(row.brand(), row.count(), Long::sum);
+        }
+        Map<Type, Long> types = new EnumMap<>(Type.class);
+        for (CarFacetRow row : typeRows) {
+            types.merge(row.type(), row.count(), Long::sum);
+        }
+        long[] buckets = new long[boundaries.length + 1];
+        for (CarFacetRow row : feeRows) {
+            buckets[row.feeBucket()] += row.count();
+        }
+        return new CarFacetsDto()
+                .setTotal(total)
+                .setBrands(brands)
+                .setTypes(types)
+                .setDailyFees(toBucketDtos(buckets));
+    }
+
+    private List<FeeBucketDto> toBucketDtos(long[] buckets) {
+        List<FeeBucketDto> dtos = new ArrayList<>(buckets.length);
+        for (int i = 0; i < buckets.length; i++) {
+            BigDecimal from = i == 0 ? BigDecimal.ZERO : boundaries[i - 1];
+            BigDecimal to = i == boundaries.length ? null : boundaries[i];
+            dtos.add(new FeeBucketDto(from, to, buckets[i]));
+        }
+        return dtos;
+    }
+}
@@ -0,0 +1,169 @@
+package com.example.carsharingapp.service.car.impl;
+
+import com.example.carsharingapp.dto.car.CarImportErrorDto;
+import com.example.carsharingapp.dto.car.CarImportResultDto;
+import com.example.carsharingapp.dto.car.CarRequestDto;
+import com.example.carsharingapp.event.car.CarsImportedEvent;
+import com.example.carsharingapp.model.car.Car;
+import com.example.carsharingapp.repository.car.CarRepository;
+import com.example.carsharingapp.service.car.CarImportService;
+import com.example.carsharingapp.service.car.importer.CarImportReader;
+import com.example.carsharingapp.service.car.importer.CarImportRow;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Validator;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@Service
+@RequiredArgsConstructor
+public class CarImportServiceImpl implements CarImportService {
+    private static final int CHUNK_SIZE = 1000;
+    private static final int MAX_REPORTED_ERRORS = 1000;
+    private static final MediaType TEXT_CSV = MediaType.valueOf("text/csv");
+    private static final String INSERT_CAR = "INSERT INTO cars "
+            + "(model, brand, inventory, type, daily_fee, is_deleted) "
+            + "VALUES (?, ?, ?, ?, ?, false)";
+    private static final String INCREASE_INVENTORY = "UPDATE cars "
+            + "SET inventory = inventory + ? WHERE id = ? AND is_deleted = false";
+    private final CarRepository carRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Override
+    public CarImportResultDto importCars(InputStream inputStream, MediaType contentType) {
+        CarImportResultDto result = new CarImportResultDto();
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(inputStream, StandardCharsets.UTF_8))) {
+            CarImportReader rows = new CarImportReader(reader,
+                    TEXT_CSV.isCompatibleWith(contentType), objectMapper, validator);
+            List<CarImportRow> chunk = new ArrayList<>(CHUNK_SIZE);
+            CarImportRow row;
+            while ((row = rows.next()) != null) {
+                result.setProcessed(result.getProcessed() + 1);
+                if (!row.isValid()) {
+                    addError(result, row.line(), row.error());
+                    continue;
+                }
+                chunk.add(row);
+                if (chunk.size() == CHUNK_SIZE) {
+                    writeChunk(chunk, result);
+                    chunk.clear();
+                }
+            }
+            if (!chunk.isEmpty()) {
+                writeChunk(chunk, result);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        if (result.getInserted() + result.getUpdated() > 0) {
+            eventPublisher.publishEvent(new CarsImportedEvent(result.getInserted(),
+                    result.getUpdated()));
+        }
+        return result;
+    }
+
+    private void writeChunk(List<CarImportRow> chunk, CarImportResultDto result) {
+        try {
+            addCounts(result, transactionTemplate.execute(status -> write(chunk)));
+        } catch (DataAccessException e) {
+            for (CarImportRow row : chunk) {
+                try {
+                    addCounts(result, transactionTemplate.execute(status -> write(List.of(row))));
+                } catch (DataAccessException rowException) {
+                    addError(result, row.line(), "Car could not be saved: "
+                            + rowException.getMostSpecificCause().getMessage());
+                }
+            }
+        }
+    }
+
+    private ChunkCounts write(List<CarImportRow> rows) {
+        Map<String, Car> existing = carRepository.findAllByModelIn(rows.stream()
+                        .map(row -> row.car().getModel().trim())
+                        .collect(Collectors.toSet()))
+                .stream()
+                .collect(Collectors.toMap(car -> key(car.getModel()), Function.identity(),
+                        (first, second) -> first));
+        Map<String, CarRequestDto> inserts = new LinkedHashMap<>();
+        Map<Long, Integer> increments = new LinkedHashMap<>();
+        long inserted = 0;
+        long updated = 0;
+        long merged = 0;
+        for (CarImportRow row : rows) {
+            CarRequestDto car = row.car();
+            String key = key(car.getModel());
+            Car existingCar = existing.get(key);
+            if (existingCar != null) {
+                increments.merge(existingCar.getId(), car.getInventory(), Integer::sum);
+                updated++;
+            } else if (inserts.containsKey(key)) {
+                CarRequestDto pending = inserts.get(key);
+                pending.setInventory(pending.getInventory() + car.getInventory());
+                merged++;
+            } else {
+                inserts.put(key, new CarRequestDto()
+                        .setModel(car.getModel().trim())
+                        .setBrand(car.getBrand().trim())
+                        .setType(car.getType())
+                        .setDailyFee(car.getDailyFee())
+                        .setInventory(car.getInventory()));
+                inserted++;
+            }
+        }
+        jdbcTemplate.batchUpdate(INSERT_CAR, inserts.values(), CHUNK_SIZE, (ps, car) -> {
+            ps.setString(1, car.getModel());
+            ps.setString(2, car.getBrand());
+            ps.setInt(3, car.getInventory());
+            ps.setString(4, car.getType().name());
+            ps.setBigDecimal(5, car.getDailyFee());
+        });
+        jdbcTemplate.batchUpdate(INCREASE_INVENTORY, increments.entrySet(), CHUNK_SIZE,
+                (ps, increment) -> {
+                    ps.setInt(1, increment.getValue());
+                    ps.setLong(2, increment.getKey());
+                });
+        return new ChunkCounts(inserted, updated, merged);
+    }
+
+    private void addCounts(CarImportResultDto result, ChunkCounts counts) {
+        result.setInserted(result.getInserted() + counts.inserted());
+        result.setUpdated(result.getUpdated() + counts.updated());
+        result.setMerged(result.getMerged() + counts.merged());
+    }
+
+    private void addError(CarImportResultDto result, long line, String message) {
+        result.setFailed(result.getFailed() + 1);
+        if (result.getErrors().size() < MAX_REPORTED_ERRORS) {
+            result.getErrors().add(new CarImportErrorDto(line, message));
+        }
+    }
+
+    private String key(String model) {
+        return model.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private record ChunkCounts(long inserted, long updated, long merged) {
+    }
+}
@@ -1,29 +1,67 @@
 package com.example.carsharingapp.service.car.impl;
 
+import com.example.carsharingapp.dto.car.CacheStatsDto;
+import com.example.carsharingapp.dto.car.CarAvailabilityDto;
+import com.example.carsharingapp.dto.car.CarCursorPageDto;
+import com.example.carsharingapp.dto.car.CarCursorRequestDto;
+import com.example.carsharingapp.dto.car.CarFacetsDto;
 import com.example.carsharingapp.dto.car.CarRequestDto;
 import com.example.carsharingapp.dto.car.CarResponseDto;
 import com.example.carsharingapp.dto.car.CarSearchParamsDto;
+import com.example.carsharingapp.dto.car.CarSuggestionDto;
+import com.example.carsharingapp.event.car.CarChangedEvent;
 import com.example.carsharingapp.exception.EntityNotFoundException;
+import com.example.carsharingapp.exception.InvalidDateRangeException;
 import com.example.carsharingapp.mapper.car.CarMapper;
 import com.example.carsharingapp.model.car.Car;
+import com.example.carsharingapp.repository.car.CarFacetRow;
 import com.example.carsharingapp.repository.car.CarRepository;
 import com.example.carsharingapp.repository.car.CarSpecificationBuilder;
 import com.example.carsharingapp.service.car.CarService;
-import jakarta.transaction.Transactional;
+import com.example.carsharingapp.service.car.availability.CarAvailabilityIndex;
+import com.example.carsharingapp.service.car.cache.CarCatalogCache;
+import com.example.carsharingapp.service.car.cache.CarCatalogCacheKey;
+import com.example.carsharingapp.service.car.cursor.CarCursor;
+import com.example.carsharingapp.service.car.facet.CarFacetAggregator;
+import com.example.carsharingapp.service.car.suggest.CarSuggestionIndex;
+import jakarta.persistence.EntityManagerFactory;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
 @Service
 @RequiredArgsConstructor
 @Transactional
 public class CarServiceImpl implements CarService {
+    private static final String CATALOG_CACHE = "catalog";
+    private static final String QUERY_PLAN_CACHE = "queryPlans";
+    private static final String DAILY_FEE = "dailyFee";
+    private static final String ID = "id";
+    private static final int MAX_SUGGESTIONS = 50;
     private final CarRepository carRepository;
     private final CarMapper carMapper;
     private final CarSpecificationBuilder carSpecificationBuilder;
+    private final CarCatalogCache carCatalogCache;
+    private final CarSuggestionIndex carSuggestionIndex;
+    private final CarFacetAggregator carFacetAggregator;
+    private final CarAvailabilityIndex carAvailabilityIndex;
+    private final ApplicationEventPublisher eventPublisher;
+    private final EntityManagerFactory entityManagerFactory;
 
     @Override
     public CarResponseDto create(CarRequestDto requestDto) {
@@ -31,40 +69,167 @@ public class CarServiceImpl implements CarService {
         if (car.isPresent()) {
             requestDto.setInventory(car.get().getInventory() + requestDto.getInventory());
         }
-        return carMapper.toResponseDto(carRepository.save(carMapper.toModel(requestDto)));
+        CarResponseDto created = carMapper.toResponseDto(carRepository
+                .save(carMapper.toModel(requestDto)));
+        eventPublisher.publishEvent(new CarChangedEvent(created.getId(), null, created));
+        return created;
     }
 
+    @Transactional(readOnly = true)
     @Override
     public Page<CarResponseDto> getAllCars(Pageable pageable) {
-        return carRepository.findAll(pageable).map(carMapper::toResponseDto);
+        return carCatalogCache.getOrLoad(CarCatalogCacheKey.of(null, pageable),
+                () -> carRepository.findAllProjected(Specification.allOf(), pageable));
     }
 
+    @Transactional(readOnly = true)
     @Override
     public Page<CarResponseDto> searchCarsByParams(CarSearchParamsDto searchParamsDto,
                                                    Pageable pageable) {
+        Pageable sortedPageable = withDefaultSort(searchParamsDto, pageable);
+        return carCatalogCache.getOrLoad(CarCatalogCacheKey.of(searchParamsDto, sortedPageable),
+                () -> carRepository.findAllProjected(
+                        carSpecificationBuilder.build(searchParamsDto), sortedPageable));
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public CarCursorPageDto getAllCarsByCursor(CarCursorRequestDto cursorRequestDto) {
+        return scroll(Specification.allOf(), cursorRequestDto);
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public CarCursorPageDto searchCarsByCursor(CarSearchParamsDto searchParamsDto,
+                                               CarCursorRequestDto cursorRequestDto) {
         Specification<Car> carSpecification = carSpecificationBuilder.build(searchParamsDto);
-        Page<Car> carPage = carRepository.findAll(carSpecification, pageable);
-        return carPage.map(carMapper::toResponseDto);
+        return scroll(carSpecification == null ? Specification.allOf() : carSpecification,
+                cursorRequestDto);
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public CarFacetsDto getFacets(CarSearchParamsDto searchParamsDto) {
+        List<CarFacetRow> matchingRows = countFacets(searchParamsDto);
+        List<CarFacetRow> brandRows = isEmpty(searchParamsDto.getBrands())
+                ? matchingRows
+                : countFacets(copyOf(searchParamsDto).setBrands(null));
+        List<CarFacetRow> typeRows = isEmpty(searchParamsDto.getType())
+                ? matchingRows
+                : countFacets(copyOf(searchParamsDto).setType(null));
+        List<CarFacetRow> feeRows = hasFeeFilter(searchParamsDto)
+                ? countFacets(copyOf(searchParamsDto)
+                        .setDailyFee(null)
+                        .setMinDailyFee(null)
+                        .setMaxDailyFee(null))
+                : matchingRows;
+        return carFacetAggregator.aggregate(matchingRows, brandRows, typeRows, feeRows);
+    }
+
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @Override
+    public List<CarAvailabilityDto> findAvailable(LocalDateTime from, LocalDateTime to) {
+        if (!from.isBefore(to)) {
+            throw new InvalidDateRangeException("Start of the period " + from
+                    + " must be before its end " + to);
+        }
+        return carAvailabilityIndex.findAvailable(from, to);
+    }
+
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @Override
+    public List<CarSuggestionDto> suggest(String query, int limit) {
+        return carSuggestionIndex.suggest(query, Math.min(limit, MAX_SUGGESTIONS));
     }
 
     @Override
     public CarResponseDto update(Long id, CarRequestDto requestDto) {
         Car car = carRepository.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException("Car was not found with id: " + id));
+        CarResponseDto before = carMapper.toResponseDto(car);
         Optional<Car> carFromDb = carRepository.findByModel(requestDto.getModel());
         if (carFromDb.isPresent()) {
             requestDto.setInventory(carFromDb.get().getInventory() + requestDto.getInventory());
         }
         Car updatedCar = carMapper.updateCar(car, requestDto);
-        return carMapper.toResponseDto(carRepository.save(updatedCar));
+        CarResponseDto after = carMapper.toResponseDto(carRepository.save(updatedCar));
+        eventPublisher.publishEvent(new CarChangedEvent(id, before, after));
+        return after;
     }
 
     @Override
     public void deleteById(Long id) {
-        if (carRepository.existsById(id)) {
-            carRepository.deleteById(id);
-        } else {
-            throw new EntityNotFoundException("Car was not found with id: " + id);
+        Car car = carRepository.findById(id)
+                .orElseThrow(() -> new EntityNotFoundException("Car was not found with id: " + id));
+        CarResponseDto before = carMapper.toResponseDto(car);
+        carRepository.deleteById(id);
+        eventPublisher.publishEvent(new CarChangedEvent(id, before, null));
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public Map<String, CacheStatsDto> getCacheStats() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class)
+                .getStatistics();
+        if (!statistics.isStatisticsEnabled()) {
+            return Map.of(CATALOG_CACHE, carCatalogCache.getStats());
         }
+        return Map.of(CATALOG_CACHE, carCatalogCache.getStats(),
+                QUERY_PLAN_CACHE, new CacheStatsDto(statistics.getQueryPlanCacheHitCount(),
+                        statistics.getQueryPlanCacheMissCount(), 0, 0, 0));
+    }
+
+    private List<CarFacetRow> countFacets(CarSearchParamsDto searchParamsDto) {
+        return carRepository.countFacets(carSpecificationBuilder.build(searchParamsDto),
+                carFacetAggregator.getFeeBoundaries());
+    }
+
+    private boolean isEmpty(Object[] values) {
+        return values == null || values.length == 0;
+    }
+
+    private boolean hasFeeFilter(CarSearchParamsDto searchParamsDto) {
+        return searchParamsDto.getDailyFee() != null
+                || searchParamsDto.getMinDailyFee() != null
+                || searchParamsDto.getMaxDailyFee() != null;
+    }
+
+    private CarSearchParamsDto copyOf(CarSearchParamsDto searchParamsDto) {
+        return new CarSearchParamsDto()
+                .setBrands(searchParamsDto.getBrands())
+                .setModels(searchParamsDto.getModels())
+                .setType(searchParamsDto.getType())
+                .setDailyFee(searchParamsDto.getDailyFee())
+                .setMinDailyFee(searchParamsDto.getMinDailyFee())
+                .setMaxDailyFee(searchParamsDto.getMaxDailyFee());
+    }
+
+    private Pageable withDefaultSort(CarSearchParamsDto searchParamsDto, Pageable pageable) {
+        boolean hasFeeRange = searchParamsDto.getMinDailyFee() != null
+                || searchParamsDto.getMaxDailyFee() != null;
+        if (!hasFeeRange || pageable.getSort().isSorted() || pageable.isUnpaged()) {
+            return pageable;
+        }
+        return PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(),
+                Sort.by(DAILY_FEE, ID));
+    }
+
+    private CarCursorPageDto scroll(Specification<Car> specification,
+                                    CarCursorRequestDto cursorRequestDto) {
+        ScrollPosition position = cursorRequestDto.getAfter() == null
+                ? ScrollPosition.keyset()
+                : CarCursor.decode(cursorRequestDto.getAfter(), cursorRequestDto.getOrderBy())
+                        .toScrollPosition();
+        Window<Car> window = carRepository.findBy(specification, query -> query
+                .sortBy(CarCursor.sort(cursorRequestDto.getOrderBy()))
+                .limit(cursorRequestDto.getSize())
+                .scroll(position));
+        List<Car> cars = window.getContent();
+        String nextCursor = window.hasNext() && !cars.isEmpty()
+                ? CarCursor.of(cars.get(cars.size() - 1), cursorRequestDto.getOrderBy()).encode()
+                : null;
+        return new CarCursorPageDto()
+                .setContent(cars.stream().map(carMapper::toResponseDto).toList())
+                .setNextCursor(nextCursor);
     }
 }
@@ -0,0 +1,164 @@
+package com.example.carsharingapp.service.car.importer;
+
+import com.example.carsharingapp.dto.car.CarRequestDto;
+import com.example.carsharingapp.exception.InvalidImportFileException;
+import com.example.carsharingapp.model.enums.Type;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+public class CarImportReader {
+    private static final char SEPARATOR = ',';
+    private static final char QUOTE = '"';
+    private static final char NEW_LINE = '\n';
+    private static final String BRAND = "brand";
+    private static final String MODEL = "model";
+    private static final String TYPE = "type";
+    private static final String DAILY_FEE = "dailyfee";
+    private static final String INVENTORY = "inventory";
+
+    private final BufferedReader reader;
+    private final boolean csv;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private Map<String, Integer> columns;
+    private long line;
+    private long recordLine;
+
+    public CarImportReader(BufferedReader reader, boolean csv, ObjectMapper objectMapper,
+                           Validator validator) {
+        this.reader = reader;
+        this.csv = csv;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+    }
+
+    public CarImportRow next() {
+        try {
+            String value;
+            do {
+                value = reader.readLine();
+                line++;
+                if (value == null) {
+                    return null;
+                }
+            } while (value.isBlank());
+            recordLine = line;
+            if (csv && columns == null) {
+                columns = readHeader(readCells(value));
+                return next();
+            }
+            CarRequestDto car = csv ? parseCsv(readCells(value)) : objectMapper.readValue(value,
+                    CarRequestDto.class);
+            String violations = validate(car);
+            return violations == null
+                    ? CarImportRow.valid(recordLine, car)
+                    : CarImportRow.invalid(recordLine, violations);
+        } catch (JsonProcessingException e) {
+            return CarImportRow.invalid(recordLine, "Malformed JSON: " + e.getOriginalMessage());
+        } catch (IllegalArgumentException e) {
+            return CarImportRow.invalid(recordLine, e.getMessage());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private List<String> readCells(String firstLine) throws IOException {
+        List<String> cells = new ArrayList<>();
+        StringBuilder cell = new StringBuilder();
+        String value = firstLine;
+        boolean quoted = false;
+        int i = 0;
+        while (i < value.length() || quoted) {
+            if (i == value.length()) {
+                value = reader.readLine();
+                line++;
+                if (value == null) {
+                    throw new IllegalArgumentException("Quoted value is not closed");
+                }
+                cell.append(NEW_LINE);
+                i = 0;
+                continue;
+            }
+            char c = value.charAt(i++);
+            if (quoted) {
+                if (c != QUOTE) {
+                    cell.append(c);
+                } else if (i < value.length() && value.charAt(i) == QUOTE) {
+                    cell.append(QUOTE);
+                    i++;
+                } else {
+                    quoted = false;
+                }
+            } else if (c == SEPARATOR) {
+                cells.add(cell.toString());
+                cell.setLength(0);
+            } else if (c == QUOTE && cell.toString().isBlank()) {
+                cell.setLength(0);
+                quoted = true;
+            } else {
+                cell.append(c);
+            }
+        }
+        cells.add(cell.toString());
+        return cells;
+    }
+
+    private Map<String, Integer> readHeader(List<String> names) {
+        Map<String, Integer> header = new HashMap<>();
+        for (int i = 0; i < names.size(); i++) {
+            header.put(names.get(i).trim().replace("_", "").toLowerCase(Locale.ROOT), i);
+        }
+        for (String required : new String[]{BRAND, MODEL, TYPE, DAILY_FEE, INVENTORY}) {
+            if (!header.containsKey(required)) {
+                throw new InvalidImportFileException("CSV header must contain column "
+                        + required);
+            }
+        }
+        return header;
+    }
+
+    private CarRequestDto parseCsv(List<String> cells) {
+        if (cells.size() < columns.size()) {
+            throw new IllegalArgumentException("Expected " + columns.size() + " columns but was "
+                    + cells.size());
+        }
+        try {
+            return new CarRequestDto()
+                    .setBrand(cell(cells, BRAND))
+                    .setModel(cell(cells, MODEL))
+                    .setType(Type.valueOf(cell(cells, TYPE).toUpperCase(Locale.ROOT)))
+                    .setDailyFee(new BigDecimal(cell(cells, DAILY_FEE)))
+                    .setInventory(Integer.parseInt(cell(cells, INVENTORY)));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid value: " + e.getMessage());
+        }
+    }
+
+    private String cell(List<String> cells, String column) {
+        return cells.get(columns.get(column)).trim();
+    }
+
+    private String validate(CarRequestDto car) {
+        Set<ConstraintViolation<CarRequestDto>> violations = validator.validate(car);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(violation -> violation.getPropertyPath() + " " + violation.getMessage())
+                .sorted()
+                .collect(Collectors.joining(", "));
+    }
+}
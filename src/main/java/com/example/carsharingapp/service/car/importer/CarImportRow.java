@@ -0,0 +1,17 @@
+package com.example.carsharingapp.service.car.importer;
+
+import com.example.carsharingapp.dto.car.CarRequestDto;
+
+public record CarImportRow(long line, CarRequestDto car, String error) {
+    public static CarImportRow valid(long line, CarRequestDto car) {
+        return new CarImportRow(line, car, null);
+    }
+
+    public static CarImportRow invalid(long line, String error) {
+        return new CarImportRow(line, null, error);
+    }
+
+    public boolean isValid() {
+        return error == null;
+    }
+}
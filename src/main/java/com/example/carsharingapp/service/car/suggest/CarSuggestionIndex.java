@@ -0,0 +1,244 @@
+package com.example.carsharingapp.service.car.suggest;
+
+import com.example.carsharingapp.dto.car.CarResponseDto;
+import com.example.carsharingapp.dto.car.CarSuggestionDto;
+import com.example.carsharingapp.event.car.CarChangedEvent;
+import com.example.carsharingapp.event.car.CarsImportedEvent;
+import com.example.carsharingapp.model.car.Car;
+import com.example.carsharingapp.repository.car.CarRepository;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+@Component
+@RequiredArgsConstructor
+public class CarSuggestionIndex {
+    public static final String BRAND_FIELD = "brand";
+    public static final String MODEL_FIELD = "model";
+
+    private final CarRepository carRepository;
+    private final Object rebuildLock = new Object();
+    private Vocabulary vocabulary = new Vocabulary();
+    private List<Consumer<Vocabulary>> pendingChanges;
+    private volatile Snapshot snapshot = new Snapshot(Terms.EMPTY, Terms.EMPTY);
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        synchronized (rebuildLock) {
+            recordChanges(new ArrayList<>());
+            try {
+                Vocabulary rebuilt = new Vocabulary();
+                for (Car car : carRepository.findAll()) {
+                    rebuilt.put(car.getId(), car.getBrand(), car.getModel());
+                }
+                swap(rebuilt);
+            } finally {
+                recordChanges(null);
+            }
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCarChanged(CarChangedEvent event) {
+        CarResponseDto after = event.after();
+        apply(target -> {
+            if (after == null) {
+                target.remove(event.carId());
+            } else {
+                target.put(event.carId(), after.getBrand(), after.getModel());
+            }
+        });
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCarsImported(CarsImportedEvent event) {
+        load();
+    }
+
+    public List<CarSuggestionDto> suggest(String query, int limit) {
+        String prefix = normalize(query);
+        if (prefix == null || prefix.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        Snapshot current = snapshot;
+        List<CarSuggestionDto> suggestions = new ArrayList<>();
+        current.brands().collect(prefix, BRAND_FIELD, limit, suggestions);
+        current.models().collect(prefix, MODEL_FIELD, limit, suggestions);
+        return suggestions;
+    }
+
+    private synchronized void apply(Consumer<Vocabulary> change) {
+        change.accept(vocabulary);
+        if (pendingChanges != null) {
+            pendingChanges.add(change);
+        }
+        snapshot = vocabulary.update(snapshot);
+    }
+
+    private synchronized void recordChanges(List<Consumer<Vocabulary>> changes) {
+        pendingChanges = changes;
+    }
+
+    private synchronized void swap(Vocabulary rebuilt) {
+        pendingChanges.forEach(change -> change.accept(rebuilt));
+        vocabulary = rebuilt;
+        snapshot = rebuilt.snapshot();
+    }
+
+    private static String normalize(String value) {
+        return value == null ? null : value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static final class Vocabulary {
+        private final Map<Long, CarNames> cars = new HashMap<>();
+        private final Map<String, Term> brands = new HashMap<>();
+        private final Map<String, Term> models = new HashMap<>();
+        private final Set<String> changedBrands = new HashSet<>();
+        private final Set<String> changedModels = new HashSet<>();
+
+        private void put(Long carId, String brand, String model) {
+            remove(carId);
+            cars.put(carId, new CarNames(brand, model));
+            add(brands, changedBrands, brand);
+            add(models, changedModels, model);
+        }
+
+        private void remove(Long carId) {
+            CarNames previous = cars.remove(carId);
+            if (previous != null) {
+                remove(brands, changedBrands, previous.brand());
+                remove(models, changedModels, previous.model());
+            }
+        }
+
+        private Snapshot snapshot() {
+            changedBrands.clear();
+            changedModels.clear();
+            return new Snapshot(Terms.of(brands), Terms.of(models));
+        }
+
+        private Snapshot update(Snapshot current) {
+            Snapshot updated = new Snapshot(current.brands().update(brands, changedBrands),
+                    current.models().update(models, changedModels));
+            changedBrands.clear();
+            changedModels.clear();
+            return updated;
+        }
+
+        private static void add(Map<String, Term> terms, Set<String> changed, String value) {
+            String key = normalize(value);
+            if (key == null || key.isEmpty()) {
+                return;
+            }
+            Term term = terms.get(key);
+            if (term == null) {
+                term = new Term(value.trim());
+                terms.put(key, term);
+                changed.add(key);
+            }
+            term.count++;
+        }
+
+        private static void remove(Map<String, Term> terms, Set<String> changed, String value) {
+            String key = normalize(value);
+            Term term = key == null ? null : terms.get(key);
+            if (term != null && --term.count <= 0) {
+                terms.remove(key);
+                changed.add(key);
+            }
+        }
+    }
+
+    private record CarNames(String brand, String model) {
+    }
+
+    private static final class Term {
+        private final String value;
+        private int count;
+
+        private Term(String value) {
+            this.value = value;
+        }
+    }
+
+    private record Snapshot(Terms brands, Terms models) {
+    }
+
+    private record Terms(String[] keys, String[] values) {
+        private static final Terms EMPTY = new Terms(new String[0], new String[0]);
+
+        private static Terms of(Map<String, Term> terms) {
+            String[] keys = terms.keySet().toArray(new String[0]);
+            Arrays.sort(keys);
+            String[] values = new String[keys.length];
+            for (int i = 0; i < keys.length; i++) {
+                values[i] = terms.get(keys[i]).value;
+            }
+            return new Terms(keys, values);
+        }
+
+        private Terms update(Map<String, Term> terms, Set<String> changed) {
+            Terms updated = this;
+            for (String key : changed) {
+                Term term = terms.get(key);
+                updated = term == null ? updated.without(key) : updated.with(key, term.value);
+            }
+            return updated;
+        }
+
+        private Terms with(String key, String value) {
+            int index = Arrays.binarySearch(keys, key);
+            if (index >= 0) {
+                if (values[index].equals(value)) {
+                    return this;
+                }
+                String[] renamed = values.clone();
+                renamed[index] = value;
+                return new Terms(keys, renamed);
+            }
+            int at = -index - 1;
+            return new Terms(insert(keys, at, key), insert(values, at, value));
+        }
+
+        private Terms without(String key) {
+            int index = Arrays.binarySearch(keys, key);
+            return index < 0 ? this : new Terms(delete(keys, index), delete(values, index));
+        }
+
+        private static String[] insert(String[] array, int at, String element) {
+            String[] copy = new String[array.length + 1];
+            System.arraycopy(array, 0, copy, 0, at);
+            copy[at] = element;
+            System.arraycopy(array, at, copy, at + 1, array.length - at);
+            return copy;
+        }
+
+        private static String[] delete(String[] array, int at) {
+            String[] copy = new String[array.length - 1];
+            System.arraycopy(array, 0, copy, 0, at);
+            System.arraycopy(array, at + 1, copy, at, array.length - at - 1);
+            return copy;
+        }
+
+        private void collect(String prefix, String field, int limit,
+                             List<CarSuggestionDto> suggestions) {
+            int index = Arrays.binarySearch(keys, prefix);
+            int from = index >= 0 ? index : -index - 1;
+            for (int i = from; i < keys.length && suggestions.size() < limit
+                    && keys[i].startsWith(prefix); i++) {
+                suggestions.add(new CarSuggestionDto(values[i], field));
+            }
+        }
+    }
+}
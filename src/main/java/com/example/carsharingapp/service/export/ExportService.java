@@ -0,0 +1,10 @@
+package com.example.carsharingapp.service.export;
+
+import com.example.carsharingapp.model.enums.ExportFormat;
+import java.io.OutputStream;
+
+public interface ExportService {
+    void exportRentals(OutputStream outputStream, ExportFormat format);
+
+    void exportPayments(OutputStream outputStream, ExportFormat format);
+}
@@ -0,0 +1,88 @@
+package com.example.carsharingapp.service.export;
+
+import com.example.carsharingapp.model.enums.ExportFormat;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.function.Function;
+
+public class ExportWriter<T> {
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final char SEPARATOR = ',';
+    private static final char QUOTE = '"';
+    private static final char NEW_LINE = '\n';
+
+    private final BufferedWriter writer;
+    private final ExportFormat format;
+    private final Map<String, Function<T, Object>> columns;
+    private final ObjectMapper objectMapper;
+
+    public ExportWriter(OutputStream outputStream, ExportFormat format,
+                        Map<String, Function<T, Object>> columns, ObjectMapper objectMapper) {
+        this.writer = new BufferedWriter(new OutputStreamWriter(outputStream,
+                StandardCharsets.UTF_8), BUFFER_SIZE);
+        this.format = format;
+        this.columns = columns;
+        this.objectMapper = objectMapper;
+        if (format == ExportFormat.CSV) {
+            writeLine(String.join(String.valueOf(SEPARATOR), columns.keySet()));
+        }
+    }
+
+    public void write(T row) {
+        if (format == ExportFormat.NDJSON) {
+            writeLine(toJson(row));
+            return;
+        }
+        StringBuilder line = new StringBuilder();
+        for (Function<T, Object> column : columns.values()) {
+            if (!line.isEmpty()) {
+                line.append(SEPARATOR);
+            }
+            Object value = column.apply(row);
+            if (value != null) {
+                line.append(escape(value.toString()));
+            }
+        }
+        writeLine(line.toString());
+    }
+
+    public void flush() {
+        try {
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private String toJson(T row) {
+        try {
+            return objectMapper.writeValueAsString(row);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Can't serialize exported row", e);
+        }
+    }
+
+    private void writeLine(String line) {
+        try {
+            writer.write(line);
+            writer.write(NEW_LINE);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private String escape(String value) {
+        if (value.indexOf(SEPARATOR) < 0 && value.indexOf(QUOTE) < 0
+                && value.indexOf(NEW_LINE) < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return QUOTE + value.replace("\"", "\"\"") + QUOTE;
+    }
+}
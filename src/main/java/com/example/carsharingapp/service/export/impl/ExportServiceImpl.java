@@ -0,0 +1,77 @@
+package com.example.carsharingapp.service.export.impl;
+
+import com.example.carsharingapp.dto.payment.PaymentResponseDto;
+import com.example.carsharingapp.dto.rental.RentalResponseDto;
+import com.example.carsharingapp.model.enums.ExportFormat;
+import com.example.carsharingapp.repository.payment.PaymentRepository;
+import com.example.carsharingapp.repository.rental.RentalRepository;
+import com.example.carsharingapp.service.export.ExportService;
+import com.example.carsharingapp.service.export.ExportWriter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.OutputStream;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class ExportServiceImpl implements ExportService {
+    private static final Map<String, Function<RentalResponseDto, Object>> RENTAL_COLUMNS =
+            new LinkedHashMap<>();
+    private static final Map<String, Function<PaymentResponseDto, Object>> PAYMENT_COLUMNS =
+            new LinkedHashMap<>();
+
+    static {
+        RENTAL_COLUMNS.put("id", RentalResponseDto::getId);
+        RENTAL_COLUMNS.put("rentalDate", RentalResponseDto::getRentalDate);
+        RENTAL_COLUMNS.put("returnDate", RentalResponseDto::getReturnDate);
+        RENTAL_COLUMNS.put("actualReturnDate", RentalResponseDto::getActualReturnDate);
+        RENTAL_COLUMNS.put("carId", RentalResponseDto::getCarId);
+        RENTAL_COLUMNS.put("userId", RentalResponseDto::getUserId);
+        PAYMENT_COLUMNS.put("id", PaymentResponseDto::getId);
+        PAYMENT_COLUMNS.put("status", PaymentResponseDto::getStatus);
+        PAYMENT_COLUMNS.put("type", PaymentResponseDto::getType);
+        PAYMENT_COLUMNS.put("amountToPay", PaymentResponseDto::getAmountToPay);
+        PAYMENT_COLUMNS.put("sessionId", PaymentResponseDto::getSessionId);
+        PAYMENT_COLUMNS.put("sessionUrl", PaymentResponseDto::getSessionUrl);
+    }
+
+    private final RentalRepository rentalRepository;
+    private final PaymentRepository paymentRepository;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public void exportRentals(OutputStream outputStream, ExportFormat format) {
+        ExportWriter<RentalResponseDto> writer = new ExportWriter<>(outputStream, format,
+                RENTAL_COLUMNS, objectMapper);
+        try (Stream<RentalResponseDto> active = rentalRepository.streamActiveResponseDtos()) {
+            active.forEach(writer::write);
+        }
+        try (Stream<RentalResponseDto> returned = rentalRepository.streamReturnedResponseDtos()) {
+            returned.forEach(writer::write);
+        }
+        try (Stream<RentalResponseDto> archived = rentalRepository.streamArchivedResponseDtos()) {
+            archived.forEach(writer::write);
+        }
+        writer.flush();
+    }
+
+    @Override
+    public void exportPayments(OutputStream outputStream, ExportFormat format) {
+        ExportWriter<PaymentResponseDto> writer = new ExportWriter<>(outputStream, format,
+                PAYMENT_COLUMNS, objectMapper);
+        try (Stream<PaymentResponseDto> payments = paymentRepository.streamAllResponseDtos()) {
+            payments.forEach(writer::write);
+        }
+        try (Stream<PaymentResponseDto> archived =
+                     paymentRepository.streamArchivedResponseDtos()) {
+            archived.forEach(writer::write);
+        }
+        writer.flush();
+    }
+}
@@ -0,0 +1,212 @@
+package com.example.carsharingapp.service.idempotency;
+
+import com.example.carsharingapp.exception.IdempotencyKeyReuseException;
+import com.example.carsharingapp.exception.IdempotencyStoreFullException;
+import com.example.carsharingapp.exception.IdempotentRequestInProgressException;
+import com.example.carsharingapp.repository.idempotency.IdempotencyKeyRepository;
+import com.example.carsharingapp.repository.idempotency.IdempotencyRecord;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+
+@Component
+public class IdempotencyStore {
+    public static final String HEADER = "Idempotency-Key";
+    private static final String ANONYMOUS = "anonymous";
+    private static final String SEPARATOR = ":";
+
+    private final IdempotencyKeyRepository idempotencyKeyRepository;
+    private final ObjectMapper objectMapper;
+    private final int maxSize;
+    private final Duration ttl;
+    private final boolean persistent;
+    private final Duration claimLease;
+    private final Map<String, Entry> inFlight = new HashMap<>();
+    private final Map<String, Entry> completed = new LinkedHashMap<>(16, 0.75f, true);
+
+    public IdempotencyStore(IdempotencyKeyRepository idempotencyKeyRepository,
+                            ObjectMapper objectMapper,
+                            @Value("${idempotency.max-size:10000}") int maxSize,
+                            @Value("${idempotency.ttl:PT24H}") Duration ttl,
+                            @Value("${idempotency.persistent:false}") boolean persistent,
+                            @Value("${idempotency.claim-lease:PT1M}") Duration claimLease) {
+        this.idempotencyKeyRepository = idempotencyKeyRepository;
+        this.objectMapper = objectMapper;
+        this.maxSize = maxSize;
+        this.ttl = ttl;
+        this.persistent = persistent;
+        this.claimLease = claimLease;
+    }
+
+    public <T> T execute(String key, String operation, Object request, Class<T> responseType,
+                         Supplier<T> action) {
+        if (key == null || key.isBlank()) {
+            return action.get();
+        }
+        String keyHash = hash(currentPrincipal() + SEPARATOR + operation + SEPARATOR + key);
+        String requestHash = hash(toJson(request));
+        Entry entry;
+        boolean owner = false;
+        synchronized (this) {
+            entry = inFlight.get(keyHash);
+            if (entry == null) {
+                entry = completed.get(keyHash);
+                if (entry != null && entry.expiresAt - System.nanoTime() <= 0) {
+                    completed.remove(keyHash);
+                    entry = null;
+                }
+            }
+            if (entry == null) {
+                makeRoom(key);
+                entry = new Entry(requestHash, new CompletableFuture<>(),
+                        System.nanoTime() + ttl.toNanos());
+                inFlight.put(keyHash, entry);
+                owner = true;
+            }
+        }
+        if (!entry.requestHash.equals(requestHash)) {
+            throw reused(key);
+        }
+        if (!owner) {
+            return responseType.cast(await(entry.response));
+        }
+        try {
+            T response = persistent
+                    ? executePersistent(key, keyHash, requestHash, responseType, action)
+                    : action.get();
+            synchronized (this) {
+                inFlight.remove(keyHash, entry);
+                completed.put(keyHash, entry);
+            }
+            entry.response.complete(response);
+            return response;
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                inFlight.remove(keyHash, entry);
+            }
+            entry.response.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${idempotency.ttl:PT24H}",
+            initialDelayString = "${idempotency.ttl:PT24H}")
+    public void purgeExpired() {
+        if (persistent) {
+            idempotencyKeyRepository.deleteCreatedBefore(LocalDateTime.now().minus(ttl));
+        }
+    }
+
+    private void makeRoom(String key) {
+        Iterator<Entry> eldest = completed.values().iterator();
+        while (inFlight.size() + completed.size() >= maxSize && eldest.hasNext()) {
+            eldest.next();
+            eldest.remove();
+        }
+        if (inFlight.size() >= maxSize) {
+            throw new IdempotencyStoreFullException("Too many requests are in progress to "
+                    + "accept idempotency key " + key + ", retry later");
+        }
+    }
+
+    private <T> T executePersistent(String key, String keyHash, String requestHash,
+                                    Class<T> responseType, Supplier<T> action) {
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        if (!idempotencyKeyRepository.claim(keyHash, requestHash, now, now.minus(claimLease),
+                now.minus(ttl))) {
+            return storedResponse(key, keyHash, requestHash, responseType, now);
+        }
+        T response;
+        try {
+            response = action.get();
+        } catch (RuntimeException e) {
+            idempotencyKeyRepository.release(keyHash, now);
+            throw e;
+        }
+        idempotencyKeyRepository.complete(keyHash, now, toJson(response));
+        return response;
+    }
+
+    private <T> T storedResponse(String key, String keyHash, String requestHash,
+                                 Class<T> responseType, LocalDateTime now) {
+        IdempotencyRecord stored = idempotencyKeyRepository
+                .findCreatedAfter(keyHash, now.minus(ttl))
+                .orElseThrow(() -> inProgress(key));
+        if (!stored.requestHash().equals(requestHash)) {
+            throw reused(key);
+        }
+        if (stored.inFlight()) {
+            throw inProgress(key);
+        }
+        return fromJson(stored.response(), responseType);
+    }
+
+    private Object await(CompletableFuture<Object> response) {
+        try {
+            return response.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
+
+    private IdempotencyKeyReuseException reused(String key) {
+        return new IdempotencyKeyReuseException("Idempotency key " + key
+                + " was already used with a different request");
+    }
+
+    private IdempotentRequestInProgressException inProgress(String key) {
+        return new IdempotentRequestInProgressException("Request with idempotency key " + key
+                + " is still in progress, retry shortly");
+    }
+
+    private String currentPrincipal() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication == null ? ANONYMOUS : authentication.getName();
+    }
+
+    private String toJson(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Can't serialize idempotent request or response", e);
+        }
+    }
+
+    private <T> T fromJson(String json, Class<T> type) {
+        try {
+            return objectMapper.readValue(json, type);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Can't read stored idempotent response", e);
+        }
+    }
+
+    private String hash(String value) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256")
+                    .digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private record Entry(String requestHash, CompletableFuture<Object> response, long expiresAt) {
+    }
+}
@@ -1,15 +1,30 @@
 package com.example.carsharingapp.service.payment;
 
+import com.example.carsharingapp.dto.payment.FineJobStatsDto;
+import com.example.carsharingapp.dto.payment.PaymentQuoteResponseDto;
 import com.example.carsharingapp.dto.payment.PaymentRequestDto;
 import com.example.carsharingapp.dto.payment.PaymentResponseDto;
 import com.example.carsharingapp.dto.payment.PaymentStatusResponseDto;
+import com.example.carsharingapp.dto.payment.ReconciliationStatsDto;
+import com.example.carsharingapp.dto.payment.StripeResilienceStatsDto;
+import java.time.LocalDateTime;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
 public interface PaymentService {
     PaymentResponseDto create(PaymentRequestDto requestDto);
 
+    PaymentQuoteResponseDto quote(Long carId, LocalDateTime from, LocalDateTime to);
+
     PaymentStatusResponseDto getPaymentStatus(String sessionId);
 
+    void handleWebhook(String payload, String signatureHeader);
+
     Page<PaymentResponseDto> getPaymentsByUserId(Long userId, Pageable pageable);
+
+    FineJobStatsDto getFineJobStats();
+
+    StripeResilienceStatsDto getStripeStats();
+
+    ReconciliationStatsDto getReconciliationStats();
 }
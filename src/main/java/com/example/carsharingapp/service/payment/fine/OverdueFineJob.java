@@ -0,0 +1,218 @@
+package com.example.carsharingapp.service.payment.fine;
+
+import com.example.carsharingapp.dto.payment.FineJobStatsDto;
+import com.example.carsharingapp.model.enums.PaymentType;
+import com.example.carsharingapp.model.enums.Status;
+import com.example.carsharingapp.model.enums.Type;
+import com.example.carsharingapp.repository.job.JobCheckpointRepository;
+import com.example.carsharingapp.service.payment.pricing.PricingEngine;
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@Component
+public class OverdueFineJob {
+    public static final String JOB_NAME = "overdue-fines";
+    private static final String SELECT_OVERDUE_RENTALS = "SELECT r.id, r.return_date, c.daily_fee, "
+            + "c.type, c.brand, r.user_id "
+            + "FROM rentals r JOIN cars c ON c.id = r.car_id "
+            + "WHERE r.actual_return_date IS NULL AND r.is_deleted = false "
+            + "AND r.return_date < ? AND r.id > ? "
+            + "AND NOT EXISTS (SELECT 1 FROM payments p WHERE p.rental_id = r.id "
+            + "AND p.type = ? AND p.is_deleted = false) "
+            + "ORDER BY r.id";
+    private static final String INSERT_FINE = "INSERT INTO payments "
+            + "(status, type, rental_id, user_id, amount_to_pay, is_deleted) "
+            + "VALUES (?, ?, ?, ?, ?, false)";
+    private static final long MILLIS_PER_SECOND = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final JobCheckpointRepository jobCheckpointRepository;
+    private final PricingEngine pricingEngine;
+    private final int chunkSize;
+    private final Duration leaseDuration;
+    private final String owner = UUID.randomUUID().toString();
+    private final AtomicBoolean running = new AtomicBoolean();
+    private long runs;
+    private long finesIssued;
+    private long lastRunFines;
+    private long lastRunMillis;
+    private double lastRunFinesPerSecond;
+
+    public OverdueFineJob(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                          JobCheckpointRepository jobCheckpointRepository,
+                          PricingEngine pricingEngine,
+                          @Value("${payment.fines.chunk-size:500}") int chunkSize,
+                          @Value("${payment.fines.lease:PT5M}") Duration leaseDuration) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.jobCheckpointRepository = jobCheckpointRepository;
+        this.pricingEngine = pricingEngine;
+        this.chunkSize = chunkSize;
+        this.leaseDuration = leaseDuration;
+    }
+
+    @Scheduled(fixedDelayString = "${payment.fines.scan-interval:PT1H}",
+            initialDelayString = "${payment.fines.scan-interval:PT1H}")
+    public void scheduledRun() {
+        run(LocalDateTime.now());
+    }
+
+    public long run(LocalDateTime now) {
+        if (!running.compareAndSet(false, true)) {
+            return 0;
+        }
+        long startedAt = System.nanoTime();
+        ExecutorService writer = Executors.newSingleThreadExecutor();
+        try {
+            if (!jobCheckpointRepository.tryAcquireLease(JOB_NAME, owner, leaseDuration)) {
+                return 0;
+            }
+            try {
+                long issued = scan(now, writer);
+                record(issued, Duration.ofNanos(System.nanoTime() - startedAt));
+                return issued;
+            } finally {
+                jobCheckpointRepository.releaseLease(JOB_NAME, owner);
+            }
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        } finally {
+            writer.shutdown();
+            running.set(false);
+        }
+    }
+
+    public synchronized FineJobStatsDto getStats() {
+        return new FineJobStatsDto(runs, finesIssued, lastRunFines, lastRunMillis,
+                lastRunFinesPerSecond);
+    }
+
+    private long scan(LocalDateTime now, ExecutorService writer) {
+        long checkpoint = jobCheckpointRepository.findLastId(JOB_NAME);
+        ChunkPipeline pipeline = new ChunkPipeline(now, writer);
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(SELECT_OVERDUE_RENTALS,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(Integer.MIN_VALUE);
+            statement.setTimestamp(1, Timestamp.valueOf(now));
+            statement.setLong(2, checkpoint);
+            statement.setString(3, PaymentType.FINE.name());
+            return statement;
+        }, pipeline);
+        long issued = pipeline.finish();
+        if (pipeline.leaseLost) {
+            return issued;
+        }
+        jobCheckpointRepository.saveLastIdAndRenewLease(JOB_NAME, 0, owner, leaseDuration);
+        return issued;
+    }
+
+    private boolean write(List<OverdueRental> chunk, LocalDateTime now) {
+        return Boolean.TRUE.equals(transactionTemplate.execute(status -> {
+            jdbcTemplate.batchUpdate(INSERT_FINE, chunk, chunk.size(), (ps, rental) -> {
+                ps.setString(1, Status.PENDING.name());
+                ps.setString(2, PaymentType.FINE.name());
+                ps.setLong(3, rental.id());
+                ps.setLong(4, rental.userId());
+                ps.setBigDecimal(5, pricingEngine.fine(rental.type(), rental.brand(),
+                        rental.dailyFee(), rental.returnDate(), now));
+            });
+            if (!jobCheckpointRepository.saveLastIdAndRenewLease(JOB_NAME,
+                    chunk.get(chunk.size() - 1).id(), owner, leaseDuration)) {
+                status.setRollbackOnly();
+                return false;
+            }
+            return true;
+        }));
+    }
+
+    private synchronized void record(long issued, Duration duration) {
+        runs++;
+        finesIssued += issued;
+        lastRunFines = issued;
+        lastRunMillis = duration.toMillis();
+        lastRunFinesPerSecond = lastRunMillis == 0
+                ? issued
+                : issued * (double) MILLIS_PER_SECOND / lastRunMillis;
+    }
+
+    private final class ChunkPipeline implements RowCallbackHandler {
+        private final LocalDateTime now;
+        private final ExecutorService writer;
+        private List<OverdueRental> chunk = new ArrayList<>(chunkSize);
+        private CompletableFuture<Integer> pending = CompletableFuture.completedFuture(0);
+        private long count;
+        private boolean leaseLost;
+
+        private ChunkPipeline(LocalDateTime now, ExecutorService writer) {
+            this.now = now;
+            this.writer = writer;
+        }
+
+        @Override
+        public void processRow(ResultSet resultSet) throws SQLException {
+            if (leaseLost) {
+                return;
+            }
+            chunk.add(new OverdueRental(resultSet.getLong(1),
+                    resultSet.getTimestamp(2).toLocalDateTime(), resultSet.getBigDecimal(3),
+                    Type.valueOf(resultSet.getString(4)), resultSet.getString(5),
+                    resultSet.getLong(6)));
+            if (chunk.size() == chunkSize) {
+                flush();
+            }
+        }
+
+        private void flush() {
+            List<OverdueRental> rentals = chunk;
+            chunk = new ArrayList<>(chunkSize);
+            if (!await()) {
+                return;
+            }
+            pending = CompletableFuture.supplyAsync(
+                    () -> write(rentals, now) ? rentals.size() : -1, writer);
+        }
+
+        private long finish() {
+            if (!chunk.isEmpty() && !leaseLost) {
+                flush();
+            }
+            await();
+            return count;
+        }
+
+        private boolean await() {
+            int written = pending.join();
+            if (written < 0) {
+                leaseLost = true;
+            } else {
+                count += written;
+            }
+            return !leaseLost;
+        }
+    }
+
+    private record OverdueRental(long id, LocalDateTime returnDate, BigDecimal dailyFee,
+                                 Type type, String brand, long userId) {
+    }
+}
@@ -1,105 +1,323 @@
 package com.example.carsharingapp.service.payment.impl;
 
+import com.example.carsharingapp.dto.payment.FineJobStatsDto;
+import com.example.carsharingapp.dto.payment.PaymentQuoteResponseDto;
 import com.example.carsharingapp.dto.payment.PaymentRequestDto;
 import com.example.carsharingapp.dto.payment.PaymentResponseDto;
 import com.example.carsharingapp.dto.payment.PaymentStatusResponseDto;
+import com.example.carsharingapp.dto.payment.ReconciliationStatsDto;
+import com.example.carsharingapp.dto.payment.StripeResilienceStatsDto;
+import com.example.carsharingapp.exception.CheckoutSessionPendingException;
 import com.example.carsharingapp.exception.EntityNotFoundException;
+import com.example.carsharingapp.exception.InvalidDateRangeException;
+import com.example.carsharingapp.exception.StripeSessionFailureException;
+import com.example.carsharingapp.exception.StripeUnavailableException;
 import com.example.carsharingapp.mapper.payment.PaymentMapper;
+import com.example.carsharingapp.model.car.Car;
 import com.example.carsharingapp.model.enums.PaymentType;
 import com.example.carsharingapp.model.enums.Status;
 import com.example.carsharingapp.model.payment.Payment;
 import com.example.carsharingapp.model.rental.Rental;
+import com.example.carsharingapp.repository.car.CarRepository;
 import com.example.carsharingapp.repository.payment.PaymentRepository;
 import com.example.carsharingapp.repository.rental.RentalRepository;
 import com.example.carsharingapp.service.bot.TelegramNotificationService;
 import com.example.carsharingapp.service.payment.PaymentService;
+import com.example.carsharingapp.service.payment.fine.OverdueFineJob;
+import com.example.carsharingapp.service.payment.pricing.PricingEngine;
+import com.example.carsharingapp.service.payment.reconciliation.PaymentReconciliationJob;
+import com.example.carsharingapp.service.stripe.StripeCallExecutor;
 import com.example.carsharingapp.service.stripe.StripeService;
+import com.example.carsharingapp.service.stripe.resilience.StripeResilienceGuard;
+import com.example.carsharingapp.service.stripe.status.StripeSessionStatusCache;
+import com.example.carsharingapp.service.stripe.webhook.StripeWebhookEvent;
+import com.example.carsharingapp.service.stripe.webhook.StripeWebhookParser;
 import com.stripe.model.checkout.Session;
-import jakarta.transaction.Transactional;
 import java.math.BigDecimal;
 import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 @Service
 @RequiredArgsConstructor
 @Transactional
 public class PaymentServiceImpl implements PaymentService {
     private static final String PAID = "paid";
+    private static final Set<String> CHECKOUT_PAID_EVENTS = Set.of(
+            "checkout.session.completed", "checkout.session.async_payment_succeeded");
     private final RentalRepository rentalRepository;
     private final PaymentRepository paymentRepository;
     private final PaymentMapper paymentMapper;
     private final StripeService stripeService;
     private final TelegramNotificationService telegramNotificationService;
+    private final OverdueFineJob overdueFineJob;
+    private final StripeWebhookParser stripeWebhookParser;
+    private final StripeSessionStatusCache stripeSessionStatusCache;
+    private final StripeCallExecutor stripeCallExecutor;
+    private final TransactionTemplate transactionTemplate;
+    private final StripeResilienceGuard stripeResilienceGuard;
+    private final PaymentReconciliationJob paymentReconciliationJob;
+    private final CarRepository carRepository;
+    private final PricingEngine pricingEngine;
+    private final Map<SessionKey, CompletableFuture<PaymentResponseDto>> pendingSessions =
+            new ConcurrentHashMap<>();
 
-    @Transactional
+    @Value("${stripe.session.reuse-margin:PT10M}")
+    private Duration sessionReuseMargin;
+
+    @Value("${stripe.session.reservation-lease:${stripe.executor.timeout:PT30S}}")
+    private Duration sessionReservationLease;
+
+    @Value("${stripe.session.await-timeout:PT5S}")
+    private Duration sessionAwaitTimeout;
+
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     @Override
     public PaymentResponseDto create(PaymentRequestDto request) {
-        Rental rental = rentalRepository.findById(request.getRentalId())
+        SessionKey key = new SessionKey(request.getRentalId(), request.getType());
+        CompletableFuture<PaymentResponseDto> created = new CompletableFuture<>();
+        CompletableFuture<PaymentResponseDto> running = pendingSessions.putIfAbsent(key, created);
+        if (running != null) {
+            return awaitPendingSession(running, request);
+        }
+        try {
+            PaymentResponseDto response = createOrReuse(request);
+            created.complete(response);
+            return response;
+        } catch (RuntimeException e) {
+            created.completeExceptionally(e);
+            throw e;
+        } finally {
+            pendingSessions.remove(key, created);
+        }
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public PaymentQuoteResponseDto quote(Long carId, LocalDateTime from, LocalDateTime to) {
+        if (!from.isBefore(to)) {
+            throw new InvalidDateRangeException("Start of the period " + from
+                    + " must be before its end " + to);
+        }
+        Car car = carRepository.findById(carId)
                 .orElseThrow(() -> new EntityNotFoundException(
-                        "Rental was not found with id: " + request.getRentalId()
+                        "Car was not found with id: " + carId
                 ));
+        return new PaymentQuoteResponseDto(car.getId(), car.getBrand(), car.getType(), from, to,
+                pricingEngine.rentalPrice(car.getType(), car.getBrand(), car.getDailyFee(),
+                        from, to));
+    }
 
-        BigDecimal totalAmount = calculateAmount(rental, request.getType());
-        Session session = stripeService.createRentalPaymentSession(rental, totalAmount);
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @Override
+    public PaymentStatusResponseDto getPaymentStatus(String sessionId) {
+        Status status = transactionTemplate.execute(tx ->
+                paymentRepository.findStatusBySessionId(sessionId)
+                        .orElseThrow(() -> new EntityNotFoundException(
+                                "Payment was not found with session id: " + sessionId
+                        )));
+        if ((status == Status.PENDING || status == Status.CANCELED)
+                && isPaidInStripe(sessionId)) {
+            status = transactionTemplate.execute(tx -> markPaid(sessionId));
+        }
+        return new PaymentStatusResponseDto(status);
+    }
 
-        Payment payment = new Payment();
-        payment.setStatus(Status.PENDING);
-        payment.setType(request.getType());
-        payment.setAmountToPay(totalAmount);
+    @Override
+    public void handleWebhook(String payload, String signatureHeader) {
+        StripeWebhookEvent event = stripeWebhookParser.parse(payload, signatureHeader);
+        if (CHECKOUT_PAID_EVENTS.contains(event.type()) && PAID.equals(event.paymentStatus())) {
+            markPaid(event.sessionId());
+        }
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public Page<PaymentResponseDto> getPaymentsByUserId(Long userId, Pageable pageable) {
+        return paymentRepository.findResponseDtosByUserId(userId, pageable);
+    }
+
+    @Override
+    public FineJobStatsDto getFineJobStats() {
+        return overdueFineJob.getStats();
+    }
+
+    @Override
+    public StripeResilienceStatsDto getStripeStats() {
+        return stripeResilienceGuard.getStats();
+    }
+
+    @Override
+    public ReconciliationStatsDto getReconciliationStats() {
+        return paymentReconciliationJob.getStats();
+    }
+
+    private boolean isPaidInStripe(String sessionId) {
+        try {
+            return PAID.equals(stripeSessionStatusCache.getStatus(sessionId));
+        } catch (StripeUnavailableException e) {
+            return false;
+        }
+    }
+
+    private PaymentResponseDto createOrReuse(PaymentRequestDto request) {
+        Payment payment = reserveOrReusePayment(request);
+        if (payment.getSessionId() != null) {
+            return paymentMapper.toResponseDto(payment);
+        }
+        Session session;
+        try {
+            session = stripeCallExecutor.call(() -> stripeService
+                    .createRentalPaymentSession(payment.getRental(), payment.getAmountToPay()));
+        } catch (RuntimeException e) {
+            transactionTemplate.executeWithoutResult(status -> releaseReservation(payment));
+            throw e;
+        }
+        LocalDateTime sessionExpiresAt = toLocalDateTime(session.getExpiresAt());
+        transactionTemplate.executeWithoutResult(status -> paymentRepository.attachSession(
+                payment.getId(), session.getId(), session.getUrl(), sessionExpiresAt));
         payment.setSessionId(session.getId());
         payment.setSessionUrl(session.getUrl());
-        payment.setRental(rental);
-
-        paymentRepository.save(payment);
+        payment.setSessionExpiresAt(sessionExpiresAt);
 
         telegramNotificationService.sendNotification("Payment with id: "
                 + payment.getId() + " was created");
         return paymentMapper.toResponseDto(payment);
     }
 
-    @Override
-    public PaymentStatusResponseDto getPaymentStatus(String sessionId) {
-        Payment payment = paymentRepository.findBySessionId(sessionId)
+    private Payment reserveOrReusePayment(PaymentRequestDto request) {
+        Payment payment = transactionTemplate.execute(status -> reservePayment(request));
+        if (payment == null) {
+            throw pending(request);
+        }
+        return payment;
+    }
+
+    private Payment reservePayment(PaymentRequestDto request) {
+        rentalRepository.lockById(request.getRentalId());
+        Rental rental = rentalRepository.findWithCarById(request.getRentalId())
                 .orElseThrow(() -> new EntityNotFoundException(
-                        "Payment was not found with session id: " + sessionId
+                        "Rental was not found with id: " + request.getRentalId()
                 ));
+        LocalDateTime now = LocalDateTime.now();
+        List<Payment> openPayments = paymentRepository.findOpenPayments(rental.getId(),
+                request.getType(), Status.PENDING, now, now.plus(sessionReuseMargin));
+        if (!openPayments.isEmpty()) {
+            Payment openPayment = openPayments.get(0);
+            return openPayment.getSessionId() == null ? null : openPayment;
+        }
+        List<Payment> unclaimedPayments = paymentRepository.findUnclaimedPayments(
+                rental.getId(), request.getType(), Status.PENDING, now);
+        if (!unclaimedPayments.isEmpty()) {
+            return adopt(unclaimedPayments.get(0), rental, now);
+        }
 
-        if (PAID.equals(stripeService.checkPaymentStatus(sessionId))) {
-            payment.setStatus(Status.PAID);
+        Payment payment = new Payment();
+        payment.setStatus(Status.PENDING);
+        payment.setType(request.getType());
+        payment.setAmountToPay(calculateAmount(rental, request.getType(), now));
+        payment.setRental(rental);
+        payment.setUserId(rental.getUser().getId());
+        payment.setSessionExpiresAt(now.plus(sessionReservationLease));
+        return paymentRepository.save(payment);
+    }
+
+    private Payment adopt(Payment payment, Rental rental, LocalDateTime now) {
+        payment.setAmountToPay(calculateAmount(rental, payment.getType(), now));
+        payment.setRental(rental);
+        payment.setSessionExpiresAt(now.plus(sessionReservationLease));
+        return payment;
+    }
+
+    private void releaseReservation(Payment payment) {
+        if (payment.getType() == PaymentType.FINE) {
+            paymentRepository.releaseReservation(payment.getId());
         } else {
-            payment.setStatus(Status.PENDING);
+            paymentRepository.deleteById(payment.getId());
         }
+    }
 
-        paymentRepository.save(payment);
+    private PaymentResponseDto awaitPendingSession(CompletableFuture<PaymentResponseDto> running,
+                                                   PaymentRequestDto request) {
+        try {
+            return running.get(sessionAwaitTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw pending(request);
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause
+                    : new StripeSessionFailureException(e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new StripeSessionFailureException("Interrupted while waiting for the "
+                    + "checkout session of rental with id: " + request.getRentalId());
+        }
+    }
 
-        telegramNotificationService.sendNotification("Your payment with id: "
-                + payment.getId() + " has status " + payment.getStatus());
-        return new PaymentStatusResponseDto(payment.getStatus());
+    private CheckoutSessionPendingException pending(PaymentRequestDto request) {
+        return new CheckoutSessionPendingException("Checkout session for rental with id: "
+                + request.getRentalId() + " is still being created, retry shortly");
     }
 
-    @Override
-    public Page<PaymentResponseDto> getPaymentsByUserId(Long userId, Pageable pageable) {
-        return paymentRepository.findByUserId(userId, pageable)
-                .map(paymentMapper::toResponseDto);
+    private LocalDateTime toLocalDateTime(Long epochSecond) {
+        return epochSecond == null
+                ? LocalDateTime.now()
+                : LocalDateTime.ofInstant(Instant.ofEpochSecond(epochSecond),
+                        ZoneId.systemDefault());
     }
 
-    private BigDecimal calculateAmount(Rental rental, PaymentType type) {
-        if (type == PaymentType.PAYMENT) {
-            long days = Duration.between(rental.getRentalDate(), rental.getReturnDate()).toDays();
-            if (days == 0) {
-                days = 1;
-            }
-            return rental.getCar().getDailyFee().multiply(BigDecimal.valueOf(days));
+    private Status markPaid(String sessionId) {
+        Payment payment = paymentRepository.findBySessionId(sessionId).orElse(null);
+        if (payment == null) {
+            return null;
+        }
+        rentalRepository.lockById(payment.getRental().getId());
+        Status status;
+        if (paymentRepository.updateStatusBySessionId(sessionId, Status.PENDING,
+                Status.PAID) == 1) {
+            rentalRepository.confirmHold(payment.getRental().getId());
+            status = Status.PAID;
+        } else if (paymentRepository.updateStatusBySessionId(sessionId, Status.CANCELED,
+                Status.REFUND_REQUIRED) == 1) {
+            status = Status.REFUND_REQUIRED;
         } else {
-            long days = Duration.between(rental.getReturnDate(),
-                    rental.getActualReturnDate()).toDays();
-            if (days == 0) {
-                days = 1;
-            }
-            return rental.getCar().getDailyFee().multiply(BigDecimal.valueOf(days));
+            return paymentRepository.findStatusBySessionId(sessionId).orElse(null);
         }
+
+        telegramNotificationService.sendNotification("Your payment with id: "
+                + payment.getId() + " has status " + status);
+        return status;
+    }
+
+    private BigDecimal calculateAmount(Rental rental, PaymentType type, LocalDateTime now) {
+        Car car = rental.getCar();
+        if (type == PaymentType.PAYMENT) {
+            return pricingEngine.rentalPrice(car.getType(), car.getBrand(), car.getDailyFee(),
+                    rental.getRentalDate(), rental.getReturnDate());
+        }
+        LocalDateTime returnedAt = rental.getActualReturnDate() == null
+                ? now
+                : rental.getActualReturnDate();
+        return pricingEngine.fine(car.getType(), car.getBrand(), car.getDailyFee(),
+                rental.getReturnDate(), returnedAt);
+    }
+
+    private record SessionKey(Long rentalId, PaymentType type) {
     }
 }
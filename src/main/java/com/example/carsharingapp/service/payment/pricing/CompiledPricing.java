@@ -0,0 +1,67 @@
+package com.example.carsharingapp.service.payment.pricing;
+
+import com.example.carsharingapp.model.enums.Type;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+final class CompiledPricing {
+    private static final Type[] TYPES = Type.values();
+
+    private final CompiledPricingRule[] byType;
+    private final Map<String, CompiledPricingRule[]> byBrand;
+
+    private CompiledPricing(CompiledPricingRule[] byType,
+                            Map<String, CompiledPricingRule[]> byBrand) {
+        this.byType = byType;
+        this.byBrand = byBrand;
+    }
+
+    static CompiledPricing compile(PricingRuleSet ruleSet) {
+        List<PricingRule> rules = ruleSet == null || ruleSet.rules() == null
+                ? List.of()
+                : ruleSet.rules();
+        Map<String, CompiledPricingRule> compiled = new HashMap<>();
+        Map<String, String> brands = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        for (PricingRule rule : rules) {
+            if (rule.brand() != null) {
+                brands.putIfAbsent(rule.brand(), rule.brand());
+            }
+            String brand = rule.brand() == null ? null : brands.get(rule.brand());
+            if (compiled.put(key(rule.type(), brand), new CompiledPricingRule(rule)) != null) {
+                throw new IllegalStateException("Duplicate pricing rule for type "
+                        + rule.type() + " and brand " + rule.brand());
+            }
+        }
+        CompiledPricingRule defaultRule = compiled.getOrDefault(key(null, null),
+                CompiledPricingRule.LEGACY);
+        CompiledPricingRule[] byType = new CompiledPricingRule[TYPES.length];
+        for (Type type : TYPES) {
+            byType[type.ordinal()] = compiled.getOrDefault(key(type, null), defaultRule);
+        }
+        Map<String, CompiledPricingRule[]> byBrand = new TreeMap<>(
+                String.CASE_INSENSITIVE_ORDER);
+        for (String brand : brands.values()) {
+            CompiledPricingRule brandRule = compiled.get(key(null, brand));
+            CompiledPricingRule[] brandRules = new CompiledPricingRule[TYPES.length];
+            for (Type type : TYPES) {
+                CompiledPricingRule fallback = brandRule == null
+                        ? byType[type.ordinal()]
+                        : brandRule;
+                brandRules[type.ordinal()] = compiled.getOrDefault(key(type, brand), fallback);
+            }
+            byBrand.put(brand, brandRules);
+        }
+        return new CompiledPricing(byType, byBrand);
+    }
+
+    CompiledPricingRule ruleFor(Type type, String brand) {
+        CompiledPricingRule[] brandRules = brand == null ? null : byBrand.get(brand);
+        return brandRules == null ? byType[type.ordinal()] : brandRules[type.ordinal()];
+    }
+
+    private static String key(Type type, String brand) {
+        return type + "/" + brand;
+    }
+}
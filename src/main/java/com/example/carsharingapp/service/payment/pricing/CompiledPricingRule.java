@@ -0,0 +1,131 @@
+package com.example.carsharingapp.service.payment.pricing;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+
+final class CompiledPricingRule {
+    static final CompiledPricingRule LEGACY = new CompiledPricingRule(
+            new PricingRule(null, null, null, null, null, null));
+    private static final long BASIS_POINTS = 10_000;
+    private static final long SECONDS_PER_HOUR = 3_600;
+    private static final int DAYS_PER_WEEK = 7;
+    private static final int WEEKEND_DAYS_PER_WEEK = 2;
+    private static final int PERCENT_SCALE = 2;
+    private static final int MULTIPLIER_SCALE = 4;
+
+    private final long hourlyBasisPoints;
+    private final long weekendBasisPoints;
+    private final long fineBasisPoints;
+    private final int[] discountMinDays;
+    private final long[] discountBasisPoints;
+
+    CompiledPricingRule(PricingRule rule) {
+        this.hourlyBasisPoints = rule.hourlyPercent() == null
+                ? 0
+                : toBasisPoints(rule.hourlyPercent(), PERCENT_SCALE, rule);
+        this.weekendBasisPoints = rule.weekendMultiplier() == null
+                ? BASIS_POINTS
+                : toBasisPoints(rule.weekendMultiplier(), MULTIPLIER_SCALE, rule);
+        this.fineBasisPoints = rule.fineMultiplier() == null
+                ? BASIS_POINTS
+                : toBasisPoints(rule.fineMultiplier(), MULTIPLIER_SCALE, rule);
+        if (hourlyBasisPoints > BASIS_POINTS) {
+            throw invalid(rule, "hourly percent can't exceed 100");
+        }
+        List<PricingDiscount> discounts = rule.discounts() == null
+                ? List.of()
+                : rule.discounts().stream()
+                        .sorted(Comparator.comparingInt(PricingDiscount::minDays))
+                        .toList();
+        this.discountMinDays = new int[discounts.size()];
+        this.discountBasisPoints = new long[discounts.size()];
+        for (int i = 0; i < discounts.size(); i++) {
+            PricingDiscount discount = discounts.get(i);
+            if (discount.minDays() < 1 || discount.percent() == null) {
+                throw invalid(rule, "discounts need minDays of at least 1 and a percent");
+            }
+            discountMinDays[i] = discount.minDays();
+            discountBasisPoints[i] = toBasisPoints(discount.percent(), PERCENT_SCALE, rule);
+            if (discountBasisPoints[i] >= BASIS_POINTS) {
+                throw invalid(rule, "discount percent must be below 100");
+            }
+        }
+    }
+
+    long rentalCents(long dailyCents, LocalDateTime from, LocalDateTime to) {
+        Duration duration = Duration.between(from, to);
+        long fullDays = duration.toDays();
+        long cents;
+        if (hourlyBasisPoints == 0) {
+            cents = daysCents(dailyCents, from.getDayOfWeek(), fullDays == 0 ? 1 : fullDays);
+        } else {
+            long remainingSeconds = duration.minusDays(fullDays).toSeconds();
+            long startedHours = (remainingSeconds + SECONDS_PER_HOUR - 1) / SECONDS_PER_HOUR;
+            if (fullDays == 0 && startedHours == 0) {
+                startedHours = 1;
+            }
+            long hoursCents = Math.multiplyExact(startedHours,
+                    scale(dailyCents, hourlyBasisPoints));
+            cents = Math.addExact(daysCents(dailyCents, from.getDayOfWeek(), fullDays),
+                    Math.min(hoursCents, dailyCents));
+        }
+        return discounted(cents, fullDays);
+    }
+
+    long fineCents(long dailyCents, LocalDateTime dueDate, LocalDateTime returnDate) {
+        long days = Duration.between(dueDate, returnDate).toDays();
+        return scale(Math.multiplyExact(days == 0 ? 1 : days, dailyCents), fineBasisPoints);
+    }
+
+    private long daysCents(long dailyCents, DayOfWeek firstDay, long days) {
+        if (weekendBasisPoints == BASIS_POINTS) {
+            return Math.multiplyExact(days, dailyCents);
+        }
+        long weekendDays = weekendDays(firstDay, days);
+        return Math.addExact(Math.multiplyExact(days - weekendDays, dailyCents),
+                Math.multiplyExact(weekendDays, scale(dailyCents, weekendBasisPoints)));
+    }
+
+    private long weekendDays(DayOfWeek firstDay, long days) {
+        long weekendDays = days / DAYS_PER_WEEK * WEEKEND_DAYS_PER_WEEK;
+        DayOfWeek day = firstDay;
+        for (long i = 0; i < days % DAYS_PER_WEEK; i++) {
+            if (day == DayOfWeek.SATURDAY || day == DayOfWeek.SUNDAY) {
+                weekendDays++;
+            }
+            day = day.plus(1);
+        }
+        return weekendDays;
+    }
+
+    private long discounted(long cents, long fullDays) {
+        for (int i = discountMinDays.length - 1; i >= 0; i--) {
+            if (fullDays >= discountMinDays[i]) {
+                return scale(cents, BASIS_POINTS - discountBasisPoints[i]);
+            }
+        }
+        return cents;
+    }
+
+    private static long scale(long value, long basisPoints) {
+        return Math.addExact(Math.multiplyExact(value, basisPoints), BASIS_POINTS / 2)
+                / BASIS_POINTS;
+    }
+
+    private static long toBasisPoints(BigDecimal value, int scale, PricingRule rule) {
+        if (value.signum() < 0) {
+            throw invalid(rule, "rates can't be negative");
+        }
+        return value.movePointRight(scale).setScale(0, RoundingMode.HALF_UP).longValueExact();
+    }
+
+    private static IllegalStateException invalid(PricingRule rule, String reason) {
+        return new IllegalStateException("Invalid pricing rule for type " + rule.type()
+                + " and brand " + rule.brand() + ": " + reason);
+    }
+}
@@ -0,0 +1,6 @@
+package com.example.carsharingapp.service.payment.pricing;
+
+import java.math.BigDecimal;
+
+public record PricingDiscount(int minDays, BigDecimal percent) {
+}
@@ -0,0 +1,95 @@
+package com.example.carsharingapp.service.payment.pricing;
+
+import com.example.carsharingapp.exception.InvalidDateRangeException;
+import com.example.carsharingapp.model.enums.Type;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.yaml.snakeyaml.LoaderOptions;
+import org.yaml.snakeyaml.Yaml;
+import org.yaml.snakeyaml.constructor.SafeConstructor;
+
+@Component
+public class PricingEngine {
+    private static final int CENTS_SCALE = 2;
+
+    private final ObjectMapper objectMapper;
+    private final Resource rules;
+    private volatile CompiledPricing pricing;
+    private long rulesModifiedAt;
+
+    public PricingEngine(ObjectMapper objectMapper, ResourceLoader resourceLoader,
+                         @Value("${pricing.rules.location:classpath:pricing/rules.yaml}")
+                         String location) {
+        this.objectMapper = objectMapper;
+        this.rules = resourceLoader.getResource(location);
+        this.rulesModifiedAt = lastModified();
+        this.pricing = load();
+    }
+
+    @Scheduled(fixedDelayString = "${pricing.rules.reload-interval:PT30S}",
+            initialDelayString = "${pricing.rules.reload-interval:PT30S}")
+    public synchronized void reloadIfModified() {
+        long modifiedAt = lastModified();
+        if (modifiedAt != rulesModifiedAt) {
+            pricing = load();
+            rulesModifiedAt = modifiedAt;
+        }
+    }
+
+    public BigDecimal rentalPrice(Type type, String brand, BigDecimal dailyFee,
+                                  LocalDateTime from, LocalDateTime to) {
+        checkPeriod(from, to);
+        return fromCents(pricing.ruleFor(type, brand).rentalCents(toCents(dailyFee), from, to));
+    }
+
+    public BigDecimal fine(Type type, String brand, BigDecimal dailyFee,
+                           LocalDateTime dueDate, LocalDateTime returnDate) {
+        checkPeriod(dueDate, returnDate);
+        return fromCents(pricing.ruleFor(type, brand)
+                .fineCents(toCents(dailyFee), dueDate, returnDate));
+    }
+
+    private CompiledPricing load() {
+        try (InputStream inputStream = rules.getInputStream()) {
+            Object definition = new Yaml(new SafeConstructor(new LoaderOptions()))
+                    .load(inputStream);
+            return CompiledPricing.compile(objectMapper.convertValue(definition,
+                    PricingRuleSet.class));
+        } catch (IOException e) {
+            throw new IllegalStateException("Can't read pricing rules from " + rules, e);
+        }
+    }
+
+    private long lastModified() {
+        try {
+            return rules.lastModified();
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    private void checkPeriod(LocalDateTime from, LocalDateTime to) {
+        if (to.isBefore(from)) {
+            throw new InvalidDateRangeException("Start of the period " + from
+                    + " must not be after its end " + to);
+        }
+    }
+
+    private long toCents(BigDecimal amount) {
+        return amount.movePointRight(CENTS_SCALE).setScale(0, RoundingMode.HALF_UP)
+                .longValueExact();
+    }
+
+    private BigDecimal fromCents(long cents) {
+        return BigDecimal.valueOf(cents, CENTS_SCALE);
+    }
+}
@@ -0,0 +1,10 @@
+package com.example.carsharingapp.service.payment.pricing;
+
+import com.example.carsharingapp.model.enums.Type;
+import java.math.BigDecimal;
+import java.util.List;
+
+public record PricingRule(Type type, String brand, BigDecimal hourlyPercent,
+                          BigDecimal weekendMultiplier, BigDecimal fineMultiplier,
+                          List<PricingDiscount> discounts) {
+}
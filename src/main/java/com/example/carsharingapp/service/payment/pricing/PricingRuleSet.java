@@ -0,0 +1,6 @@
+package com.example.carsharingapp.service.payment.pricing;
+
+import java.util.List;
+
+public record PricingRuleSet(List<PricingRule> rules) {
+}
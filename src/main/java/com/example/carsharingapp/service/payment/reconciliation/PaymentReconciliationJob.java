@@ -0,0 +1,248 @@
+package com.example.carsharingapp.service.payment.reconciliation;
+
+import com.example.carsharingapp.dto.payment.ReconciliationStatsDto;
+import com.example.carsharingapp.exception.StripeSessionFailureException;
+import com.example.carsharingapp.exception.StripeUnavailableException;
+import com.example.carsharingapp.model.enums.Status;
+import com.example.carsharingapp.repository.job.JobCheckpointRepository;
+import com.example.carsharingapp.service.bot.TelegramNotificationService;
+import com.example.carsharingapp.service.stripe.StripeService;
+import com.stripe.model.checkout.Session;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@Component
+public class PaymentReconciliationJob {
+    public static final String JOB_NAME = "payment-reconciliation";
+    private static final String PAID = "paid";
+    private static final String EXPIRED = "expired";
+    private static final String SELECT_PENDING_PAGE = "SELECT id, session_id FROM payments "
+            + "WHERE status = ? AND is_deleted = false AND session_id IS NOT NULL AND id > ? "
+            + "ORDER BY id LIMIT ?";
+    private static final String LOCK_RENTALS = "SELECT r.id FROM rentals r WHERE r.id IN "
+            + "(SELECT p.rental_id FROM payments p WHERE p.id IN (:ids)) FOR UPDATE";
+    private static final String LOCK_PAYMENTS = "SELECT p.id, p.status, r.is_deleted "
+            + "FROM payments p JOIN rentals r ON r.id = p.rental_id "
+            + "WHERE p.id IN (:ids) FOR UPDATE";
+    private static final String UPDATE_STATUS = "UPDATE payments SET status = :status "
+            + "WHERE id IN (:ids)";
+    private static final String CONFIRM_HOLDS = "UPDATE rentals r "
+            + "JOIN payments p ON p.rental_id = r.id SET r.hold_expires_at = NULL "
+            + "WHERE p.id IN (:ids) AND r.hold_expires_at IS NOT NULL AND r.is_deleted = false";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final JobCheckpointRepository jobCheckpointRepository;
+    private final StripeService stripeService;
+    private final TelegramNotificationService telegramNotificationService;
+    private final int pageSize;
+    private final int parallelism;
+    private final Duration leaseDuration;
+    private final String owner = UUID.randomUUID().toString();
+    private final AtomicBoolean running = new AtomicBoolean();
+    private long runs;
+    private long skippedRuns;
+    private long paymentsChecked;
+    private long paymentsReconciled;
+    private long lastRunChecked;
+    private long lastRunReconciled;
+    private long lastRunMillis;
+
+    public PaymentReconciliationJob(JdbcTemplate jdbcTemplate,
+                                    NamedParameterJdbcTemplate namedParameterJdbcTemplate,
+                                    TransactionTemplate transactionTemplate,
+                                    JobCheckpointRepository jobCheckpointRepository,
+                                    StripeService stripeService,
+                                    TelegramNotificationService telegramNotificationService,
+                                    @Value("${payment.reconciliation.page-size:200}")
+                                    int pageSize,
+                                    @Value("${payment.reconciliation.parallelism:4}")
+                                    int parallelism,
+                                    @Value("${payment.reconciliation.lease:PT5M}")
+                                    Duration leaseDuration) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedParameterJdbcTemplate = namedParameterJdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.jobCheckpointRepository = jobCheckpointRepository;
+        this.stripeService = stripeService;
+        this.telegramNotificationService = telegramNotificationService;
+        this.pageSize = pageSize;
+        this.parallelism = parallelism;
+        this.leaseDuration = leaseDuration;
+    }
+
+    @Scheduled(fixedDelayString = "${payment.reconciliation.interval:PT15M}",
+            initialDelayString = "${payment.reconciliation.interval:PT15M}")
+    public void scheduledRun() {
+        run();
+    }
+
+    public long run() {
+        if (!running.compareAndSet(false, true)) {
+            return 0;
+        }
+        long startedAt = System.nanoTime();
+        ExecutorService lookups = Executors.newFixedThreadPool(parallelism);
+        try {
+            if (!jobCheckpointRepository.tryAcquireLease(JOB_NAME, owner, leaseDuration)) {
+                recordSkipped();
+                return 0;
+            }
+            try {
+                Progress progress = reconcile(lookups);
+                record(progress, Duration.ofNanos(System.nanoTime() - startedAt));
+                return progress.reconciled();
+            } finally {
+                jobCheckpointRepository.releaseLease(JOB_NAME, owner);
+            }
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        } finally {
+            lookups.shutdownNow();
+            running.set(false);
+        }
+    }
+
+    public synchronized ReconciliationStatsDto getStats() {
+        return new ReconciliationStatsDto(runs, skippedRuns, paymentsChecked, paymentsReconciled,
+                lastRunChecked, lastRunReconciled, lastRunMillis);
+    }
+
+    private Progress reconcile(ExecutorService lookups) {
+        long lastId = jobCheckpointRepository.findLastId(JOB_NAME);
+        Progress progress = new Progress(0, 0);
+        List<PendingPayment> page;
+        do {
+            page = jdbcTemplate.query(SELECT_PENDING_PAGE, (resultSet, rowNum) ->
+                    new PendingPayment(resultSet.getLong(1), resultSet.getString(2)),
+                    Status.PENDING.name(), lastId, pageSize);
+            long nextCheckpoint = page.size() < pageSize ? 0 : page.get(page.size() - 1).id();
+            Map<Long, Status> outcomes = lookUp(page, lookups);
+            Map<Long, Status> settled = transactionTemplate.execute(status -> {
+                Map<Long, Status> updated = settle(outcomes);
+                if (!jobCheckpointRepository.saveLastIdAndRenewLease(JOB_NAME, nextCheckpoint,
+                        owner, leaseDuration)) {
+                    status.setRollbackOnly();
+                    return null;
+                }
+                return updated;
+            });
+            if (settled == null) {
+                return progress;
+            }
+            settled.forEach((id, status) -> telegramNotificationService.sendNotification(
+                    "Your payment with id: " + id + " has status " + status));
+            progress = new Progress(progress.checked() + page.size(),
+                    progress.reconciled() + settled.size());
+            lastId = nextCheckpoint;
+        } while (page.size() == pageSize);
+        return progress;
+    }
+
+    private Map<Long, Status> lookUp(List<PendingPayment> page, ExecutorService lookups) {
+        List<CompletableFuture<Status>> statuses = page.stream()
+                .map(payment -> CompletableFuture.supplyAsync(
+                        () -> lookUp(payment.sessionId()), lookups))
+                .toList();
+        Map<Long, Status> outcomes = new LinkedHashMap<>();
+        for (int i = 0; i < page.size(); i++) {
+            Status status = statuses.get(i).join();
+            if (status != Status.PENDING) {
+                outcomes.put(page.get(i).id(), status);
+            }
+        }
+        return outcomes;
+    }
+
+    private Status lookUp(String sessionId) {
+        Session session;
+        try {
+            session = stripeService.findSession(sessionId).orElse(null);
+        } catch (StripeSessionFailureException | StripeUnavailableException e) {
+            return Status.PENDING;
+        }
+        if (session == null || EXPIRED.equals(session.getStatus())) {
+            return Status.CANCELED;
+        }
+        return PAID.equals(session.getPaymentStatus()) ? Status.PAID : Status.PENDING;
+    }
+
+    private Map<Long, Status> settle(Map<Long, Status> outcomes) {
+        if (outcomes.isEmpty()) {
+            return Map.of();
+        }
+        Map<String, Object> ids = Map.of("ids", outcomes.keySet());
+        namedParameterJdbcTemplate.query(LOCK_RENTALS, ids,
+                (resultSet, rowNum) -> resultSet.getLong(1));
+        List<Long> paid = new ArrayList<>();
+        List<Long> refunds = new ArrayList<>();
+        List<Long> canceled = new ArrayList<>();
+        namedParameterJdbcTemplate.query(LOCK_PAYMENTS, ids, resultSet -> {
+            long id = resultSet.getLong(1);
+            Status status = Status.valueOf(resultSet.getString(2));
+            boolean released = resultSet.getBoolean(3);
+            if (outcomes.get(id) == Status.CANCELED) {
+                if (status == Status.PENDING) {
+                    canceled.add(id);
+                }
+            } else if (status == Status.PENDING && !released) {
+                paid.add(id);
+            } else if (status == Status.CANCELED || status == Status.PENDING) {
+                refunds.add(id);
+            }
+        });
+        Map<Long, Status> settled = new LinkedHashMap<>();
+        if (!paid.isEmpty()) {
+            namedParameterJdbcTemplate.update(UPDATE_STATUS, Map.of(
+                    "ids", paid, "status", Status.PAID.name()));
+            namedParameterJdbcTemplate.update(CONFIRM_HOLDS, Map.of("ids", paid));
+            paid.forEach(id -> settled.put(id, Status.PAID));
+        }
+        if (!refunds.isEmpty()) {
+            namedParameterJdbcTemplate.update(UPDATE_STATUS, Map.of(
+                    "ids", refunds, "status", Status.REFUND_REQUIRED.name()));
+            refunds.forEach(id -> settled.put(id, Status.REFUND_REQUIRED));
+        }
+        if (!canceled.isEmpty()) {
+            namedParameterJdbcTemplate.update(UPDATE_STATUS, Map.of(
+                    "ids", canceled, "status", Status.CANCELED.name()));
+            canceled.forEach(id -> settled.put(id, Status.CANCELED));
+        }
+        return settled;
+    }
+
+    private synchronized void recordSkipped() {
+        skippedRuns++;
+    }
+
+    private synchronized void record(Progress progress, Duration duration) {
+        runs++;
+        paymentsChecked += progress.checked();
+        paymentsReconciled += progress.reconciled();
+        lastRunChecked = progress.checked();
+        lastRunReconciled = progress.reconciled();
+        lastRunMillis = duration.toMillis();
+    }
+
+    private record PendingPayment(long id, String sessionId) {
+    }
+
+    private record Progress(long checked, long reconciled) {
+    }
+}
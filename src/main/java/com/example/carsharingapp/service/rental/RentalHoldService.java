@@ -0,0 +1,11 @@
+package com.example.carsharingapp.service.rental;
+
+import com.example.carsharingapp.dto.rental.RentalHoldResponseDto;
+import com.example.carsharingapp.dto.rental.RentalRequestDto;
+import java.util.Collection;
+
+public interface RentalHoldService {
+    RentalHoldResponseDto hold(RentalRequestDto requestDto);
+
+    int expireHolds(Collection<Long> rentalIds);
+}
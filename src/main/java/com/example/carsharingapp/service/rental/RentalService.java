@@ -1,6 +1,8 @@
 package com.example.carsharingapp.service.rental;
 
 import com.example.carsharingapp.dto.rental.RentalActiveOrNotActiveRequestDto;
+import com.example.carsharingapp.dto.rental.RentalCursorPageDto;
+import com.example.carsharingapp.dto.rental.RentalCursorRequestDto;
 import com.example.carsharingapp.dto.rental.RentalDeciderDto;
 import com.example.carsharingapp.dto.rental.RentalRequestDto;
 import com.example.carsharingapp.dto.rental.RentalResponseDto;
@@ -18,5 +20,8 @@ public interface RentalService {
     Page<RentalDeciderDto> returnUserRentals(Long userId, Pageable pageable,
                                              RentalActiveOrNotActiveRequestDto requestDto);
 
+    RentalCursorPageDto returnUserRentalsByCursor(Long userId,
+                                                  RentalCursorRequestDto cursorRequestDto);
+
     RentalDeciderDto returnRentalByRentalIdAndUserId(Long userId, Long rentalId);
 }
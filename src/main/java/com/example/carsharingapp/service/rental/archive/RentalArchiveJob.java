@@ -0,0 +1,160 @@
+package com.example.carsharingapp.service.rental.archive;
+
+import com.example.carsharingapp.model.enums.Status;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@Component
+public class RentalArchiveJob {
+    private static final String SELECT_ARCHIVABLE_IDS = "SELECT r.id FROM rentals r "
+            + "WHERE r.actual_return_date < ? AND r.is_deleted = false "
+            + "AND NOT EXISTS (SELECT 1 FROM payments p WHERE p.rental_id = r.id "
+            + "AND p.status IN (?, ?) AND p.is_deleted = false) "
+            + "ORDER BY r.id LIMIT ? FOR UPDATE";
+    private static final String COPY_PAYMENTS_TO_ARCHIVE = "INSERT INTO payments_archive "
+            + "(id, status, type, rental_id, user_id, session_url, session_id, "
+            + "session_expires_at, amount_to_pay, is_deleted, archived_at) "
+            + "SELECT id, status, type, rental_id, user_id, session_url, session_id, "
+            + "session_expires_at, amount_to_pay, is_deleted, :now FROM payments "
+            + "WHERE rental_id IN (:ids) AND is_deleted = false";
+    private static final String DELETE_ARCHIVED_PAYMENTS = "DELETE FROM payments "
+            + "WHERE rental_id IN (:ids)";
+    private static final String COPY_TO_ARCHIVE = "INSERT INTO rentals_archive "
+            + "(id, rental_date, return_date, actual_return_date, car_id, user_id, archived_at) "
+            + "SELECT id, rental_date, return_date, actual_return_date, car_id, user_id, :now "
+            + "FROM rentals WHERE id IN (:ids)";
+    private static final String DELETE_ARCHIVED = "DELETE FROM rentals WHERE id IN (:ids)";
+    private static final String PURGE_DELETED_PAYMENTS = "DELETE FROM payments "
+            + "WHERE is_deleted = true LIMIT ?";
+    private static final String PURGE_DELETED = "DELETE FROM rentals "
+            + "WHERE is_deleted = true "
+            + "AND NOT EXISTS (SELECT 1 FROM payments p WHERE p.rental_id = rentals.id) "
+            + "LIMIT ?";
+    private static final String SELECT_OLDEST_ARCHIVABLE = "SELECT MIN(actual_return_date) "
+            + "FROM rentals WHERE actual_return_date < ? AND is_deleted = false";
+    private static final String SELECT_HIGHEST_PARTITION_BOUND = "SELECT FROM_DAYS(MAX("
+            + "CAST(partition_description AS UNSIGNED))) FROM information_schema.partitions "
+            + "WHERE table_schema = DATABASE() AND table_name = 'rentals_archive' "
+            + "AND partition_description <> 'MAXVALUE'";
+    private static final String SPLIT_FUTURE_PARTITION = "ALTER TABLE rentals_archive "
+            + "REORGANIZE PARTITION p_future INTO (%s, "
+            + "PARTITION p_future VALUES LESS THAN MAXVALUE)";
+    private static final String MONTH_PARTITION = "PARTITION p%s VALUES LESS THAN (TO_DAYS('%s'))";
+    private static final DateTimeFormatter PARTITION_NAME = DateTimeFormatter.ofPattern("yyyyMM");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration minAge;
+    private final int batchSize;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    public RentalArchiveJob(JdbcTemplate jdbcTemplate,
+                            NamedParameterJdbcTemplate namedParameterJdbcTemplate,
+                            TransactionTemplate transactionTemplate,
+                            @Value("${rental.archive.min-age:P90D}") Duration minAge,
+                            @Value("${rental.archive.batch-size:1000}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedParameterJdbcTemplate = namedParameterJdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.minAge = minAge;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(fixedDelayString = "${rental.archive.interval:PT24H}",
+            initialDelayString = "${rental.archive.interval:PT24H}")
+    public void scheduledRun() {
+        run(LocalDateTime.now());
+    }
+
+    public long run(LocalDateTime now) {
+        if (!running.compareAndSet(false, true)) {
+            return 0;
+        }
+        try {
+            long archived = archive(now);
+            purgeDeleted();
+            return archived;
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private long archive(LocalDateTime now) {
+        LocalDateTime cutoff = now.minus(minAge);
+        ensurePartitions(cutoff);
+        long archived = 0;
+        int moved;
+        do {
+            moved = transactionTemplate.execute(status -> moveBatch(cutoff, now));
+            archived += moved;
+        } while (moved == batchSize);
+        return archived;
+    }
+
+    private int moveBatch(LocalDateTime cutoff, LocalDateTime now) {
+        List<Long> ids = jdbcTemplate.queryForList(SELECT_ARCHIVABLE_IDS, Long.class,
+                Timestamp.valueOf(cutoff), Status.PENDING.name(),
+                Status.REFUND_REQUIRED.name(), batchSize);
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        Map<String, Object> parameters = Map.of("ids", ids, "now", Timestamp.valueOf(now));
+        namedParameterJdbcTemplate.update(COPY_PAYMENTS_TO_ARCHIVE, parameters);
+        namedParameterJdbcTemplate.update(DELETE_ARCHIVED_PAYMENTS, parameters);
+        namedParameterJdbcTemplate.update(COPY_TO_ARCHIVE, parameters);
+        namedParameterJdbcTemplate.update(DELETE_ARCHIVED, parameters);
+        return ids.size();
+    }
+
+    private void purgeDeleted() {
+        int deleted;
+        do {
+            deleted = jdbcTemplate.update(PURGE_DELETED_PAYMENTS, batchSize);
+        } while (deleted == batchSize);
+        do {
+            deleted = jdbcTemplate.update(PURGE_DELETED, batchSize);
+        } while (deleted == batchSize);
+    }
+
+    private void ensurePartitions(LocalDateTime cutoff) {
+        LocalDate upperBound = nextMonth(cutoff.toLocalDate());
+        LocalDate highestBound = jdbcTemplate.queryForObject(SELECT_HIGHEST_PARTITION_BOUND,
+                LocalDate.class);
+        LocalDate bound;
+        if (highestBound != null) {
+            bound = highestBound.plusMonths(1);
+        } else {
+            LocalDateTime oldest = jdbcTemplate.queryForObject(SELECT_OLDEST_ARCHIVABLE,
+                    LocalDateTime.class, Timestamp.valueOf(cutoff));
+            bound = oldest == null ? upperBound : nextMonth(oldest.toLocalDate());
+        }
+        List<String> partitions = new ArrayList<>();
+        while (!bound.isAfter(upperBound)) {
+            partitions.add(String.format(MONTH_PARTITION,
+                    bound.minusMonths(1).format(PARTITION_NAME), bound));
+            bound = bound.plusMonths(1);
+        }
+        if (!partitions.isEmpty()) {
+            jdbcTemplate.execute(String.format(SPLIT_FUTURE_PARTITION,
+                    String.join(", ", partitions)));
+        }
+    }
+
+    private LocalDate nextMonth(LocalDate date) {
+        return date.withDayOfMonth(1).plusMonths(1);
+    }
+}
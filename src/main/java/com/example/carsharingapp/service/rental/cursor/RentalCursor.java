@@ -0,0 +1,44 @@
+package com.example.carsharingapp.service.rental.cursor;
+
+import com.example.carsharingapp.dto.rental.RentalDeciderDto;
+import com.example.carsharingapp.dto.rental.RentalResponseDto;
+import com.example.carsharingapp.dto.rental.RentalResponseDtoWithoutActualReturnDate;
+import com.example.carsharingapp.exception.InvalidCursorException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+public record RentalCursor(Long id, LocalDateTime actualReturnDate) {
+    private static final String SEPARATOR = ":";
+
+    public static RentalCursor of(RentalDeciderDto rental) {
+        if (rental instanceof RentalResponseDto returned) {
+            return new RentalCursor(returned.getId(), returned.getActualReturnDate());
+        }
+        return new RentalCursor(((RentalResponseDtoWithoutActualReturnDate) rental).getId(), null);
+    }
+
+    public static RentalCursor decode(String token, boolean active) {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(token),
+                    StandardCharsets.UTF_8).split(SEPARATOR, 2);
+            if (active != (parts.length == 1)) {
+                throw new InvalidCursorException("Cursor was issued for "
+                        + (active ? "returned" : "active") + " rentals");
+            }
+            return new RentalCursor(Long.valueOf(parts[0]),
+                    active ? null : LocalDateTime.parse(parts[1]));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new InvalidCursorException("Invalid cursor: " + token);
+        }
+    }
+
+    public String encode() {
+        String value = actualReturnDate == null
+                ? String.valueOf(id)
+                : id + SEPARATOR + actualReturnDate;
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+}
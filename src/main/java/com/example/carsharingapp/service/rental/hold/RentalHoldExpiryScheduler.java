@@ -0,0 +1,77 @@
+package com.example.carsharingapp.service.rental.hold;
+
+import com.example.carsharingapp.event.rental.RentalHoldPlacedEvent;
+import com.example.carsharingapp.repository.rental.PendingHold;
+import com.example.carsharingapp.repository.rental.RentalRepository;
+import com.example.carsharingapp.service.rental.RentalHoldService;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+@Component
+public class RentalHoldExpiryScheduler {
+    private static final int WHEEL_SIZE = 64;
+
+    private final RentalHoldService rentalHoldService;
+    private final RentalRepository rentalRepository;
+    private final Duration tick;
+    private final TimingWheel<Long> wheel;
+
+    public RentalHoldExpiryScheduler(RentalHoldService rentalHoldService,
+                                     RentalRepository rentalRepository,
+                                     @Value("${rental.hold.tick:PT1S}") Duration tick) {
+        this.rentalHoldService = rentalHoldService;
+        this.rentalRepository = rentalRepository;
+        this.tick = tick;
+        this.wheel = new TimingWheel<>(tick.toMillis(), WHEEL_SIZE, System.currentTimeMillis());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void recover() {
+        for (PendingHold pendingHold : rentalRepository.findPendingHolds()) {
+            schedule(pendingHold.getRentalId(), pendingHold.getHoldExpiresAt());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onHoldPlaced(RentalHoldPlacedEvent event) {
+        schedule(event.rentalId(), event.holdExpiresAt());
+    }
+
+    @Scheduled(fixedRateString = "${rental.hold.tick:PT1S}")
+    public void tick() {
+        List<Long> expired;
+        synchronized (wheel) {
+            expired = wheel.advance(System.currentTimeMillis());
+        }
+        if (expired.isEmpty()) {
+            return;
+        }
+        try {
+            rentalHoldService.expireHolds(expired);
+        } catch (RuntimeException e) {
+            long retryAt = System.currentTimeMillis() + tick.toMillis();
+            synchronized (wheel) {
+                expired.forEach(rentalId -> wheel.add(rentalId, retryAt,
+                        System.currentTimeMillis()));
+            }
+        }
+    }
+
+    private void schedule(Long rentalId, LocalDateTime holdExpiresAt) {
+        long expiresAt = holdExpiresAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        synchronized (wheel) {
+            long now = System.currentTimeMillis();
+            if (!wheel.add(rentalId, expiresAt, now)) {
+                wheel.add(rentalId, now + 1, now);
+            }
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.carsharingapp.service.rental.hold;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+
+public class TimingWheel<T> {
+    private final long tickMillis;
+    private final int wheelSize;
+    private final long intervalMillis;
+    private final boolean root;
+    private final Deque<Timer<T>>[] buckets;
+    private final long[] bucketExpirations;
+    private long currentTime;
+    private TimingWheel<T> overflowWheel;
+    private int size;
+
+    public TimingWheel(long tickMillis, int wheelSize, long nowMillis) {
+        this(tickMillis, wheelSize, nowMillis, true);
+    }
+
+    @SuppressWarnings("unchecked")
+    private TimingWheel(long tickMillis, int wheelSize, long nowMillis, boolean root) {
+        this.tickMillis = tickMillis;
+        this.wheelSize = wheelSize;
+        this.intervalMillis = tickMillis * wheelSize;
+        this.root = root;
+        this.buckets = new Deque[wheelSize];
+        for (int i = 0; i < wheelSize; i++) {
+            buckets[i] = new ArrayDeque<>();
+        }
+        this.bucketExpirations = new long[wheelSize];
+        Arrays.fill(bucketExpirations, -1);
+        this.currentTime = nowMillis - nowMillis % tickMillis;
+    }
+
+    public boolean add(T item, long expiresAtMillis, long nowMillis) {
+        if (expiresAtMillis <= nowMillis) {
+            return false;
+        }
+        place(new Timer<>(item, expiresAtMillis));
+        size++;
+        return true;
+    }
+
+    public List<T> advance(long nowMillis) {
+        List<Timer<T>> due = new ArrayList<>();
+        drain(nowMillis, due);
+        List<T> expired = new ArrayList<>();
+        for (Timer<T> timer : due) {
+            if (timer.expiresAt() <= nowMillis) {
+                expired.add(timer.item());
+                size--;
+            } else {
+                place(timer);
+            }
+        }
+        return expired;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private void place(Timer<T> timer) {
+        if (timer.expiresAt() >= currentTime + intervalMillis) {
+            overflowWheel().place(timer);
+            return;
+        }
+        long virtualId = timer.expiresAt() / tickMillis;
+        int bucket = (int) (virtualId % wheelSize);
+        buckets[bucket].add(timer);
+        bucketExpirations[bucket] = virtualId * tickMillis;
+    }
+
+    private void drain(long nowMillis, List<Timer<T>> due) {
+        currentTime = nowMillis - nowMillis % tickMillis;
+        for (int i = 0; i < wheelSize; i++) {
+            if (!buckets[i].isEmpty() && isDue(i, nowMillis)) {
+                due.addAll(buckets[i]);
+                buckets[i].clear();
+                bucketExpirations[i] = -1;
+            }
+        }
+        if (overflowWheel != null) {
+            overflowWheel.drain(nowMillis, due);
+        }
+    }
+
+    private boolean isDue(int bucket, long nowMillis) {
+        return root
+                ? bucketExpirations[bucket] + tickMillis <= nowMillis
+                : bucketExpirations[bucket] <= nowMillis;
+    }
+
+    private TimingWheel<T> overflowWheel() {
+        if (overflowWheel == null) {
+            overflowWheel = new TimingWheel<>(intervalMillis, wheelSize, currentTime, false);
+        }
+        return overflowWheel;
+    }
+
+    private record Timer<T>(T item, long expiresAt) {
+    }
+}
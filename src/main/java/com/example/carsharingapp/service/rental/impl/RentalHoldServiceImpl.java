@@ -0,0 +1,114 @@
+package com.example.carsharingapp.service.rental.impl;
+
+import com.example.carsharingapp.dto.rental.RentalHoldResponseDto;
+import com.example.carsharingapp.dto.rental.RentalRequestDto;
+import com.example.carsharingapp.event.car.CarInventoryChangedEvent;
+import com.example.carsharingapp.event.rental.RentalCreatedEvent;
+import com.example.carsharingapp.event.rental.RentalHoldPlacedEvent;
+import com.example.carsharingapp.event.rental.RentalHoldsReleasedEvent;
+import com.example.carsharingapp.event.rental.RentalsReturnedEvent;
+import com.example.carsharingapp.exception.CarNotAvailableException;
+import com.example.carsharingapp.exception.EntityNotFoundException;
+import com.example.carsharingapp.mapper.rental.RentalMapper;
+import com.example.carsharingapp.model.car.Car;
+import com.example.carsharingapp.model.enums.Status;
+import com.example.carsharingapp.model.rental.Rental;
+import com.example.carsharingapp.repository.car.CarRepository;
+import com.example.carsharingapp.repository.payment.PaymentRepository;
+import com.example.carsharingapp.repository.rental.RentalRepository;
+import com.example.carsharingapp.service.rental.RentalHoldService;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+@Service
+@Transactional
+public class RentalHoldServiceImpl implements RentalHoldService {
+    private final RentalRepository rentalRepository;
+    private final PaymentRepository paymentRepository;
+    private final RentalMapper rentalMapper;
+    private final CarRepository carRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Duration ttl;
+
+    public RentalHoldServiceImpl(RentalRepository rentalRepository,
+                                 PaymentRepository paymentRepository,
+                                 RentalMapper rentalMapper,
+                                 CarRepository carRepository,
+                                 ApplicationEventPublisher eventPublisher,
+                                 @Value("${rental.hold.ttl:PT35M}") Duration ttl) {
+        this.rentalRepository = rentalRepository;
+        this.paymentRepository = paymentRepository;
+        this.rentalMapper = rentalMapper;
+        this.carRepository = carRepository;
+        this.eventPublisher = eventPublisher;
+        this.ttl = ttl;
+    }
+
+    @Override
+    public RentalHoldResponseDto hold(RentalRequestDto requestDto) {
+        Car car = carRepository.findById(requestDto.getCarId())
+                .orElseThrow(() -> new EntityNotFoundException("Car was not found with id: "
+                        + requestDto.getCarId()));
+        if (carRepository.decreaseInventory(car.getId()) == 0) {
+            throw new CarNotAvailableException("Car with id: " + car.getId()
+                    + " is not available for rent");
+        }
+        eventPublisher.publishEvent(new CarInventoryChangedEvent(Set.of(car.getId())));
+        requestDto.setActualReturnDate(null);
+        Rental rental = rentalMapper.toModel(requestDto)
+                .setHoldExpiresAt(LocalDateTime.now().plus(ttl));
+        Rental saved = rentalRepository.save(rental);
+        eventPublisher.publishEvent(new RentalCreatedEvent(saved.getId(), car.getId(),
+                saved.getRentalDate(), saved.getReturnDate()));
+        eventPublisher.publishEvent(new RentalHoldPlacedEvent(saved.getId(),
+                saved.getHoldExpiresAt()));
+        return rentalMapper.toHoldResponseDto(saved);
+    }
+
+    @Override
+    public int expireHolds(Collection<Long> rentalIds) {
+        if (rentalIds.isEmpty()) {
+            return 0;
+        }
+        List<Rental> expired = rentalRepository.findExpiredHoldsByIdIn(rentalIds,
+                LocalDateTime.now());
+        if (expired.isEmpty()) {
+            return 0;
+        }
+        Map<Long, Long> carIdsByRentalId = expired.stream()
+                .collect(Collectors.toMap(Rental::getId, r -> r.getCar().getId()));
+        List<String> sessionIds = paymentRepository.findSessionIdsByRentalIdInAndStatus(
+                carIdsByRentalId.keySet(), Status.PENDING);
+        paymentRepository.updateStatusByRentalIdIn(carIdsByRentalId.keySet(), Status.PENDING,
+                Status.CANCELED);
+        rentalRepository.deleteHolds(carIdsByRentalId.keySet());
+        increaseInventory(carIdsByRentalId.values());
+
+        eventPublisher.publishEvent(new CarInventoryChangedEvent(
+                new HashSet<>(carIdsByRentalId.values())));
+        eventPublisher.publishEvent(new RentalsReturnedEvent(carIdsByRentalId));
+        eventPublisher.publishEvent(new RentalHoldsReleasedEvent(sessionIds));
+        return expired.size();
+    }
+
+    private void increaseInventory(Collection<Long> releasedCarIds) {
+        Map<Long, Long> holdsByCarId = releasedCarIds.stream()
+                .collect(Collectors.groupingBy(Function.identity(), Collectors.counting()));
+        Map<Long, Set<Long>> carIdsByAmount = holdsByCarId.entrySet().stream()
+                .collect(Collectors.groupingBy(Map.Entry::getValue,
+                        Collectors.mapping(Map.Entry::getKey, Collectors.toSet())));
+        carIdsByAmount.forEach((amount, carIds) -> carRepository.increaseInventory(carIds,
+                amount.intValue()));
+    }
+}
@@ -1,12 +1,19 @@
 package com.example.carsharingapp.service.rental.impl;
 
 import com.example.carsharingapp.dto.rental.RentalActiveOrNotActiveRequestDto;
+import com.example.carsharingapp.dto.rental.RentalCursorPageDto;
+import com.example.carsharingapp.dto.rental.RentalCursorRequestDto;
 import com.example.carsharingapp.dto.rental.RentalDeciderDto;
 import com.example.carsharingapp.dto.rental.RentalRequestDto;
 import com.example.carsharingapp.dto.rental.RentalResponseDto;
 import com.example.carsharingapp.dto.rental.RentalResponseDtoWithoutActualReturnDate;
 import com.example.carsharingapp.dto.rental.RentalReturnDto;
+import com.example.carsharingapp.event.car.CarInventoryChangedEvent;
+import com.example.carsharingapp.event.rental.RentalCreatedEvent;
+import com.example.carsharingapp.event.rental.RentalsReturnedEvent;
+import com.example.carsharingapp.exception.CarNotAvailableException;
 import com.example.carsharingapp.exception.EntityNotFoundException;
+import com.example.carsharingapp.exception.PageTooDeepException;
 import com.example.carsharingapp.mapper.rental.RentalMapper;
 import com.example.carsharingapp.model.car.Car;
 import com.example.carsharingapp.model.rental.Rental;
@@ -14,12 +21,24 @@ import com.example.carsharingapp.repository.car.CarRepository;
 import com.example.carsharingapp.repository.rental.RentalRepository;
 import com.example.carsharingapp.service.bot.TelegramNotificationService;
 import com.example.carsharingapp.service.rental.RentalService;
+import com.example.carsharingapp.service.rental.cursor.RentalCursor;
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -27,94 +46,175 @@ import org.springframework.transaction.annotation.Transactional;
 @RequiredArgsConstructor
 @Transactional
 public class RentalServiceImpl implements RentalService {
+    private static final Sort ACTIVE_SORT = Sort.by(Sort.Direction.DESC, "id");
+    private static final Sort RETURNED_SORT = Sort.by(Sort.Direction.DESC,
+            "actualReturnDate", "id");
+    private static final int MAX_RETURNED_OFFSET = 1000;
+    private static final Comparator<RentalResponseDto> RETURNED_ORDER = Comparator
+            .comparing(RentalResponseDto::getActualReturnDate, Comparator.reverseOrder())
+            .thenComparing(RentalResponseDto::getId, Comparator.reverseOrder());
     private final RentalRepository rentalRepository;
     private final RentalMapper rentalMapper;
     private final CarRepository carRepository;
     private final TelegramNotificationService telegramNotificationService;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     public RentalResponseDtoWithoutActualReturnDate create(RentalRequestDto requestDto) {
         Car car = carRepository.findById(requestDto.getCarId())
                 .orElseThrow(() -> new EntityNotFoundException("Car was not found with id: "
                         + requestDto.getCarId()));
-        car.setInventory(car.getInventory() - 1);
-        carRepository.save(car);
+        if (carRepository.decreaseInventory(car.getId()) == 0) {
+            throw new CarNotAvailableException("Car with id: " + car.getId()
+                    + " is not available for rent");
+        }
+        eventPublisher.publishEvent(new CarInventoryChangedEvent(Set.of(car.getId())));
         requestDto.setActualReturnDate(null);
         telegramNotificationService.sendNotification(car.getBrand() + " "
                 + car.getModel() + " " + "was successfully rented");
-        return rentalMapper.toResponseDtoWithoutActualReturnDate(rentalRepository
-                .save(rentalMapper.toModel(requestDto)));
+        Rental saved = rentalRepository.save(rentalMapper.toModel(requestDto));
+        eventPublisher.publishEvent(new RentalCreatedEvent(saved.getId(), car.getId(),
+                saved.getRentalDate(), saved.getReturnDate()));
+        return rentalMapper.toResponseDtoWithoutActualReturnDate(saved);
     }
 
     @Override
     public Page<RentalResponseDto> returnCar(Long userId, RentalReturnDto rentalReturnDto,
                                              Pageable pageable) {
-        List<Rental> rental = rentalRepository.findByUserIdAndActualReturnDateIsNull(userId);
-        if (rental.isEmpty()) {
-            throw new EntityNotFoundException("Active rentals not found for userId: " + userId);
-        }
-        List<Long> carIds = rentalReturnDto.getCarIds();
+        Set<Long> carIds = new HashSet<>(rentalReturnDto.getCarIds());
         if (carIds.isEmpty()) {
             throw new EntityNotFoundException("Cars not found for userId: " + userId);
         }
-        List<Rental> rentalsToReturn = rental.stream()
-                .filter(r -> carIds.contains(r.getCar().getId()))
-                .toList();
+        List<Rental> rentalsToReturn = rentalRepository.findActiveByUserIdAndCarIdIn(userId,
+                carIds);
+        if (rentalsToReturn.isEmpty()) {
+            throw new EntityNotFoundException("Active rentals not found for userId: " + userId);
+        }
 
-        rentalsToReturn.forEach(r -> r.setActualReturnDate(LocalDateTime.now()));
-        rentalsToReturn.forEach(r -> r.getCar().setInventory(r.getCar().getInventory() + 1));
+        LocalDateTime actualReturnDate = LocalDateTime.now();
+        Map<Long, Long> carIdsByRentalId = rentalsToReturn.stream()
+                .collect(Collectors.toMap(Rental::getId, r -> r.getCar().getId()));
+        rentalRepository.markReturned(carIdsByRentalId.keySet(), actualReturnDate);
+        increaseInventory(carIdsByRentalId.values());
 
-        List<Rental> saved = rentalRepository.saveAll(rentalsToReturn);
+        eventPublisher.publishEvent(new CarInventoryChangedEvent(
+                new HashSet<>(carIdsByRentalId.values())));
+        eventPublisher.publishEvent(new RentalsReturnedEvent(carIdsByRentalId));
 
-        List<RentalResponseDto> dtos = saved.stream()
+        List<RentalResponseDto> dtos = rentalsToReturn.stream()
                 .map(rentalMapper::toResponseDto)
+                .map(dto -> dto.setActualReturnDate(actualReturnDate))
                 .toList();
-        for (Rental rentalToReturn : rental) {
-            telegramNotificationService.sendNotification(rentalToReturn.getCar().getBrand() + " "
-                    + rentalToReturn.getCar().getModel() + " " + "was successfully returned");
-        }
+        telegramNotificationService.sendNotification(rentalsToReturn.stream()
+                .map(r -> r.getCar().getBrand() + " " + r.getCar().getModel())
+                .collect(Collectors.joining(", "))
+                + (rentalsToReturn.size() == 1 ? " was" : " were") + " successfully returned");
         return new PageImpl<>(dtos, pageable, dtos.size());
     }
 
+    @Transactional(readOnly = true)
     @Override
     public Page<RentalDeciderDto> returnUserRentals(Long userId, Pageable pageable,
                                                     RentalActiveOrNotActiveRequestDto requestDto) {
-        List<Rental> rentals;
-        if (requestDto.isActive()) {
-            rentals = rentalRepository.findByUserIdAndActualReturnDateIsNull(userId);
-        } else {
-            rentals = rentalRepository.findByUserIdAndActualReturnDateIsNotNull(userId);
-        }
+        Page<? extends RentalDeciderDto> rentals = requestDto.isActive()
+                ? rentalRepository.findActiveResponseDtosByUserId(userId,
+                        withDefaultSort(pageable, ACTIVE_SORT))
+                : findReturnedRentals(userId, pageable);
 
-        if (rentals.isEmpty()) {
+        if (rentals.getTotalElements() == 0) {
             throw new EntityNotFoundException("Any rentals were not found for userId: " + userId);
         }
+        return rentals.map(RentalDeciderDto.class::cast);
+    }
 
-        if (requestDto.isActive()) {
-            List<RentalDeciderDto> result = rentals.stream()
-                    .map(rentalMapper::toResponseDtoWithoutActualReturnDate)
-                    .map(dto -> (RentalDeciderDto) dto)
-                    .toList();
-            return new PageImpl<>(result, pageable, result.size());
-
-        } else {
-            List<RentalDeciderDto> result = rentals.stream()
-                    .map(rentalMapper::toResponseDto)
-                    .map(dto -> (RentalDeciderDto) dto)
-                    .toList();
-
-            return new PageImpl<>(result, pageable, result.size());
-        }
+    @Transactional(readOnly = true)
+    @Override
+    public RentalCursorPageDto returnUserRentalsByCursor(Long userId,
+                                                         RentalCursorRequestDto cursorRequestDto) {
+        RentalCursor after = cursorRequestDto.getAfter() == null
+                ? null
+                : RentalCursor.decode(cursorRequestDto.getAfter(), cursorRequestDto.isActive());
+        int size = cursorRequestDto.getSize();
+        Pageable limit = PageRequest.ofSize(size + 1);
+        List<? extends RentalDeciderDto> rentals = cursorRequestDto.isActive()
+                ? rentalRepository.findActiveResponseDtosByUserIdBefore(userId,
+                        after == null ? null : after.id(), limit)
+                : mergeReturned(rentalRepository.findReturnedResponseDtosByUserIdBefore(userId,
+                        after == null ? null : after.actualReturnDate(),
+                        after == null ? null : after.id(), limit),
+                        rentalRepository.findArchivedResponseDtosByUserIdBefore(userId,
+                        after == null ? null : after.actualReturnDate(),
+                        after == null ? null : after.id(), limit), 0, size + 1);
+        boolean hasNext = rentals.size() > size;
+        List<RentalDeciderDto> content = List.copyOf(hasNext ? rentals.subList(0, size) : rentals);
+        return new RentalCursorPageDto()
+                .setContent(content)
+                .setNextCursor(hasNext ? RentalCursor.of(content.get(size - 1)).encode() : null);
     }
 
+    @Transactional(readOnly = true)
     @Override
     public RentalDeciderDto returnRentalByRentalIdAndUserId(Long userId, Long rentalId) {
-        Rental rental = rentalRepository.findByUserIdAndRentalId(userId, rentalId)
-                .orElseThrow(() -> new EntityNotFoundException("Rental was not found with id: "
-                        + rentalId));
+        Rental rental = rentalRepository.findByUserIdAndRentalId(userId, rentalId).orElse(null);
+        if (rental == null) {
+            return rentalRepository.findArchivedResponseDtoByUserIdAndRentalId(userId, rentalId)
+                    .orElseThrow(() -> new EntityNotFoundException(
+                            "Rental was not found with id: " + rentalId));
+        }
         if (rental.getActualReturnDate() == null) {
             return rentalMapper.toResponseDtoWithoutActualReturnDate(rental);
         }
         return rentalMapper.toResponseDto(rental);
     }
+
+    private Page<RentalResponseDto> findReturnedRentals(Long userId, Pageable pageable) {
+        if (pageable.isUnpaged()
+                || pageable.getOffset() + pageable.getPageSize() > MAX_RETURNED_OFFSET) {
+            throw new PageTooDeepException("Only the latest " + MAX_RETURNED_OFFSET
+                    + " returned rentals can be paged by number, use /rentals/cursor instead");
+        }
+        pageable = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(),
+                RETURNED_SORT);
+        long returned = rentalRepository.countReturnedByUserId(userId);
+        long archived = rentalRepository.countArchivedByUserId(userId);
+        long total = returned + archived;
+        if (pageable.getOffset() >= total) {
+            return new PageImpl<>(List.of(), pageable, total);
+        }
+        int limit = (int) pageable.getOffset() + pageable.getPageSize();
+        Pageable head = PageRequest.ofSize(limit);
+        List<RentalResponseDto> content = mergeReturned(returned == 0 ? List.of()
+                : rentalRepository.findReturnedResponseDtosByUserIdBefore(userId, null, null, head),
+                archived == 0 ? List.of()
+                : rentalRepository.findArchivedResponseDtosByUserIdBefore(userId, null, null, head),
+                pageable.getOffset(), pageable.getPageSize());
+        return new PageImpl<>(content, pageable, total);
+    }
+
+    private List<RentalResponseDto> mergeReturned(List<RentalResponseDto> returned,
+                                                  List<RentalResponseDto> archived,
+                                                  long offset, int size) {
+        return Stream.concat(returned.stream(), archived.stream())
+                .sorted(RETURNED_ORDER)
+                .skip(offset)
+                .limit(size)
+                .toList();
+    }
+
+    private void increaseInventory(Collection<Long> returnedCarIds) {
+        Map<Long, Long> rentalsByCarId = returnedCarIds.stream()
+                .collect(Collectors.groupingBy(Function.identity(), Collectors.counting()));
+        Map<Long, Set<Long>> carIdsByAmount = rentalsByCarId.entrySet().stream()
+                .collect(Collectors.groupingBy(Map.Entry::getValue,
+                        Collectors.mapping(Map.Entry::getKey, Collectors.toSet())));
+        carIdsByAmount.forEach((amount, carIds) -> carRepository.increaseInventory(carIds,
+                amount.intValue()));
+    }
+
+    private Pageable withDefaultSort(Pageable pageable, Sort sort) {
+        if (pageable.getSort().isSorted() || pageable.isUnpaged()) {
+            return pageable;
+        }
+        return PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), sort);
+    }
 }
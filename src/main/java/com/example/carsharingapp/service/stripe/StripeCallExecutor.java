@@ -0,0 +1,69 @@
+package com.example.carsharingapp.service.stripe;
+
+import com.example.carsharingapp.exception.StripeSessionFailureException;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+@Component
+public class StripeCallExecutor {
+    private final ThreadPoolExecutor executor;
+    private final Duration timeout;
+
+    public StripeCallExecutor(@Value("${stripe.executor.threads:8}") int threads,
+                              @Value("${stripe.executor.queue-capacity:64}") int queueCapacity,
+                              @Value("${stripe.executor.timeout:PT30S}") Duration timeout) {
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity));
+        this.timeout = timeout;
+    }
+
+    public <T> T call(Supplier<T> stripeCall) {
+        Future<T> future;
+        try {
+            future = executor.submit(stripeCall::get);
+        } catch (RejectedExecutionException e) {
+            throw new StripeSessionFailureException("Too many pending Stripe requests, "
+                    + "try again later");
+        }
+        try {
+            return future.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw new StripeSessionFailureException("Stripe request timed out");
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new StripeSessionFailureException("Stripe request was interrupted");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new StripeSessionFailureException("Stripe request failed: "
+                    + e.getCause().getMessage());
+        }
+    }
+
+    public boolean submit(Runnable stripeCall) {
+        try {
+            executor.submit(stripeCall);
+            return true;
+        } catch (RejectedExecutionException e) {
+            return false;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
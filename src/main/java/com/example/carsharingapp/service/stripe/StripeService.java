@@ -3,10 +3,15 @@ package com.example.carsharingapp.service.stripe;
 import com.example.carsharingapp.model.rental.Rental;
 import com.stripe.model.checkout.Session;
 import java.math.BigDecimal;
+import java.util.Optional;
 
 public interface StripeService {
     Session createRentalPaymentSession(Rental rental, BigDecimal amount);
 
     String checkPaymentStatus(String sessionId);
+
+    Optional<Session> findSession(String sessionId);
+
+    void expireSession(String sessionId);
 }
 
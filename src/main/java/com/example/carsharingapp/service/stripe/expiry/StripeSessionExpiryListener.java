@@ -0,0 +1,22 @@
+package com.example.carsharingapp.service.stripe.expiry;
+
+import com.example.carsharingapp.event.rental.RentalHoldsReleasedEvent;
+import com.example.carsharingapp.service.stripe.StripeCallExecutor;
+import com.example.carsharingapp.service.stripe.StripeService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+@Component
+@RequiredArgsConstructor
+public class StripeSessionExpiryListener {
+    private final StripeService stripeService;
+    private final StripeCallExecutor stripeCallExecutor;
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onHoldsReleased(RentalHoldsReleasedEvent event) {
+        for (String sessionId : event.sessionIds()) {
+            stripeCallExecutor.submit(() -> stripeService.expireSession(sessionId));
+        }
+    }
+}
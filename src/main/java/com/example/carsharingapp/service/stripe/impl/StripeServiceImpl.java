@@ -1,25 +1,37 @@
 package com.example.carsharingapp.service.stripe.impl;
 
 import com.example.carsharingapp.exception.StripeSessionFailureException;
+import com.example.carsharingapp.exception.StripeUnavailableException;
 import com.example.carsharingapp.model.rental.Rental;
 import com.example.carsharingapp.service.stripe.StripeService;
+import com.example.carsharingapp.service.stripe.resilience.StripeResilienceGuard;
 import com.stripe.Stripe;
+import com.stripe.exception.ApiConnectionException;
 import com.stripe.exception.StripeException;
 import com.stripe.model.checkout.Session;
+import com.stripe.net.RequestOptions;
 import com.stripe.param.checkout.SessionCreateParams;
 import jakarta.annotation.PostConstruct;
 import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.Optional;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 @RequiredArgsConstructor
 @Service
-@Transactional
 public class StripeServiceImpl implements StripeService {
     private static final String USD = "usd";
     private static final Long DEFAULT_QUANTITY = 1L;
+    private static final int NOT_FOUND = 404;
+    private static final int TOO_MANY_REQUESTS = 429;
+    private static final int SERVER_ERROR = 500;
+    private static final Duration MIN_SESSION_TTL = Duration.ofMinutes(30);
+
+    private final StripeResilienceGuard stripeResilienceGuard;
 
     @Value("${stripe.secret.key}")
     private String stripeSecretKey;
@@ -30,18 +42,48 @@ public class StripeServiceImpl implements StripeService {
     @Value("${stripe.cancel.url}")
     private String cancelUrl;
 
+    @Value("${stripe.api-base:" + Stripe.LIVE_API_BASE + "}")
+    private String apiBase;
+
+    @Value("${stripe.connect-timeout:PT2S}")
+    private Duration connectTimeout;
+
+    @Value("${stripe.read-timeout:PT10S}")
+    private Duration readTimeout;
+
+    @Value("${stripe.session.ttl:PT23H}")
+    private Duration sessionTtl;
+
+    private RequestOptions requestOptions;
+
     @PostConstruct
     void init() {
         Stripe.apiKey = stripeSecretKey;
+        Stripe.overrideApiBase(apiBase);
+        requestOptions = RequestOptions.builder()
+                .setConnectTimeout((int) connectTimeout.toMillis())
+                .setReadTimeout((int) readTimeout.toMillis())
+                .setMaxNetworkRetries(0)
+                .build();
     }
 
     private Session createSession(SessionCreateParams params) {
-        try {
-            return Session.create(params);
-        } catch (StripeException e) {
-            throw new StripeSessionFailureException("Can't create stripe session: "
-                    + e.getMessage());
+        return stripeResilienceGuard.call(() -> {
+            try {
+                return Session.create(params, requestOptions);
+            } catch (StripeException e) {
+                throw toFailure("Can't create stripe session: ", e);
+            }
+        });
+    }
+
+    private RuntimeException toFailure(String message, StripeException e) {
+        Integer statusCode = e.getStatusCode();
+        if (e instanceof ApiConnectionException || statusCode == null
+                || statusCode == TOO_MANY_REQUESTS || statusCode >= SERVER_ERROR) {
+            return new StripeUnavailableException(message + e.getMessage());
         }
+        return new StripeSessionFailureException(message + e.getMessage());
     }
 
     private SessionCreateParams createSessionParams(BigDecimal amount, Rental rental) {
@@ -50,10 +92,26 @@ public class StripeServiceImpl implements StripeService {
                 .setMode(SessionCreateParams.Mode.PAYMENT)
                 .setSuccessUrl(successUrl)
                 .setCancelUrl(cancelUrl)
+                .setExpiresAt(sessionExpiresAt(rental).getEpochSecond())
                 .addLineItem(createLineItem(amount, rental))
                 .build();
     }
 
+    private Instant sessionExpiresAt(Rental rental) {
+        Instant now = Instant.now();
+        Instant expiresAt = now.plus(sessionTtl);
+        if (rental.getHoldExpiresAt() == null) {
+            return expiresAt;
+        }
+        Instant holdExpiresAt = rental.getHoldExpiresAt().atZone(ZoneId.systemDefault())
+                .toInstant();
+        Instant earliest = now.plus(MIN_SESSION_TTL);
+        if (holdExpiresAt.isBefore(earliest)) {
+            return earliest;
+        }
+        return holdExpiresAt.isBefore(expiresAt) ? holdExpiresAt : expiresAt;
+    }
+
     private SessionCreateParams.LineItem createLineItem(BigDecimal amount, Rental rental) {
         return SessionCreateParams
                 .LineItem
@@ -94,12 +152,39 @@ public class StripeServiceImpl implements StripeService {
 
     @Override
     public String checkPaymentStatus(String sessionId) {
-        try {
-            Session session = Session.retrieve(sessionId);
-            return session.getPaymentStatus();
-        } catch (StripeException e) {
-            throw new StripeSessionFailureException("Can't create stripe session: "
-                    + e.getMessage());
-        }
+        return stripeResilienceGuard.call(() -> {
+            try {
+                return Session.retrieve(sessionId, requestOptions).getPaymentStatus();
+            } catch (StripeException e) {
+                throw toFailure("Can't retrieve stripe session: ", e);
+            }
+        });
+    }
+
+    @Override
+    public Optional<Session> findSession(String sessionId) {
+        return stripeResilienceGuard.call(() -> {
+            try {
+                return Optional.of(Session.retrieve(sessionId, requestOptions));
+            } catch (StripeException e) {
+                if (Integer.valueOf(NOT_FOUND).equals(e.getStatusCode())) {
+                    return Optional.empty();
+                }
+                throw toFailure("Can't retrieve stripe session: ", e);
+            }
+        });
+    }
+
+    @Override
+    public void expireSession(String sessionId) {
+        stripeResilienceGuard.call(() -> {
+            try {
+                Session session = new Session();
+                session.setId(sessionId);
+                return session.expire(requestOptions);
+            } catch (StripeException e) {
+                throw toFailure("Can't expire stripe session: ", e);
+            }
+        });
     }
 }
@@ -0,0 +1,173 @@
+package com.example.carsharingapp.service.stripe.resilience;
+
+import com.example.carsharingapp.dto.payment.StripeResilienceStatsDto;
+import com.example.carsharingapp.exception.StripeSessionFailureException;
+import com.example.carsharingapp.exception.StripeUnavailableException;
+import com.example.carsharingapp.model.enums.CircuitState;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+@Component
+public class StripeResilienceGuard {
+    private final int maxConcurrent;
+    private final Semaphore bulkhead;
+    private final long bulkheadWaitNanos;
+    private final boolean[] outcomes;
+    private final int minimumCalls;
+    private final double failureRateThreshold;
+    private final long openNanos;
+    private final AtomicLong calls = new AtomicLong();
+    private final AtomicLong successes = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+    private final AtomicLong rejectedByBulkhead = new AtomicLong();
+    private final AtomicLong rejectedByCircuit = new AtomicLong();
+    private final AtomicLong timesOpened = new AtomicLong();
+    private final AtomicLong timesHalfOpened = new AtomicLong();
+    private final AtomicLong timesClosed = new AtomicLong();
+    private CircuitState state = CircuitState.CLOSED;
+    private long openedAt;
+    private boolean probeInFlight;
+    private int recorded;
+    private int failed;
+    private int next;
+
+    public StripeResilienceGuard(
+            @Value("${stripe.resilience.max-concurrent:16}") int maxConcurrent,
+            @Value("${stripe.resilience.max-wait:PT0.1S}") Duration maxWait,
+            @Value("${stripe.resilience.window-size:20}") int windowSize,
+            @Value("${stripe.resilience.minimum-calls:10}") int minimumCalls,
+            @Value("${stripe.resilience.failure-rate-threshold:0.5}") double failureRateThreshold,
+            @Value("${stripe.resilience.open-duration:PT30S}") Duration openDuration) {
+        this.maxConcurrent = maxConcurrent;
+        this.bulkhead = new Semaphore(maxConcurrent);
+        this.bulkheadWaitNanos = maxWait.toNanos();
+        this.outcomes = new boolean[windowSize];
+        this.minimumCalls = minimumCalls;
+        this.failureRateThreshold = failureRateThreshold;
+        this.openNanos = openDuration.toNanos();
+    }
+
+    public <T> T call(Supplier<T> stripeCall) {
+        boolean probe = acquirePermission();
+        if (!acquireBulkhead()) {
+            rejectedByBulkhead.incrementAndGet();
+            releaseProbe(probe);
+            throw new StripeUnavailableException("Too many concurrent Stripe requests");
+        }
+        calls.incrementAndGet();
+        try {
+            T result = stripeCall.get();
+            onSuccess();
+            return result;
+        } catch (StripeSessionFailureException e) {
+            onSuccess();
+            throw e;
+        } catch (RuntimeException e) {
+            onFailure();
+            throw e;
+        } finally {
+            bulkhead.release();
+        }
+    }
+
+    public synchronized StripeResilienceStatsDto getStats() {
+        return new StripeResilienceStatsDto(currentState(System.nanoTime()), calls.get(),
+                successes.get(), failures.get(), rejectedByBulkhead.get(),
+                rejectedByCircuit.get(), timesOpened.get(), timesHalfOpened.get(),
+                timesClosed.get(), maxConcurrent - bulkhead.availablePermits());
+    }
+
+    private synchronized boolean acquirePermission() {
+        CircuitState current = currentState(System.nanoTime());
+        if (current == CircuitState.CLOSED) {
+            return false;
+        }
+        if (current == CircuitState.HALF_OPEN && !probeInFlight) {
+            probeInFlight = true;
+            return true;
+        }
+        rejectedByCircuit.incrementAndGet();
+        throw new StripeUnavailableException("Stripe is unavailable, failing fast until "
+                + "the circuit breaker closes");
+    }
+
+    private synchronized void releaseProbe(boolean probe) {
+        if (probe) {
+            probeInFlight = false;
+        }
+    }
+
+    private boolean acquireBulkhead() {
+        try {
+            return bulkhead.tryAcquire(bulkheadWaitNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private synchronized void onSuccess() {
+        successes.incrementAndGet();
+        if (state == CircuitState.HALF_OPEN) {
+            transitionTo(CircuitState.CLOSED, System.nanoTime());
+            return;
+        }
+        record(false);
+    }
+
+    private synchronized void onFailure() {
+        failures.incrementAndGet();
+        long now = System.nanoTime();
+        if (state == CircuitState.HALF_OPEN) {
+            transitionTo(CircuitState.OPEN, now);
+            return;
+        }
+        record(true);
+        if (state == CircuitState.CLOSED && recorded >= minimumCalls
+                && (double) failed / recorded >= failureRateThreshold) {
+            transitionTo(CircuitState.OPEN, now);
+        }
+    }
+
+    private CircuitState currentState(long now) {
+        if (state == CircuitState.OPEN && now - openedAt >= openNanos) {
+            transitionTo(CircuitState.HALF_OPEN, now);
+        }
+        return state;
+    }
+
+    private void record(boolean failure) {
+        if (recorded == outcomes.length) {
+            failed -= outcomes[next] ? 1 : 0;
+        } else {
+            recorded++;
+        }
+        outcomes[next] = failure;
+        failed += failure ? 1 : 0;
+        next = (next + 1) % outcomes.length;
+    }
+
+    private void transitionTo(CircuitState target, long now) {
+        state = target;
+        probeInFlight = false;
+        switch (target) {
+            case OPEN -> {
+                openedAt = now;
+                timesOpened.incrementAndGet();
+            }
+            case HALF_OPEN -> timesHalfOpened.incrementAndGet();
+            case CLOSED -> {
+                recorded = 0;
+                failed = 0;
+                next = 0;
+                timesClosed.incrementAndGet();
+            }
+            default -> throw new IllegalStateException("Unknown circuit state " + target);
+        }
+    }
+}
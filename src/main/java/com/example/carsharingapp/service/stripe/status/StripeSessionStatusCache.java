@@ -0,0 +1,103 @@
+package com.example.carsharingapp.service.stripe.status;
+
+import com.example.carsharingapp.service.stripe.StripeService;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+@Component
+public class StripeSessionStatusCache {
+    private static final int REFRESH_THREADS = 2;
+
+    private final StripeService stripeService;
+    private final long ttlNanos;
+    private final long staleNanos;
+    private final int maxSize;
+    private final ExecutorService refresher = Executors.newFixedThreadPool(REFRESH_THREADS);
+    private final Map<String, CachedStatus> statuses = new ConcurrentHashMap<>();
+    private final Map<String, CompletableFuture<String>> inFlight = new ConcurrentHashMap<>();
+
+    public StripeSessionStatusCache(StripeService stripeService,
+                                    @Value("${stripe.status.ttl:PT5S}") Duration ttl,
+                                    @Value("${stripe.status.stale-while-revalidate:PT30S}")
+                                    Duration staleWhileRevalidate,
+                                    @Value("${stripe.status.max-size:10000}") int maxSize) {
+        this.stripeService = stripeService;
+        this.ttlNanos = ttl.toNanos();
+        this.staleNanos = staleWhileRevalidate.toNanos();
+        this.maxSize = maxSize;
+    }
+
+    public String getStatus(String sessionId) {
+        CachedStatus cached = statuses.get(sessionId);
+        if (cached != null) {
+            long age = System.nanoTime() - cached.fetchedAt();
+            if (age < ttlNanos) {
+                return cached.status();
+            }
+            if (age < ttlNanos + staleNanos) {
+                load(sessionId, true);
+                return cached.status();
+            }
+        }
+        return await(load(sessionId, false));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        refresher.shutdownNow();
+    }
+
+    private CompletableFuture<String> load(String sessionId, boolean background) {
+        CompletableFuture<String> created = new CompletableFuture<>();
+        CompletableFuture<String> running = inFlight.putIfAbsent(sessionId, created);
+        if (running != null) {
+            return running;
+        }
+        Runnable fetch = () -> {
+            try {
+                String status = stripeService.checkPaymentStatus(sessionId);
+                store(sessionId, status);
+                created.complete(status);
+            } catch (RuntimeException e) {
+                created.completeExceptionally(e);
+            } finally {
+                inFlight.remove(sessionId, created);
+            }
+        };
+        if (background) {
+            refresher.execute(fetch);
+        } else {
+            fetch.run();
+        }
+        return created;
+    }
+
+    private void store(String sessionId, String status) {
+        long now = System.nanoTime();
+        if (statuses.size() >= maxSize) {
+            statuses.values().removeIf(cached -> now - cached.fetchedAt() >= ttlNanos + staleNanos);
+        }
+        if (statuses.size() < maxSize || statuses.containsKey(sessionId)) {
+            statuses.put(sessionId, new CachedStatus(status, now));
+        }
+    }
+
+    private String await(CompletableFuture<String> status) {
+        try {
+            return status.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
+
+    private record CachedStatus(String status, long fetchedAt) {
+    }
+}
@@ -0,0 +1,5 @@
+package com.example.carsharingapp.service.stripe.webhook;
+
+public record StripeWebhookEvent(String id, String type, String sessionId,
+                                 String paymentStatus) {
+}
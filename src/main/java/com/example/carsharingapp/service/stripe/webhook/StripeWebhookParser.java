@@ -0,0 +1,46 @@
+package com.example.carsharingapp.service.stripe.webhook;
+
+import com.example.carsharingapp.exception.InvalidWebhookSignatureException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.stripe.exception.SignatureVerificationException;
+import com.stripe.net.Webhook;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+@Component
+public class StripeWebhookParser {
+    private final ObjectMapper objectMapper;
+    private final String secret;
+
+    public StripeWebhookParser(ObjectMapper objectMapper,
+                               @Value("${stripe.webhook.secret}") String secret) {
+        this.objectMapper = objectMapper;
+        this.secret = secret;
+    }
+
+    public StripeWebhookEvent parse(String payload, String signatureHeader) {
+        if (signatureHeader == null) {
+            throw new InvalidWebhookSignatureException("Stripe signature header is missing");
+        }
+        try {
+            Webhook.Signature.verifyHeader(payload, signatureHeader, secret,
+                    Webhook.DEFAULT_TOLERANCE);
+        } catch (SignatureVerificationException e) {
+            throw new InvalidWebhookSignatureException("Invalid Stripe signature: "
+                    + e.getMessage());
+        }
+        try {
+            JsonNode event = objectMapper.readTree(payload);
+            JsonNode object = event.path("data").path("object");
+            return new StripeWebhookEvent(event.path("id").asText(),
+                    event.path("type").asText(),
+                    object.path("id").asText(null),
+                    object.path("payment_status").asText(null));
+        } catch (JsonProcessingException e) {
+            throw new InvalidWebhookSignatureException("Can't read Stripe event: "
+                    + e.getOriginalMessage());
+        }
+    }
+}
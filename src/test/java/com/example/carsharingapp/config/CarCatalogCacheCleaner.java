@@ -0,0 +1,15 @@
+package com.example.carsharingapp.config;
+
+import com.example.carsharingapp.service.car.cache.CarCatalogCache;
+import org.springframework.test.context.TestContext;
+import org.springframework.test.context.support.AbstractTestExecutionListener;
+
+public class CarCatalogCacheCleaner extends AbstractTestExecutionListener {
+    @Override
+    public void afterTestMethod(TestContext testContext) {
+        if (testContext.hasApplicationContext()) {
+            testContext.getApplicationContext().getBeanProvider(CarCatalogCache.class)
+                    .ifAvailable(CarCatalogCache::clear);
+        }
+    }
+}
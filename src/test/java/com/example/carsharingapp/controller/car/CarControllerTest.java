@@ -1,5 +1,7 @@
 package com.example.carsharingapp.controller.car;
 
+import com.example.carsharingapp.dto.car.CarCursorPageDto;
+import com.example.carsharingapp.dto.car.CarImportResultDto;
 import com.example.carsharingapp.dto.car.CarRequestDto;
 import com.example.carsharingapp.dto.car.CarResponseDto;
 import com.example.carsharingapp.dto.car.CarSearchParamsDto;
@@ -16,6 +18,7 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.context.jdbc.Sql;
 import org.springframework.test.web.servlet.MockMvc;
@@ -36,6 +39,8 @@ public class CarControllerTest {
 
     @Autowired
     private ObjectMapper objectMapper;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
 
     @BeforeAll
     static void beforeAll(@Autowired WebApplicationContext applicationContext) {
@@ -173,6 +178,264 @@ public class CarControllerTest {
         assertTrue(EqualsBuilder.reflectionEquals(expected.getContent().get(0), actual.content.get(0)));
     }
 
+    @Test
+    @WithMockUser(username = "user", roles = {"CUSTOMER"})
+    @DisplayName("""
+            Search by untrimmed model and blank values matches the same cars as the cached key
+            """)
+    @Sql(scripts = {
+            "classpath:database/controller/car/add/add-two-cars-to-cars-table.sql",
+    }, executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+    @Sql(scripts = {
+            "classpath:database/controller/car/truncate/truncate-cars-table.sql",
+    }, executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+    public void getAllCars_ByUntrimmedParams_ReturnSameCarsAsTrimmedParams() throws Exception {
+        JavaType type = objectMapper.getTypeFactory()
+                .constructParametricType(PageResponse.class, CarResponseDto.class);
+        String untrimmed = objectMapper.writeValueAsString(new CarSearchParamsDto()
+                .setModels(new String[]{" a5 ", " "}));
+        String blank = objectMapper.writeValueAsString(new CarSearchParamsDto()
+                .setBrands(new String[]{" "}));
+
+        PageResponse<CarResponseDto> byModel = objectMapper.readValue(mockMvc.perform(
+                        get("/cars/search")
+                                .content(untrimmed)
+                                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString(), type);
+        PageResponse<CarResponseDto> byBlankBrand = objectMapper.readValue(mockMvc.perform(
+                        get("/cars/search")
+                                .content(blank)
+                                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString(), type);
+
+        assertEquals(1, byModel.content.size());
+        assertEquals("A5", byModel.content.get(0).getModel());
+        assertEquals(2, byBlankBrand.content.size());
+    }
+
+    @Test
+    @WithMockUser(username = "user", roles = {"CUSTOMER"})
+    @DisplayName("""
+            Get all cars by cursor ordered by daily fee
+            """)
+    @Sql(scripts = {
+            "classpath:database/controller/car/add/add-two-cars-to-cars-table.sql",
+    }, executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+    @Sql(scripts = {
+            "classpath:database/controller/car/truncate/truncate-cars-table.sql",
+    }, executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+    public void getAllCarsByCursor_FollowingNextCursor_ReturnAllCarsOnce() throws Exception {
+        MvcResult firstResult = mockMvc.perform(get("/cars/cursor")
+                        .param("size", "1")
+                        .param("orderBy", "DAILY_FEE")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andReturn();
+        CarCursorPageDto firstPage = objectMapper.readValue(
+                firstResult.getResponse().getContentAsString(), CarCursorPageDto.class);
+
+        assertEquals(1, firstPage.getContent().size());
+        assertEquals(1L, firstPage.getContent().get(0).getId());
+        assertNotNull(firstPage.getNextCursor());
+
+        MvcResult secondResult = mockMvc.perform(get("/cars/cursor")
+                        .param("size", "1")
+                        .param("orderBy", "DAILY_FEE")
+                        .param("after", firstPage.getNextCursor())
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andReturn();
+        CarCursorPageDto secondPage = objectMapper.readValue(
+                secondResult.getResponse().getContentAsString(), CarCursorPageDto.class);
+
+        assertEquals(1, secondPage.getContent().size());
+        assertEquals(2L, secondPage.getContent().get(0).getId());
+        assertNull(secondPage.getNextCursor());
+    }
+
+    @Test
+    @WithMockUser(username = "user", roles = {"CUSTOMER"})
+    @DisplayName("""
+            Search cars by cursor
+            """)
+    @Sql(scripts = {
+            "classpath:database/controller/car/add/add-two-cars-to-cars-table.sql",
+    }, executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+    @Sql(scripts = {
+            "classpath:database/controller/car/truncate/truncate-cars-table.sql",
+    }, executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+    public void searchCarsByCursor_ByBrand_ReturnMatchingCars() throws Exception {
+        MvcResult result = mockMvc.perform(get("/cars/search/cursor")
+                        .param("brands", "Mercedes")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andReturn();
+        CarCursorPageDto actual = objectMapper.readValue(
+                result.getResponse().getContentAsString(), CarCursorPageDto.class);
+
+        assertEquals(1, actual.getContent().size());
+        assertEquals("G-class", actual.getContent().get(0).getModel());
+        assertNull(actual.getNextCursor());
+    }
+
+    @Test
+    @WithMockUser(username = "user", roles = {"CUSTOMER"})
+    @DisplayName("""
+            Get all cars by invalid cursor
+            """)
+    public void getAllCarsByCursor_WithInvalidCursor_ReturnBadRequest() throws Exception {
+        mockMvc.perform(get("/cars/cursor")
+                        .param("after", "not-a-cursor")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @WithMockUser(username = "manager", roles = {"MANAGER"})
+    @DisplayName("""
+            Import cars from CSV reporting invalid rows
+            """)
+    @Sql(scripts = {
+            "classpath:database/controller/car/add/add-two-cars-to-cars-table.sql",
+    }, executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+    @Sql(scripts = {
+            "classpath:database/controller/car/truncate/truncate-cars-table.sql",
+    }, executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+    public void importCars_WithCsv_ReturnImportResult() throws Exception {
+        String csv = """
+                brand,model,type,dailyFee,inventory
+                Audi,A5,SEDAN,700,5
+                BMW,X5,SUV,900,3
+                BMW,x5,SUV,900,2
+                Kia,Rio,ROCKET,100,1
+                Opel,Astra,HATCHBACK,-5,1
+                """;
+
+        MvcResult result = mockMvc.perform(post("/cars/import")
+                        .content(csv)
+                        .contentType("text/csv"))
+                .andExpect(status().isOk())
+                .andReturn();
+        CarImportResultDto actual = objectMapper.readValue(
+                result.getResponse().getContentAsString(), CarImportResultDto.class);
+
+        assertEquals(5, actual.getProcessed());
+        assertEquals(1, actual.getInserted());
+        assertEquals(1, actual.getUpdated());
+        assertEquals(1, actual.getMerged());
+        assertEquals(2, actual.getFailed());
+        assertEquals(List.of(5L, 6L), actual.getErrors().stream()
+                .map(error -> error.getLine())
+                .toList());
+        assertEquals(55, jdbcTemplate.queryForObject(
+                "SELECT inventory FROM cars WHERE model = 'A5'", Integer.class));
+        assertEquals(5, jdbcTemplate.queryForObject(
+                "SELECT inventory FROM cars WHERE model = 'X5'", Integer.class));
+    }
+
+    @Test
+    @WithMockUser(username = "manager", roles = {"MANAGER"})
+    @DisplayName("""
+            Import cars from CSV with quoted values escaped like the export
+            """)
+    @Sql(scripts = {
+            "classpath:database/controller/car/add/add-two-cars-to-cars-table.sql",
+    }, executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+    @Sql(scripts = {
+            "classpath:database/controller/car/truncate/truncate-cars-table.sql",
+    }, executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+    public void importCars_WithQuotedCsvValues_ReturnImportResult() throws Exception {
+        String csv = """
+                brand,model,type,dailyFee,inventory
+                "Audi"," A5 ",SEDAN,700,5
+                Fiat,"500, ""Abarth""\",HATCHBACK,100,2
+                Kia,"Rio
+                Line",SEDAN,100,1
+                Opel,Astra,HATCHBACK,-5,1
+                """;
+
+        MvcResult result = mockMvc.perform(post("/cars/import")
+                        .content(csv)
+                        .contentType("text/csv"))
+                .andExpect(status().isOk())
+                .andReturn();
+        CarImportResultDto actual = objectMapper.readValue(
+                result.getResponse().getContentAsString(), CarImportResultDto.class);
+
+        assertEquals(4, actual.getProcessed());
+        assertEquals(2, actual.getInserted());
+        assertEquals(1, actual.getUpdated());
+        assertEquals(0, actual.getMerged());
+        assertEquals(6L, actual.getErrors().get(0).getLine());
+        assertEquals(55, jdbcTemplate.queryForObject(
+                "SELECT inventory FROM cars WHERE model = 'A5'", Integer.class));
+        assertEquals(2, jdbcTemplate.queryForObject(
+                "SELECT inventory FROM cars WHERE model = ?", Integer.class, "500, \"Abarth\""));
+        assertEquals(1, jdbcTemplate.queryForObject(
+                "SELECT inventory FROM cars WHERE model = ?", Integer.class, "Rio\nLine"));
+    }
+
+    @Test
+    @WithMockUser(username = "manager", roles = {"MANAGER"})
+    @DisplayName("""
+            Import from NDJSON matches existing cars by trimmed model
+            """)
+    @Sql(scripts = {
+            "classpath:database/controller/car/add/add-two-cars-to-cars-table.sql",
+    }, executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+    @Sql(scripts = {
+            "classpath:database/controller/car/truncate/truncate-cars-table.sql",
+    }, executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+    public void importCars_WithUntrimmedNdjsonModel_UpdateExistingCar() throws Exception {
+        String ndjson = """
+                {"brand":"Mercedes","model":" G-class ","type":"UNIVERSAL","dailyFee":800,"inventory":7}
+                """;
+
+        MvcResult result = mockMvc.perform(post("/cars/import")
+                        .content(ndjson)
+                        .contentType("application/x-ndjson"))
+                .andExpect(status().isOk())
+                .andReturn();
+        CarImportResultDto actual = objectMapper.readValue(
+                result.getResponse().getContentAsString(), CarImportResultDto.class);
+
+        assertEquals(0, actual.getInserted());
+        assertEquals(1, actual.getUpdated());
+        assertEquals(77, jdbcTemplate.queryForObject(
+                "SELECT inventory FROM cars WHERE model = 'G-class'", Integer.class));
+    }
+
+    @Test
+    @WithMockUser(username = "manager", roles = {"MANAGER"})
+    @DisplayName("""
+            Import cars from NDJSON
+            """)
+    @Sql(scripts = {
+            "classpath:database/controller/car/truncate/truncate-cars-table.sql",
+    }, executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+    public void importCars_WithNdjson_ReturnImportResult() throws Exception {
+        String ndjson = """
+                {"brand":"Audi","model":"A5","type":"SEDAN","dailyFee":700,"inventory":5}
+                {"brand":"Audi","model":
+                {"brand":"Mercedes","model":"G-class","type":"UNIVERSAL","dailyFee":800,"inventory":7}
+                """;
+
+        MvcResult result = mockMvc.perform(post("/cars/import")
+                        .content(ndjson)
+                        .contentType("application/x-ndjson"))
+                .andExpect(status().isOk())
+                .andReturn();
+        CarImportResultDto actual = objectMapper.readValue(
+                result.getResponse().getContentAsString(), CarImportResultDto.class);
+
+        assertEquals(3, actual.getProcessed());
+        assertEquals(2, actual.getInserted());
+        assertEquals(1, actual.getFailed());
+        assertEquals(2L, actual.getErrors().get(0).getLine());
+    }
+
     @Test
     @WithMockUser(username = "manager", roles = {"MANAGER"})
     @DisplayName("""
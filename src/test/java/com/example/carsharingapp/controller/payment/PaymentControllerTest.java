@@ -1,10 +1,12 @@
 package com.example.carsharingapp.controller.payment;
 
+import com.example.carsharingapp.dto.payment.PaymentQuoteResponseDto;
 import com.example.carsharingapp.dto.payment.PaymentRequestDto;
 import com.example.carsharingapp.dto.payment.PaymentResponseDto;
 import com.example.carsharingapp.dto.payment.PaymentStatusResponseDto;
 import com.example.carsharingapp.model.enums.PaymentType;
 import com.example.carsharingapp.model.enums.Status;
+import com.example.carsharingapp.model.enums.Type;
 import com.example.carsharingapp.model.rental.Rental;
 import com.example.carsharingapp.service.payment.PaymentService;
 import com.example.carsharingapp.service.stripe.StripeService;
@@ -33,14 +35,19 @@ import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.web.context.WebApplicationContext;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
@@ -184,8 +191,6 @@ public class PaymentControllerTest {
         PaymentStatusResponseDto expected = new PaymentStatusResponseDto()
                 .setStatus(Status.PAID);
 
-        when(stripeService.checkPaymentStatus("cs_test_a1AgmXxT1oLHjopQArI9JeS28zR2dFsJkQRwwgG3l6MudS6nwLgAh7eZEb")).thenReturn("paid");
-
         MvcResult result = mockMvc.perform(get("/payment/success?sessionId=cs_test_a1AgmXxT1oLHjopQArI9JeS28zR2dFsJkQRwwgG3l6MudS6nwLgAh7eZEb")
                         .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
@@ -227,6 +232,142 @@ public class PaymentControllerTest {
         assertEquals(expected.getStatus(), actual.getStatus());
     }
 
+    @Test
+    @WithMockUser(username = "manager", roles = {"CUSTOMER"})
+    @DisplayName("""
+            A signed checkout webhook marks the payment as paid
+            """)
+    @Sql(scripts = {
+            "classpath:database/controller/payment/add/add-user-to-users-table.sql",
+            "classpath:database/controller/payment/add/add-car-to-cars-table.sql",
+            "classpath:database/controller/payment/add/add-two-rentals-to-rentals-table.sql",
+            "classpath:database/controller/payment/add/add-two-payments-to-payments-table.sql"
+    }, executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+    @Sql(scripts = {
+            "classpath:database/controller/payment/truncate/truncate-payment-table.sql",
+            "classpath:database/controller/payment/truncate/truncate-rentals-table.sql",
+            "classpath:database/controller/payment/truncate/truncate-cars-table.sql",
+            "classpath:database/controller/payment/truncate/truncate-users-table.sql"
+    }, executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+    public void receiveWebhook_WithCompletedCheckout_MarkPaymentAsPaid() throws Exception {
+        String sessionId = "cs_test_a1IKNt0COMCX9m9aawNPOGRP10lFH9SvESORSmN1mRD8n5duuWBfw8mNX0";
+        StripeWebhookSimulator simulator = new StripeWebhookSimulator(mockMvc);
+
+        simulator.completeCheckout(sessionId).andExpect(status().isOk());
+        simulator.completeCheckout(sessionId).andExpect(status().isOk());
+
+        MvcResult result = mockMvc.perform(get("/payment/success?sessionId=" + sessionId)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        PaymentStatusResponseDto actual = objectMapper.readValue(result.getResponse().getContentAsString(), PaymentStatusResponseDto.class);
+
+        assertEquals(Status.PAID, actual.getStatus());
+        verifyNoInteractions(stripeService);
+    }
+
+    @Test
+    @DisplayName("""
+            A webhook with an invalid signature is rejected
+            """)
+    @Sql(scripts = {
+            "classpath:database/controller/payment/add/add-user-to-users-table.sql",
+            "classpath:database/controller/payment/add/add-car-to-cars-table.sql",
+            "classpath:database/controller/payment/add/add-two-rentals-to-rentals-table.sql",
+            "classpath:database/controller/payment/add/add-two-payments-to-payments-table.sql"
+    }, executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+    @Sql(scripts = {
+            "classpath:database/controller/payment/truncate/truncate-payment-table.sql",
+            "classpath:database/controller/payment/truncate/truncate-rentals-table.sql",
+            "classpath:database/controller/payment/truncate/truncate-cars-table.sql",
+            "classpath:database/controller/payment/truncate/truncate-users-table.sql"
+    }, executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+    public void receiveWebhook_WithInvalidSignature_ReturnBadRequest() throws Exception {
+        String sessionId = "cs_test_a1IKNt0COMCX9m9aawNPOGRP10lFH9SvESORSmN1mRD8n5duuWBfw8mNX0";
+        StripeWebhookSimulator simulator = new StripeWebhookSimulator(mockMvc);
+
+        simulator.send(simulator.event("checkout.session.completed", sessionId, "paid"),
+                "whsec_forged").andExpect(status().isBadRequest());
+
+        assertEquals(Status.PENDING, paymentService.getPaymentStatus(sessionId).getStatus());
+    }
+
+    @Test
+    @WithMockUser(username = "manager", roles = {"MANAGER"})
+    @DisplayName("""
+            Export all payments as NDJSON
+            """)
+    @Sql(scripts = {
+            "classpath:database/controller/payment/add/add-user-to-users-table.sql",
+            "classpath:database/controller/payment/add/add-car-to-cars-table.sql",
+            "classpath:database/controller/payment/add/add-two-rentals-to-rentals-table.sql",
+            "classpath:database/controller/payment/add/add-two-payments-to-payments-table.sql"
+    }, executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+    @Sql(scripts = {
+            "classpath:database/controller/payment/truncate/truncate-payment-table.sql",
+            "classpath:database/controller/payment/truncate/truncate-rentals-table.sql",
+            "classpath:database/controller/payment/truncate/truncate-cars-table.sql",
+            "classpath:database/controller/payment/truncate/truncate-users-table.sql"
+    }, executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+    public void exportPayments_WithNdjson_StreamAllPayments() throws Exception {
+        MvcResult started = mockMvc.perform(get("/payment/export").param("format", "NDJSON"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        MvcResult result = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        List<PaymentResponseDto> actual = new ArrayList<>();
+        for (String line : result.getResponse().getContentAsString().split("\n")) {
+            actual.add(objectMapper.readValue(line, PaymentResponseDto.class));
+        }
+
+        assertEquals("application/x-ndjson", result.getResponse().getContentType());
+        assertEquals(2, actual.size());
+        actual.sort(Comparator.comparing(PaymentResponseDto::getId));
+        assertEquals(Status.PENDING, actual.get(0).getStatus());
+        assertEquals(Status.PAID, actual.get(1).getStatus());
+    }
+
+    @Test
+    @WithMockUser(username = "user", roles = {"CUSTOMER"})
+    @DisplayName("""
+            Quote a week-long rental at the legacy daily rate
+            """)
+    @Sql(scripts = {
+            "classpath:database/controller/payment/add/add-car-to-cars-table.sql"
+    }, executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+    @Sql(scripts = {
+            "classpath:database/controller/payment/truncate/truncate-cars-table.sql"
+    }, executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+    public void quote_WithWeekLongPeriod_ReturnDailyFeeTimesDays() throws Exception {
+        MvcResult result = mockMvc.perform(get("/payment/quote")
+                        .param("carId", "1")
+                        .param("from", "2025-09-01T10:00:00")
+                        .param("to", "2025-09-09T10:00:00"))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        PaymentQuoteResponseDto actual = objectMapper.readValue(
+                result.getResponse().getContentAsString(), PaymentQuoteResponseDto.class);
+        assertEquals(Type.SEDAN, actual.getType());
+        assertEquals(0, new BigDecimal("5600.00").compareTo(actual.getAmountToPay()));
+    }
+
+    @Test
+    @WithMockUser(username = "user", roles = {"CUSTOMER"})
+    @DisplayName("""
+            Quote an inverted period
+            """)
+    public void quote_WithInvertedPeriod_ReturnBadRequest() throws Exception {
+        mockMvc.perform(get("/payment/quote")
+                        .param("carId", "1")
+                        .param("from", "2025-09-09T10:00:00")
+                        .param("to", "2025-09-01T10:00:00"))
+                .andExpect(status().isBadRequest());
+    }
+
     public static class PageResponse<T> {
         public List<T> content;
         public long totalElements;
@@ -0,0 +1,51 @@
+package com.example.carsharingapp.controller.payment;
+
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.UUID;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+public class StripeWebhookSimulator {
+    public static final String SECRET = "whsec_test_secret";
+    private static final String SIGNATURE_HEADER = "Stripe-Signature";
+
+    private final MockMvc mockMvc;
+
+    public StripeWebhookSimulator(MockMvc mockMvc) {
+        this.mockMvc = mockMvc;
+    }
+
+    public ResultActions completeCheckout(String sessionId) throws Exception {
+        return send(event("checkout.session.completed", sessionId, "paid"), SECRET);
+    }
+
+    public ResultActions send(String payload, String secret) throws Exception {
+        return mockMvc.perform(post("/payment/webhook")
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(SIGNATURE_HEADER, sign(payload, Instant.now().getEpochSecond(), secret))
+                .content(payload));
+    }
+
+    public String event(String type, String sessionId, String paymentStatus) {
+        return """
+                {"id":"evt_%s","object":"event","type":"%s",\
+                "data":{"object":{"id":"%s","object":"checkout.session","payment_status":"%s"}}}
+                """.formatted(UUID.randomUUID(), type, sessionId, paymentStatus).strip();
+    }
+
+    public static String sign(String payload, long timestamp, String secret) throws Exception {
+        Mac mac = Mac.getInstance("HmacSHA256");
+        mac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+        byte[] signature = mac.doFinal((timestamp + "." + payload)
+                .getBytes(StandardCharsets.UTF_8));
+        return "t=" + timestamp + ",v1=" + HexFormat.of().formatHex(signature);
+    }
+}
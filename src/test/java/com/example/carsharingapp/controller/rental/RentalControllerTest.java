@@ -7,6 +7,7 @@ import com.example.carsharingapp.model.rental.Rental;
 import com.example.carsharingapp.service.bot.TelegramNotificationService;
 import com.example.carsharingapp.service.payment.PaymentService;
 import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.apache.commons.lang3.builder.EqualsBuilder;
 import org.junit.jupiter.api.BeforeAll;
@@ -18,6 +19,7 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.data.domain.Page;
 import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.security.test.context.support.WithUserDetails;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
@@ -31,12 +33,15 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 import static org.glassfish.grizzly.http.util.MimeType.contains;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.verify;
 import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
@@ -48,6 +53,9 @@ public class RentalControllerTest {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
     @BeforeAll
     static void beforeAll(@Autowired WebApplicationContext applicationContext) {
         mockMvc = MockMvcBuilders
@@ -96,6 +104,46 @@ public class RentalControllerTest {
         assertTrue(EqualsBuilder.reflectionEquals(expected, actual));
     }
 
+    @WithMockUser(username = "manager", roles = {"MANAGER"})
+    @Test
+    @DisplayName("""
+            Retrying a rental with the same idempotency key rents the car once
+            """)
+    @Sql(scripts = {
+            "classpath:database/controller/rental/add/add-user-to-users-table.sql",
+            "classpath:database/controller/rental/add/add-car-to-cars-table.sql"
+    }, executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+    @Sql(scripts = {
+            "classpath:database/controller/rental/truncate/truncate-rentals-table.sql",
+            "classpath:database/controller/rental/truncate/truncate-cars-table.sql",
+            "classpath:database/controller/rental/truncate/truncate-users-table.sql"
+    }, executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+    public void createNewRental_WithRepeatedIdempotencyKey_ShouldRentCarOnce() throws Exception {
+        String jsonRequest = objectMapper.writeValueAsString(new RentalRequestDto()
+                .setUserId(1L)
+                .setRentalDate(LocalDateTime.of(2025, 1, 1, 0, 0, 0))
+                .setReturnDate(LocalDateTime.of(2025, 1, 2, 0, 0, 0))
+                .setCarId(1L));
+
+        String first = mockMvc.perform(post("/rentals")
+                        .header("Idempotency-Key", "rent-audi-1")
+                        .content(jsonRequest)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        String retried = mockMvc.perform(post("/rentals")
+                        .header("Idempotency-Key", "rent-audi-1")
+                        .content(jsonRequest)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+
+        assertEquals(first, retried);
+        assertEquals(49, jdbcTemplate.queryForObject(
+                "SELECT inventory FROM cars WHERE id = 1", Integer.class));
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT count(*) FROM rentals", Integer.class));
+    }
+
     @Test
     @DisplayName("""
             Return rental
@@ -231,6 +279,36 @@ public class RentalControllerTest {
         assertTrue(EqualsBuilder.reflectionEquals(expected, actual.content.get(0)));
     }
 
+    @Test
+    @DisplayName("""
+            Get not active rentals by cursor
+            """)
+    @Sql(scripts = {
+            "classpath:database/controller/rental/add/add-user-to-users-table.sql",
+            "classpath:database/controller/rental/add/add-car-to-cars-table.sql",
+            "classpath:database/controller/rental/add/add-two-rentals-to-rentals-table.sql"
+    }, executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+    @Sql(scripts = {
+            "classpath:database/controller/rental/truncate/truncate-rentals-table.sql",
+            "classpath:database/controller/rental/truncate/truncate-cars-table.sql",
+            "classpath:database/controller/rental/truncate/truncate-users-table.sql"
+    }, executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+    @WithUserDetails(value = "nikolya.cr@gmail.com")
+    public void getNotActiveRentalsByCursor_WithValidRequest_ReturnRentalCursorPageDto() throws Exception {
+        MvcResult result = mockMvc.perform(get("/rentals/cursor")
+                        .param("active", "false")
+                        .param("size", "1"))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        JsonNode actual = objectMapper.readTree(result.getResponse().getContentAsString());
+
+        assertEquals(1, actual.get("content").size());
+        assertEquals(1L, actual.get("content").get(0).get("id").asLong());
+        assertTrue(actual.get("content").get(0).hasNonNull("actualReturnDate"));
+        assertTrue(actual.get("nextCursor").isNull());
+    }
+
     @Test
     @DisplayName("""
             Get rental by user's id and rental's id
@@ -265,6 +343,39 @@ public class RentalControllerTest {
         assertTrue(EqualsBuilder.reflectionEquals(expected, actual));
     }
 
+    @Test
+    @WithMockUser(username = "manager", roles = {"MANAGER"})
+    @DisplayName("""
+            Export all rentals as CSV
+            """)
+    @Sql(scripts = {
+            "classpath:database/controller/rental/add/add-user-to-users-table.sql",
+            "classpath:database/controller/rental/add/add-car-to-cars-table.sql",
+            "classpath:database/controller/rental/add/add-two-rentals-to-rentals-table.sql"
+    }, executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+    @Sql(scripts = {
+            "classpath:database/controller/rental/truncate/truncate-rentals-table.sql",
+            "classpath:database/controller/rental/truncate/truncate-cars-table.sql",
+            "classpath:database/controller/rental/truncate/truncate-users-table.sql"
+    }, executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+    public void exportRentals_WithCsv_StreamAllRentals() throws Exception {
+        String expected = """
+                id,rentalDate,returnDate,actualReturnDate,carId,userId
+                2,2025-08-25T00:00,2025-08-26T00:00,,1,1
+                1,2025-08-25T00:00,2025-08-26T00:00,2025-08-26T01:00,1,1
+                """;
+
+        MvcResult started = mockMvc.perform(get("/rentals/export").param("format", "CSV"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        MvcResult result = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        assertEquals("text/csv", result.getResponse().getContentType());
+        assertEquals(expected, result.getResponse().getContentAsString());
+    }
+
     public static class PageResponse<T> {
         public List<T> content;
         public long totalElements;
@@ -0,0 +1,262 @@
+package com.example.carsharingapp.repository;
+
+import com.example.carsharingapp.config.ExecutedSqlRecorder;
+import com.example.carsharingapp.dto.car.CarSearchParamsDto;
+import com.example.carsharingapp.model.car.Car;
+import com.example.carsharingapp.model.enums.CarCursorOrder;
+import com.example.carsharingapp.model.enums.Type;
+import com.example.carsharingapp.repository.car.CarRepository;
+import com.example.carsharingapp.repository.car.CarSpecificationBuilder;
+import com.example.carsharingapp.repository.payment.PaymentRepository;
+import com.example.carsharingapp.repository.rental.RentalRepository;
+import com.example.carsharingapp.service.car.cursor.CarCursor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+@DataJpaTest(properties = ExecutedSqlRecorder.PROPERTY)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(QueryPlanTest.CarSearchConfig.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Sql(scripts = {
+        "classpath:database/repository/plan/add/add-users-to-users-table.sql",
+        "classpath:database/repository/plan/add/add-cars-to-cars-table.sql",
+        "classpath:database/repository/plan/add/add-rentals-to-rentals-table.sql",
+        "classpath:database/repository/plan/add/add-payments-to-payments-table.sql",
+        "classpath:database/repository/plan/add/add-archived-rentals-to-rentals-archive-table.sql",
+        "classpath:database/repository/plan/add/add-archived-payments-to-payments-archive-table.sql"
+}, executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+@Sql(scripts = {
+        "classpath:database/repository/plan/truncate/truncate-payments-archive-table.sql",
+        "classpath:database/repository/plan/truncate/truncate-payments-table.sql",
+        "classpath:database/repository/plan/truncate/truncate-rentals-archive-table.sql",
+        "classpath:database/repository/plan/truncate/truncate-rentals-table.sql",
+        "classpath:database/repository/plan/truncate/truncate-cars-table.sql",
+        "classpath:database/repository/plan/truncate/truncate-users-table.sql"
+}, executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+public class QueryPlanTest {
+    private static final LocalDateTime CURSOR_DATE = LocalDateTime.of(2025, 6, 1, 0, 0);
+    private static final PageRequest FIRST_PAGE = PageRequest.of(0, 20);
+    private static final PageRequest KEYSET_PAGE = PageRequest.of(0, 21);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private RentalRepository rentalRepository;
+
+    @Autowired
+    private CarRepository carRepository;
+
+    @Autowired
+    private CarSpecificationBuilder carSpecificationBuilder;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.execute("ANALYZE TABLE users, cars, rentals, rentals_archive, payments, "
+                + "payments_archive");
+    }
+
+    @Test
+    @DisplayName("""
+            Find payment by session id uses an index
+            """)
+    public void findPaymentBySessionId_ShouldNotScanWholeTable() {
+        assertUsesIndex(executedSql("payments",
+                () -> paymentRepository.findBySessionId("cs_test_500")));
+    }
+
+    @Test
+    @DisplayName("""
+            Find payments by user id uses an index on hot and archived payments
+            """)
+    public void findPaymentsByUserId_ShouldNotScanWholeTable() {
+        assertUsesIndexOn(executedSql("user_payments",
+                () -> paymentRepository.findResponseDtosByUserId(5L, FIRST_PAGE)),
+                "payments", "payments_archive");
+    }
+
+    @Test
+    @DisplayName("""
+            Find active rentals by user id uses an index
+            """)
+    public void findActiveRentalsByUserId_ShouldNotScanWholeTable() {
+        assertUsesIndex(executedSql("rentals",
+                () -> rentalRepository.findActiveResponseDtosByUserId(5L, FIRST_PAGE)));
+    }
+
+    @Test
+    @DisplayName("""
+            Count returned rentals by user id uses an index
+            """)
+    public void countReturnedRentalsByUserId_ShouldNotScanWholeTable() {
+        assertUsesIndex(executedSql("rentals",
+                () -> rentalRepository.countReturnedByUserId(5L)));
+    }
+
+    @Test
+    @DisplayName("""
+            Find car by model uses an index
+            """)
+    public void findCarByModel_ShouldNotScanWholeTable() {
+        assertUsesIndex(executedSql("cars", () -> carRepository.findByModel("Model500")));
+    }
+
+    @Test
+    @DisplayName("""
+            Search cars by brands uses an index
+            """)
+    public void searchCarsByBrands_ShouldNotScanWholeTable() {
+        Specification<Car> specification = carSpecificationBuilder.build(
+                new CarSearchParamsDto().setBrands(new String[]{"Brand1", "Brand2"}));
+
+        assertUsesIndex(executedSql("cars",
+                () -> carRepository.findAllProjected(specification, FIRST_PAGE)));
+    }
+
+    @Test
+    @DisplayName("""
+            Search cars by type and daily fee uses an index
+            """)
+    public void searchCarsByTypeAndDailyFee_ShouldNotScanWholeTable() {
+        Specification<Car> specification = carSpecificationBuilder.build(
+                new CarSearchParamsDto()
+                        .setType(new Type[]{Type.SUV})
+                        .setDailyFee(BigDecimal.valueOf(150)));
+
+        assertUsesIndex(executedSql("cars",
+                () -> carRepository.findAllProjected(specification, FIRST_PAGE)));
+    }
+
+    @Test
+    @DisplayName("""
+            Scroll cars by daily fee cursor uses an index
+            """)
+    public void scrollCarsByDailyFee_ShouldNotScanWholeTable() {
+        CarCursor cursor = new CarCursor(CarCursorOrder.DAILY_FEE, BigDecimal.valueOf(300), 10L);
+
+        assertUsesIndex(executedSql("cars", () -> scroll(cursor)));
+    }
+
+    @Test
+    @DisplayName("""
+            Scroll cars by id cursor uses an index
+            """)
+    public void scrollCarsById_ShouldNotScanWholeTable() {
+        CarCursor cursor = new CarCursor(CarCursorOrder.ID, null, 500L);
+
+        assertUsesIndex(executedSql("cars", () -> scroll(cursor)));
+    }
+
+    @Test
+    @DisplayName("""
+            Scroll returned rentals of a user by keyset uses an index without sorting
+            """)
+    public void scrollReturnedRentalsByUserId_ShouldNotSortRows() {
+        assertUsesIndexWithoutFilesort(executedSql("rentals",
+                () -> rentalRepository.findReturnedResponseDtosByUserIdBefore(5L, CURSOR_DATE,
+                        100L, KEYSET_PAGE)));
+    }
+
+    @Test
+    @DisplayName("""
+            Scroll archived rentals of a user by keyset uses an index without sorting
+            """)
+    public void scrollArchivedRentalsByUserId_ShouldNotSortRows() {
+        assertUsesIndexWithoutFilesort(executedSql("rentals_archive",
+                () -> rentalRepository.findArchivedResponseDtosByUserIdBefore(5L, CURSOR_DATE,
+                        100L, KEYSET_PAGE)));
+    }
+
+    @Test
+    @DisplayName("""
+            Scroll active rentals of a user by keyset uses an index without sorting
+            """)
+    public void scrollActiveRentalsByUserId_ShouldNotSortRows() {
+        assertUsesIndexWithoutFilesort(executedSql("rentals",
+                () -> rentalRepository.findActiveResponseDtosByUserIdBefore(5L, 100L,
+                        KEYSET_PAGE)));
+    }
+
+    private void scroll(CarCursor cursor) {
+        carRepository.findBy(Specification.<Car>allOf(), query -> query
+                .sortBy(CarCursor.sort(cursor.order()))
+                .limit(20)
+                .scroll(cursor.toScrollPosition()));
+    }
+
+    private String executedSql(String table, Runnable repositoryCall) {
+        ExecutedSqlRecorder.clear();
+        repositoryCall.run();
+        return ExecutedSqlRecorder.statements().stream()
+                .filter(sql -> sql.regionMatches(true, 0, "select", 0, 6))
+                .filter(sql -> sql.contains(" " + table + " "))
+                .findFirst()
+                .orElseThrow(() -> new AssertionError("No select from " + table
+                        + " was executed, statements: " + ExecutedSqlRecorder.statements()));
+    }
+
+    private void assertUsesIndexWithoutFilesort(String sql) {
+        assertUsesIndex(sql);
+        for (Map<String, Object> row : jdbcTemplate.queryForList("EXPLAIN " + sql)) {
+            Object extra = row.get("Extra");
+            assertFalse(extra != null && extra.toString().contains("filesort"),
+                    "Filesort on " + row.get("table") + " for query: " + sql);
+        }
+    }
+
+    private void assertUsesIndex(String sql) {
+        List<Map<String, Object>> plan = jdbcTemplate.queryForList("EXPLAIN " + sql);
+        assertFalse(plan.isEmpty());
+        for (Map<String, Object> row : plan) {
+            assertNotEquals("ALL", row.get("type"), "Full scan of " + row.get("table")
+                    + " for query: " + sql);
+            assertNotNull(row.get("key"), "No index used on " + row.get("table")
+                    + " for query: " + sql);
+        }
+    }
+
+    private void assertUsesIndexOn(String sql, String... tables) {
+        List<Map<String, Object>> plan = jdbcTemplate.queryForList("EXPLAIN " + sql).stream()
+                .filter(row -> List.of(tables).contains(String.valueOf(row.get("table"))))
+                .toList();
+        assertEquals(tables.length, plan.size(), "Missing " + List.of(tables)
+                + " in plan for query: " + sql);
+        for (Map<String, Object> row : plan) {
+            assertNotEquals("ALL", row.get("type"), "Full scan of " + row.get("table")
+                    + " for query: " + sql);
+            assertNotNull(row.get("key"), "No index used on " + row.get("table")
+                    + " for query: " + sql);
+        }
+    }
+
+    @TestConfiguration
+    @ComponentScan("com.example.carsharingapp.repository.car")
+    static class CarSearchConfig {
+    }
+}
@@ -1,12 +1,17 @@
 package com.example.carsharingapp.repository.car;
 
+import com.example.carsharingapp.dto.car.CarResponseDto;
 import com.example.carsharingapp.dto.car.CarSearchParamsDto;
 import com.example.carsharingapp.model.car.Car;
 import com.example.carsharingapp.model.enums.Type;
 import com.example.carsharingapp.repository.car.spec.BrandSpecificationProvider;
+import com.example.carsharingapp.repository.car.spec.DailyFeeRangeSpecificationProvider;
 import com.example.carsharingapp.repository.car.spec.DailyFeeSpecificationProvider;
 import com.example.carsharingapp.repository.car.spec.ModelSpecificationProvider;
 import com.example.carsharingapp.repository.car.spec.TypeSpecificationProvider;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -17,26 +22,30 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.test.context.jdbc.Sql;
 import java.math.BigDecimal;
 import java.util.List;
 import java.util.Optional;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.*;
 
 @DataJpaTest
 @AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
 @Import({CarSpecificationBuilder.class,
-        CarSpecificationBuilder.class,
         CarSpecificationProviderManager.class,
         BrandSpecificationProvider.class,
         ModelSpecificationProvider.class,
         DailyFeeSpecificationProvider.class,
+        DailyFeeRangeSpecificationProvider.class,
         TypeSpecificationProvider.class})
 public class CarRepositoryTest {
     @Autowired
     private CarSpecificationBuilder carSpecificationBuilder;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
 
     @Autowired
     private CarRepository carRepository;
@@ -54,7 +63,7 @@ public class CarRepositoryTest {
     public void findAllCars_WithFilterAndPageable_ReturnPageOfCars() {
         Pageable pageable = PageRequest.of(0, 10);
         CarSearchParamsDto carSearchParamsDto = new CarSearchParamsDto();
-        carSearchParamsDto.setType(Type.SEDAN);
+        carSearchParamsDto.setType(new Type[]{Type.SEDAN});
         Specification<Car> carSpecification = carSpecificationBuilder.build(carSearchParamsDto);
         Car car = new Car()
                 .setId(1L)
@@ -107,4 +116,126 @@ public class CarRepositoryTest {
         assertEquals(expected.getId(), actual.get().getId());
         assertFalse(actual.get().isDeleted());
     }
+
+    @Test
+    @DisplayName("""
+            Find cars by types and daily fee range sorted by daily fee
+            """)
+    @Sql(scripts = {
+            "classpath:database/repository/car/add-two-cars-to-cars-table.sql",
+    }, executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+    @Sql(scripts = {
+            "classpath:database/repository/car/truncate-car-table.sql",
+    }, executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+    public void findAllCars_WithTypesAndDailyFeeRange_ReturnSortedPageOfCars() {
+        Pageable pageable = PageRequest.of(0, 10, Sort.by("dailyFee", "id").descending());
+        CarSearchParamsDto carSearchParamsDto = new CarSearchParamsDto()
+                .setType(new Type[]{Type.SEDAN, Type.UNIVERSAL})
+                .setMinDailyFee(BigDecimal.valueOf(650))
+                .setMaxDailyFee(BigDecimal.valueOf(800));
+        Specification<Car> carSpecification = carSpecificationBuilder.build(carSearchParamsDto);
+
+        Page<Car> actual = carRepository.findAll(carSpecification, pageable);
+
+        assertEquals(2, actual.getTotalElements());
+        assertEquals("G-class", actual.getContent().get(0).getModel());
+        assertEquals("A5", actual.getContent().get(1).getModel());
+
+        carSearchParamsDto.setMaxDailyFee(BigDecimal.valueOf(750));
+        Page<Car> cheaper = carRepository.findAll(
+                carSpecificationBuilder.build(carSearchParamsDto), pageable);
+
+        assertEquals(1, cheaper.getTotalElements());
+        assertEquals("A5", cheaper.getContent().get(0).getModel());
+    }
+
+    @Test
+    @DisplayName("""
+            Count facets of cars matching filter in one grouped query
+            """)
+    @Sql(scripts = {
+            "classpath:database/repository/car/add-two-cars-to-cars-table.sql",
+    }, executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+    @Sql(scripts = {
+            "classpath:database/repository/car/truncate-car-table.sql",
+    }, executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+    public void countFacets_WithFilter_ReturnGroupedCounts() {
+        CarSearchParamsDto carSearchParamsDto = new CarSearchParamsDto()
+                .setMaxDailyFee(BigDecimal.valueOf(1000));
+
+        List<BigDecimal> feeBoundaries = List.of(BigDecimal.valueOf(100),
+                BigDecimal.valueOf(750));
+
+        List<CarFacetRow> actual = carRepository.countFacets(
+                carSpecificationBuilder.build(carSearchParamsDto), feeBoundaries);
+
+        assertEquals(2, actual.size());
+        assertTrue(actual.stream().anyMatch(row -> row.brand().equals("Audi")
+                && row.type() == Type.SEDAN && row.feeBucket() == 1 && row.count() == 1));
+        assertTrue(actual.stream().anyMatch(row -> row.brand().equals("Mercedes")
+                && row.type() == Type.UNIVERSAL && row.feeBucket() == 2 && row.count() == 1));
+        assertEquals(2, carRepository.countFacets(null, feeBoundaries).size());
+        assertEquals(List.of(0), carRepository.countFacets(null, List.of()).stream()
+                .map(CarFacetRow::feeBucket)
+                .distinct()
+                .toList());
+    }
+
+    @Test
+    @DisplayName("""
+            Find cars by padded brand list reuses the cached query plan
+            """)
+    @Sql(scripts = {
+            "classpath:database/repository/car/add-two-cars-to-cars-table.sql",
+    }, executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+    @Sql(scripts = {
+            "classpath:database/repository/car/truncate-car-table.sql",
+    }, executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+    public void findAllCars_WithSameInListBucket_ReuseQueryPlan() {
+        Pageable pageable = PageRequest.of(0, 10);
+
+        Page<Car> threeBrands = carRepository.findAll(carSpecificationBuilder.build(
+                new CarSearchParamsDto().setBrands(new String[]{"Audi", "Mercedes", "BMW"})),
+                pageable);
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class)
+                .getStatistics();
+        long hitsBefore = statistics.getQueryPlanCacheHitCount();
+        Page<Car> fourBrands = carRepository.findAll(carSpecificationBuilder.build(
+                new CarSearchParamsDto().setBrands(new String[]{"Audi", "BMW", "Kia", "Opel"})),
+                pageable);
+
+        assertEquals(2, threeBrands.getTotalElements());
+        assertEquals(1, fourBrands.getTotalElements());
+        assertThat(statistics.getQueryPlanCacheHitCount()).isGreaterThan(hitsBefore);
+    }
+
+    @Test
+    @DisplayName("""
+            Find all cars projected to response dto with filter and sort
+            """)
+    @Sql(scripts = {
+            "classpath:database/repository/car/add-two-cars-to-cars-table.sql",
+    }, executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+    @Sql(scripts = {
+            "classpath:database/repository/car/truncate-car-table.sql",
+    }, executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+    public void findAllProjected_WithFilterAndSort_ReturnPageOfCarResponseDto() {
+        Pageable pageable = PageRequest.of(0, 1, Sort.by(Sort.Direction.DESC, "dailyFee"));
+        CarSearchParamsDto carSearchParamsDto = new CarSearchParamsDto()
+                .setBrands(new String[]{"Audi", "Mercedes"});
+        CarResponseDto expected = new CarResponseDto(2L, "G-class", "Mercedes", 70,
+                Type.UNIVERSAL, BigDecimal.valueOf(800));
+
+        Page<CarResponseDto> actual = carRepository.findAllProjected(
+                carSpecificationBuilder.build(carSearchParamsDto), pageable);
+
+        assertEquals(2, actual.getTotalElements());
+        assertEquals(1, actual.getContent().size());
+        assertEquals(expected.getId(), actual.getContent().get(0).getId());
+        assertEquals(expected.getModel(), actual.getContent().get(0).getModel());
+        assertEquals(expected.getBrand(), actual.getContent().get(0).getBrand());
+        assertEquals(expected.getInventory(), actual.getContent().get(0).getInventory());
+        assertEquals(expected.getType(), actual.getContent().get(0).getType());
+        assertEquals(0, expected.getDailyFee().compareTo(actual.getContent().get(0).getDailyFee()));
+    }
 }
@@ -0,0 +1,74 @@
+package com.example.carsharingapp.repository.idempotency;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(IdempotencyKeyRepository.class)
+public class IdempotencyKeyRepositoryTest {
+    private static final String KEY_HASH = "a".repeat(64);
+    private static final String REQUEST_HASH = "b".repeat(64);
+    private static final String OTHER_REQUEST_HASH = "c".repeat(64);
+    private static final LocalDateTime CLAIMED_AT = LocalDateTime.of(2025, 9, 1, 10, 0, 0,
+            123_456_000);
+
+    @Autowired
+    private IdempotencyKeyRepository idempotencyKeyRepository;
+
+    @Test
+    @DisplayName("""
+            An in-flight claim is kept while its lease runs
+            """)
+    public void claim_WithLiveClaim_ShouldNotTakeOver() {
+        assertTrue(claim(REQUEST_HASH, CLAIMED_AT));
+
+        assertFalse(claim(REQUEST_HASH, CLAIMED_AT.plusSeconds(30)));
+        assertEquals(1, idempotencyKeyRepository.complete(KEY_HASH, CLAIMED_AT, "{}"));
+    }
+
+    @Test
+    @DisplayName("""
+            An in-flight claim whose lease expired is taken over and the old owner can't finish it
+            """)
+    public void claim_WithExpiredLease_ShouldTakeOver() {
+        LocalDateTime takenOverAt = CLAIMED_AT.plusMinutes(2);
+        assertTrue(claim(REQUEST_HASH, CLAIMED_AT));
+
+        assertFalse(claim(OTHER_REQUEST_HASH, takenOverAt));
+        assertTrue(claim(REQUEST_HASH, takenOverAt));
+
+        assertEquals(0, idempotencyKeyRepository.complete(KEY_HASH, CLAIMED_AT, "{}"));
+        assertEquals(0, idempotencyKeyRepository.release(KEY_HASH, CLAIMED_AT));
+        assertEquals(1, idempotencyKeyRepository.complete(KEY_HASH, takenOverAt, "{}"));
+        assertEquals("{}", idempotencyKeyRepository.findCreatedAfter(KEY_HASH,
+                CLAIMED_AT.minusDays(1)).orElseThrow().response());
+    }
+
+    @Test
+    @DisplayName("""
+            A completed key is never taken over
+            """)
+    public void claim_WithCompletedKey_ShouldNotTakeOver() {
+        assertTrue(claim(REQUEST_HASH, CLAIMED_AT));
+        idempotencyKeyRepository.complete(KEY_HASH, CLAIMED_AT, "{}");
+
+        assertFalse(claim(REQUEST_HASH, CLAIMED_AT.plusMinutes(2)));
+    }
+
+    private boolean claim(String requestHash, LocalDateTime claimedAt) {
+        return idempotencyKeyRepository.claim(KEY_HASH, requestHash, claimedAt,
+                claimedAt.minus(1, ChronoUnit.MINUTES), claimedAt.minusDays(1));
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.carsharingapp.repository.payment;
 
+import com.example.carsharingapp.dto.payment.PaymentResponseDto;
 import com.example.carsharingapp.model.enums.PaymentType;
 import com.example.carsharingapp.model.enums.Status;
 import com.example.carsharingapp.model.payment.Payment;
@@ -13,6 +14,7 @@ import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.test.context.jdbc.Sql;
 
 import java.math.BigDecimal;
@@ -111,4 +113,35 @@ public class PaymentRepositoryTest {
         assertEquals(expected.getId(), actual.getContent().get(0).getId());
         assertFalse(actual.getContent().get(0).isDeleted());
     }
+
+    @Test
+    @DisplayName("""
+            Find payments by user id projected to response dto
+            """)
+    @Sql(scripts = {
+            "classpath:database/repository/payment/add/add-two-payments-to-payments-table.sql",
+            "classpath:database/repository/payment/add/add-user-to-users-table.sql",
+            "classpath:database/repository/payment/add/add-car-to-cars-table.sql",
+            "classpath:database/repository/payment/add/add-rental-to-rentals-table.sql"
+    }, executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+    @Sql(scripts = {
+            "classpath:database/repository/payment/truncate/truncate-cars-table.sql",
+            "classpath:database/repository/payment/truncate/truncate-payments-table.sql",
+            "classpath:database/repository/payment/truncate/truncate-users-table.sql",
+            "classpath:database/repository/payment/truncate/truncate-rentals-table.sql"
+    }, executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+    public void findResponseDtos_ByUserId_ReturnPageOfPaymentResponseDto() {
+        Pageable pageable = PageRequest.of(0, 10, Sort.by("id"));
+
+        Page<PaymentResponseDto> actual = paymentRepository.findResponseDtosByUserId(1L, pageable);
+
+        assertEquals(2, actual.getTotalElements());
+        PaymentResponseDto first = actual.getContent().get(0);
+        assertEquals(1L, first.getId());
+        assertEquals(Status.PAID, first.getStatus());
+        assertEquals(PaymentType.PAYMENT, first.getType());
+        assertEquals(0, BigDecimal.valueOf(700).compareTo(first.getAmountToPay()));
+        assertEquals("cs_test_a1TOL76MdGnmrhJFkb2iWRffUQ0axHeXWvsTb4HaSUhfwNk93wuaknsBo0",
+                first.getSessionId());
+    }
 }
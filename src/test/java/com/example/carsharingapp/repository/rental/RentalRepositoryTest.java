@@ -1,5 +1,7 @@
 package com.example.carsharingapp.repository.rental;
 
+import com.example.carsharingapp.dto.rental.RentalResponseDto;
+import com.example.carsharingapp.dto.rental.RentalResponseDtoWithoutActualReturnDate;
 import com.example.carsharingapp.model.car.Car;
 import com.example.carsharingapp.model.enums.Type;
 import com.example.carsharingapp.model.rental.Rental;
@@ -10,6 +12,8 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.test.context.jdbc.Sql;
 
 import java.math.BigDecimal;
@@ -157,4 +161,120 @@ public class RentalRepositoryTest {
 
         assertTrue(EqualsBuilder.reflectionEquals(actual.get(), expected.get(), "car", "user"));
     }
+
+    @Test
+    @DisplayName("""
+            Find active rentals by user id projected to response dto
+            """)
+    @Sql(scripts = {
+            "classpath:database/repository/rental/add/add-user-to-users-table.sql",
+            "classpath:database/repository/rental/add/add-car-to-cars-table.sql",
+            "classpath:database/repository/rental/add/add-two-rentals-to-rentals-table.sql"
+    }, executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+    @Sql(scripts = {
+            "classpath:database/repository/rental/truncate/truncate-rentals-table.sql",
+            "classpath:database/repository/rental/truncate/truncate-cars-table.sql",
+            "classpath:database/repository/rental/truncate/truncate-users-table.sql"
+    }, executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+    public void findActiveResponseDtos_ByUserId_ReturnListOfRentalResponseDto() {
+        RentalResponseDtoWithoutActualReturnDate expected = new RentalResponseDtoWithoutActualReturnDate(
+                2L,
+                LocalDateTime.of(2025, 8, 25, 14, 30, 0),
+                LocalDateTime.of(2025, 8, 26, 14, 30, 0),
+                1L,
+                1L);
+
+        Page<RentalResponseDtoWithoutActualReturnDate> actual =
+                rentalRepository.findActiveResponseDtosByUserId(1L, PageRequest.of(0, 10));
+
+        assertEquals(List.of(expected), actual.getContent());
+        assertEquals(1, actual.getTotalElements());
+    }
+
+    @Test
+    @DisplayName("""
+            Find returned rentals by user id projected to response dto
+            """)
+    @Sql(scripts = {
+            "classpath:database/repository/rental/add/add-user-to-users-table.sql",
+            "classpath:database/repository/rental/add/add-car-to-cars-table.sql",
+            "classpath:database/repository/rental/add/add-two-rentals-to-rentals-table.sql"
+    }, executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+    @Sql(scripts = {
+            "classpath:database/repository/rental/truncate/truncate-rentals-table.sql",
+            "classpath:database/repository/rental/truncate/truncate-cars-table.sql",
+            "classpath:database/repository/rental/truncate/truncate-users-table.sql"
+    }, executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+    public void findReturnedResponseDtos_ByUserId_ReturnListOfRentalResponseDto() {
+        RentalResponseDto expected = new RentalResponseDto(
+                1L,
+                LocalDateTime.of(2025, 8, 25, 14, 30, 0),
+                LocalDateTime.of(2025, 8, 26, 14, 30, 0),
+                LocalDateTime.of(2025, 8, 30, 14, 38, 2),
+                1L,
+                1L);
+
+        Page<RentalResponseDto> actual = rentalRepository.findReturnedResponseDtosByUserId(1L,
+                PageRequest.of(0, 10));
+
+        assertEquals(List.of(expected), actual.getContent());
+        assertEquals(1, actual.getTotalElements());
+    }
+
+    @Test
+    @DisplayName("""
+            Find returned rentals by user id after a keyset position
+            """)
+    @Sql(scripts = {
+            "classpath:database/repository/rental/add/add-user-to-users-table.sql",
+            "classpath:database/repository/rental/add/add-car-to-cars-table.sql",
+            "classpath:database/repository/rental/add/add-two-rentals-to-rentals-table.sql"
+    }, executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+    @Sql(scripts = {
+            "classpath:database/repository/rental/truncate/truncate-rentals-table.sql",
+            "classpath:database/repository/rental/truncate/truncate-cars-table.sql",
+            "classpath:database/repository/rental/truncate/truncate-users-table.sql"
+    }, executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+    public void findReturnedResponseDtos_ByUserIdBefore_ReturnOlderRentalsOnly() {
+        LocalDateTime actualReturnDate = LocalDateTime.of(2025, 8, 30, 14, 38, 2);
+
+        List<RentalResponseDto> firstPage = rentalRepository
+                .findReturnedResponseDtosByUserIdBefore(1L, null, null, PageRequest.ofSize(10));
+        List<RentalResponseDto> afterFirst = rentalRepository
+                .findReturnedResponseDtosByUserIdBefore(1L, actualReturnDate, 1L,
+                        PageRequest.ofSize(10));
+        List<RentalResponseDto> afterLater = rentalRepository
+                .findReturnedResponseDtosByUserIdBefore(1L, actualReturnDate, 2L,
+                        PageRequest.ofSize(10));
+
+        assertEquals(1, firstPage.size());
+        assertEquals(1L, firstPage.get(0).getId());
+        assertTrue(afterFirst.isEmpty());
+        assertEquals(1, afterLater.size());
+    }
+
+    @Test
+    @DisplayName("""
+            Find active rentals by user id after a keyset position
+            """)
+    @Sql(scripts = {
+            "classpath:database/repository/rental/add/add-user-to-users-table.sql",
+            "classpath:database/repository/rental/add/add-car-to-cars-table.sql",
+            "classpath:database/repository/rental/add/add-two-rentals-to-rentals-table.sql"
+    }, executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+    @Sql(scripts = {
+            "classpath:database/repository/rental/truncate/truncate-rentals-table.sql",
+            "classpath:database/repository/rental/truncate/truncate-cars-table.sql",
+            "classpath:database/repository/rental/truncate/truncate-users-table.sql"
+    }, executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+    public void findActiveResponseDtos_ByUserIdBefore_ReturnOlderRentalsOnly() {
+        List<RentalResponseDtoWithoutActualReturnDate> firstPage = rentalRepository
+                .findActiveResponseDtosByUserIdBefore(1L, null, PageRequest.ofSize(10));
+        List<RentalResponseDtoWithoutActualReturnDate> afterFirst = rentalRepository
+                .findActiveResponseDtosByUserIdBefore(1L, 2L, PageRequest.ofSize(10));
+
+        assertEquals(1, firstPage.size());
+        assertEquals(2L, firstPage.get(0).getId());
+        assertTrue(afterFirst.isEmpty());
+    }
 }
@@ -0,0 +1,144 @@
+package com.example.carsharingapp.service.car;
+
+import com.example.carsharingapp.dto.car.CarAvailabilityDto;
+import com.example.carsharingapp.dto.car.CarResponseDto;
+import com.example.carsharingapp.event.car.CarChangedEvent;
+import com.example.carsharingapp.event.rental.RentalCreatedEvent;
+import com.example.carsharingapp.event.rental.RentalsReturnedEvent;
+import com.example.carsharingapp.model.car.Car;
+import com.example.carsharingapp.model.enums.Type;
+import com.example.carsharingapp.model.rental.Rental;
+import com.example.carsharingapp.repository.car.CarRepository;
+import com.example.carsharingapp.repository.rental.RentalRepository;
+import com.example.carsharingapp.service.car.availability.CarAvailabilityIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class CarAvailabilityIndexTest {
+    private static final LocalDateTime START = LocalDateTime.now().plusDays(10)
+            .withHour(10).withMinute(0).withSecond(0).withNano(0);
+
+    @Mock
+    private CarRepository carRepository;
+    @Mock
+    private RentalRepository rentalRepository;
+    @Mock
+    private TransactionTemplate transactionTemplate;
+    @InjectMocks
+    private CarAvailabilityIndex carAvailabilityIndex;
+
+    private Car audi;
+    private Car mercedes;
+
+    @BeforeEach
+    void setUp() {
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        audi = new Car().setId(1L).setBrand("Audi").setModel("A5").setType(Type.SEDAN)
+                .setDailyFee(BigDecimal.valueOf(700)).setInventory(0);
+        mercedes = new Car().setId(2L).setBrand("Mercedes").setModel("G-class")
+                .setType(Type.UNIVERSAL).setDailyFee(BigDecimal.valueOf(800)).setInventory(1);
+        Rental audiRental = new Rental().setId(10L).setCar(audi)
+                .setRentalDate(START).setReturnDate(START.plusDays(3));
+        when(rentalRepository.findAllByActualReturnDateIsNull()).thenReturn(List.of(audiRental));
+        when(carRepository.findAll()).thenReturn(List.of(audi, mercedes));
+        carAvailabilityIndex.load();
+    }
+
+    @Test
+    @DisplayName("""
+            Car booked by an active rental is unavailable only in overlapping periods
+            """)
+    public void findAvailable_WithOverlappingRental_ExcludeBookedCar() {
+        List<CarAvailabilityDto> overlapping = carAvailabilityIndex.findAvailable(
+                START.plusDays(1), START.plusDays(2));
+        List<CarAvailabilityDto> before = carAvailabilityIndex.findAvailable(
+                START.minusDays(2), START);
+        List<CarAvailabilityDto> after = carAvailabilityIndex.findAvailable(
+                START.plusDays(3), START.plusDays(5));
+
+        assertThat(overlapping).extracting(CarAvailabilityDto::getCarId).containsExactly(2L);
+        assertThat(before).extracting(CarAvailabilityDto::getCarId).containsExactly(1L, 2L);
+        assertThat(after).extracting(CarAvailabilityDto::getCarId).containsExactly(1L, 2L);
+    }
+
+    @Test
+    @DisplayName("""
+            Index follows created and returned rentals and car updates
+            """)
+    public void findAvailable_AfterRentalAndCarEvents_ReflectChanges() {
+        carAvailabilityIndex.onRentalCreated(new RentalCreatedEvent(11L, 2L,
+                START, START.plusDays(1)));
+        assertThat(carAvailabilityIndex.findAvailable(START, START.plusHours(1))).isEmpty();
+
+        carAvailabilityIndex.onRentalsReturned(new RentalsReturnedEvent(Map.of(10L, 1L)));
+        assertThat(carAvailabilityIndex.findAvailable(START, START.plusHours(1)))
+                .extracting(CarAvailabilityDto::getCarId).containsExactly(1L);
+
+        carAvailabilityIndex.onCarChanged(new CarChangedEvent(2L, null, new CarResponseDto()
+                .setId(2L).setBrand("Mercedes").setModel("G-class").setType(Type.UNIVERSAL)
+                .setDailyFee(BigDecimal.valueOf(800)).setInventory(2)));
+        List<CarAvailabilityDto> actual = carAvailabilityIndex.findAvailable(START,
+                START.plusHours(1));
+        assertThat(actual).extracting(CarAvailabilityDto::getCarId).containsExactly(1L, 2L);
+        assertThat(actual.get(1).getAvailableUnits()).isEqualTo(2);
+
+        carAvailabilityIndex.onCarChanged(new CarChangedEvent(1L, null, null));
+        assertThat(carAvailabilityIndex.findAvailable(START, START.plusHours(1)))
+                .extracting(CarAvailabilityDto::getCarId).containsExactly(2L);
+    }
+
+    @Test
+    @DisplayName("""
+            Overdue rental keeps its unit booked until it is returned
+            """)
+    public void findAvailable_WithOverdueRental_KeepUnitBooked() {
+        LocalDateTime now = LocalDateTime.now();
+        carAvailabilityIndex.onRentalCreated(new RentalCreatedEvent(12L, 2L,
+                now.minusDays(5), now.minusDays(1)));
+
+        assertThat(carAvailabilityIndex.findAvailable(now.plusDays(1), now.plusDays(2)))
+                .extracting(CarAvailabilityDto::getCarId).containsExactly(1L);
+    }
+
+    @Test
+    @DisplayName("""
+            Rental event delivered while the index is rebuilt is not applied twice
+            """)
+    public void load_WithRentalCreatedDuringRebuild_CountRentalOnce() {
+        Rental mercedesRental = new Rental().setId(11L).setCar(mercedes)
+                .setRentalDate(START).setReturnDate(START.plusDays(1));
+        audi.setInventory(1);
+        mercedes.setInventory(1);
+        when(rentalRepository.findAllByActualReturnDateIsNull())
+                .thenReturn(List.of(mercedesRental));
+        when(carRepository.findAll()).thenAnswer(invocation -> {
+            carAvailabilityIndex.onRentalCreated(new RentalCreatedEvent(11L, 2L,
+                    START, START.plusDays(1)));
+            return List.of(audi, mercedes);
+        });
+
+        carAvailabilityIndex.load();
+
+        List<CarAvailabilityDto> actual = carAvailabilityIndex.findAvailable(START,
+                START.plusHours(1));
+        assertThat(actual).extracting(CarAvailabilityDto::getCarId).containsExactly(1L, 2L);
+        assertThat(actual.get(1).getAvailableUnits()).isEqualTo(1);
+    }
+}
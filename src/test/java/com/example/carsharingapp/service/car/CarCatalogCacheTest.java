@@ -0,0 +1,208 @@
+package com.example.carsharingapp.service.car;
+
+import com.example.carsharingapp.dto.car.CacheStatsDto;
+import com.example.carsharingapp.dto.car.CarResponseDto;
+import com.example.carsharingapp.dto.car.CarSearchParamsDto;
+import com.example.carsharingapp.event.car.CarChangedEvent;
+import com.example.carsharingapp.event.car.CarInventoryChangedEvent;
+import com.example.carsharingapp.model.enums.Type;
+import com.example.carsharingapp.service.car.cache.CarCatalogCache;
+import com.example.carsharingapp.service.car.cache.CarCatalogCacheKey;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class CarCatalogCacheTest {
+    private CarCatalogCache cache;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        cache = new CarCatalogCache(2, Duration.ofMinutes(1));
+        loads = new AtomicInteger();
+    }
+
+    @Test
+    @DisplayName("""
+            Repeated equivalent searches are served from the cache
+            """)
+    public void getOrLoad_WithEquivalentParams_ShouldHitCache() {
+        Pageable pageable = PageRequest.of(0, 10);
+        CarSearchParamsDto first = new CarSearchParamsDto()
+                .setBrands(new String[]{"Audi", "BMW"})
+                .setDailyFee(new BigDecimal("700.00"));
+        CarSearchParamsDto second = new CarSearchParamsDto()
+                .setBrands(new String[]{" bmw", "audi", "Audi"})
+                .setDailyFee(BigDecimal.valueOf(700));
+
+        cache.getOrLoad(CarCatalogCacheKey.of(first, pageable), () -> load(audi()));
+        Page<CarResponseDto> result = cache.getOrLoad(CarCatalogCacheKey.of(second, pageable),
+                () -> load(audi()));
+
+        assertThat(result.getContent()).hasSize(1);
+        assertThat(loads.get()).isEqualTo(1);
+        CacheStatsDto stats = cache.getStats();
+        assertThat(stats.hits()).isEqualTo(1);
+        assertThat(stats.misses()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("""
+            Changing a car evicts only pages that contain or could contain it
+            """)
+    public void onCarChanged_ShouldEvictAffectedEntriesOnly() {
+        Pageable pageable = PageRequest.of(0, 10);
+        CarCatalogCacheKey audiKey = CarCatalogCacheKey.of(
+                new CarSearchParamsDto().setBrands(new String[]{"Audi"}), pageable);
+        CarCatalogCacheKey suvKey = CarCatalogCacheKey.of(
+                new CarSearchParamsDto().setType(new Type[]{Type.SUV}), pageable);
+        cache.getOrLoad(audiKey, () -> load(audi()));
+        cache.getOrLoad(suvKey, () -> load());
+
+        CarResponseDto updated = audi().setDailyFee(BigDecimal.valueOf(900));
+        cache.onCarChanged(new CarChangedEvent(1L, audi(), updated));
+        cache.getOrLoad(audiKey, () -> load(updated));
+        cache.getOrLoad(suvKey, () -> load());
+
+        assertThat(loads.get()).isEqualTo(3);
+        assertThat(cache.getStats().invalidations()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("""
+            A new car matching the filter evicts the cached page
+            """)
+    public void onCarChanged_WithCreatedMatchingCar_ShouldEvictEntry() {
+        CarCatalogCacheKey suvKey = CarCatalogCacheKey.of(
+                new CarSearchParamsDto().setType(new Type[]{Type.SUV}), PageRequest.of(0, 10));
+        cache.getOrLoad(suvKey, () -> load());
+
+        CarResponseDto created = new CarResponseDto()
+                .setId(5L)
+                .setBrand("Volvo")
+                .setModel("XC90")
+                .setType(Type.SUV)
+                .setDailyFee(BigDecimal.valueOf(500))
+                .setInventory(3);
+        cache.onCarChanged(new CarChangedEvent(5L, null, created));
+
+        assertThat(cache.getStats().size()).isEqualTo(0);
+    }
+
+    @Test
+    @DisplayName("""
+            A car moving into a cached price range evicts the page
+            """)
+    public void onCarChanged_WithCarEnteringFeeRange_ShouldEvictEntry() {
+        CarCatalogCacheKey cheapKey = CarCatalogCacheKey.of(new CarSearchParamsDto()
+                        .setType(new Type[]{Type.SEDAN, Type.SUV})
+                        .setMaxDailyFee(BigDecimal.valueOf(500)),
+                PageRequest.of(0, 10));
+        CarCatalogCacheKey expensiveKey = CarCatalogCacheKey.of(new CarSearchParamsDto()
+                        .setMinDailyFee(BigDecimal.valueOf(1000)),
+                PageRequest.of(0, 10));
+        cache.getOrLoad(cheapKey, () -> load());
+        cache.getOrLoad(expensiveKey, () -> load());
+
+        cache.onCarChanged(new CarChangedEvent(1L, audi(),
+                audi().setDailyFee(BigDecimal.valueOf(450))));
+
+        assertThat(cache.getStats().size()).isEqualTo(1);
+        assertThat(cache.getOrLoad(expensiveKey, () -> load(audi())).getContent()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("""
+            Inventory changes evict pages containing the car or sorted by inventory
+            """)
+    public void onCarInventoryChanged_ShouldEvictPagesWithCarOrInventorySort() {
+        CarCatalogCacheKey byId = CarCatalogCacheKey.of(null, PageRequest.of(0, 10));
+        CarCatalogCacheKey byInventory = CarCatalogCacheKey.of(null,
+                PageRequest.of(1, 10, Sort.by("inventory")));
+        cache.getOrLoad(byId, () -> load(audi()));
+        cache.getOrLoad(byInventory, () -> load());
+
+        cache.onCarInventoryChanged(new CarInventoryChangedEvent(Set.of(2L)));
+        assertThat(cache.getStats().size()).isEqualTo(1);
+
+        cache.onCarInventoryChanged(new CarInventoryChangedEvent(Set.of(1L)));
+        assertThat(cache.getStats().size()).isEqualTo(0);
+    }
+
+    @Test
+    @DisplayName("""
+            The least recently used entry is evicted when the cache is full
+            """)
+    public void getOrLoad_WhenFull_ShouldEvictLeastRecentlyUsed() {
+        CarCatalogCacheKey first = CarCatalogCacheKey.of(null, PageRequest.of(0, 10));
+        CarCatalogCacheKey second = CarCatalogCacheKey.of(null, PageRequest.of(1, 10));
+        CarCatalogCacheKey third = CarCatalogCacheKey.of(null, PageRequest.of(2, 10));
+        cache.getOrLoad(first, () -> load());
+        cache.getOrLoad(second, () -> load());
+        cache.getOrLoad(first, () -> load());
+        cache.getOrLoad(third, () -> load());
+        cache.getOrLoad(first, () -> load());
+
+        assertThat(loads.get()).isEqualTo(3);
+        assertThat(cache.getStats().evictions()).isEqualTo(1);
+        assertThat(cache.getStats().size()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("""
+            A page loaded concurrently with an invalidation is not cached
+            """)
+    public void getOrLoad_WithInvalidationDuringLoad_ShouldNotStoreStalePage() {
+        CarCatalogCacheKey key = CarCatalogCacheKey.of(null, PageRequest.of(0, 10));
+
+        cache.getOrLoad(key, () -> {
+            cache.onCarChanged(new CarChangedEvent(1L, audi(), null));
+            return load(audi());
+        });
+
+        assertThat(cache.getStats().size()).isEqualTo(0);
+    }
+
+    @Test
+    @DisplayName("""
+            Mutating a returned page does not change the cached page
+            """)
+    public void getOrLoad_WithMutatedResult_ShouldReturnUnchangedCopy() {
+        CarCatalogCacheKey key = CarCatalogCacheKey.of(null, PageRequest.of(0, 10));
+
+        cache.getOrLoad(key, () -> load(audi())).getContent().get(0).setInventory(0);
+        cache.getOrLoad(key, () -> load(audi())).getContent().get(0).setBrand("BMW");
+        Page<CarResponseDto> result = cache.getOrLoad(key, () -> load(audi()));
+
+        assertThat(result.getContent()).containsExactly(audi());
+        assertThat(result.getTotalElements()).isEqualTo(1);
+        assertThat(loads.get()).isEqualTo(1);
+    }
+
+    private Page<CarResponseDto> load(CarResponseDto... cars) {
+        loads.incrementAndGet();
+        return new PageImpl<>(List.of(cars), PageRequest.of(0, 10), cars.length);
+    }
+
+    private CarResponseDto audi() {
+        return new CarResponseDto()
+                .setId(1L)
+                .setBrand("Audi")
+                .setModel("A5")
+                .setType(Type.SEDAN)
+                .setDailyFee(BigDecimal.valueOf(700))
+                .setInventory(50);
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.carsharingapp.service.car;
+
+import com.example.carsharingapp.dto.car.CarFacetsDto;
+import com.example.carsharingapp.dto.car.FeeBucketDto;
+import com.example.carsharingapp.model.enums.Type;
+import com.example.carsharingapp.repository.car.CarFacetRow;
+import com.example.carsharingapp.service.car.facet.CarFacetAggregator;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class CarFacetAggregatorTest {
+    private final CarFacetAggregator carFacetAggregator = new CarFacetAggregator(List.of(
+            BigDecimal.valueOf(500), BigDecimal.valueOf(100)));
+
+    @Test
+    @DisplayName("""
+            Aggregate grouped rows into brand, type and fee bucket counts
+            """)
+    public void aggregate_WithGroupedRows_ReturnFacetCounts() {
+        List<CarFacetRow> rows = List.of(
+                new CarFacetRow("Audi", Type.SEDAN, 0, 2L),
+                new CarFacetRow("Audi", Type.SUV, 1, 3L),
+                new CarFacetRow("BMW", Type.SUV, 2, 1L));
+
+        CarFacetsDto actual = carFacetAggregator.aggregate(rows, rows, rows, rows);
+
+        assertThat(actual.getTotal()).isEqualTo(6);
+        assertThat(actual.getBrands()).isEqualTo(Map.of("Audi", 5L, "BMW", 1L));
+        assertThat(actual.getTypes()).isEqualTo(Map.of(Type.SEDAN, 2L, Type.SUV, 4L));
+        assertThat(actual.getDailyFees()).containsExactly(
+                new FeeBucketDto(BigDecimal.ZERO, BigDecimal.valueOf(100), 2),
+                new FeeBucketDto(BigDecimal.valueOf(100), BigDecimal.valueOf(500), 3),
+                new FeeBucketDto(BigDecimal.valueOf(500), null, 1));
+    }
+
+    @Test
+    @DisplayName("""
+            Count each facet from the rows that ignore its own filter
+            """)
+    public void aggregate_WithDisjunctiveRows_CountEachFacetFromItsOwnRows() {
+        List<CarFacetRow> matchingRows = List.of(
+                new CarFacetRow("Audi", Type.SUV, 1, 3L));
+        List<CarFacetRow> brandRows = List.of(
+                new CarFacetRow("Audi", Type.SUV, 1, 3L),
+                new CarFacetRow("BMW", Type.SUV, 2, 1L));
+        List<CarFacetRow> typeRows = List.of(
+                new CarFacetRow("Audi", Type.SEDAN, 0, 2L),
+                new CarFacetRow("Audi", Type.SUV, 1, 3L));
+
+        CarFacetsDto actual = carFacetAggregator.aggregate(matchingRows, brandRows, typeRows,
+                matchingRows);
+
+        assertThat(actual.getTotal()).isEqualTo(3);
+        assertThat(actual.getBrands()).isEqualTo(Map.of("Audi", 3L, "BMW", 1L));
+        assertThat(actual.getTypes()).isEqualTo(Map.of(Type.SEDAN, 2L, Type.SUV, 3L));
+        assertThat(actual.getDailyFees()).extracting(FeeBucketDto::getCount)
+                .containsExactly(0L, 3L, 0L);
+        assertThat(carFacetAggregator.getFeeBoundaries())
+                .containsExactly(BigDecimal.valueOf(100), BigDecimal.valueOf(500));
+    }
+}
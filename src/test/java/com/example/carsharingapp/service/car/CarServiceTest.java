@@ -1,16 +1,24 @@
 package com.example.carsharingapp.service.car;
 
+import com.example.carsharingapp.dto.car.CarFacetsDto;
 import com.example.carsharingapp.dto.car.CarRequestDto;
 import com.example.carsharingapp.dto.car.CarResponseDto;
 import com.example.carsharingapp.dto.car.CarSearchParamsDto;
+import com.example.carsharingapp.event.car.CarChangedEvent;
 import com.example.carsharingapp.exception.EntityNotFoundException;
+import com.example.carsharingapp.exception.InvalidDateRangeException;
 import com.example.carsharingapp.mapper.car.CarMapper;
 import com.example.carsharingapp.model.car.Car;
 import com.example.carsharingapp.model.enums.Type;
+import com.example.carsharingapp.repository.car.CarFacetRow;
 import com.example.carsharingapp.repository.car.CarRepository;
 import com.example.carsharingapp.repository.car.CarSpecificationBuilder;
 import com.example.carsharingapp.repository.car.CarSpecificationProviderManager;
+import com.example.carsharingapp.service.car.cache.CarCatalogCache;
+import com.example.carsharingapp.service.car.availability.CarAvailabilityIndex;
+import com.example.carsharingapp.service.car.facet.CarFacetAggregator;
 import com.example.carsharingapp.service.car.impl.CarServiceImpl;
+import com.example.carsharingapp.service.car.suggest.CarSuggestionIndex;
 import org.apache.commons.lang3.builder.EqualsBuilder;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -18,18 +26,25 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Supplier;
 
 import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -40,6 +55,16 @@ public class CarServiceTest {
     private CarMapper carMapper;
     @Mock
     private CarSpecificationBuilder carSpecificationBuilder;
+    @Mock
+    private CarCatalogCache carCatalogCache;
+    @Mock
+    private CarSuggestionIndex carSuggestionIndex;
+    @Mock
+    private CarFacetAggregator carFacetAggregator;
+    @Mock
+    private CarAvailabilityIndex carAvailabilityIndex;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
     @InjectMocks
     private CarServiceImpl carService;
 
@@ -92,49 +117,32 @@ public class CarServiceTest {
     public void getAllCars_WithPageable_ReturnPageOfCarResponseDto() {
         Pageable pageable = PageRequest.of(0, 10);
 
-        Car car1 = new Car()
-                .setBrand("Audi")
-                .setModel("A5")
-                .setDailyFee(BigDecimal.valueOf(700))
-                .setType(Type.SEDAN)
-                .setInventory(50);
-
         CarResponseDto carResponseDto1 = new CarResponseDto()
-                .setId(car1.getId())
+                .setId(1L)
                 .setBrand("Audi")
                 .setModel("A5")
                 .setDailyFee(BigDecimal.valueOf(700))
                 .setType(Type.SEDAN)
                 .setInventory(50);
 
-        Car car2 = new Car()
-                .setBrand("Mercedes")
-                .setModel("S-class")
-                .setDailyFee(BigDecimal.valueOf(800))
-                .setType(Type.SEDAN)
-                .setInventory(70);
-
         CarResponseDto carResponseDto2 = new CarResponseDto()
-                .setId(car2.getId())
+                .setId(2L)
                 .setBrand("Mercedes")
                 .setModel("S-class")
                 .setDailyFee(BigDecimal.valueOf(800))
                 .setType(Type.SEDAN)
                 .setInventory(70);
 
-        Page<Car> pageOfAllCars = new PageImpl<>(List.of(car1, car2),  pageable, 2);
         Page<CarResponseDto> expected = new PageImpl<>(List.of(carResponseDto1, carResponseDto2),  pageable, 2);
 
-        when(carRepository.findAll(pageable)).thenReturn(pageOfAllCars);
-        when(carMapper.toResponseDto(car1)).thenReturn(carResponseDto1);
-        when(carMapper.toResponseDto(car2)).thenReturn(carResponseDto2);
+        when(carCatalogCache.getOrLoad(any(), any()))
+                .thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(1).get());
+        when(carRepository.findAllProjected(any(), eq(pageable))).thenReturn(expected);
 
         Page<CarResponseDto> result = carService.getAllCars(pageable);
 
-        assertTrue(EqualsBuilder.reflectionEquals(result, expected));
-        verify(carRepository).findAll(pageable);
-        verify(carMapper).toResponseDto(car2);
-        verify(carMapper).toResponseDto(car1);
+        assertEquals(expected, result);
+        verify(carRepository).findAllProjected(any(), eq(pageable));
         verifyNoMoreInteractions(carRepository, carMapper, carSpecificationBuilder);
     }
 
@@ -146,15 +154,8 @@ public class CarServiceTest {
     public void searchCarsByParams_WithValidRequest_ReturnPageOfCarResponseDto() {
         Pageable pageable = PageRequest.of(0, 10);
 
-        Car car1 = new Car()
-                .setBrand("Audi")
-                .setModel("A5")
-                .setDailyFee(BigDecimal.valueOf(700))
-                .setType(Type.SEDAN)
-                .setInventory(50);
-
         CarResponseDto carResponseDto1 = new CarResponseDto()
-                .setId(car1.getId())
+                .setId(1L)
                 .setBrand("Audi")
                 .setModel("A5")
                 .setDailyFee(BigDecimal.valueOf(700))
@@ -164,23 +165,87 @@ public class CarServiceTest {
         CarSearchParamsDto carSearchParamsDto = new CarSearchParamsDto()
                 .setModels(new String[]{"A5"});
 
-        Page<Car> pageOfAllCars = new PageImpl<>(List.of(car1),  pageable, 1);
         Page<CarResponseDto> pageOfAllCarsResponseDto = new PageImpl<>(List.of(carResponseDto1),  pageable, 1);
-        Specification<Car> carSpecification = carSpecificationBuilder.build(carSearchParamsDto);
+        Specification<Car> carSpecification = (root, query, criteriaBuilder) -> null;
+
+        when(carCatalogCache.getOrLoad(any(), any()))
+                .thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(1).get());
+        when(carSpecificationBuilder.build(carSearchParamsDto)).thenReturn(carSpecification);
+        when(carRepository.findAllProjected(carSpecification, pageable))
+                .thenReturn(pageOfAllCarsResponseDto);
+
+        Page<CarResponseDto> result = carService.searchCarsByParams(carSearchParamsDto, pageable);
+
+        assertEquals(pageOfAllCarsResponseDto, result);
+        verify(carSpecificationBuilder).build(carSearchParamsDto);
+        verify(carRepository).findAllProjected(carSpecification, pageable);
+        verifyNoMoreInteractions(carRepository, carMapper, carSpecificationBuilder);
+    }
+
+    @Test
+    @DisplayName("""
+            Search cars by daily fee range is sorted by daily fee by default
+            """)
+    public void searchCarsByParams_WithDailyFeeRange_ShouldSortByDailyFee() {
+        Pageable pageable = PageRequest.of(0, 10);
+        Pageable sortedPageable = PageRequest.of(0, 10, Sort.by("dailyFee", "id"));
+        CarSearchParamsDto carSearchParamsDto = new CarSearchParamsDto()
+                .setType(new Type[]{Type.SUV})
+                .setMaxDailyFee(BigDecimal.valueOf(80));
+        Specification<Car> carSpecification = (root, query, criteriaBuilder) -> null;
 
+        when(carCatalogCache.getOrLoad(any(), any()))
+                .thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(1).get());
         when(carSpecificationBuilder.build(carSearchParamsDto)).thenReturn(carSpecification);
-        when(carRepository.findAll(carSpecification, pageable)).thenReturn(pageOfAllCars);
-        when(carMapper.toResponseDto(car1)).thenReturn(carResponseDto1);
+        when(carRepository.findAllProjected(carSpecification, sortedPageable))
+                .thenReturn(Page.empty(sortedPageable));
 
         Page<CarResponseDto> result = carService.searchCarsByParams(carSearchParamsDto, pageable);
 
-        assertThat(EqualsBuilder.reflectionEquals(result, pageOfAllCarsResponseDto));
-        verify(carSpecificationBuilder, times(2)).build(carSearchParamsDto);
-        verify(carRepository).findAll(carSpecification, pageable);
-        verify(carMapper).toResponseDto(car1);
+        assertTrue(result.isEmpty());
+        verify(carSpecificationBuilder).build(carSearchParamsDto);
+        verify(carRepository).findAllProjected(carSpecification, sortedPageable);
         verifyNoMoreInteractions(carRepository, carMapper, carSpecificationBuilder);
     }
 
+    @Test
+    @DisplayName("""
+            Facets are counted without their own filter
+            """)
+    public void getFacets_WithTypeAndFeeFilter_ShouldCountFacetsWithoutOwnFilter() {
+        CarSearchParamsDto carSearchParamsDto = new CarSearchParamsDto()
+                .setType(new Type[]{Type.SUV})
+                .setMaxDailyFee(BigDecimal.valueOf(80));
+        CarSearchParamsDto withoutType = new CarSearchParamsDto()
+                .setMaxDailyFee(BigDecimal.valueOf(80));
+        CarSearchParamsDto withoutFee = new CarSearchParamsDto()
+                .setType(new Type[]{Type.SUV});
+        Specification<Car> matching = (root, query, criteriaBuilder) -> null;
+        Specification<Car> anyType = (root, query, criteriaBuilder) -> null;
+        Specification<Car> anyFee = (root, query, criteriaBuilder) -> null;
+        List<BigDecimal> feeBoundaries = List.of(BigDecimal.valueOf(100));
+        List<CarFacetRow> matchingRows = List.of(new CarFacetRow("Audi", Type.SUV, 0, 1L));
+        List<CarFacetRow> typeRows = List.of(new CarFacetRow("Audi", Type.SEDAN, 0, 2L));
+        List<CarFacetRow> feeRows = List.of(new CarFacetRow("Audi", Type.SUV, 1, 3L));
+        CarFacetsDto expected = new CarFacetsDto().setTotal(1);
+
+        when(carFacetAggregator.getFeeBoundaries()).thenReturn(feeBoundaries);
+        when(carSpecificationBuilder.build(carSearchParamsDto)).thenReturn(matching);
+        when(carSpecificationBuilder.build(withoutType)).thenReturn(anyType);
+        when(carSpecificationBuilder.build(withoutFee)).thenReturn(anyFee);
+        when(carRepository.countFacets(matching, feeBoundaries)).thenReturn(matchingRows);
+        when(carRepository.countFacets(anyType, feeBoundaries)).thenReturn(typeRows);
+        when(carRepository.countFacets(anyFee, feeBoundaries)).thenReturn(feeRows);
+        when(carFacetAggregator.aggregate(matchingRows, matchingRows, typeRows, feeRows))
+                .thenReturn(expected);
+
+        CarFacetsDto actual = carService.getFacets(carSearchParamsDto);
+
+        assertEquals(expected, actual);
+        verify(carRepository, times(3)).countFacets(any(), eq(feeBoundaries));
+        verifyNoMoreInteractions(carRepository, carMapper);
+    }
+
     @Test
     @DisplayName("""
             Update car by request body
@@ -219,6 +284,7 @@ public class CarServiceTest {
 
         when(carRepository.findById(car.getId())).thenReturn(Optional.of(car));
         when(carRepository.findByModel(carRequestDto.getModel())).thenReturn(Optional.empty());
+        when(carMapper.toResponseDto(car)).thenReturn(new CarResponseDto().setId(car.getId()));
         when(carMapper.updateCar(car, carRequestDto)).thenReturn(updatedCar);
         when(carRepository.save(updatedCar)).thenReturn(updatedCar);
         when(carMapper.toResponseDto(updatedCar)).thenReturn(expected);
@@ -228,9 +294,11 @@ public class CarServiceTest {
         assertTrue(EqualsBuilder.reflectionEquals(actual, expected));
         verify(carRepository).findById(car.getId());
         verify(carRepository).findByModel(carRequestDto.getModel());
+        verify(carMapper).toResponseDto(car);
         verify(carMapper).updateCar(car, carRequestDto);
         verify(carRepository).save(updatedCar);
         verify(carMapper).toResponseDto(updatedCar);
+        verify(eventPublisher).publishEvent(any(CarChangedEvent.class));
         verifyNoMoreInteractions(carRepository, carMapper, carSpecificationBuilder);
     }
 
@@ -266,12 +334,15 @@ public class CarServiceTest {
             """)
     public void deleteCar_ById_ReturnNothing() {
         Long carId = 1L;
+        Car car = new Car().setId(carId);
 
-        when(carRepository.existsById(carId)).thenReturn(true);
+        when(carRepository.findById(carId)).thenReturn(Optional.of(car));
         carService.deleteById(carId);
 
-        verify(carRepository).existsById(carId);
+        verify(carRepository).findById(carId);
+        verify(carMapper).toResponseDto(car);
         verify(carRepository).deleteById(carId);
+        verify(eventPublisher).publishEvent(any(CarChangedEvent.class));
         verifyNoMoreInteractions(carRepository, carMapper, carSpecificationBuilder);
     }
 
@@ -282,14 +353,25 @@ public class CarServiceTest {
     public void deleteCar_ByInvalidId_ShouldThrowException() {
         Long carId = 1L;
 
-        when(carRepository.existsById(carId)).thenReturn(false);
+        when(carRepository.findById(carId)).thenReturn(Optional.empty());
         Exception exception = assertThrows(
                 EntityNotFoundException.class,
                 () -> carService.deleteById(carId));
 
         assertThat(exception.getMessage()).isEqualTo("Car was not found with id: " + carId);
-        verify(carRepository).existsById(carId);
-        verifyNoMoreInteractions(carRepository, carMapper, carSpecificationBuilder);
+        verify(carRepository).findById(carId);
+        verifyNoMoreInteractions(carRepository, carMapper, carSpecificationBuilder, eventPublisher);
     }
 
+    @Test
+    @DisplayName("""
+            Find available cars with inverted period
+            """)
+    public void findAvailable_WithInvertedPeriod_ShouldThrowException() {
+        LocalDateTime from = LocalDateTime.of(2025, 9, 2, 10, 0);
+        LocalDateTime to = from.minusDays(1);
+
+        assertThrows(InvalidDateRangeException.class, () -> carService.findAvailable(from, to));
+        verifyNoMoreInteractions(carAvailabilityIndex);
+    }
 }
@@ -0,0 +1,104 @@
+package com.example.carsharingapp.service.car;
+
+import com.example.carsharingapp.dto.car.CarResponseDto;
+import com.example.carsharingapp.dto.car.CarSuggestionDto;
+import com.example.carsharingapp.event.car.CarChangedEvent;
+import com.example.carsharingapp.model.car.Car;
+import com.example.carsharingapp.repository.car.CarRepository;
+import com.example.carsharingapp.service.car.suggest.CarSuggestionIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class CarSuggestionIndexTest {
+    @Mock
+    private CarRepository carRepository;
+    @InjectMocks
+    private CarSuggestionIndex carSuggestionIndex;
+
+    @BeforeEach
+    void setUp() {
+        when(carRepository.findAll()).thenReturn(List.of(
+                new Car().setId(1L).setBrand("Audi").setModel("A5"),
+                new Car().setId(2L).setBrand("Audi").setModel("A6"),
+                new Car().setId(3L).setBrand("Alfa Romeo").setModel("Giulia"),
+                new Car().setId(4L).setBrand("Mercedes").setModel("G-class")));
+        carSuggestionIndex.load();
+    }
+
+    @Test
+    @DisplayName("""
+            Suggest brands and models by case-insensitive prefix
+            """)
+    public void suggest_WithPrefix_ReturnMatchingBrandsAndModels() {
+        List<CarSuggestionDto> actual = carSuggestionIndex.suggest(" a", 10);
+
+        assertThat(actual).containsExactly(
+                new CarSuggestionDto("Alfa Romeo", CarSuggestionIndex.BRAND_FIELD),
+                new CarSuggestionDto("Audi", CarSuggestionIndex.BRAND_FIELD),
+                new CarSuggestionDto("A5", CarSuggestionIndex.MODEL_FIELD),
+                new CarSuggestionDto("A6", CarSuggestionIndex.MODEL_FIELD));
+        assertThat(carSuggestionIndex.suggest("g", 10)).containsExactly(
+                new CarSuggestionDto("G-class", CarSuggestionIndex.MODEL_FIELD),
+                new CarSuggestionDto("Giulia", CarSuggestionIndex.MODEL_FIELD));
+        assertThat(carSuggestionIndex.suggest("a", 1)).hasSize(1);
+        assertThat(carSuggestionIndex.suggest("", 10)).isEmpty();
+        verify(carRepository).findAll();
+        verifyNoMoreInteractions(carRepository);
+    }
+
+    @Test
+    @DisplayName("""
+            Index is updated when cars are created, updated and deleted
+            """)
+    public void onCarChanged_ShouldUpdateIndexWithoutReloading() {
+        CarResponseDto a5 = new CarResponseDto().setId(1L).setBrand("Audi").setModel("A5");
+        CarResponseDto a6 = new CarResponseDto().setId(2L).setBrand("Audi").setModel("A6");
+        CarResponseDto tesla = new CarResponseDto().setId(5L).setBrand("Tesla").setModel("Model 3");
+
+        carSuggestionIndex.onCarChanged(new CarChangedEvent(5L, null, tesla));
+        carSuggestionIndex.onCarChanged(new CarChangedEvent(1L, a5,
+                new CarResponseDto().setId(1L).setBrand("Audi").setModel("Q7")));
+        carSuggestionIndex.onCarChanged(new CarChangedEvent(2L, a6, null));
+
+        assertThat(carSuggestionIndex.suggest("te", 10)).containsExactly(
+                new CarSuggestionDto("Tesla", CarSuggestionIndex.BRAND_FIELD));
+        assertThat(carSuggestionIndex.suggest("au", 10)).containsExactly(
+                new CarSuggestionDto("Audi", CarSuggestionIndex.BRAND_FIELD));
+        assertThat(carSuggestionIndex.suggest("a", 10)).extracting(CarSuggestionDto::getValue)
+                .containsExactly("Alfa Romeo", "Audi");
+        assertThat(carSuggestionIndex.suggest("q", 10)).extracting(CarSuggestionDto::getValue)
+                .containsExactly("Q7");
+        verify(carRepository).findAll();
+        verifyNoMoreInteractions(carRepository);
+    }
+
+    @Test
+    @DisplayName("""
+            Car change delivered while the index is rebuilt is not counted twice
+            """)
+    public void load_WithCarChangedDuringRebuild_CountCarOnce() {
+        CarResponseDto tesla = new CarResponseDto().setId(5L).setBrand("Tesla").setModel("Model 3");
+        when(carRepository.findAll()).thenAnswer(invocation -> {
+            carSuggestionIndex.onCarChanged(new CarChangedEvent(5L, null, tesla));
+            return List.of(new Car().setId(5L).setBrand("Tesla").setModel("Model 3"));
+        });
+
+        carSuggestionIndex.load();
+        carSuggestionIndex.onCarChanged(new CarChangedEvent(5L, tesla, null));
+
+        assertThat(carSuggestionIndex.suggest("te", 10)).isEmpty();
+        assertThat(carSuggestionIndex.suggest("a", 10)).isEmpty();
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.carsharingapp.service.export;
+
+import com.example.carsharingapp.model.enums.ExportFormat;
+import com.example.carsharingapp.service.bot.TelegramNotificationService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.context.jdbc.Sql;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+public class ExportServiceTest {
+    private static final int GENERATED_PAYMENTS = 1_000_000;
+
+    @MockitoBean
+    private TelegramNotificationService telegramNotificationService;
+
+    @Autowired
+    private ExportService exportService;
+
+    @Test
+    @DisplayName("""
+            Exporting a million payments streams every row in small chunks
+            """)
+    @Sql(scripts = {
+            "classpath:database/service/export/add/add-user-to-users-table.sql",
+            "classpath:database/service/export/add/add-car-to-cars-table.sql",
+            "classpath:database/service/export/add/add-rental-to-rentals-table.sql",
+            "classpath:database/service/export/add/add-million-payments-to-payments-table.sql"
+    }, executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+    @Sql(scripts = {
+            "classpath:database/service/export/truncate/truncate-payments-table.sql",
+            "classpath:database/service/export/truncate/truncate-rentals-archive-table.sql",
+            "classpath:database/service/export/truncate/truncate-rentals-table.sql",
+            "classpath:database/service/export/truncate/truncate-cars-table.sql",
+            "classpath:database/service/export/truncate/truncate-users-table.sql"
+    }, executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+    public void exportPayments_WithMillionRows_ShouldStreamAllRows() {
+        LineCountingOutputStream outputStream = new LineCountingOutputStream();
+
+        exportService.exportPayments(outputStream, ExportFormat.CSV);
+
+        assertEquals(GENERATED_PAYMENTS + 1, outputStream.lines);
+        assertThat(outputStream.writes).isGreaterThan(100);
+    }
+
+    @Test
+    @DisplayName("""
+            Exporting rentals streams active, returned and archived rentals in turn
+            """)
+    @Sql(scripts = {
+            "classpath:database/service/export/add/add-user-to-users-table.sql",
+            "classpath:database/service/export/add/add-car-to-cars-table.sql",
+            "classpath:database/service/export/add/add-rental-to-rentals-table.sql",
+            "classpath:database/service/export/add/add-active-rental-to-rentals-table.sql",
+            "classpath:database/service/export/add/add-archived-rental-to-rentals-archive-table.sql"
+    }, executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+    @Sql(scripts = {
+            "classpath:database/service/export/truncate/truncate-payments-table.sql",
+            "classpath:database/service/export/truncate/truncate-rentals-archive-table.sql",
+            "classpath:database/service/export/truncate/truncate-rentals-table.sql",
+            "classpath:database/service/export/truncate/truncate-cars-table.sql",
+            "classpath:database/service/export/truncate/truncate-users-table.sql"
+    }, executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+    public void exportRentals_WithActiveReturnedAndArchivedRentals_ShouldStreamAllRentals() {
+        String expected = """
+                id,rentalDate,returnDate,actualReturnDate,carId,userId
+                2,2025-08-27T00:00,2025-08-28T00:00,,1,1
+                1,2025-08-25T00:00,2025-08-26T00:00,2025-08-26T00:00,1,1
+                3,2025-01-05T00:00,2025-01-06T00:00,2025-01-06T00:00,1,1
+                """;
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        exportService.exportRentals(outputStream, ExportFormat.CSV);
+
+        assertEquals(expected, outputStream.toString(StandardCharsets.UTF_8));
+    }
+
+    private static class LineCountingOutputStream extends OutputStream {
+        private long lines;
+        private long writes;
+
+        @Override
+        public void write(int b) {
+            writes++;
+            if (b == '\n') {
+                lines++;
+            }
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) {
+            writes++;
+            for (int i = offset; i < offset + length; i++) {
+                if (bytes[i] == '\n') {
+                    lines++;
+                }
+            }
+        }
+    }
+}
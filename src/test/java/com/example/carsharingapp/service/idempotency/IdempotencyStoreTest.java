@@ -0,0 +1,246 @@
+package com.example.carsharingapp.service.idempotency;
+
+import com.example.carsharingapp.dto.payment.PaymentRequestDto;
+import com.example.carsharingapp.dto.payment.PaymentResponseDto;
+import com.example.carsharingapp.exception.IdempotencyKeyReuseException;
+import com.example.carsharingapp.exception.IdempotencyStoreFullException;
+import com.example.carsharingapp.exception.IdempotentRequestInProgressException;
+import com.example.carsharingapp.model.enums.PaymentType;
+import com.example.carsharingapp.model.enums.Status;
+import com.example.carsharingapp.repository.idempotency.IdempotencyKeyRepository;
+import com.example.carsharingapp.repository.idempotency.IdempotencyRecord;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class IdempotencyStoreTest {
+    private static final String OPERATION = "POST /payment";
+
+    @Mock
+    private IdempotencyKeyRepository idempotencyKeyRepository;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private IdempotencyStore store;
+    private AtomicInteger executions;
+
+    @BeforeEach
+    void setUp() {
+        store = new IdempotencyStore(idempotencyKeyRepository, objectMapper, 100,
+                Duration.ofHours(1), false, Duration.ofMinutes(1));
+        executions = new AtomicInteger();
+    }
+
+    @Test
+    @DisplayName("""
+            A retried request returns the stored response without running again
+            """)
+    public void execute_WithRepeatedKey_ShouldRunOnce() {
+        PaymentResponseDto first = store.execute("key-1", OPERATION, request(1L),
+                PaymentResponseDto.class, this::createPayment);
+        PaymentResponseDto retried = store.execute("key-1", OPERATION, request(1L),
+                PaymentResponseDto.class, this::createPayment);
+
+        assertThat(retried).isSameAs(first);
+        assertThat(executions.get()).isEqualTo(1);
+        verifyNoInteractions(idempotencyKeyRepository);
+    }
+
+    @Test
+    @DisplayName("""
+            Reusing a key for a different request is rejected
+            """)
+    public void execute_WithKeyReusedForOtherRequest_ShouldThrowException() {
+        store.execute("key-1", OPERATION, request(1L), PaymentResponseDto.class,
+                this::createPayment);
+
+        assertThrows(IdempotencyKeyReuseException.class, () -> store.execute("key-1",
+                OPERATION, request(2L), PaymentResponseDto.class, this::createPayment));
+        assertThat(executions.get()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("""
+            A concurrent duplicate waits for the in-flight request instead of running
+            """)
+    public void execute_WithConcurrentDuplicate_ShouldWaitForFirstExecution() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<PaymentResponseDto> first = CompletableFuture.supplyAsync(() ->
+                store.execute("key-1", OPERATION, request(1L), PaymentResponseDto.class, () -> {
+                    started.countDown();
+                    await(release);
+                    return createPayment();
+                }));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+        CompletableFuture<PaymentResponseDto> duplicate = CompletableFuture.supplyAsync(() ->
+                store.execute("key-1", OPERATION, request(1L), PaymentResponseDto.class,
+                        this::createPayment));
+        assertThat(duplicate).isNotDone();
+        release.countDown();
+
+        assertThat(duplicate.get(5, TimeUnit.SECONDS)).isSameAs(first.get(5, TimeUnit.SECONDS));
+        assertThat(executions.get()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("""
+            A failed request can be retried with the same key
+            """)
+    public void execute_AfterFailure_ShouldRunAgain() {
+        assertThrows(IllegalStateException.class, () -> store.execute("key-1", OPERATION,
+                request(1L), PaymentResponseDto.class, () -> {
+                    throw new IllegalStateException("Stripe is down");
+                }));
+
+        store.execute("key-1", OPERATION, request(1L), PaymentResponseDto.class,
+                this::createPayment);
+
+        assertThat(executions.get()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("""
+            A response persisted by another instance is returned without running
+            """)
+    public void execute_WithPersistedResponse_ShouldReturnStoredResponse() throws Exception {
+        store = new IdempotencyStore(idempotencyKeyRepository, objectMapper, 100,
+                Duration.ofHours(1), true, Duration.ofMinutes(1));
+        String requestJson = objectMapper.writeValueAsString(request(1L));
+        PaymentResponseDto stored = new PaymentResponseDto().setId(7L).setStatus(Status.PENDING);
+        when(idempotencyKeyRepository.findCreatedAfter(anyString(), any(LocalDateTime.class)))
+                .thenReturn(Optional.of(new IdempotencyRecord(sha256(requestJson),
+                        objectMapper.writeValueAsString(stored))));
+
+        PaymentResponseDto actual = store.execute("key-1", OPERATION, request(1L),
+                PaymentResponseDto.class, this::createPayment);
+
+        assertThat(actual.getId()).isEqualTo(7L);
+        assertThat(executions.get()).isZero();
+        verify(idempotencyKeyRepository).findCreatedAfter(anyString(), any(LocalDateTime.class));
+    }
+
+    @Test
+    @DisplayName("""
+            A full store keeps in-flight keys and rejects new ones until a key completes
+            """)
+    public void execute_WithStoreFullOfInFlightKeys_ShouldRejectNewKey() throws Exception {
+        store = new IdempotencyStore(idempotencyKeyRepository, objectMapper, 1,
+                Duration.ofHours(1), false, Duration.ofMinutes(1));
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<PaymentResponseDto> first = CompletableFuture.supplyAsync(() ->
+                store.execute("key-1", OPERATION, request(1L), PaymentResponseDto.class, () -> {
+                    started.countDown();
+                    await(release);
+                    return createPayment();
+                }));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+        assertThrows(IdempotencyStoreFullException.class, () -> store.execute("key-2",
+                OPERATION, request(2L), PaymentResponseDto.class, this::createPayment));
+        release.countDown();
+        PaymentResponseDto completed = first.get(5, TimeUnit.SECONDS);
+
+        assertThat(store.execute("key-1", OPERATION, request(1L), PaymentResponseDto.class,
+                this::createPayment)).isSameAs(completed);
+        store.execute("key-2", OPERATION, request(2L), PaymentResponseDto.class,
+                this::createPayment);
+        assertThat(executions.get()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("""
+            A persistent key is claimed before running and completed with the response
+            """)
+    public void execute_WithPersistentStore_ShouldClaimKeyBeforeRunning() {
+        store = new IdempotencyStore(idempotencyKeyRepository, objectMapper, 100,
+                Duration.ofHours(1), true, Duration.ofMinutes(1));
+        when(idempotencyKeyRepository.claim(anyString(), anyString(), any(LocalDateTime.class),
+                any(LocalDateTime.class), any(LocalDateTime.class))).thenReturn(true);
+
+        store.execute("key-1", OPERATION, request(1L), PaymentResponseDto.class,
+                this::createPayment);
+        assertThrows(IllegalStateException.class, () -> store.execute("key-2", OPERATION,
+                request(2L), PaymentResponseDto.class, () -> {
+                    throw new IllegalStateException("Stripe is down");
+                }));
+
+        verify(idempotencyKeyRepository).complete(anyString(), any(LocalDateTime.class),
+                anyString());
+        verify(idempotencyKeyRepository).release(anyString(), any(LocalDateTime.class));
+        assertThat(executions.get()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("""
+            A key claimed by another instance is reported as in progress without running
+            """)
+    public void execute_WithKeyClaimedElsewhere_ShouldThrowInProgress() throws Exception {
+        store = new IdempotencyStore(idempotencyKeyRepository, objectMapper, 100,
+                Duration.ofHours(1), true, Duration.ofMinutes(1));
+        String requestHash = sha256(objectMapper.writeValueAsString(request(1L)));
+        when(idempotencyKeyRepository.claim(anyString(), eq(requestHash),
+                any(LocalDateTime.class), any(LocalDateTime.class), any(LocalDateTime.class)))
+                .thenReturn(false);
+        when(idempotencyKeyRepository.findCreatedAfter(anyString(), any(LocalDateTime.class)))
+                .thenReturn(Optional.of(new IdempotencyRecord(requestHash, null)));
+
+        assertThrows(IdempotentRequestInProgressException.class, () -> store.execute("key-1",
+                OPERATION, request(1L), PaymentResponseDto.class, this::createPayment));
+        assertThat(executions.get()).isZero();
+    }
+
+    private PaymentResponseDto createPayment() {
+        return new PaymentResponseDto()
+                .setId((long) executions.incrementAndGet())
+                .setStatus(Status.PENDING)
+                .setType(PaymentType.PAYMENT)
+                .setAmountToPay(BigDecimal.valueOf(700));
+    }
+
+    private PaymentRequestDto request(Long rentalId) {
+        return new PaymentRequestDto()
+                .setRentalId(rentalId)
+                .setType(PaymentType.PAYMENT);
+    }
+
+    private void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private String sha256(String value) throws Exception {
+        return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256")
+                .digest(value.getBytes(StandardCharsets.UTF_8)));
+    }
+}
@@ -0,0 +1,153 @@
+package com.example.carsharingapp.service.payment;
+
+import com.example.carsharingapp.dto.payment.FineJobStatsDto;
+import com.example.carsharingapp.dto.payment.PaymentRequestDto;
+import com.example.carsharingapp.dto.payment.PaymentResponseDto;
+import com.example.carsharingapp.model.enums.PaymentType;
+import com.example.carsharingapp.model.rental.Rental;
+import com.example.carsharingapp.repository.job.JobCheckpointRepository;
+import com.example.carsharingapp.service.bot.TelegramNotificationService;
+import com.example.carsharingapp.service.payment.fine.OverdueFineJob;
+import com.example.carsharingapp.service.stripe.StripeService;
+import com.stripe.model.checkout.Session;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.context.jdbc.Sql;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest(properties = "payment.fines.chunk-size=1")
+@Sql(scripts = {
+        "classpath:database/service/payment/add/add-user-to-users-table.sql",
+        "classpath:database/service/payment/add/add-cars-to-cars-table.sql",
+        "classpath:database/service/payment/add/add-rentals-to-rentals-table.sql",
+        "classpath:database/service/payment/add/add-fine-to-payments-table.sql"
+}, executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+@Sql(scripts = {
+        "classpath:database/service/payment/truncate/truncate-job-checkpoints-table.sql",
+        "classpath:database/service/payment/truncate/truncate-payments-table.sql",
+        "classpath:database/service/payment/truncate/truncate-rentals-table.sql",
+        "classpath:database/service/payment/truncate/truncate-cars-table.sql",
+        "classpath:database/service/payment/truncate/truncate-users-table.sql"
+}, executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+public class OverdueFineJobTest {
+    private static final LocalDateTime NOW = LocalDateTime.of(2025, 9, 1, 0, 0);
+    private static final String SELECT_FINES = """
+            SELECT rental_id, amount_to_pay FROM payments
+            WHERE type = 'FINE' AND id > 1 ORDER BY rental_id
+            """;
+
+    @MockitoBean
+    private TelegramNotificationService telegramNotificationService;
+
+    @MockitoBean
+    private StripeService stripeService;
+
+    @Autowired
+    private PaymentService paymentService;
+
+    @Autowired
+    private OverdueFineJob overdueFineJob;
+
+    @Autowired
+    private JobCheckpointRepository jobCheckpointRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    @DisplayName("""
+            Overdue rentals without a fine get exactly one pending fine
+            """)
+    public void run_WithOverdueRentals_ShouldIssueFinesOnce() {
+        long firstRun = overdueFineJob.run(NOW);
+        long secondRun = overdueFineJob.run(NOW);
+
+        assertEquals(2, firstRun);
+        assertEquals(0, secondRun);
+        List<Map<String, Object>> fines = jdbcTemplate.queryForList(SELECT_FINES);
+        assertEquals(2, fines.size());
+        assertEquals(1L, ((Number) fines.get(0).get("rental_id")).longValue());
+        assertEquals(0, new BigDecimal("4200").compareTo(
+                (BigDecimal) fines.get(0).get("amount_to_pay")));
+        assertEquals(5L, ((Number) fines.get(1).get("rental_id")).longValue());
+        assertEquals(0, new BigDecimal("900").compareTo(
+                (BigDecimal) fines.get(1).get("amount_to_pay")));
+        assertEquals(0, jobCheckpointRepository.findLastId(OverdueFineJob.JOB_NAME));
+        FineJobStatsDto stats = overdueFineJob.getStats();
+        assertEquals(0, stats.lastRunFines());
+    }
+
+    @Test
+    @DisplayName("""
+            An interrupted scan resumes after the last committed rental
+            """)
+    public void run_WithCheckpoint_ShouldSkipProcessedRentals() {
+        jobCheckpointRepository.saveLastId(OverdueFineJob.JOB_NAME, 1L);
+
+        long issued = overdueFineJob.run(NOW);
+
+        assertEquals(1, issued);
+        List<Map<String, Object>> fines = jdbcTemplate.queryForList(SELECT_FINES);
+        assertEquals(1, fines.size());
+        assertEquals(5L, ((Number) fines.get(0).get("rental_id")).longValue());
+        assertEquals(0, jobCheckpointRepository.findLastId(OverdueFineJob.JOB_NAME));
+    }
+
+    @Test
+    @DisplayName("""
+            A scan is skipped while another node holds the lease
+            """)
+    public void run_WithLeaseHeldByOtherNode_ShouldSkipScan() {
+        assertTrue(jobCheckpointRepository.tryAcquireLease(OverdueFineJob.JOB_NAME,
+                "other-node", Duration.ofMinutes(5)));
+
+        long issued = overdueFineJob.run(NOW);
+
+        assertEquals(0, issued);
+        assertEquals(0, jdbcTemplate.queryForList(SELECT_FINES).size());
+    }
+
+    @Test
+    @DisplayName("""
+            Paying a fine issued by the job attaches the checkout session to that fine
+            """)
+    public void create_WithFineIssuedByJob_ShouldAdoptIssuedFine() {
+        overdueFineJob.run(NOW);
+        Long issuedId = jdbcTemplate.queryForObject(
+                "SELECT id FROM payments WHERE type = 'FINE' AND rental_id = 5", Long.class);
+        jdbcTemplate.update("UPDATE rentals SET actual_return_date = '2025-09-01 12:00:00' "
+                + "WHERE id = 5");
+        Session session = new Session();
+        session.setId("cs_test_fine");
+        session.setUrl("https://checkout.stripe.com/c/pay/cs_test_fine");
+        session.setExpiresAt(Instant.now().plusSeconds(3600).getEpochSecond());
+        when(stripeService.createRentalPaymentSession(any(Rental.class), any(BigDecimal.class)))
+                .thenReturn(session);
+
+        PaymentResponseDto payment = paymentService.create(new PaymentRequestDto()
+                .setRentalId(5L)
+                .setType(PaymentType.FINE));
+
+        assertEquals(issuedId, payment.getId());
+        assertEquals("cs_test_fine", payment.getSessionId());
+        assertEquals(List.of(issuedId), jdbcTemplate.queryForList("SELECT id FROM payments "
+                + "WHERE type = 'FINE' AND rental_id = 5 AND is_deleted = false", Long.class));
+        assertEquals("cs_test_fine", jdbcTemplate.queryForObject(
+                "SELECT session_id FROM payments WHERE id = ?", String.class, issuedId));
+    }
+}
@@ -0,0 +1,189 @@
+package com.example.carsharingapp.service.payment;
+
+import com.example.carsharingapp.dto.payment.ReconciliationStatsDto;
+import com.example.carsharingapp.exception.StripeUnavailableException;
+import com.example.carsharingapp.repository.job.JobCheckpointRepository;
+import com.example.carsharingapp.service.bot.TelegramNotificationService;
+import com.example.carsharingapp.service.payment.reconciliation.PaymentReconciliationJob;
+import com.example.carsharingapp.service.stripe.StripeService;
+import com.stripe.model.checkout.Session;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.context.jdbc.Sql;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest(properties = "payment.reconciliation.page-size=2")
+@Sql(scripts = {
+        "classpath:database/service/payment/add/add-user-to-users-table.sql",
+        "classpath:database/service/payment/add/add-cars-to-cars-table.sql",
+        "classpath:database/service/payment/add/add-rentals-to-rentals-table.sql",
+        "classpath:database/service/payment/add/add-pending-payments-to-payments-table.sql"
+}, executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+@Sql(scripts = {
+        "classpath:database/service/payment/truncate/truncate-job-checkpoints-table.sql",
+        "classpath:database/service/payment/truncate/truncate-payments-table.sql",
+        "classpath:database/service/payment/truncate/truncate-rentals-table.sql",
+        "classpath:database/service/payment/truncate/truncate-cars-table.sql",
+        "classpath:database/service/payment/truncate/truncate-users-table.sql"
+}, executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+public class PaymentReconciliationJobTest {
+    private static final String SELECT_PAID_IDS = """
+            SELECT id FROM payments WHERE status = 'PAID' ORDER BY id
+            """;
+    private static final String SELECT_CANCELED_IDS = """
+            SELECT id FROM payments WHERE status = 'CANCELED' ORDER BY id
+            """;
+    private static final String SELECT_LEASE_OWNER = """
+            SELECT lease_owner FROM job_checkpoints WHERE job_name = ?
+            """;
+
+    @MockitoBean
+    private TelegramNotificationService telegramNotificationService;
+
+    @MockitoBean
+    private StripeService stripeService;
+
+    @Autowired
+    private PaymentReconciliationJob paymentReconciliationJob;
+
+    @Autowired
+    private JobCheckpointRepository jobCheckpointRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    @DisplayName("""
+            Pending payments paid in Stripe are marked paid page by page
+            """)
+    public void run_WithPaidSessions_ShouldMarkPaymentsPaid() {
+        jdbcTemplate.update("UPDATE rentals SET hold_expires_at = '2025-09-01 00:00:00' "
+                + "WHERE id = 3");
+        when(stripeService.findSession(anyString())).thenReturn(session("open", "unpaid"));
+        when(stripeService.findSession("cs_test_3")).thenReturn(session("complete", "paid"));
+        when(stripeService.findSession("cs_test_5")).thenReturn(session("complete", "paid"));
+
+        long reconciled = paymentReconciliationJob.run();
+
+        assertEquals(2, reconciled);
+        assertEquals(List.of(3L, 4L, 5L),
+                jdbcTemplate.queryForList(SELECT_PAID_IDS, Long.class));
+        assertNull(jdbcTemplate.queryForObject("SELECT hold_expires_at FROM rentals "
+                + "WHERE id = 3", Object.class));
+        verify(stripeService, never()).findSession("cs_test_4");
+        verify(telegramNotificationService).sendNotification(
+                "Your payment with id: 3 has status PAID");
+        verify(telegramNotificationService).sendNotification(
+                "Your payment with id: 5 has status PAID");
+        assertEquals(0, jobCheckpointRepository.findLastId(PaymentReconciliationJob.JOB_NAME));
+        assertNull(jdbcTemplate.queryForObject(SELECT_LEASE_OWNER, String.class,
+                PaymentReconciliationJob.JOB_NAME));
+        ReconciliationStatsDto stats = paymentReconciliationJob.getStats();
+        assertEquals(4, stats.lastRunChecked());
+        assertEquals(2, stats.lastRunReconciled());
+    }
+
+    @Test
+    @DisplayName("""
+            A run is skipped while another node holds the lease
+            """)
+    public void run_WithLeaseHeldByOtherNode_ShouldSkipRun() {
+        assertTrue(jobCheckpointRepository.tryAcquireLease(PaymentReconciliationJob.JOB_NAME,
+                "other-node", Duration.ofMinutes(5)));
+
+        long reconciled = paymentReconciliationJob.run();
+
+        assertEquals(0, reconciled);
+        verify(stripeService, never()).findSession(anyString());
+        assertEquals(1, paymentReconciliationJob.getStats().skippedRuns());
+        assertEquals("other-node", jdbcTemplate.queryForObject(SELECT_LEASE_OWNER,
+                String.class, PaymentReconciliationJob.JOB_NAME));
+    }
+
+    @Test
+    @DisplayName("""
+            A payment whose Stripe lookup fails stays pending and is retried on the next run
+            """)
+    public void run_WithStripeOutageForOneSession_ShouldRetryItNextRun() {
+        when(stripeService.findSession(anyString())).thenReturn(session("complete", "paid"));
+        when(stripeService.findSession("cs_test_5"))
+                .thenThrow(new StripeUnavailableException("Stripe is unavailable"));
+
+        assertEquals(3, paymentReconciliationJob.run());
+        assertEquals(List.of(1L, 2L, 3L, 4L),
+                jdbcTemplate.queryForList(SELECT_PAID_IDS, Long.class));
+        assertEquals(0, jobCheckpointRepository.findLastId(PaymentReconciliationJob.JOB_NAME));
+
+        doReturn(session("complete", "paid")).when(stripeService).findSession("cs_test_5");
+        long reconciled = paymentReconciliationJob.run();
+
+        assertEquals(1, reconciled);
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L),
+                jdbcTemplate.queryForList(SELECT_PAID_IDS, Long.class));
+        assertEquals(0, jobCheckpointRepository.findLastId(PaymentReconciliationJob.JOB_NAME));
+    }
+
+    @Test
+    @DisplayName("""
+            A payment for a released hold is flagged for refund and its rental stays released
+            """)
+    public void run_WithPaidSessionForReleasedHold_ShouldRequireRefund() {
+        jdbcTemplate.update("UPDATE rentals SET hold_expires_at = '2025-09-01 00:00:00', "
+                + "is_deleted = true WHERE id = 3");
+        when(stripeService.findSession(anyString())).thenReturn(session("open", "unpaid"));
+        when(stripeService.findSession("cs_test_3")).thenReturn(session("complete", "paid"));
+
+        assertEquals(1, paymentReconciliationJob.run());
+
+        assertEquals("REFUND_REQUIRED", jdbcTemplate.queryForObject(
+                "SELECT status FROM payments WHERE id = 3", String.class));
+        assertEquals(List.of(4L), jdbcTemplate.queryForList(SELECT_PAID_IDS, Long.class));
+        assertTrue(jdbcTemplate.queryForObject("SELECT is_deleted FROM rentals WHERE id = 3",
+                Boolean.class));
+        verify(telegramNotificationService).sendNotification(
+                "Your payment with id: 3 has status REFUND_REQUIRED");
+    }
+
+    @Test
+    @DisplayName("""
+            Pending payments with expired or missing Stripe sessions are canceled
+            """)
+    public void run_WithExpiredAndMissingSessions_ShouldCancelPayments() {
+        when(stripeService.findSession(anyString())).thenReturn(session("open", "unpaid"));
+        when(stripeService.findSession("cs_test_1")).thenReturn(session("expired", "unpaid"));
+        when(stripeService.findSession("cs_test_2")).thenReturn(Optional.empty());
+        when(stripeService.findSession("cs_test_3")).thenReturn(session("complete", "paid"));
+
+        assertEquals(3, paymentReconciliationJob.run());
+
+        assertEquals(List.of(1L, 2L), jdbcTemplate.queryForList(SELECT_CANCELED_IDS, Long.class));
+        assertEquals(List.of(3L, 4L), jdbcTemplate.queryForList(SELECT_PAID_IDS, Long.class));
+        assertEquals("PENDING", jdbcTemplate.queryForObject(
+                "SELECT status FROM payments WHERE id = 5", String.class));
+        verify(telegramNotificationService).sendNotification(
+                "Your payment with id: 1 has status CANCELED");
+    }
+
+    private Optional<Session> session(String status, String paymentStatus) {
+        Session session = new Session();
+        session.setStatus(status);
+        session.setPaymentStatus(paymentStatus);
+        return Optional.of(session);
+    }
+}
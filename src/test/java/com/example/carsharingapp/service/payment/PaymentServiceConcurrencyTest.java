@@ -0,0 +1,226 @@
+package com.example.carsharingapp.service.payment;
+
+import com.example.carsharingapp.dto.payment.PaymentRequestDto;
+import com.example.carsharingapp.dto.payment.PaymentResponseDto;
+import com.example.carsharingapp.exception.CheckoutSessionPendingException;
+import com.example.carsharingapp.model.enums.PaymentType;
+import com.example.carsharingapp.model.rental.Rental;
+import com.example.carsharingapp.service.bot.TelegramNotificationService;
+import com.example.carsharingapp.service.stripe.StripeService;
+import com.stripe.model.checkout.Session;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.context.jdbc.Sql;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest(properties = {
+        "stripe.executor.threads=" + PaymentServiceConcurrencyTest.STRIPE_THREADS,
+        "spring.datasource.hikari.maximum-pool-size=5",
+        "stripe.session.await-timeout=PT2S"
+})
+@Sql(scripts = {
+        "classpath:database/service/payment/add/add-user-to-users-table.sql",
+        "classpath:database/service/payment/add/add-cars-to-cars-table.sql",
+        "classpath:database/service/payment/add/add-rentals-to-rentals-table.sql"
+}, executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+@Sql(scripts = {
+        "classpath:database/service/payment/truncate/truncate-payments-table.sql",
+        "classpath:database/service/payment/truncate/truncate-rentals-table.sql",
+        "classpath:database/service/payment/truncate/truncate-cars-table.sql",
+        "classpath:database/service/payment/truncate/truncate-users-table.sql"
+}, executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+public class PaymentServiceConcurrencyTest {
+    static final int STRIPE_THREADS = 4;
+    private static final int CALLERS = 20;
+    private static final long FIRST_RENTAL_ID = 101L;
+
+    @MockitoBean
+    private TelegramNotificationService telegramNotificationService;
+
+    @MockitoBean
+    private StripeService stripeService;
+
+    @Autowired
+    private PaymentService paymentService;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    @DisplayName("""
+            Slow Stripe calls do not hold database connections
+            """)
+    public void create_WithSlowStripe_ShouldNotHoldConnections() throws Exception {
+        for (int i = 0; i < CALLERS; i++) {
+            jdbcTemplate.update("INSERT INTO rentals "
+                    + "(id, rental_date, return_date, car_id, user_id) VALUES (?, '2025-08-20 00:00:00', '2025-08-26 00:00:00', 1, 1)",
+                    FIRST_RENTAL_ID + i);
+        }
+        SlowStripe slowStripe = new SlowStripe(STRIPE_THREADS);
+        when(stripeService.createRentalPaymentSession(any(Rental.class), any(BigDecimal.class)))
+                .thenAnswer(invocation -> slowStripe.createSession());
+        ExecutorService callers = Executors.newFixedThreadPool(CALLERS);
+        List<Future<PaymentResponseDto>> results = new ArrayList<>();
+        for (int i = 0; i < CALLERS; i++) {
+            long rentalId = FIRST_RENTAL_ID + i;
+            results.add(callers.submit(() -> paymentService.create(new PaymentRequestDto()
+                    .setRentalId(rentalId)
+                    .setType(PaymentType.PAYMENT))));
+        }
+
+        assertThat(slowStripe.saturated.await(10, TimeUnit.SECONDS)).isTrue();
+        Thread.sleep(200);
+        int activeConnections = dataSource.unwrap(HikariDataSource.class)
+                .getHikariPoolMXBean().getActiveConnections();
+        slowStripe.release.countDown();
+        for (Future<PaymentResponseDto> result : results) {
+            assertThat(result.get(10, TimeUnit.SECONDS).getSessionId()).startsWith("cs_test_");
+        }
+        callers.shutdown();
+
+        assertEquals(0, activeConnections);
+        assertEquals(STRIPE_THREADS, slowStripe.maxInFlight.get());
+        assertEquals(CALLERS, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM payments WHERE session_id IS NOT NULL", Integer.class));
+    }
+
+    @Test
+    @DisplayName("""
+            Concurrent duplicate requests for a rental create exactly one checkout session
+            """)
+    public void create_WithConcurrentDuplicates_ShouldCreateOneSession() throws Exception {
+        SlowStripe slowStripe = new SlowStripe(1);
+        when(stripeService.createRentalPaymentSession(any(Rental.class), any(BigDecimal.class)))
+                .thenAnswer(invocation -> slowStripe.createSession());
+        ExecutorService callers = Executors.newFixedThreadPool(CALLERS);
+        List<Future<PaymentResponseDto>> results = new ArrayList<>();
+        for (int i = 0; i < CALLERS; i++) {
+            results.add(callers.submit(() -> paymentService.create(new PaymentRequestDto()
+                    .setRentalId(1L)
+                    .setType(PaymentType.PAYMENT))));
+        }
+
+        assertThat(slowStripe.saturated.await(10, TimeUnit.SECONDS)).isTrue();
+        Thread.sleep(200);
+        slowStripe.release.countDown();
+        Set<String> sessionIds = new HashSet<>();
+        for (Future<PaymentResponseDto> result : results) {
+            sessionIds.add(result.get(10, TimeUnit.SECONDS).getSessionId());
+        }
+        callers.shutdown();
+
+        assertEquals(Set.of("cs_test_1"), sessionIds);
+        assertEquals(1, slowStripe.sessions.get());
+        assertEquals(1, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM payments WHERE rental_id = 1 AND is_deleted = false",
+                Integer.class));
+    }
+
+    @Test
+    @DisplayName("""
+            A checkout session is reused until it expires
+            """)
+    public void create_WithOpenSession_ShouldReuseUntilExpiring() throws Exception {
+        SlowStripe slowStripe = new SlowStripe(1);
+        slowStripe.release.countDown();
+        when(stripeService.createRentalPaymentSession(any(Rental.class), any(BigDecimal.class)))
+                .thenAnswer(invocation -> slowStripe.createSession());
+        PaymentRequestDto requestDto = new PaymentRequestDto()
+                .setRentalId(1L)
+                .setType(PaymentType.PAYMENT);
+
+        PaymentResponseDto first = paymentService.create(requestDto);
+        PaymentResponseDto reused = paymentService.create(requestDto);
+        jdbcTemplate.update("UPDATE payments SET session_expires_at = '2025-08-20 00:00:00' "
+                + "WHERE id = ?", first.getId());
+        PaymentResponseDto renewed = paymentService.create(requestDto);
+
+        assertEquals(first.getId(), reused.getId());
+        assertEquals(first.getSessionId(), reused.getSessionId());
+        assertThat(renewed.getId()).isNotEqualTo(first.getId());
+        assertEquals("cs_test_2", renewed.getSessionId());
+        assertEquals(2, slowStripe.sessions.get());
+    }
+
+    @Test
+    @DisplayName("""
+            A duplicate request gives up with a conflict once the wait cap passes
+            """)
+    public void create_WithSessionStillBeingCreated_ShouldFailFastWithConflict() throws Exception {
+        SlowStripe slowStripe = new SlowStripe(1);
+        when(stripeService.createRentalPaymentSession(any(Rental.class), any(BigDecimal.class)))
+                .thenAnswer(invocation -> slowStripe.createSession());
+        PaymentRequestDto requestDto = new PaymentRequestDto()
+                .setRentalId(1L)
+                .setType(PaymentType.PAYMENT);
+        ExecutorService callers = Executors.newSingleThreadExecutor();
+        Future<PaymentResponseDto> first = callers.submit(() -> paymentService.create(requestDto));
+        assertThat(slowStripe.saturated.await(10, TimeUnit.SECONDS)).isTrue();
+
+        long startedAt = System.nanoTime();
+        assertThrows(CheckoutSessionPendingException.class,
+                () -> paymentService.create(requestDto));
+        Duration waited = Duration.ofNanos(System.nanoTime() - startedAt);
+        slowStripe.release.countDown();
+
+        assertThat(waited).isLessThan(Duration.ofSeconds(5));
+        assertEquals("cs_test_1", first.get(10, TimeUnit.SECONDS).getSessionId());
+        assertEquals(1, slowStripe.sessions.get());
+        callers.shutdown();
+    }
+
+    private static class SlowStripe {
+        private final CountDownLatch saturated;
+        private final CountDownLatch release = new CountDownLatch(1);
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final AtomicInteger maxInFlight = new AtomicInteger();
+        private final AtomicInteger sessions = new AtomicInteger();
+
+        private SlowStripe(int saturation) {
+            saturated = new CountDownLatch(saturation);
+        }
+
+        private Session createSession() throws InterruptedException {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            saturated.countDown();
+            try {
+                release.await(10, TimeUnit.SECONDS);
+                Session session = new Session();
+                session.setId("cs_test_" + sessions.incrementAndGet());
+                session.setUrl("https://checkout.stripe.com/c/pay/" + session.getId());
+                session.setExpiresAt(Instant.now().plusSeconds(3600).getEpochSecond());
+                return session;
+            } finally {
+                inFlight.decrementAndGet();
+            }
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package com.example.carsharingapp.service.payment;
+
+import com.example.carsharingapp.dto.payment.PaymentRequestDto;
+import com.example.carsharingapp.dto.payment.PaymentResponseDto;
+import com.example.carsharingapp.dto.payment.PaymentStatusResponseDto;
+import com.example.carsharingapp.model.enums.PaymentType;
+import com.example.carsharingapp.model.enums.Status;
+import com.example.carsharingapp.service.bot.TelegramNotificationService;
+import com.example.carsharingapp.service.stripe.StripeApiStandIn;
+import com.stripe.Stripe;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.context.jdbc.Sql;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(properties = {
+        "stripe.secret.key=sk_test_standin",
+        "stripe.read-timeout=PT5S",
+        "stripe.executor.threads=" + PaymentServiceStripeConnectionTest.STRIPE_THREADS,
+        "stripe.resilience.max-concurrent=32",
+        "spring.datasource.hikari.maximum-pool-size=5"
+})
+@Sql(scripts = {
+        "classpath:database/service/payment/add/add-user-to-users-table.sql",
+        "classpath:database/service/payment/add/add-cars-to-cars-table.sql",
+        "classpath:database/service/payment/add/add-rentals-to-rentals-table.sql"
+}, executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+@Sql(scripts = {
+        "classpath:database/service/payment/truncate/truncate-payments-table.sql",
+        "classpath:database/service/payment/truncate/truncate-rentals-table.sql",
+        "classpath:database/service/payment/truncate/truncate-cars-table.sql",
+        "classpath:database/service/payment/truncate/truncate-users-table.sql"
+}, executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+public class PaymentServiceStripeConnectionTest {
+    static final int STRIPE_THREADS = 4;
+    private static final int CALLERS = 20;
+    private static final long FIRST_RENTAL_ID = 101L;
+    private static final StripeApiStandIn STRIPE = startStandIn();
+
+    @MockitoBean
+    private TelegramNotificationService telegramNotificationService;
+
+    @Autowired
+    private PaymentService paymentService;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @DynamicPropertySource
+    static void stripeProperties(DynamicPropertyRegistry registry) {
+        registry.add("stripe.api-base", STRIPE::baseUrl);
+    }
+
+    @AfterAll
+    static void afterAll() {
+        STRIPE.close();
+    }
+
+    @BeforeEach
+    void setUp() {
+        Stripe.overrideApiBase(STRIPE.baseUrl());
+        STRIPE.setLatency(Duration.ofSeconds(1));
+        STRIPE.setFailureStatus(0);
+    }
+
+    @Test
+    @DisplayName("""
+            Slow Stripe API calls made by the real Stripe service do not hold database connections
+            """)
+    public void create_WithSlowStripeApi_ShouldNotHoldConnections() throws Exception {
+        addRentals();
+        int requestsBefore = STRIPE.requests();
+        ExecutorService callers = Executors.newFixedThreadPool(CALLERS);
+        List<Future<PaymentResponseDto>> results = new ArrayList<>();
+        for (int i = 0; i < CALLERS; i++) {
+            long rentalId = FIRST_RENTAL_ID + i;
+            results.add(callers.submit(() -> paymentService.create(new PaymentRequestDto()
+                    .setRentalId(rentalId)
+                    .setType(PaymentType.PAYMENT))));
+        }
+
+        int activeConnections = activeConnectionsOnceInFlight(requestsBefore, STRIPE_THREADS);
+        for (Future<PaymentResponseDto> result : results) {
+            assertThat(result.get(30, TimeUnit.SECONDS).getSessionId())
+                    .startsWith("cs_test_standin_");
+        }
+        callers.shutdown();
+
+        assertEquals(0, activeConnections);
+        assertEquals(CALLERS, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM payments WHERE session_id IS NOT NULL", Integer.class));
+    }
+
+    @Test
+    @DisplayName("""
+            Slow Stripe status lookups do not hold database connections
+            """)
+    public void getPaymentStatus_WithSlowStripeApi_ShouldNotHoldConnections() throws Exception {
+        addRentals();
+        for (int i = 0; i < CALLERS; i++) {
+            jdbcTemplate.update("INSERT INTO payments (status, type, rental_id, user_id, "
+                    + "amount_to_pay, session_id, session_url) VALUES ('PENDING', 'PAYMENT', ?, "
+                    + "1, 4200.00, ?, 'https://checkout.stripe.com')",
+                    FIRST_RENTAL_ID + i, "cs_test_status_" + i);
+        }
+        int requestsBefore = STRIPE.requests();
+        ExecutorService callers = Executors.newFixedThreadPool(CALLERS);
+        List<Future<PaymentStatusResponseDto>> results = new ArrayList<>();
+        for (int i = 0; i < CALLERS; i++) {
+            String sessionId = "cs_test_status_" + i;
+            results.add(callers.submit(() -> paymentService.getPaymentStatus(sessionId)));
+        }
+
+        int activeConnections = activeConnectionsOnceInFlight(requestsBefore, CALLERS);
+        for (Future<PaymentStatusResponseDto> result : results) {
+            assertEquals(Status.PAID, result.get(30, TimeUnit.SECONDS).getStatus());
+        }
+        callers.shutdown();
+
+        assertEquals(0, activeConnections);
+        assertEquals(CALLERS, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM payments WHERE status = 'PAID'", Integer.class));
+    }
+
+    private void addRentals() {
+        for (int i = 0; i < CALLERS; i++) {
+            jdbcTemplate.update("INSERT INTO rentals "
+                    + "(id, rental_date, return_date, car_id, user_id) VALUES (?, '2025-08-20 00:00:00', '2025-08-26 00:00:00', 1, 1)",
+                    FIRST_RENTAL_ID + i);
+        }
+    }
+
+    private int activeConnectionsOnceInFlight(int requestsBefore, int inFlight)
+            throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (STRIPE.requests() - requestsBefore < inFlight && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        Thread.sleep(200);
+        return dataSource.unwrap(HikariDataSource.class)
+                .getHikariPoolMXBean().getActiveConnections();
+    }
+
+    private static StripeApiStandIn startStandIn() {
+        try {
+            return new StripeApiStandIn(0);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
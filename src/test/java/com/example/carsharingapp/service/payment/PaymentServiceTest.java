@@ -3,6 +3,7 @@ package com.example.carsharingapp.service.payment;
 import com.example.carsharingapp.dto.payment.PaymentRequestDto;
 import com.example.carsharingapp.dto.payment.PaymentResponseDto;
 import com.example.carsharingapp.dto.payment.PaymentStatusResponseDto;
+import com.example.carsharingapp.exception.CheckoutSessionPendingException;
 import com.example.carsharingapp.exception.EntityNotFoundException;
 import com.example.carsharingapp.mapper.payment.PaymentMapper;
 import com.example.carsharingapp.model.car.Car;
@@ -16,8 +17,14 @@ import com.example.carsharingapp.repository.payment.PaymentRepository;
 import com.example.carsharingapp.repository.rental.RentalRepository;
 import com.example.carsharingapp.service.bot.TelegramNotificationService;
 import com.example.carsharingapp.service.payment.impl.PaymentServiceImpl;
+import com.example.carsharingapp.service.payment.pricing.PricingEngine;
+import com.example.carsharingapp.service.stripe.StripeCallExecutor;
 import com.example.carsharingapp.service.stripe.StripeService;
+import com.example.carsharingapp.service.stripe.status.StripeSessionStatusCache;
+import com.example.carsharingapp.service.stripe.webhook.StripeWebhookEvent;
+import com.example.carsharingapp.service.stripe.webhook.StripeWebhookParser;
 import org.apache.commons.lang3.builder.EqualsBuilder;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -29,10 +36,17 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.*;
@@ -52,6 +66,23 @@ public class PaymentServiceTest {
     private StripeService stripeService;
     @Mock
     private TelegramNotificationService telegramNotificationService;
+    @Mock
+    private StripeWebhookParser stripeWebhookParser;
+    @Mock
+    private StripeSessionStatusCache stripeSessionStatusCache;
+    @Mock
+    private StripeCallExecutor stripeCallExecutor;
+    @Mock
+    private TransactionTemplate transactionTemplate;
+    @Mock
+    private PricingEngine pricingEngine;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(paymentService, "sessionReuseMargin", Duration.ofMinutes(10));
+        ReflectionTestUtils.setField(paymentService, "sessionReservationLease", Duration.ofSeconds(30));
+        ReflectionTestUtils.setField(paymentService, "sessionAwaitTimeout", Duration.ofSeconds(1));
+    }
 
     @Test
     @DisplayName("""
@@ -94,8 +125,6 @@ public class PaymentServiceTest {
                 .setId(1L)
                 .setAmountToPay(BigDecimal.valueOf(700))
                 .setRental(rental)
-                .setSessionId(session.getId())
-                .setSessionUrl(session.getUrl())
                 .setType(PaymentType.PAYMENT)
                 .setStatus(Status.PENDING);
 
@@ -107,20 +136,146 @@ public class PaymentServiceTest {
                 .setType(PaymentType.PAYMENT)
                 .setStatus(Status.PENDING);
 
-        when(rentalRepository.findById(paymentRequestDto.getRentalId())).thenReturn(Optional.of(rental));
+        runTransactionsInline();
+        doAnswer(invocation -> { invocation.<Consumer<TransactionStatus>>getArgument(0).accept(null); return null; })
+                .when(transactionTemplate).executeWithoutResult(any());
+        when(stripeCallExecutor.call(any())).thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(0).get());
+        when(rentalRepository.findWithCarById(paymentRequestDto.getRentalId())).thenReturn(Optional.of(rental));
+        when(pricingEngine.rentalPrice(car.getType(), car.getBrand(), car.getDailyFee(),
+                rental.getRentalDate(), rental.getReturnDate())).thenReturn(BigDecimal.valueOf(700));
         when(paymentRepository.save(any(Payment.class))).thenReturn(payment);
         when(stripeService.createRentalPaymentSession(any(Rental.class), any(BigDecimal.class))).thenReturn(session);
         when(paymentMapper.toResponseDto(any(Payment.class))).thenReturn(paymentResponseDto);
 
         PaymentResponseDto result = paymentService.create(paymentRequestDto);
         assertTrue(EqualsBuilder.reflectionEquals(result, paymentResponseDto));
-        verify(rentalRepository).findById(paymentRequestDto.getRentalId());
+        verify(rentalRepository).lockById(paymentRequestDto.getRentalId());
+        verify(rentalRepository).findWithCarById(paymentRequestDto.getRentalId());
+        verify(paymentRepository).findOpenPayments(eq(rental.getId()), eq(PaymentType.PAYMENT),
+                eq(Status.PENDING), any(LocalDateTime.class), any(LocalDateTime.class));
+        verify(paymentRepository).findUnclaimedPayments(eq(rental.getId()),
+                eq(PaymentType.PAYMENT), eq(Status.PENDING), any(LocalDateTime.class));
+        verify(pricingEngine).rentalPrice(car.getType(), car.getBrand(), car.getDailyFee(),
+                rental.getRentalDate(), rental.getReturnDate());
         verify(paymentRepository).save(any(Payment.class));
+        verify(paymentRepository).attachSession(eq(payment.getId()), eq(session.getId()),
+                eq(session.getUrl()), any(LocalDateTime.class));
         verify(telegramNotificationService).sendNotification(anyString());
         verify(paymentMapper).toResponseDto(any(Payment.class));
         verifyNoMoreInteractions(rentalRepository, paymentRepository, paymentMapper, telegramNotificationService);
     }
 
+    @Test
+    @DisplayName("""
+            Reclaim a stale payment reservation left without a session
+            """)
+    public void createPayment_WithStaleReservation_ReuseReservedPayment() {
+        PaymentRequestDto paymentRequestDto = new PaymentRequestDto()
+                .setRentalId(1L)
+                .setType(PaymentType.PAYMENT);
+        Car car = new Car()
+                .setBrand("Audi")
+                .setDailyFee(BigDecimal.valueOf(700))
+                .setType(Type.SEDAN);
+        Rental rental = new Rental()
+                .setId(1L)
+                .setRentalDate(LocalDateTime.now())
+                .setReturnDate(LocalDateTime.now().plusDays(1))
+                .setCar(car)
+                .setUser(new User().setId(1L));
+        Payment orphan = new Payment()
+                .setId(7L)
+                .setAmountToPay(BigDecimal.valueOf(500))
+                .setRental(rental)
+                .setType(PaymentType.PAYMENT)
+                .setStatus(Status.PENDING)
+                .setSessionExpiresAt(LocalDateTime.now().minusMinutes(5));
+        Session session = new Session();
+        session.setId("cs_test_reclaimed");
+        session.setUrl("https://checkout.stripe.com/c/pay/cs_test_reclaimed");
+        PaymentResponseDto paymentResponseDto = new PaymentResponseDto()
+                .setId(7L)
+                .setAmountToPay(BigDecimal.valueOf(700))
+                .setSessionId(session.getId())
+                .setType(PaymentType.PAYMENT)
+                .setStatus(Status.PENDING);
+
+        runTransactionsInline();
+        doAnswer(invocation -> { invocation.<Consumer<TransactionStatus>>getArgument(0).accept(null); return null; })
+                .when(transactionTemplate).executeWithoutResult(any());
+        when(stripeCallExecutor.call(any())).thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(0).get());
+        when(rentalRepository.findWithCarById(paymentRequestDto.getRentalId())).thenReturn(Optional.of(rental));
+        when(paymentRepository.findUnclaimedPayments(eq(rental.getId()), eq(PaymentType.PAYMENT),
+                eq(Status.PENDING), any(LocalDateTime.class))).thenReturn(List.of(orphan));
+        when(pricingEngine.rentalPrice(car.getType(), car.getBrand(), car.getDailyFee(),
+                rental.getRentalDate(), rental.getReturnDate())).thenReturn(BigDecimal.valueOf(700));
+        when(stripeService.createRentalPaymentSession(rental, BigDecimal.valueOf(700))).thenReturn(session);
+        when(paymentMapper.toResponseDto(orphan)).thenReturn(paymentResponseDto);
+
+        PaymentResponseDto result = paymentService.create(paymentRequestDto);
+
+        assertTrue(EqualsBuilder.reflectionEquals(result, paymentResponseDto));
+        assertEquals(BigDecimal.valueOf(700), orphan.getAmountToPay());
+        assertEquals(session.getId(), orphan.getSessionId());
+        verify(paymentRepository, never()).save(any(Payment.class));
+        verify(paymentRepository).attachSession(eq(7L), eq(session.getId()),
+                eq(session.getUrl()), any(LocalDateTime.class));
+    }
+
+    @Test
+    @DisplayName("""
+            Create a fine for an overdue rental that was not returned yet
+            """)
+    public void createPayment_FineForUnreturnedRental_PriceFineUntilNow() {
+        PaymentRequestDto paymentRequestDto = new PaymentRequestDto()
+                .setRentalId(1L)
+                .setType(PaymentType.FINE);
+        Car car = new Car()
+                .setBrand("Audi")
+                .setDailyFee(BigDecimal.valueOf(700))
+                .setType(Type.SEDAN);
+        Rental rental = new Rental()
+                .setId(1L)
+                .setRentalDate(LocalDateTime.now().minusDays(5))
+                .setReturnDate(LocalDateTime.now().minusDays(2))
+                .setCar(car)
+                .setUser(new User().setId(1L))
+                .setActualReturnDate(null);
+        Session session = new Session();
+        session.setId("cs_test_fine");
+        session.setUrl("https://checkout.stripe.com/c/pay/cs_test_fine");
+        Payment payment = new Payment()
+                .setId(1L)
+                .setAmountToPay(BigDecimal.valueOf(1050))
+                .setRental(rental)
+                .setType(PaymentType.FINE)
+                .setStatus(Status.PENDING);
+        PaymentResponseDto paymentResponseDto = new PaymentResponseDto()
+                .setId(1L)
+                .setAmountToPay(BigDecimal.valueOf(1050))
+                .setType(PaymentType.FINE)
+                .setStatus(Status.PENDING);
+
+        runTransactionsInline();
+        doAnswer(invocation -> { invocation.<Consumer<TransactionStatus>>getArgument(0).accept(null); return null; })
+                .when(transactionTemplate).executeWithoutResult(any());
+        when(stripeCallExecutor.call(any())).thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(0).get());
+        when(rentalRepository.findWithCarById(paymentRequestDto.getRentalId())).thenReturn(Optional.of(rental));
+        when(pricingEngine.fine(eq(car.getType()), eq(car.getBrand()), eq(car.getDailyFee()),
+                eq(rental.getReturnDate()), any(LocalDateTime.class))).thenReturn(BigDecimal.valueOf(1050));
+        when(paymentRepository.save(any(Payment.class))).thenReturn(payment);
+        when(stripeService.createRentalPaymentSession(rental, BigDecimal.valueOf(1050))).thenReturn(session);
+        when(paymentMapper.toResponseDto(any(Payment.class))).thenReturn(paymentResponseDto);
+
+        PaymentResponseDto result = paymentService.create(paymentRequestDto);
+
+        assertTrue(EqualsBuilder.reflectionEquals(result, paymentResponseDto));
+        verify(pricingEngine).fine(eq(car.getType()), eq(car.getBrand()), eq(car.getDailyFee()),
+                eq(rental.getReturnDate()), any(LocalDateTime.class));
+        verify(paymentRepository).findUnclaimedPayments(eq(rental.getId()), eq(PaymentType.FINE),
+                eq(Status.PENDING), any(LocalDateTime.class));
+    }
+
     @Test
     @DisplayName("""
             Create a new payment with invalid id
@@ -132,14 +287,90 @@ public class PaymentServiceTest {
                 .setRentalId(1L)
                 .setType(PaymentType.PAYMENT);
 
-        when(rentalRepository.findById(rentalId)).thenReturn(Optional.empty());
+        runTransactionsInline();
+        when(rentalRepository.findWithCarById(rentalId)).thenReturn(Optional.empty());
 
         Exception exception = assertThrows(
                 EntityNotFoundException.class,
                 () -> paymentService.create(paymentRequestDto));
         assertThat(exception.getMessage()).isEqualTo("Rental was not found with id: " + rentalId);
-        verify(rentalRepository).findById(paymentRequestDto.getRentalId());
+        verify(rentalRepository).lockById(paymentRequestDto.getRentalId());
+        verify(rentalRepository).findWithCarById(paymentRequestDto.getRentalId());
         verifyNoMoreInteractions(rentalRepository, paymentRepository, paymentMapper, telegramNotificationService);
+        verifyNoInteractions(stripeCallExecutor, stripeService, pricingEngine);
+    }
+
+    @Test
+    @DisplayName("""
+            Create a payment for a rental with an open checkout session
+            """)
+    public void createPayment_WithOpenSession_ReturnExistingPayment() {
+        PaymentRequestDto paymentRequestDto = new PaymentRequestDto()
+                .setRentalId(1L)
+                .setType(PaymentType.PAYMENT);
+        Rental rental = new Rental().setId(1L);
+        Payment open = new Payment()
+                .setId(1L)
+                .setStatus(Status.PENDING)
+                .setType(PaymentType.PAYMENT)
+                .setSessionId("cs_test_open")
+                .setSessionUrl("https://checkout.stripe.com/c/pay/cs_test_open");
+        PaymentResponseDto expected = new PaymentResponseDto()
+                .setId(1L)
+                .setStatus(Status.PENDING)
+                .setType(PaymentType.PAYMENT)
+                .setSessionId(open.getSessionId())
+                .setSessionUrl(open.getSessionUrl());
+
+        runTransactionsInline();
+        when(rentalRepository.findWithCarById(1L)).thenReturn(Optional.of(rental));
+        when(paymentRepository.findOpenPayments(eq(1L), eq(PaymentType.PAYMENT),
+                eq(Status.PENDING), any(LocalDateTime.class), any(LocalDateTime.class)))
+                .thenReturn(List.of(open));
+        when(paymentMapper.toResponseDto(open)).thenReturn(expected);
+
+        PaymentResponseDto actual = paymentService.create(paymentRequestDto);
+
+        assertThat(actual).isSameAs(expected);
+        verify(rentalRepository).lockById(1L);
+        verify(rentalRepository).findWithCarById(1L);
+        verify(paymentRepository).findOpenPayments(eq(1L), eq(PaymentType.PAYMENT),
+                eq(Status.PENDING), any(LocalDateTime.class), any(LocalDateTime.class));
+        verify(paymentMapper).toResponseDto(open);
+        verifyNoMoreInteractions(rentalRepository, paymentRepository, paymentMapper);
+        verifyNoInteractions(stripeCallExecutor, stripeService, pricingEngine,
+                telegramNotificationService);
+    }
+
+    @Test
+    @DisplayName("""
+            Create a payment while another node is creating its checkout session
+            """)
+    public void createPayment_WithSessionReservedElsewhere_ThrowCheckoutSessionPending() {
+        PaymentRequestDto paymentRequestDto = new PaymentRequestDto()
+                .setRentalId(1L)
+                .setType(PaymentType.PAYMENT);
+        Rental rental = new Rental().setId(1L);
+        Payment reserved = new Payment()
+                .setId(1L)
+                .setStatus(Status.PENDING)
+                .setType(PaymentType.PAYMENT);
+
+        runTransactionsInline();
+        when(rentalRepository.findWithCarById(1L)).thenReturn(Optional.of(rental));
+        when(paymentRepository.findOpenPayments(eq(1L), eq(PaymentType.PAYMENT),
+                eq(Status.PENDING), any(LocalDateTime.class), any(LocalDateTime.class)))
+                .thenReturn(List.of(reserved));
+
+        assertThrows(CheckoutSessionPendingException.class,
+                () -> paymentService.create(paymentRequestDto));
+        verify(rentalRepository).lockById(1L);
+        verify(rentalRepository).findWithCarById(1L);
+        verify(paymentRepository).findOpenPayments(eq(1L), eq(PaymentType.PAYMENT),
+                eq(Status.PENDING), any(LocalDateTime.class), any(LocalDateTime.class));
+        verifyNoMoreInteractions(rentalRepository, paymentRepository);
+        verifyNoInteractions(stripeCallExecutor, stripeService, pricingEngine, paymentMapper,
+                telegramNotificationService);
     }
 
     @Test
@@ -147,6 +378,66 @@ public class PaymentServiceTest {
             Get payment status
             """)
     public void getPaymentStatus_BySessionId_ReturnPaymentResponseDto() {
+        String sessionId = "cs_test_a1TOL76MdGnmrhJFkb2iWRffUQ0axHeXWvsTb4HaSUhfwNk93wuaknsBo0";
+        PaymentStatusResponseDto responseDto = new PaymentStatusResponseDto()
+                .setStatus(Status.PAID);
+
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        when(paymentRepository.findStatusBySessionId(sessionId)).thenReturn(Optional.of(Status.PAID));
+
+        PaymentStatusResponseDto result = paymentService.getPaymentStatus(sessionId);
+
+        assertTrue(EqualsBuilder.reflectionEquals(result, responseDto));
+        verify(paymentRepository).findStatusBySessionId(sessionId);
+        verifyNoMoreInteractions(rentalRepository, paymentRepository, stripeService,
+                stripeSessionStatusCache, telegramNotificationService);
+    }
+
+    @Test
+    @DisplayName("""
+            Pending payment already paid in Stripe is updated once
+            """)
+    public void getPaymentStatus_WithPaidSessionAndConcurrentUpdate_NotifyOnlyOnTransition() {
+        String sessionId = "cs_test_a1TOL76MdGnmrhJFkb2iWRffUQ0axHeXWvsTb4HaSUhfwNk93wuaknsBo0";
+
+        Rental rental = new Rental().setId(1L);
+        Payment payment = new Payment()
+                .setId(1L)
+                .setRental(rental)
+                .setSessionId(sessionId)
+                .setStatus(Status.PENDING);
+
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        when(paymentRepository.findStatusBySessionId(sessionId))
+                .thenReturn(Optional.of(Status.PENDING), Optional.of(Status.PAID));
+        when(stripeSessionStatusCache.getStatus(sessionId)).thenReturn("paid");
+        when(paymentRepository.findBySessionId(sessionId)).thenReturn(Optional.of(payment));
+        when(paymentRepository.updateStatusBySessionId(sessionId, Status.PENDING, Status.PAID))
+                .thenReturn(0);
+        when(paymentRepository.updateStatusBySessionId(sessionId, Status.CANCELED,
+                Status.REFUND_REQUIRED)).thenReturn(0);
+
+        PaymentStatusResponseDto result = paymentService.getPaymentStatus(sessionId);
+
+        assertEquals(Status.PAID, result.getStatus());
+        verify(paymentRepository, times(2)).findStatusBySessionId(sessionId);
+        verify(stripeSessionStatusCache).getStatus(sessionId);
+        verify(paymentRepository).findBySessionId(sessionId);
+        verify(rentalRepository).lockById(rental.getId());
+        verify(paymentRepository).updateStatusBySessionId(sessionId, Status.PENDING, Status.PAID);
+        verify(paymentRepository).updateStatusBySessionId(sessionId, Status.CANCELED,
+                Status.REFUND_REQUIRED);
+        verifyNoMoreInteractions(rentalRepository, paymentRepository, stripeService,
+                stripeSessionStatusCache, telegramNotificationService);
+    }
+
+    @Test
+    @DisplayName("""
+            Completed checkout webhook marks payment as paid
+            """)
+    public void handleWebhook_WithCompletedCheckout_MarkPaymentAsPaid() {
         String PAID = "paid";
 
         Car car = new Car()
@@ -186,19 +477,20 @@ public class PaymentServiceTest {
                 .setType(PaymentType.PAYMENT)
                 .setStatus(Status.PENDING);
 
-        PaymentStatusResponseDto responseDto = new PaymentStatusResponseDto()
-                .setStatus(Status.PAID);
-
+        when(stripeWebhookParser.parse("payload", "signature")).thenReturn(new StripeWebhookEvent(
+                "evt_1", "checkout.session.completed", session.getId(), PAID));
         when(paymentRepository.findBySessionId(session.getId())).thenReturn(Optional.ofNullable(payment));
-        when(stripeService.checkPaymentStatus(session.getId())).thenReturn(PAID);
-        when(paymentRepository.save(any(Payment.class))).thenReturn(payment);
+        when(paymentRepository.updateStatusBySessionId(session.getId(), Status.PENDING,
+                Status.PAID)).thenReturn(1);
 
-        PaymentStatusResponseDto result = paymentService.getPaymentStatus(session.getId());
+        paymentService.handleWebhook("payload", "signature");
 
-        assertTrue(EqualsBuilder.reflectionEquals(result, responseDto));
+        verify(stripeWebhookParser).parse("payload", "signature");
         verify(paymentRepository).findBySessionId(session.getId());
-        verify(stripeService).checkPaymentStatus(session.getId());
-        verify(paymentRepository).save(any(Payment.class));
+        verify(rentalRepository).lockById(rental.getId());
+        verify(paymentRepository).updateStatusBySessionId(session.getId(), Status.PENDING,
+                Status.PAID);
+        verify(rentalRepository).confirmHold(rental.getId());
         verify(telegramNotificationService).sendNotification(anyString());
         verifyNoMoreInteractions(rentalRepository, paymentRepository, paymentMapper, telegramNotificationService);
     }
@@ -209,26 +501,12 @@ public class PaymentServiceTest {
             """)
     public void getPayment_ByUserId_ReturnPageOfPaymentResponseDto() {
         Pageable pageable = PageRequest.of(0, 10);
-        Car car = new Car()
-                .setBrand("Audi")
-                .setModel("A5")
-                .setDailyFee(BigDecimal.valueOf(700))
-                .setType(Type.SEDAN)
-                .setInventory(50);
-
         User user = new User()
                 .setEmail("nikolya.cr@gmail.com")
                 .setFirstName("Mykola")
                 .setLastName("Kovbasiuk")
                 .setDeleted(false);
 
-        Rental rental = new Rental()
-                .setRentalDate(LocalDateTime.now())
-                .setReturnDate(LocalDateTime.now().plusDays(1))
-                .setCar(car)
-                .setUser(user)
-                .setActualReturnDate(null);
-
         Session session = new Session();
         session.setId("cs_test_a1TOL76MdGnmrhJFkb2iWRffUQ0axHeXWvsTb4HaSUhfwNk93wuaknsBo0");
         session.setUrl("https://checkout.stripe.com/c/pay/cs_test_a1TOL76MdGnmrhJFkb2iWRff"
@@ -237,15 +515,6 @@ public class PaymentServiceTest {
                 + "kJhZjVuUWJoXGh8Nkg3VkRQVU9MNTVXVlw0NmI0PCcpJ2N3amhWYHdzYHcnP3F3cGApJ2lkfGpwcVF8"
                 + "dWAnPyd2bGtiaWBabHFgaCcpJ2BrZGdpYFVpZGZgbWppYWB3dic%2FcXdwYHgl");
 
-        Payment payment = new Payment()
-                .setId(1L)
-                .setAmountToPay(BigDecimal.valueOf(700))
-                .setRental(rental)
-                .setSessionId(session.getId())
-                .setSessionUrl(session.getUrl())
-                .setType(PaymentType.PAYMENT)
-                .setStatus(Status.PENDING);
-
         PaymentResponseDto responseDto = new PaymentResponseDto()
                 .setId(1L)
                 .setAmountToPay(BigDecimal.valueOf(700))
@@ -255,16 +524,18 @@ public class PaymentServiceTest {
                 .setStatus(Status.PENDING);
 
         Page<PaymentResponseDto> expected = new PageImpl<>(List.of(responseDto),  pageable, 1);
-        Page<Payment> pageOfPayment = new PageImpl<>(List.of(payment),  pageable, 1);
 
-        when(paymentRepository.findByUserId(user.getId(), pageable)).thenReturn(pageOfPayment);
-        when(paymentMapper.toResponseDto(payment)).thenReturn(responseDto);
+        when(paymentRepository.findResponseDtosByUserId(user.getId(), pageable)).thenReturn(expected);
 
         Page<PaymentResponseDto> result = paymentService.getPaymentsByUserId(user.getId(), pageable);
 
         assertTrue(EqualsBuilder.reflectionEquals(result, expected));
-        verify(paymentRepository).findByUserId(user.getId(), pageable);
-        verify(paymentMapper).toResponseDto(payment);
+        verify(paymentRepository).findResponseDtosByUserId(user.getId(), pageable);
         verifyNoMoreInteractions(rentalRepository, paymentRepository, paymentMapper, telegramNotificationService);
     }
+
+    private void runTransactionsInline() {
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+    }
 }
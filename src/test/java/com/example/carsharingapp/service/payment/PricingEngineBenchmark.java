@@ -0,0 +1,102 @@
+package com.example.carsharingapp.service.payment;
+
+import com.example.carsharingapp.model.enums.Type;
+import com.example.carsharingapp.service.payment.pricing.PricingEngine;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.core.io.DefaultResourceLoader;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PricingEngineBenchmark {
+    private static final int QUOTES = 1024;
+    private static final LocalDateTime START = LocalDateTime.of(2025, 9, 5, 10, 0);
+    private static final String TIERED_RULES = """
+            rules:
+              - discounts:
+                  - minDays: 7
+                    percent: 10
+                  - minDays: 30
+                    percent: 20
+              - type: SUV
+                weekendMultiplier: 1.25
+              - type: HATCHBACK
+                hourlyPercent: 15
+              - brand: BMW
+                fineMultiplier: 1.5
+            """;
+
+    @Param({"legacy", "tiered"})
+    private String rules;
+
+    private PricingEngine pricingEngine;
+    private Type[] types;
+    private BigDecimal[] dailyFees;
+    private LocalDateTime[] froms;
+    private LocalDateTime[] tos;
+    private int next;
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(PricingEngineBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        Path file = Files.createTempFile("rules", ".yaml");
+        file.toFile().deleteOnExit();
+        Files.writeString(file, "legacy".equals(rules) ? "rules: []" : TIERED_RULES);
+        pricingEngine = new PricingEngine(new ObjectMapper(), new DefaultResourceLoader(),
+                file.toUri().toString());
+        Random random = new Random(20250905L);
+        types = new Type[QUOTES];
+        dailyFees = new BigDecimal[QUOTES];
+        froms = new LocalDateTime[QUOTES];
+        tos = new LocalDateTime[QUOTES];
+        for (int i = 0; i < QUOTES; i++) {
+            types[i] = Type.values()[random.nextInt(Type.values().length)];
+            dailyFees[i] = BigDecimal.valueOf(random.nextInt(1_000_000) + 1, 2);
+            froms[i] = START.plusMinutes(random.nextInt(1_000_000));
+            tos[i] = froms[i].plusSeconds(random.nextInt(60 * 24 * 60 * 60));
+        }
+    }
+
+    @Benchmark
+    public BigDecimal rentalPrice() {
+        int i = next++ & (QUOTES - 1);
+        return pricingEngine.rentalPrice(types[i], "BMW", dailyFees[i], froms[i], tos[i]);
+    }
+
+    @Benchmark
+    public BigDecimal fine() {
+        int i = next++ & (QUOTES - 1);
+        return pricingEngine.fine(types[i], "BMW", dailyFees[i], froms[i], tos[i]);
+    }
+}
@@ -0,0 +1,174 @@
+package com.example.carsharingapp.service.payment;
+
+import com.example.carsharingapp.exception.InvalidDateRangeException;
+import com.example.carsharingapp.model.enums.Type;
+import com.example.carsharingapp.service.payment.pricing.PricingEngine;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.DefaultResourceLoader;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class PricingEngineTest {
+    private static final LocalDateTime FRIDAY = LocalDateTime.of(2025, 9, 5, 10, 0);
+    private static final BigDecimal DAILY_FEE = new BigDecimal("100.00");
+    private static final String TIERED_RULES = """
+            rules:
+              - discounts:
+                  - minDays: 7
+                    percent: 10
+                  - minDays: 30
+                    percent: 20
+              - type: SUV
+                weekendMultiplier: 1.25
+              - type: HATCHBACK
+                hourlyPercent: 15
+              - brand: BMW
+                fineMultiplier: 1.5
+              - type: SUV
+                brand: bmw
+                weekendMultiplier: 1.5
+            """;
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    @DisplayName("""
+            Without rules the engine matches the legacy formula for random periods and fees
+            """)
+    public void rentalPriceAndFine_WithoutRules_ShouldMatchLegacyFormula() throws IOException {
+        assertMatchesLegacyFormula(engine("rules: []"));
+    }
+
+    @Test
+    @DisplayName("""
+            The shipped rules keep the legacy formula
+            """)
+    public void rentalPriceAndFine_WithShippedRules_ShouldMatchLegacyFormula() {
+        assertMatchesLegacyFormula(new PricingEngine(new ObjectMapper(),
+                new DefaultResourceLoader(), "classpath:pricing/rules.yaml"));
+    }
+
+    @Test
+    @DisplayName("""
+            Weekend days, started hours and long rental discounts are priced by car type
+            """)
+    public void rentalPrice_WithTieredRules_ShouldApplyMatchingRule() throws IOException {
+        PricingEngine pricingEngine = engine(TIERED_RULES);
+
+        assertEquals(new BigDecimal("350.00"), pricingEngine.rentalPrice(Type.SUV, "Audi",
+                DAILY_FEE, FRIDAY, FRIDAY.plusDays(3)));
+        assertEquals(new BigDecimal("30.00"), pricingEngine.rentalPrice(Type.HATCHBACK,
+                "Audi", DAILY_FEE, FRIDAY, FRIDAY.plusMinutes(61)));
+        assertEquals(new BigDecimal("200.00"), pricingEngine.rentalPrice(Type.HATCHBACK,
+                "Audi", DAILY_FEE, FRIDAY, FRIDAY.plusHours(34)));
+        assertEquals(new BigDecimal("630.00"), pricingEngine.rentalPrice(Type.SEDAN, "Audi",
+                DAILY_FEE, FRIDAY, FRIDAY.plusDays(7)));
+        assertEquals(new BigDecimal("2400.00"), pricingEngine.rentalPrice(Type.SEDAN, "Audi",
+                DAILY_FEE, FRIDAY, FRIDAY.plusDays(30)));
+    }
+
+    @Test
+    @DisplayName("""
+            A brand and type rule wins over a brand rule, which wins over a type rule
+            """)
+    public void rentalPriceAndFine_WithBrandRules_ShouldPreferMostSpecificRule()
+            throws IOException {
+        PricingEngine pricingEngine = engine(TIERED_RULES);
+
+        assertEquals(new BigDecimal("400.00"), pricingEngine.rentalPrice(Type.SUV, "BMW",
+                DAILY_FEE, FRIDAY, FRIDAY.plusDays(3)));
+        assertEquals(new BigDecimal("300.00"), pricingEngine.rentalPrice(Type.SEDAN, "BMW",
+                DAILY_FEE, FRIDAY, FRIDAY.plusDays(3)));
+        assertEquals(new BigDecimal("300.00"), pricingEngine.fine(Type.SEDAN, "bmw",
+                DAILY_FEE, FRIDAY, FRIDAY.plusDays(2)));
+        assertEquals(new BigDecimal("200.00"), pricingEngine.fine(Type.SUV, "Audi",
+                DAILY_FEE, FRIDAY, FRIDAY.plusDays(2)));
+    }
+
+    @Test
+    @DisplayName("""
+            Changed rules are picked up on reload and broken ones keep the previous rules
+            """)
+    public void reloadIfModified_WithChangedRules_ShouldSwapRules() throws IOException {
+        PricingEngine pricingEngine = engine("rules: []");
+
+        writeRules("""
+                rules:
+                  - weekendMultiplier: 2
+                """, 1);
+        pricingEngine.reloadIfModified();
+        assertEquals(new BigDecimal("500.00"), pricingEngine.rentalPrice(Type.SEDAN, "Audi",
+                DAILY_FEE, FRIDAY, FRIDAY.plusDays(3)));
+
+        writeRules("""
+                rules:
+                  - type: SUV
+                  - type: SUV
+                """, 2);
+        assertThrows(IllegalStateException.class, pricingEngine::reloadIfModified);
+        assertEquals(new BigDecimal("500.00"), pricingEngine.rentalPrice(Type.SEDAN, "Audi",
+                DAILY_FEE, FRIDAY, FRIDAY.plusDays(3)));
+    }
+
+    @Test
+    @DisplayName("""
+            A period ending before it starts is rejected
+            """)
+    public void rentalPrice_WithInvertedPeriod_ShouldThrowException() throws IOException {
+        PricingEngine pricingEngine = engine("rules: []");
+
+        assertThrows(InvalidDateRangeException.class, () -> pricingEngine.rentalPrice(
+                Type.SEDAN, "Audi", DAILY_FEE, FRIDAY, FRIDAY.minusHours(1)));
+    }
+
+    private void assertMatchesLegacyFormula(PricingEngine pricingEngine) {
+        Random random = new Random(20250905L);
+
+        for (int i = 0; i < 10_000; i++) {
+            BigDecimal dailyFee = BigDecimal.valueOf(random.nextInt(1_000_000) + 1, 2);
+            Type type = Type.values()[random.nextInt(Type.values().length)];
+            LocalDateTime from = FRIDAY.plusMinutes(random.nextInt(1_000_000));
+            LocalDateTime to = from.plusSeconds(random.nextInt(120 * 24 * 60 * 60));
+
+            BigDecimal expected = legacyAmount(dailyFee, from, to);
+            assertEquals(0, expected.compareTo(pricingEngine.rentalPrice(type, "Audi",
+                    dailyFee, from, to)), () -> "Rental " + dailyFee + " " + from + " " + to);
+            assertEquals(0, expected.compareTo(pricingEngine.fine(type, "Audi",
+                    dailyFee, from, to)), () -> "Fine " + dailyFee + " " + from + " " + to);
+        }
+    }
+
+    private PricingEngine engine(String rules) throws IOException {
+        writeRules(rules, 0);
+        return new PricingEngine(new ObjectMapper(), new DefaultResourceLoader(),
+                directory.resolve("rules.yaml").toUri().toString());
+    }
+
+    private void writeRules(String rules, int version) throws IOException {
+        Path file = directory.resolve("rules.yaml");
+        Files.writeString(file, rules);
+        Files.setLastModifiedTime(file, FileTime.fromMillis(1_000_000L * (version + 1)));
+    }
+
+    private BigDecimal legacyAmount(BigDecimal dailyFee, LocalDateTime from, LocalDateTime to) {
+        long days = Duration.between(from, to).toDays();
+        if (days == 0) {
+            days = 1;
+        }
+        return dailyFee.multiply(BigDecimal.valueOf(days));
+    }
+}
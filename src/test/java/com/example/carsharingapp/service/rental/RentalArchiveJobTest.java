@@ -0,0 +1,149 @@
+package com.example.carsharingapp.service.rental;
+
+import com.example.carsharingapp.dto.payment.PaymentResponseDto;
+import com.example.carsharingapp.dto.rental.RentalActiveOrNotActiveRequestDto;
+import com.example.carsharingapp.dto.rental.RentalCursorPageDto;
+import com.example.carsharingapp.dto.rental.RentalCursorRequestDto;
+import com.example.carsharingapp.dto.rental.RentalDeciderDto;
+import com.example.carsharingapp.dto.rental.RentalResponseDto;
+import com.example.carsharingapp.service.bot.TelegramNotificationService;
+import com.example.carsharingapp.service.payment.PaymentService;
+import com.example.carsharingapp.service.rental.archive.RentalArchiveJob;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.context.jdbc.Sql;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+@Sql(scripts = {
+        "classpath:database/service/rental/add/add-user-to-users-table.sql",
+        "classpath:database/service/rental/add/add-five-cars-to-cars-table.sql",
+        "classpath:database/service/rental/add/add-archivable-rentals-to-rentals-table.sql",
+        "classpath:database/service/rental/add/add-payments-to-payments-table.sql"
+}, executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+@Sql(scripts = {
+        "classpath:database/service/rental/truncate/truncate-payments-archive-table.sql",
+        "classpath:database/service/rental/truncate/truncate-payments-table.sql",
+        "classpath:database/service/rental/truncate/truncate-rentals-archive-table.sql",
+        "classpath:database/service/rental/truncate/truncate-rentals-table.sql",
+        "classpath:database/service/rental/truncate/truncate-cars-table.sql",
+        "classpath:database/service/rental/truncate/truncate-users-table.sql"
+}, executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+public class RentalArchiveJobTest {
+    private static final LocalDateTime NOW = LocalDateTime.of(2025, 9, 1, 0, 0);
+
+    @MockitoBean
+    private TelegramNotificationService telegramNotificationService;
+
+    @Autowired
+    private RentalArchiveJob rentalArchiveJob;
+
+    @Autowired
+    private RentalService rentalService;
+
+    @Autowired
+    private PaymentService paymentService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    @DisplayName("""
+            Old returned rentals without pending payments move to the archive
+            and soft-deleted ones are purged
+            """)
+    public void run_WithOldReturnedRentals_ShouldMoveThemToArchive() {
+        long archived = rentalArchiveJob.run(NOW);
+
+        assertEquals(2, archived);
+        assertThat(jdbcTemplate.queryForList("SELECT id FROM rentals ORDER BY id", Long.class))
+                .containsExactly(2L, 4L, 5L);
+        assertThat(jdbcTemplate.queryForList("SELECT id FROM rentals_archive ORDER BY id",
+                Long.class)).containsExactly(1L, 3L);
+        assertThat(jdbcTemplate.queryForList("SELECT id FROM payments ORDER BY id", Long.class))
+                .containsExactly(2L);
+        assertThat(jdbcTemplate.queryForList("SELECT id FROM payments_archive ORDER BY id",
+                Long.class)).containsExactly(1L);
+    }
+
+    @Test
+    @DisplayName("""
+            Payments of archived rentals stay listed for their user
+            """)
+    public void getPaymentsByUserId_AfterArchiving_ShouldIncludeArchivedRentalPayments() {
+        rentalArchiveJob.run(NOW);
+
+        Page<PaymentResponseDto> payments = paymentService.getPaymentsByUserId(1L,
+                PageRequest.of(0, 10));
+
+        assertThat(payments.getContent()).extracting(PaymentResponseDto::getId)
+                .containsExactlyInAnyOrder(1L, 2L);
+    }
+
+    @Test
+    @DisplayName("""
+            Returned rentals are read across hot and archived storage
+            """)
+    public void returnUserRentals_AfterArchiving_ShouldIncludeArchivedRentals() {
+        rentalArchiveJob.run(NOW);
+
+        Page<RentalDeciderDto> returned = rentalService.returnUserRentals(1L,
+                PageRequest.of(0, 10), new RentalActiveOrNotActiveRequestDto().setActive(false));
+        Page<RentalDeciderDto> active = rentalService.returnUserRentals(1L,
+                PageRequest.of(0, 10), new RentalActiveOrNotActiveRequestDto().setActive(true));
+        Page<RentalDeciderDto> secondPage = rentalService.returnUserRentals(1L,
+                PageRequest.of(1, 2), new RentalActiveOrNotActiveRequestDto().setActive(false));
+        RentalCursorPageDto firstSlice = rentalService.returnUserRentalsByCursor(1L,
+                new RentalCursorRequestDto().setSize(3));
+        RentalCursorPageDto secondSlice = rentalService.returnUserRentalsByCursor(1L,
+                new RentalCursorRequestDto().setSize(3).setAfter(firstSlice.getNextCursor()));
+        RentalDeciderDto archivedRental = rentalService.returnRentalByRentalIdAndUserId(1L, 1L);
+
+        assertThat(returned.getContent()).extracting(rental -> ((RentalResponseDto) rental).getId())
+                .containsExactly(4L, 2L, 3L, 1L);
+        assertEquals(4, returned.getTotalElements());
+        assertThat(secondPage.getContent())
+                .extracting(rental -> ((RentalResponseDto) rental).getId())
+                .containsExactly(3L, 1L);
+        assertThat(firstSlice.getContent())
+                .extracting(rental -> ((RentalResponseDto) rental).getId())
+                .containsExactly(4L, 2L, 3L);
+        assertThat(secondSlice.getContent())
+                .extracting(rental -> ((RentalResponseDto) rental).getId())
+                .containsExactly(1L);
+        assertThat(secondSlice.getNextCursor()).isNull();
+        assertEquals(1, active.getTotalElements());
+        assertEquals(LocalDateTime.of(2025, 1, 10, 0, 0),
+                ((RentalResponseDto) archivedRental).getActualReturnDate());
+    }
+
+    @Test
+    @DisplayName("""
+            Month partitions cover the archive from the oldest return date
+            up to the archival cutoff
+            """)
+    public void run_WithLaterCutoff_ShouldAddMonthPartitions() {
+        rentalArchiveJob.run(NOW);
+        rentalArchiveJob.run(NOW.plusMonths(2));
+
+        List<String> partitions = jdbcTemplate.queryForList("""
+                SELECT partition_name FROM information_schema.partitions
+                WHERE table_schema = DATABASE() AND table_name = 'rentals_archive'
+                ORDER BY partition_ordinal_position
+                """, String.class);
+        assertThat(partitions).startsWith("p202501", "p202502", "p202503")
+                .contains("p202507", "p202508");
+        assertThat(partitions).last().isEqualTo("p_future");
+    }
+}
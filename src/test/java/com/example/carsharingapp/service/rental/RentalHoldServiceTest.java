@@ -0,0 +1,147 @@
+package com.example.carsharingapp.service.rental;
+
+import com.example.carsharingapp.dto.rental.RentalHoldResponseDto;
+import com.example.carsharingapp.dto.rental.RentalRequestDto;
+import com.example.carsharingapp.model.enums.Status;
+import com.example.carsharingapp.repository.rental.RentalRepository;
+import com.example.carsharingapp.service.bot.TelegramNotificationService;
+import com.example.carsharingapp.service.payment.PaymentService;
+import com.example.carsharingapp.service.stripe.StripeService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.context.jdbc.Sql;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest
+@Sql(scripts = {
+        "classpath:database/service/rental/add/add-user-to-users-table.sql",
+        "classpath:database/service/rental/add/add-car-to-cars-table.sql"
+}, executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+@Sql(scripts = {
+        "classpath:database/service/rental/truncate/truncate-payments-table.sql",
+        "classpath:database/service/rental/truncate/truncate-rentals-table.sql",
+        "classpath:database/service/rental/truncate/truncate-cars-table.sql",
+        "classpath:database/service/rental/truncate/truncate-users-table.sql"
+}, executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+public class RentalHoldServiceTest {
+    @MockitoBean
+    private TelegramNotificationService telegramNotificationService;
+
+    @MockitoBean
+    private StripeService stripeService;
+
+    @Autowired
+    private PaymentService paymentService;
+
+    @Autowired
+    private RentalHoldService rentalHoldService;
+
+    @Autowired
+    private RentalRepository rentalRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    @DisplayName("""
+            Placing a hold takes a car from inventory until the hold expires
+            """)
+    public void hold_WithAvailableCar_ShouldDecreaseInventory() {
+        RentalHoldResponseDto hold = rentalHoldService.hold(request());
+
+        assertThat(hold.getHoldExpiresAt()).isAfter(LocalDateTime.now());
+        assertEquals(49, inventory());
+    }
+
+    @Test
+    @DisplayName("""
+            Expired holds are released and their cars go back to inventory
+            """)
+    public void expireHolds_WithExpiredHolds_ShouldReleaseCars() {
+        Long first = rentalHoldService.hold(request()).getId();
+        Long second = rentalHoldService.hold(request()).getId();
+        Long pending = rentalHoldService.hold(request()).getId();
+        jdbcTemplate.update("UPDATE rentals SET hold_expires_at = ? WHERE id IN (?, ?)",
+                LocalDateTime.now().minusMinutes(1), first, second);
+
+        int released = rentalHoldService.expireHolds(List.of(first, second, pending));
+
+        assertEquals(2, released);
+        assertEquals(49, inventory());
+        assertThat(rentalRepository.findById(first)).isEmpty();
+        assertThat(rentalRepository.findById(pending)).isPresent();
+    }
+
+    @Test
+    @DisplayName("""
+            A confirmed hold is not released when its original expiry passes
+            """)
+    public void expireHolds_WithConfirmedHold_ShouldKeepRental() {
+        Long id = rentalHoldService.hold(request()).getId();
+        jdbcTemplate.update("UPDATE rentals SET hold_expires_at = NULL WHERE id = ?", id);
+
+        int released = rentalHoldService.expireHolds(List.of(id));
+
+        assertEquals(0, released);
+        assertEquals(49, inventory());
+    }
+
+    @Test
+    @DisplayName("""
+            Paying a checkout session after its hold expired flags the payment for refund
+            """)
+    public void expireHolds_WithPaymentAfterRelease_ShouldRequireRefund() {
+        String sessionId = "cs_test_released_hold";
+        Long id = rentalHoldService.hold(request()).getId();
+        jdbcTemplate.update("""
+                INSERT INTO payments (status, type, rental_id, user_id, session_id, session_url,
+                                      amount_to_pay, is_deleted)
+                VALUES ('PENDING', 'PAYMENT', ?, 1, ?, 'https://checkout.stripe.com', 2100.00,
+                        false)""", id, sessionId);
+        jdbcTemplate.update("UPDATE rentals SET hold_expires_at = ? WHERE id = ?",
+                LocalDateTime.now().minusMinutes(1), id);
+
+        rentalHoldService.expireHolds(List.of(id));
+
+        assertEquals(Status.CANCELED, paymentStatus(sessionId));
+        verify(stripeService, timeout(5000)).expireSession(sessionId);
+
+        when(stripeService.checkPaymentStatus(sessionId)).thenReturn("paid");
+
+        assertEquals(Status.REFUND_REQUIRED,
+                paymentService.getPaymentStatus(sessionId).getStatus());
+        assertEquals(Status.REFUND_REQUIRED, paymentStatus(sessionId));
+        assertThat(rentalRepository.findById(id)).isEmpty();
+        assertEquals(50, inventory());
+    }
+
+    private Status paymentStatus(String sessionId) {
+        return Status.valueOf(jdbcTemplate.queryForObject(
+                "SELECT status FROM payments WHERE session_id = ?", String.class, sessionId));
+    }
+
+    private RentalRequestDto request() {
+        return new RentalRequestDto()
+                .setRentalDate(LocalDateTime.now())
+                .setReturnDate(LocalDateTime.now().plusDays(3))
+                .setCarId(1L)
+                .setUserId(1L);
+    }
+
+    private int inventory() {
+        return jdbcTemplate.queryForObject("SELECT inventory FROM cars WHERE id = 1",
+                Integer.class);
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.carsharingapp.service.rental;
+
+import com.example.carsharingapp.dto.rental.RentalRequestDto;
+import com.example.carsharingapp.exception.CarNotAvailableException;
+import com.example.carsharingapp.repository.car.CarRepository;
+import com.example.carsharingapp.repository.rental.RentalRepository;
+import com.example.carsharingapp.service.bot.TelegramNotificationService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.context.jdbc.Sql;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+public class RentalServiceConcurrencyTest {
+    private static final int THREADS = 200;
+    private static final int INVENTORY = 50;
+
+    @MockitoBean
+    private TelegramNotificationService telegramNotificationService;
+
+    @Autowired
+    private RentalService rentalService;
+
+    @Autowired
+    private CarRepository carRepository;
+
+    @Autowired
+    private RentalRepository rentalRepository;
+
+    @Test
+    @DisplayName("""
+            Concurrent rentals of one car never oversell its inventory
+            """)
+    @Sql(scripts = {
+            "classpath:database/service/rental/add/add-user-to-users-table.sql",
+            "classpath:database/service/rental/add/add-car-to-cars-table.sql"
+    }, executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+    @Sql(scripts = {
+            "classpath:database/service/rental/truncate/truncate-rentals-table.sql",
+            "classpath:database/service/rental/truncate/truncate-cars-table.sql",
+            "classpath:database/service/rental/truncate/truncate-users-table.sql"
+    }, executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+    public void createRental_FromManyThreads_ShouldNeverOversell() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger rented = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+
+        for (int i = 0; i < THREADS; i++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                try {
+                    rentalService.create(new RentalRequestDto()
+                            .setCarId(1L)
+                            .setUserId(1L)
+                            .setRentalDate(LocalDateTime.of(2025, 1, 1, 0, 0, 0))
+                            .setReturnDate(LocalDateTime.of(2025, 1, 2, 0, 0, 0)));
+                    rented.incrementAndGet();
+                } catch (CarNotAvailableException e) {
+                    rejected.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(2, TimeUnit.MINUTES);
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(1, TimeUnit.MINUTES));
+
+        assertEquals(INVENTORY, rented.get());
+        assertEquals(THREADS - INVENTORY, rejected.get());
+        assertEquals(0, carRepository.findById(1L).orElseThrow().getInventory());
+        assertEquals(INVENTORY, carRepository.findById(2L).orElseThrow().getInventory());
+        assertEquals(INVENTORY, rentalRepository.count());
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.carsharingapp.service.rental;
+
+import com.example.carsharingapp.dto.rental.RentalResponseDto;
+import com.example.carsharingapp.dto.rental.RentalReturnDto;
+import com.example.carsharingapp.repository.car.CarRepository;
+import com.example.carsharingapp.service.bot.TelegramNotificationService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.context.jdbc.Sql;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@SpringBootTest
+@Sql(scripts = {
+        "classpath:database/service/rental/add/add-user-to-users-table.sql",
+        "classpath:database/service/rental/add/add-five-cars-to-cars-table.sql",
+        "classpath:database/service/rental/add/add-active-rentals-to-rentals-table.sql"
+}, executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+@Sql(scripts = {
+        "classpath:database/service/rental/truncate/truncate-rentals-table.sql",
+        "classpath:database/service/rental/truncate/truncate-cars-table.sql",
+        "classpath:database/service/rental/truncate/truncate-users-table.sql"
+}, executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+public class RentalServiceQueryCountTest {
+    @MockitoBean
+    private TelegramNotificationService telegramNotificationService;
+
+    @Autowired
+    private RentalService rentalService;
+
+    @Autowired
+    private CarRepository carRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        statistics.setStatisticsEnabled(false);
+    }
+
+    @Test
+    @DisplayName("""
+            Returning many cars runs as many statements as returning one car
+            """)
+    public void returnCar_WithManyCars_ShouldRunConstantNumberOfStatements() {
+        long oneCarStatements = countStatements(List.of(1L));
+        long fourCarsStatements = countStatements(List.of(2L, 3L, 4L, 5L));
+
+        assertEquals(oneCarStatements, fourCarsStatements);
+        for (long carId = 1; carId <= 5; carId++) {
+            assertEquals(11, carRepository.findById(carId).orElseThrow().getInventory());
+        }
+        verify(telegramNotificationService, times(2)).sendNotification(anyString());
+    }
+
+    private long countStatements(List<Long> carIds) {
+        statistics.clear();
+        Page<RentalResponseDto> returned = rentalService.returnCar(1L,
+                new RentalReturnDto().setCarIds(carIds), PageRequest.of(0, 10));
+        long statements = statistics.getPrepareStatementCount();
+
+        assertEquals(carIds.size(), returned.getTotalElements());
+        returned.forEach(rental -> assertNotNull(rental.getActualReturnDate()));
+        return statements;
+    }
+}
@@ -1,7 +1,10 @@
 package com.example.carsharingapp.service.rental;
 
 import com.example.carsharingapp.dto.rental.*;
+import com.example.carsharingapp.exception.CarNotAvailableException;
 import com.example.carsharingapp.exception.EntityNotFoundException;
+import com.example.carsharingapp.exception.InvalidCursorException;
+import com.example.carsharingapp.exception.PageTooDeepException;
 import com.example.carsharingapp.mapper.rental.RentalMapper;
 import com.example.carsharingapp.model.car.Car;
 import com.example.carsharingapp.model.enums.Type;
@@ -10,6 +13,7 @@ import com.example.carsharingapp.model.user.User;
 import com.example.carsharingapp.repository.car.CarRepository;
 import com.example.carsharingapp.repository.rental.RentalRepository;
 import com.example.carsharingapp.service.bot.TelegramNotificationService;
+import com.example.carsharingapp.service.rental.cursor.RentalCursor;
 import com.example.carsharingapp.service.rental.impl.RentalServiceImpl;
 import org.apache.commons.lang3.builder.EqualsBuilder;
 import org.junit.jupiter.api.DisplayName;
@@ -18,17 +22,22 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.*;
@@ -43,6 +52,8 @@ public class RentalServiceTest {
     private CarRepository carRepository;
     @Mock
     private TelegramNotificationService telegramNotificationService;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
     @InjectMocks
     private RentalServiceImpl rentalService;
 
@@ -86,7 +97,7 @@ public class RentalServiceTest {
                 .setUserId(user.getId());
 
         when(carRepository.findById(rentalRequestDto.getCarId())).thenReturn(Optional.of(car));
-        when(carRepository.save(any(Car.class))).thenReturn(car);
+        when(carRepository.decreaseInventory(car.getId())).thenReturn(1);
         when(rentalMapper.toModel(rentalRequestDto)).thenReturn(rental);
         when(rentalRepository.save(any(Rental.class))).thenReturn(rental.setId(1L));
         when(rentalMapper.toResponseDtoWithoutActualReturnDate(rental)).thenReturn(expected);
@@ -94,7 +105,7 @@ public class RentalServiceTest {
         RentalResponseDtoWithoutActualReturnDate actual = rentalService.create(rentalRequestDto);
         assertTrue(EqualsBuilder.reflectionEquals(expected,actual));
         verify(carRepository).findById(rentalRequestDto.getCarId());
-        verify(carRepository).save(any(Car.class));
+        verify(carRepository).decreaseInventory(car.getId());
         verify(telegramNotificationService).sendNotification(anyString());
         verify(rentalMapper).toModel(rentalRequestDto);
         verify(rentalRepository).save(any(Rental.class));
@@ -126,6 +137,40 @@ public class RentalServiceTest {
         verifyNoMoreInteractions(carRepository,rentalRepository,rentalMapper, telegramNotificationService);
     }
 
+    @Test
+    @DisplayName("""
+            Create a new Rental when car has no inventory left
+            """)
+    public void createRental_WithSoldOutCar_ShouldThrowException() {
+        Car car = new Car()
+                .setId(1L)
+                .setBrand("Audi")
+                .setModel("A5")
+                .setDailyFee(BigDecimal.valueOf(700))
+                .setType(Type.SEDAN)
+                .setInventory(0);
+
+        RentalRequestDto rentalRequestDto = new RentalRequestDto()
+                .setRentalDate(LocalDateTime.now())
+                .setReturnDate(LocalDateTime.now().plusDays(1))
+                .setCarId(1L)
+                .setUserId(1L);
+
+        String expected = "Car with id: " + car.getId() + " is not available for rent";
+
+        when(carRepository.findById(rentalRequestDto.getCarId())).thenReturn(Optional.of(car));
+        when(carRepository.decreaseInventory(car.getId())).thenReturn(0);
+
+        Exception exception = assertThrows(
+                CarNotAvailableException.class,
+                () -> rentalService.create(rentalRequestDto));
+
+        assertThat(exception.getMessage()).isEqualTo(expected);
+        verify(carRepository).findById(rentalRequestDto.getCarId());
+        verify(carRepository).decreaseInventory(car.getId());
+        verifyNoMoreInteractions(carRepository,rentalRepository,rentalMapper, telegramNotificationService);
+    }
+
     @Test
     @DisplayName("""
             Return car
@@ -147,6 +192,7 @@ public class RentalServiceTest {
                 .setDeleted(false);
 
         Rental rental = new Rental()
+                .setId(1L)
                 .setCar(car)
                 .setActualReturnDate(null)
                 .setReturnDate(LocalDateTime.now().plusDays(1))
@@ -167,16 +213,17 @@ public class RentalServiceTest {
         Pageable pageable = PageRequest.of(0, 10);
         Page<RentalResponseDto> expected = new PageImpl<>(List.of(rentalResponseDto), pageable, 1);
 
-        when(rentalRepository.findByUserIdAndActualReturnDateIsNull(user.getId())).thenReturn(List.of(rental));
-        when(rentalRepository.saveAll(List.of(rental))).thenReturn(List.of(rental.setId(1L)));
-        when(rentalMapper.toResponseDto(rental.setId(1L))).thenReturn(rentalResponseDto);
+        when(rentalRepository.findActiveByUserIdAndCarIdIn(user.getId(), Set.of(1L)))
+                .thenReturn(List.of(rental));
+        when(rentalMapper.toResponseDto(rental)).thenReturn(rentalResponseDto);
 
         Page<RentalResponseDto> actual = rentalService.returnCar(user.getId(), rentalReturnDto, pageable);
         assertTrue(EqualsBuilder.reflectionEquals(expected,actual));
-        verify(rentalRepository).findByUserIdAndActualReturnDateIsNull(user.getId());
-        verify(rentalRepository).saveAll(List.of(rental));
-        verify(telegramNotificationService).sendNotification(anyString());
-        verify(rentalMapper).toResponseDto(rental.setId(1L));
+        verify(rentalRepository).findActiveByUserIdAndCarIdIn(user.getId(), Set.of(1L));
+        verify(rentalRepository).markReturned(eq(Set.of(1L)), any(LocalDateTime.class));
+        verify(carRepository).increaseInventory(Set.of(1L), 1);
+        verify(telegramNotificationService).sendNotification("Audi A5 was successfully returned");
+        verify(rentalMapper).toResponseDto(rental);
         verifyNoMoreInteractions(carRepository, rentalRepository, rentalMapper, telegramNotificationService);
     }
 
@@ -199,14 +246,15 @@ public class RentalServiceTest {
         RentalReturnDto rentalReturnDto = new RentalReturnDto()
                 .setCarIds(List.of(1L));
 
-        when(rentalRepository.findByUserIdAndActualReturnDateIsNull(user.getId())).thenReturn(List.of());
+        when(rentalRepository.findActiveByUserIdAndCarIdIn(user.getId(), Set.of(1L)))
+                .thenReturn(List.of());
 
         Exception  actual = assertThrows(
                 EntityNotFoundException.class,
                 () -> rentalService.returnCar(user.getId(), rentalReturnDto, pageable));
 
         assertThat(actual.getMessage()).isEqualTo(expected);
-        verify(rentalRepository).findByUserIdAndActualReturnDateIsNull(user.getId());
+        verify(rentalRepository).findActiveByUserIdAndCarIdIn(user.getId(), Set.of(1L));
         verifyNoMoreInteractions(carRepository, rentalRepository, rentalMapper, telegramNotificationService);
     }
 
@@ -224,34 +272,16 @@ public class RentalServiceTest {
                 .setLastName("Kovbasiuk")
                 .setDeleted(false);
 
-        Car car = new Car()
-                .setId(1L)
-                .setBrand("Audi")
-                .setModel("A5")
-                .setDailyFee(BigDecimal.valueOf(700))
-                .setType(Type.SEDAN)
-                .setInventory(50);
-
-        Rental rental = new Rental()
-                .setCar(car)
-                .setActualReturnDate(null)
-                .setReturnDate(LocalDateTime.now().plusDays(1))
-                .setRentalDate(LocalDateTime.now())
-                .setUser(user);
-
         String expected = "Cars not found for userId: " + user.getId();
 
         RentalReturnDto rentalReturnDto = new RentalReturnDto()
                 .setCarIds(List.of());
 
-        when(rentalRepository.findByUserIdAndActualReturnDateIsNull(user.getId())).thenReturn(List.of(rental));
-
         Exception  actual = assertThrows(
                 EntityNotFoundException.class,
                 () -> rentalService.returnCar(user.getId(), rentalReturnDto, pageable));
 
         assertThat(actual.getMessage()).isEqualTo(expected);
-        verify(rentalRepository).findByUserIdAndActualReturnDateIsNull(user.getId());
         verifyNoMoreInteractions(carRepository, rentalRepository, rentalMapper, telegramNotificationService);
     }
 
@@ -263,14 +293,6 @@ public class RentalServiceTest {
         RentalActiveOrNotActiveRequestDto requestDto = new RentalActiveOrNotActiveRequestDto();
         requestDto.setActive(true);
 
-        Car car = new Car()
-                .setId(1L)
-                .setBrand("Audi")
-                .setModel("A5")
-                .setDailyFee(BigDecimal.valueOf(700))
-                .setType(Type.SEDAN)
-                .setInventory(50);
-
         User user = new User()
                 .setId(1L)
                 .setEmail("nikolya.cr@gmail.com")
@@ -278,14 +300,6 @@ public class RentalServiceTest {
                 .setLastName("Kovbasiuk")
                 .setDeleted(false);
 
-        Rental rental = new Rental()
-                .setId(1L)
-                .setCar(car)
-                .setActualReturnDate(null)
-                .setReturnDate(LocalDateTime.now().plusDays(1))
-                .setRentalDate(LocalDateTime.now())
-                .setUser(user);
-
         RentalResponseDtoWithoutActualReturnDate rentalResponseDto = new RentalResponseDtoWithoutActualReturnDate()
                 .setId(1L)
                 .setRentalDate(LocalDateTime.now())
@@ -296,14 +310,15 @@ public class RentalServiceTest {
         Pageable pageable = PageRequest.of(0, 10);
         Page<RentalResponseDtoWithoutActualReturnDate> expected = new PageImpl<>(List.of(rentalResponseDto), pageable, 1);
 
-        when(rentalRepository.findByUserIdAndActualReturnDateIsNull(user.getId())).thenReturn(List.of(rental));
-        when(rentalMapper.toResponseDtoWithoutActualReturnDate(rental)).thenReturn(rentalResponseDto);
+        Pageable sortedPageable = PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "id"));
+        when(rentalRepository.findActiveResponseDtosByUserId(user.getId(), sortedPageable))
+                .thenReturn(new PageImpl<>(List.of(rentalResponseDto), sortedPageable, 1));
 
         Page<RentalDeciderDto> actual = rentalService.returnUserRentals(user.getId(), pageable, requestDto);
 
-        assertTrue(EqualsBuilder.reflectionEquals(expected,actual));
-        verify(rentalRepository).findByUserIdAndActualReturnDateIsNull(user.getId());
-        verify(rentalMapper).toResponseDtoWithoutActualReturnDate(rental);
+        assertEquals(expected.getContent(), actual.getContent());
+        assertEquals(1, actual.getTotalElements());
+        verify(rentalRepository).findActiveResponseDtosByUserId(user.getId(), sortedPageable);
         verifyNoMoreInteractions(carRepository, rentalRepository, rentalMapper, telegramNotificationService);
     }
 
@@ -315,14 +330,6 @@ public class RentalServiceTest {
         RentalActiveOrNotActiveRequestDto requestDto = new RentalActiveOrNotActiveRequestDto();
         requestDto.setActive(false);
 
-        Car car = new Car()
-                .setId(1L)
-                .setBrand("Audi")
-                .setModel("A5")
-                .setDailyFee(BigDecimal.valueOf(700))
-                .setType(Type.SEDAN)
-                .setInventory(50);
-
         User user = new User()
                 .setId(1L)
                 .setEmail("nikolya.cr@gmail.com")
@@ -330,14 +337,6 @@ public class RentalServiceTest {
                 .setLastName("Kovbasiuk")
                 .setDeleted(false);
 
-        Rental rental = new Rental()
-                .setId(1L)
-                .setCar(car)
-                .setActualReturnDate(LocalDateTime.now().plusDays(1))
-                .setReturnDate(LocalDateTime.now().plusDays(1))
-                .setRentalDate(LocalDateTime.now())
-                .setUser(user);
-
         RentalResponseDto rentalResponseDto = new RentalResponseDto()
                 .setId(1L)
                 .setRentalDate(LocalDateTime.now())
@@ -349,14 +348,19 @@ public class RentalServiceTest {
         Pageable pageable = PageRequest.of(0, 10);
         Page<RentalResponseDto> expected = new PageImpl<>(List.of(rentalResponseDto), pageable, 1);
 
-        when(rentalRepository.findByUserIdAndActualReturnDateIsNotNull(user.getId())).thenReturn(List.of(rental));
-        when(rentalMapper.toResponseDto(rental)).thenReturn(rentalResponseDto);
+        when(rentalRepository.countReturnedByUserId(user.getId())).thenReturn(1L);
+        when(rentalRepository.countArchivedByUserId(user.getId())).thenReturn(0L);
+        when(rentalRepository.findReturnedResponseDtosByUserIdBefore(user.getId(), null, null,
+                PageRequest.ofSize(10))).thenReturn(List.of(rentalResponseDto));
 
         Page<RentalDeciderDto> actual = rentalService.returnUserRentals(user.getId(), pageable, requestDto);
 
-        assertTrue(EqualsBuilder.reflectionEquals(expected,actual));
-        verify(rentalRepository).findByUserIdAndActualReturnDateIsNotNull(user.getId());
-        verify(rentalMapper).toResponseDto(rental);
+        assertEquals(expected.getContent(), actual.getContent());
+        assertEquals(1, actual.getTotalElements());
+        verify(rentalRepository).countReturnedByUserId(user.getId());
+        verify(rentalRepository).countArchivedByUserId(user.getId());
+        verify(rentalRepository).findReturnedResponseDtosByUserIdBefore(user.getId(), null, null,
+                PageRequest.ofSize(10));
         verifyNoMoreInteractions(carRepository, rentalRepository, rentalMapper, telegramNotificationService);
     }
 
@@ -378,17 +382,35 @@ public class RentalServiceTest {
         Pageable pageable = PageRequest.of(0, 10);
         String expected = "Any rentals were not found for userId: " + user.getId();
 
-        when(rentalRepository.findByUserIdAndActualReturnDateIsNotNull(user.getId())).thenReturn(List.of());
+        when(rentalRepository.countReturnedByUserId(user.getId())).thenReturn(0L);
+        when(rentalRepository.countArchivedByUserId(user.getId())).thenReturn(0L);
 
         Exception actual = assertThrows(
                 EntityNotFoundException.class,
                 () -> rentalService.returnUserRentals(user.getId(), pageable, requestDto));
 
         assertThat(actual.getMessage()).isEqualTo(expected);
-        verify(rentalRepository).findByUserIdAndActualReturnDateIsNotNull(user.getId());
+        verify(rentalRepository).countReturnedByUserId(user.getId());
+        verify(rentalRepository).countArchivedByUserId(user.getId());
         verifyNoMoreInteractions(carRepository, rentalRepository, rentalMapper, telegramNotificationService);
     }
 
+    @Test
+    @DisplayName("""
+            Return user's not active rentals past the offset cap
+            """)
+    public void returnNotActiveUserRentals_WithTooDeepPage_ShouldThrowException() {
+        RentalActiveOrNotActiveRequestDto requestDto = new RentalActiveOrNotActiveRequestDto();
+        requestDto.setActive(false);
+
+        Pageable pageable = PageRequest.of(100, 20, Sort.by("rentalDate"));
+
+        assertThrows(PageTooDeepException.class,
+                () -> rentalService.returnUserRentals(1L, pageable, requestDto));
+
+        verifyNoInteractions(carRepository, rentalRepository, rentalMapper, telegramNotificationService);
+    }
+
     @Test
     @DisplayName("""
             Return not active rental by rental id and user id
@@ -481,6 +503,31 @@ public class RentalServiceTest {
         verifyNoMoreInteractions(carRepository, rentalRepository, rentalMapper, telegramNotificationService);
     }
 
+    @Test
+    @DisplayName("""
+            Return archived rental by rental id and user id
+            """)
+    public void returnArchivedRental_WithValidRentalId_ReturnRentalDeciderDto() {
+        RentalResponseDto archived = new RentalResponseDto()
+                .setId(1L)
+                .setRentalDate(LocalDateTime.of(2024, 1, 1, 10, 0))
+                .setReturnDate(LocalDateTime.of(2024, 1, 3, 10, 0))
+                .setActualReturnDate(LocalDateTime.of(2024, 1, 3, 9, 0))
+                .setCarId(1L)
+                .setUserId(1L);
+
+        when(rentalRepository.findByUserIdAndRentalId(1L, 1L)).thenReturn(Optional.empty());
+        when(rentalRepository.findArchivedResponseDtoByUserIdAndRentalId(1L, 1L))
+                .thenReturn(Optional.of(archived));
+
+        RentalDeciderDto actual = rentalService.returnRentalByRentalIdAndUserId(1L, 1L);
+
+        assertThat(actual).isSameAs(archived);
+        verify(rentalRepository).findByUserIdAndRentalId(1L, 1L);
+        verify(rentalRepository).findArchivedResponseDtoByUserIdAndRentalId(1L, 1L);
+        verifyNoMoreInteractions(carRepository, rentalRepository, rentalMapper, telegramNotificationService);
+    }
+
     @Test
     @DisplayName("""
             Return rental by invalid rental id
@@ -493,6 +540,8 @@ public class RentalServiceTest {
         String expected = "Rental was not found with id: " + rentalId;
 
         when(rentalRepository.findByUserIdAndRentalId(userId, rentalId)).thenReturn(Optional.empty());
+        when(rentalRepository.findArchivedResponseDtoByUserIdAndRentalId(userId, rentalId))
+                .thenReturn(Optional.empty());
 
         Exception actual = assertThrows(
                 EntityNotFoundException.class,
@@ -500,6 +549,57 @@ public class RentalServiceTest {
 
         assertThat(actual.getMessage()).isEqualTo(expected);
         verify(rentalRepository).findByUserIdAndRentalId(userId, rentalId);
+        verify(rentalRepository).findArchivedResponseDtoByUserIdAndRentalId(userId, rentalId);
         verifyNoMoreInteractions(carRepository, rentalRepository, rentalMapper, telegramNotificationService);
     }
+
+    @Test
+    @DisplayName("""
+            Return user's not active rentals by cursor
+            """)
+    public void returnUserRentalsByCursor_WithMoreRentals_ReturnNextCursor() {
+        RentalResponseDto newest = new RentalResponseDto()
+                .setId(3L)
+                .setActualReturnDate(LocalDateTime.of(2025, 9, 3, 10, 0));
+        RentalResponseDto middle = new RentalResponseDto()
+                .setId(2L)
+                .setActualReturnDate(LocalDateTime.of(2025, 9, 2, 10, 0));
+        RentalResponseDto oldest = new RentalResponseDto()
+                .setId(1L)
+                .setActualReturnDate(LocalDateTime.of(2025, 9, 1, 10, 0));
+        RentalCursorRequestDto firstRequest = new RentalCursorRequestDto().setSize(2);
+
+        when(rentalRepository.findReturnedResponseDtosByUserIdBefore(1L, null, null,
+                PageRequest.ofSize(3))).thenReturn(List.of(newest, middle, oldest));
+
+        RentalCursorPageDto firstPage = rentalService.returnUserRentalsByCursor(1L, firstRequest);
+
+        assertEquals(List.of(newest, middle), firstPage.getContent());
+
+        when(rentalRepository.findReturnedResponseDtosByUserIdBefore(1L,
+                middle.getActualReturnDate(), middle.getId(), PageRequest.ofSize(3)))
+                .thenReturn(List.of(oldest));
+
+        RentalCursorPageDto secondPage = rentalService.returnUserRentalsByCursor(1L,
+                new RentalCursorRequestDto().setSize(2).setAfter(firstPage.getNextCursor()));
+
+        assertEquals(List.of(oldest), secondPage.getContent());
+        assertNull(secondPage.getNextCursor());
+        verifyNoMoreInteractions(carRepository, rentalMapper, telegramNotificationService);
+    }
+
+    @Test
+    @DisplayName("""
+            Return user's active rentals with a cursor for returned rentals
+            """)
+    public void returnUserRentalsByCursor_WithCursorOfOtherKind_ShouldThrowException() {
+        String cursor = new RentalCursor(2L, LocalDateTime.of(2025, 9, 2, 10, 0)).encode();
+        RentalCursorRequestDto requestDto = new RentalCursorRequestDto()
+                .setActive(true)
+                .setAfter(cursor);
+
+        assertThrows(InvalidCursorException.class,
+                () -> rentalService.returnUserRentalsByCursor(1L, requestDto));
+        verifyNoInteractions(rentalRepository);
+    }
 }
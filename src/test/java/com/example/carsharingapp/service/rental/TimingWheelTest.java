@@ -0,0 +1,83 @@
+package com.example.carsharingapp.service.rental;
+
+import com.example.carsharingapp.service.rental.hold.TimingWheel;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+public class TimingWheelTest {
+    private static final long START = 1_000_000L;
+
+    private TimingWheel<Long> wheel;
+
+    @BeforeEach
+    void setUp() {
+        wheel = new TimingWheel<>(1000, 8, START);
+    }
+
+    @Test
+    @DisplayName("""
+            Items fire once their expiry has passed and not before
+            """)
+    public void advance_WithItemsInFirstLevel_ShouldFireOnExpiry() {
+        wheel.add(1L, START + 2500, START);
+        wheel.add(2L, START + 4000, START);
+
+        assertThat(wheel.advance(START + 2000)).isEmpty();
+        assertThat(wheel.advance(START + 3500)).containsExactly(1L);
+        assertThat(wheel.advance(START + 5000)).containsExactly(2L);
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    @DisplayName("""
+            Items beyond the first level cascade down and fire on time
+            """)
+    public void advance_WithItemsInOverflowLevels_ShouldFireOnExpiry() {
+        wheel.add(1L, START + 30_000, START);
+        wheel.add(2L, START + 500_000, START);
+
+        assertThat(wheel.advance(START + 29_000)).isEmpty();
+        assertThat(wheel.advance(START + 31_000)).containsExactly(1L);
+        assertThat(wheel.advance(START + 499_000)).isEmpty();
+        assertThat(wheel.advance(START + 501_000)).containsExactly(2L);
+    }
+
+    @Test
+    @DisplayName("""
+            Every item fires exactly once when the wheel is advanced tick by tick
+            """)
+    public void advance_TickByTick_ShouldFireEveryItemOnce() {
+        for (long i = 1; i <= 1000; i++) {
+            wheel.add(i, START + i * 97, START);
+        }
+        List<Long> fired = new ArrayList<>();
+
+        for (long now = START; now <= START + 100_000; now += 1000) {
+            for (Long item : wheel.advance(now)) {
+                assertThat(START + item * 97).isLessThanOrEqualTo(now);
+                assertThat(START + item * 97).isGreaterThan(now - 2000);
+                fired.add(item);
+            }
+        }
+
+        assertThat(fired).hasSize(1000).doesNotHaveDuplicates();
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    @DisplayName("""
+            Already expired items are rejected
+            """)
+    public void add_WithExpiredItem_ShouldReturnFalse() {
+        assertFalse(wheel.add(1L, START, START));
+        assertEquals(0, wheel.size());
+    }
+}
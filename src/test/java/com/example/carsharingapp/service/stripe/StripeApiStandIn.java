@@ -0,0 +1,101 @@
+package com.example.carsharingapp.service.stripe;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class StripeApiStandIn implements AutoCloseable {
+    private static final String SESSIONS_PATH = "/v1/checkout/sessions";
+
+    private final HttpServer server;
+    private final AtomicInteger requests = new AtomicInteger();
+    private final AtomicInteger sessions = new AtomicInteger();
+    private volatile Duration latency = Duration.ZERO;
+    private volatile int failureStatus;
+
+    public StripeApiStandIn(int port) throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", port), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext(SESSIONS_PATH, this::handle);
+        server.start();
+    }
+
+    public static void main(String[] args) throws IOException {
+        StripeApiStandIn standIn = new StripeApiStandIn(args.length > 0
+                ? Integer.parseInt(args[0]) : 12111);
+        if (args.length > 1) {
+            standIn.setLatency(Duration.ofMillis(Long.parseLong(args[1])));
+        }
+        System.out.println("Stripe stand-in listening on " + standIn.baseUrl());
+    }
+
+    public String baseUrl() {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+
+    public void setLatency(Duration latency) {
+        this.latency = latency;
+    }
+
+    public void setFailureStatus(int failureStatus) {
+        this.failureStatus = failureStatus;
+    }
+
+    public int requests() {
+        return requests.get();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        requests.incrementAndGet();
+        exchange.getRequestBody().readAllBytes();
+        try {
+            Thread.sleep(latency.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (failureStatus != 0) {
+            respond(exchange, failureStatus, """
+                    {"error":{"type":"api_error","message":"Stand-in failure"}}""");
+            return;
+        }
+        String path = exchange.getRequestURI().getPath();
+        if (path.endsWith("/expire")) {
+            String id = path.substring(SESSIONS_PATH.length() + 1, path.lastIndexOf('/'));
+            respond(exchange, 200, session(id, "unpaid"));
+        } else if ("POST".equals(exchange.getRequestMethod())) {
+            String id = "cs_test_standin_" + sessions.incrementAndGet();
+            respond(exchange, 200, session(id, "unpaid"));
+        } else {
+            respond(exchange, 200, session(path.substring(path.lastIndexOf('/') + 1), "paid"));
+        }
+    }
+
+    private String session(String id, String paymentStatus) {
+        return """
+                {"id":"%s","object":"checkout.session","payment_status":"%s",\
+                "url":"https://checkout.stripe.com/c/pay/%s","expires_at":%d}"""
+                .formatted(id, paymentStatus, id, Instant.now().plusSeconds(3600).getEpochSecond());
+    }
+
+    private void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream outputStream = exchange.getResponseBody()) {
+            outputStream.write(bytes);
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package com.example.carsharingapp.service.stripe;
+
+import com.example.carsharingapp.dto.payment.StripeResilienceStatsDto;
+import com.example.carsharingapp.exception.StripeUnavailableException;
+import com.example.carsharingapp.model.enums.CircuitState;
+import com.example.carsharingapp.service.bot.TelegramNotificationService;
+import com.example.carsharingapp.service.stripe.resilience.StripeResilienceGuard;
+import com.stripe.Stripe;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest(properties = {
+        "stripe.secret.key=sk_test_standin",
+        "stripe.read-timeout=PT0.5S",
+        "stripe.resilience.max-concurrent=2",
+        "stripe.resilience.max-wait=PT0S",
+        "stripe.resilience.window-size=4",
+        "stripe.resilience.minimum-calls=4",
+        "stripe.resilience.open-duration=PT0.5S"
+})
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+public class StripeServiceResilienceTest {
+    private static final StripeApiStandIn STRIPE = startStandIn();
+    private static final String SESSION_ID = "cs_test_standin_1";
+
+    @MockitoBean
+    private TelegramNotificationService telegramNotificationService;
+
+    @Autowired
+    private StripeService stripeService;
+
+    @Autowired
+    private StripeResilienceGuard stripeResilienceGuard;
+
+    @DynamicPropertySource
+    static void stripeProperties(DynamicPropertyRegistry registry) {
+        registry.add("stripe.api-base", STRIPE::baseUrl);
+    }
+
+    @AfterAll
+    static void afterAll() {
+        STRIPE.close();
+    }
+
+    @BeforeEach
+    void setUp() {
+        Stripe.overrideApiBase(STRIPE.baseUrl());
+        STRIPE.setLatency(Duration.ZERO);
+        STRIPE.setFailureStatus(0);
+    }
+
+    @Test
+    @DisplayName("""
+            Slow Stripe calls hit their deadline and then the circuit fails fast
+            """)
+    public void checkPaymentStatus_WhenStripeIsSlow_ShouldTimeOutAndOpenCircuit() {
+        STRIPE.setLatency(Duration.ofSeconds(2));
+        int requestsBefore = STRIPE.requests();
+
+        for (int i = 0; i < 4; i++) {
+            long startedAt = System.nanoTime();
+            assertThrows(StripeUnavailableException.class,
+                    () -> stripeService.checkPaymentStatus(SESSION_ID));
+            assertThat(Duration.ofNanos(System.nanoTime() - startedAt))
+                    .isLessThan(Duration.ofSeconds(2));
+        }
+        long startedAt = System.nanoTime();
+        assertThrows(StripeUnavailableException.class,
+                () -> stripeService.checkPaymentStatus(SESSION_ID));
+
+        assertThat(Duration.ofNanos(System.nanoTime() - startedAt))
+                .isLessThan(Duration.ofMillis(100));
+        assertEquals(requestsBefore + 4, STRIPE.requests());
+        StripeResilienceStatsDto stats = stripeResilienceGuard.getStats();
+        assertEquals(CircuitState.OPEN, stats.state());
+        assertEquals(4, stats.failures());
+        assertEquals(1, stats.rejectedByCircuit());
+    }
+
+    @Test
+    @DisplayName("""
+            The circuit closes again after a successful probe
+            """)
+    public void checkPaymentStatus_AfterOpenDuration_ShouldCloseOnSuccessfulProbe()
+            throws Exception {
+        STRIPE.setFailureStatus(500);
+        for (int i = 0; i < 4; i++) {
+            assertThrows(StripeUnavailableException.class,
+                    () -> stripeService.checkPaymentStatus(SESSION_ID));
+        }
+        assertEquals(CircuitState.OPEN, stripeResilienceGuard.getStats().state());
+
+        STRIPE.setFailureStatus(0);
+        Thread.sleep(600);
+
+        assertEquals("paid", stripeService.checkPaymentStatus(SESSION_ID));
+        StripeResilienceStatsDto stats = stripeResilienceGuard.getStats();
+        assertEquals(CircuitState.CLOSED, stats.state());
+        assertEquals(1, stats.timesHalfOpened());
+        assertEquals(1, stats.timesClosed());
+    }
+
+    @Test
+    @DisplayName("""
+            Calls beyond the bulkhead limit are rejected instead of queueing
+            """)
+    public void checkPaymentStatus_WithTooManyConcurrentCalls_ShouldRejectExcess()
+            throws Exception {
+        STRIPE.setLatency(Duration.ofMillis(300));
+        ExecutorService callers = Executors.newFixedThreadPool(6);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<String>> results = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            results.add(callers.submit(() -> {
+                start.await();
+                return stripeService.checkPaymentStatus(SESSION_ID);
+            }));
+        }
+        start.countDown();
+
+        int succeeded = 0;
+        int rejected = 0;
+        for (Future<String> result : results) {
+            try {
+                result.get(5, TimeUnit.SECONDS);
+                succeeded++;
+            } catch (ExecutionException e) {
+                assertThat(e.getCause()).isInstanceOf(StripeUnavailableException.class);
+                rejected++;
+            }
+        }
+        callers.shutdown();
+
+        assertEquals(2, succeeded);
+        assertEquals(4, rejected);
+        StripeResilienceStatsDto stats = stripeResilienceGuard.getStats();
+        assertEquals(4, stats.rejectedByBulkhead());
+        assertEquals(CircuitState.CLOSED, stats.state());
+    }
+
+    private static StripeApiStandIn startStandIn() {
+        try {
+            return new StripeApiStandIn(0);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package com.example.carsharingapp.service.stripe;
+
+import com.example.carsharingapp.model.rental.Rental;
+import com.example.carsharingapp.service.stripe.status.StripeSessionStatusCache;
+import com.stripe.model.checkout.Session;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class StripeSessionStatusCacheTest {
+    private static final String SESSION_ID = "cs_test_session";
+    private static final int CALLERS = 32;
+
+    private final CountingStripeService stripeService = new CountingStripeService();
+    private final ExecutorService callers = Executors.newFixedThreadPool(CALLERS);
+    private StripeSessionStatusCache cache;
+
+    @AfterEach
+    void tearDown() {
+        callers.shutdownNow();
+        cache.shutdown();
+    }
+
+    @Test
+    @DisplayName("""
+            Concurrent lookups of one session share a single Stripe call
+            """)
+    public void getStatus_WithConcurrentCallers_ShouldCallStripeOnce() throws Exception {
+        cache = new StripeSessionStatusCache(stripeService, Duration.ofMinutes(1),
+                Duration.ofMinutes(1), 100);
+        stripeService.status = "paid";
+        stripeService.blocked = new CountDownLatch(1);
+        CountDownLatch ready = new CountDownLatch(CALLERS);
+
+        List<Future<String>> results = new ArrayList<>();
+        for (int i = 0; i < CALLERS; i++) {
+            results.add(callers.submit(() -> {
+                ready.countDown();
+                return cache.getStatus(SESSION_ID);
+            }));
+        }
+        assertThat(ready.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(stripeService.started.await(5, TimeUnit.SECONDS)).isTrue();
+        Thread.sleep(100);
+        stripeService.blocked.countDown();
+
+        for (Future<String> result : results) {
+            assertEquals("paid", result.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, stripeService.calls.get());
+    }
+
+    @Test
+    @DisplayName("""
+            A fresh cached status is served without calling Stripe
+            """)
+    public void getStatus_WithinTtl_ShouldServeCachedStatus() {
+        cache = new StripeSessionStatusCache(stripeService, Duration.ofMinutes(1),
+                Duration.ZERO, 100);
+        stripeService.status = "unpaid";
+
+        cache.getStatus(SESSION_ID);
+        cache.getStatus(SESSION_ID);
+
+        assertEquals(1, stripeService.calls.get());
+    }
+
+    @Test
+    @DisplayName("""
+            A stale status is served while it is revalidated in the background
+            """)
+    public void getStatus_WhenStale_ShouldServeStaleStatusAndRefresh() throws Exception {
+        cache = new StripeSessionStatusCache(stripeService, Duration.ofMillis(50),
+                Duration.ofMinutes(1), 100);
+        stripeService.status = "unpaid";
+        cache.getStatus(SESSION_ID);
+        Thread.sleep(100);
+        stripeService.status = "paid";
+
+        assertEquals("unpaid", cache.getStatus(SESSION_ID));
+        long deadline = System.currentTimeMillis() + 5000;
+        while (stripeService.calls.get() < 2 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        Thread.sleep(50);
+
+        assertEquals(2, stripeService.calls.get());
+        assertEquals("paid", cache.getStatus(SESSION_ID));
+    }
+
+    @Test
+    @DisplayName("""
+            An expired status is looked up again
+            """)
+    public void getStatus_WhenExpired_ShouldCallStripeAgain() {
+        cache = new StripeSessionStatusCache(stripeService, Duration.ZERO, Duration.ZERO, 100);
+        stripeService.status = "unpaid";
+
+        cache.getStatus(SESSION_ID);
+        cache.getStatus(SESSION_ID);
+
+        assertEquals(2, stripeService.calls.get());
+    }
+
+    private static class CountingStripeService implements StripeService {
+        private final AtomicInteger calls = new AtomicInteger();
+        private final CountDownLatch started = new CountDownLatch(1);
+        private volatile CountDownLatch blocked = new CountDownLatch(0);
+        private volatile String status;
+
+        @Override
+        public Session createRentalPaymentSession(Rental rental, BigDecimal amount) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public String checkPaymentStatus(String sessionId) {
+            calls.incrementAndGet();
+            started.countDown();
+            try {
+                blocked.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return status;
+        }
+
+        @Override
+        public Optional<Session> findSession(String sessionId) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void expireSession(String sessionId) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
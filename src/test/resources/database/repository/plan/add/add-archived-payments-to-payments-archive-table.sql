@@ -0,0 +1,7 @@
+INSERT INTO payments_archive (id, status, type, rental_id, user_id, session_url, session_id,
+                              amount_to_pay, archived_at)
+WITH RECURSIVE seq (n) AS (SELECT 1 UNION ALL SELECT n + 1 FROM seq WHERE n < 1000)
+SELECT n + 1000, 'PAID', 'PAYMENT', n + 1000, n % 200 + 1,
+       CONCAT('https://checkout.stripe.com/c/pay/cs_test_', n + 1000),
+       CONCAT('cs_test_', n + 1000), 700, '2025-06-01 00:00:00'
+FROM seq;
@@ -0,0 +1,7 @@
+INSERT INTO rentals_archive (id, rental_date, return_date, actual_return_date, car_id, user_id,
+                             archived_at)
+WITH RECURSIVE seq (n) AS (SELECT 1 UNION ALL SELECT n + 1 FROM seq WHERE n < 1000)
+SELECT n + 1000, '2025-01-05 14:30:00', '2025-01-06 14:30:00',
+       DATE_ADD('2025-01-06 14:30:00', INTERVAL n % 60 DAY), n, n % 200 + 1,
+       '2025-06-01 00:00:00'
+FROM seq;
@@ -0,0 +1,5 @@
+INSERT INTO cars (id, brand, model, daily_fee, inventory, type, is_deleted)
+WITH RECURSIVE seq (n) AS (SELECT 1 UNION ALL SELECT n + 1 FROM seq WHERE n < 1000)
+SELECT n, CONCAT('Brand', n % 100), CONCAT('Model', n), 100 + n % 500, 10,
+       ELT(n % 4 + 1, 'SEDAN', 'SUV', 'HATCHBACK', 'UNIVERSAL'), n % 10 = 0
+FROM seq;
@@ -0,0 +1,5 @@
+INSERT INTO rentals (id, rental_date, return_date, actual_return_date, car_id, user_id)
+WITH RECURSIVE seq (n) AS (SELECT 1 UNION ALL SELECT n + 1 FROM seq WHERE n < 1000)
+SELECT n, '2025-08-25 14:30:00', '2025-08-26 14:30:00',
+       IF(n % 3 = 0, NULL, '2025-08-26 14:30:00'), n, n % 200 + 1
+FROM seq;
@@ -0,0 +1,3 @@
+INSERT INTO users (id, email, password, first_name, last_name)
+WITH RECURSIVE seq (n) AS (SELECT 1 UNION ALL SELECT n + 1 FROM seq WHERE n < 200)
+SELECT n, CONCAT('user', n, '@gmail.com'), '12345678', 'First', 'Last' FROM seq;
@@ -0,0 +1,3 @@
+SET FOREIGN_KEY_CHECKS = 0;
+TRUNCATE TABLE payments_archive;
+SET FOREIGN_KEY_CHECKS = 1;
@@ -0,0 +1,3 @@
+SET FOREIGN_KEY_CHECKS = 0;
+TRUNCATE TABLE payments;
+SET FOREIGN_KEY_CHECKS = 1;
@@ -0,0 +1,2 @@
+INSERT INTO rentals (id, rental_date, return_date, actual_return_date, car_id, user_id)
+VALUES (2, '2025-08-27 00:00:00', '2025-08-28 00:00:00', NULL, 1, 1);
@@ -0,0 +1,4 @@
+INSERT INTO rentals_archive (id, rental_date, return_date, actual_return_date, car_id, user_id,
+                             archived_at)
+VALUES (3, '2025-01-05 00:00:00', '2025-01-06 00:00:00', '2025-01-06 00:00:00', 1, 1,
+        '2025-06-01 00:00:00');
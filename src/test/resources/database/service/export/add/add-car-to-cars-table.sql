@@ -0,0 +1,2 @@
+INSERT INTO cars (id, brand, model, daily_fee, inventory, type, is_deleted)
+VALUES (1, 'Audi', 'A5', 700.00, 10, 'SEDAN', 0);
@@ -0,0 +1,6 @@
+SET SESSION cte_max_recursion_depth = 1000000;
+INSERT INTO payments (id, status, type, rental_id, user_id, session_url, session_id, amount_to_pay)
+WITH RECURSIVE seq (n) AS (SELECT 1 UNION ALL SELECT n + 1 FROM seq WHERE n < 1000000)
+SELECT n, IF(n % 2 = 0, 'PAID', 'PENDING'), 'PAYMENT', 1, 1,
+       CONCAT('https://checkout.stripe.com/c/pay/cs_test_', n), CONCAT('cs_test_', n), 700
+FROM seq;
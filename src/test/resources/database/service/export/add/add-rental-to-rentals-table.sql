@@ -0,0 +1,2 @@
+INSERT INTO rentals (id, rental_date, return_date, actual_return_date, car_id, user_id)
+VALUES (1, '2025-08-25 00:00:00', '2025-08-26 00:00:00', '2025-08-26 00:00:00', 1, 1);
@@ -0,0 +1,3 @@
+SET FOREIGN_KEY_CHECKS = 0;
+TRUNCATE TABLE rentals_archive;
+SET FOREIGN_KEY_CHECKS = 1;
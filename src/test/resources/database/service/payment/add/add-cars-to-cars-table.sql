@@ -0,0 +1,3 @@
+INSERT INTO cars (id, brand, model, daily_fee, inventory, type, is_deleted)
+VALUES (1, 'Audi', 'A5', 700.00, 10, 'SEDAN', 0),
+       (2, 'BMW', 'X5', 900.00, 10, 'SUV', 0);
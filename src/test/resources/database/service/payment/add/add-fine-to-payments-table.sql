@@ -0,0 +1,2 @@
+INSERT INTO payments (id, status, type, rental_id, user_id, amount_to_pay)
+VALUES (1, 'PENDING', 'FINE', 4, 1, 5400.00);
@@ -0,0 +1,6 @@
+INSERT INTO payments (id, status, type, rental_id, user_id, amount_to_pay, session_id, session_url)
+VALUES (1, 'PENDING', 'PAYMENT', 1, 1, 4200.00, 'cs_test_1', 'https://checkout.stripe.com/1'),
+       (2, 'PENDING', 'PAYMENT', 2, 1, 4200.00, 'cs_test_2', 'https://checkout.stripe.com/2'),
+       (3, 'PENDING', 'PAYMENT', 3, 1, 18900.00, 'cs_test_3', 'https://checkout.stripe.com/3'),
+       (4, 'PAID', 'PAYMENT', 4, 1, 5400.00, 'cs_test_4', 'https://checkout.stripe.com/4'),
+       (5, 'PENDING', 'PAYMENT', 5, 1, 9900.00, 'cs_test_5', 'https://checkout.stripe.com/5');
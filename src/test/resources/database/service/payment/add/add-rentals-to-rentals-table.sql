@@ -0,0 +1,6 @@
+INSERT INTO rentals (id, rental_date, return_date, actual_return_date, car_id, user_id)
+VALUES (1, '2025-08-20 00:00:00', '2025-08-26 00:00:00', NULL, 1, 1),
+       (2, '2025-08-20 00:00:00', '2025-08-26 00:00:00', '2025-08-27 00:00:00', 1, 1),
+       (3, '2025-08-20 00:00:00', '2025-09-10 00:00:00', NULL, 2, 1),
+       (4, '2025-08-20 00:00:00', '2025-08-26 00:00:00', NULL, 2, 1),
+       (5, '2025-08-20 00:00:00', '2025-08-31 12:00:00', NULL, 2, 1);
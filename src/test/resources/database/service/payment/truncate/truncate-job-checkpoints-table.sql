@@ -0,0 +1,3 @@
+SET FOREIGN_KEY_CHECKS = 0;
+TRUNCATE TABLE job_checkpoints;
+SET FOREIGN_KEY_CHECKS = 1;
@@ -0,0 +1,6 @@
+INSERT INTO rentals (id, rental_date, return_date, actual_return_date, car_id, user_id)
+VALUES (1, '2025-08-25 00:00:00', '2025-08-26 00:00:00', NULL, 1, 1),
+       (2, '2025-08-25 00:00:00', '2025-08-26 00:00:00', NULL, 2, 1),
+       (3, '2025-08-25 00:00:00', '2025-08-26 00:00:00', NULL, 3, 1),
+       (4, '2025-08-25 00:00:00', '2025-08-26 00:00:00', NULL, 4, 1),
+       (5, '2025-08-25 00:00:00', '2025-08-26 00:00:00', NULL, 5, 1);
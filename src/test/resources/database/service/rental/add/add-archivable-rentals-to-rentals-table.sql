@@ -0,0 +1,7 @@
+INSERT INTO rentals (id, rental_date, return_date, actual_return_date, car_id, user_id, is_deleted)
+VALUES (1, '2025-01-05 00:00:00', '2025-01-10 00:00:00', '2025-01-10 00:00:00', 1, 1, 0),
+       (2, '2025-03-10 00:00:00', '2025-03-15 00:00:00', '2025-03-15 00:00:00', 2, 1, 0),
+       (3, '2025-01-28 00:00:00', '2025-02-01 00:00:00', '2025-02-01 00:00:00', 3, 1, 0),
+       (4, '2025-08-15 00:00:00', '2025-08-20 00:00:00', '2025-08-20 00:00:00', 4, 1, 0),
+       (5, '2025-08-25 00:00:00', '2025-09-05 00:00:00', NULL, 5, 1, 0),
+       (6, '2024-12-25 00:00:00', '2025-01-01 00:00:00', '2025-01-01 00:00:00', 1, 1, 1);
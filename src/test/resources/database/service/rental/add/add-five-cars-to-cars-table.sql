@@ -0,0 +1,6 @@
+INSERT INTO cars (id, brand, model, daily_fee, inventory, type, is_deleted)
+VALUES (1, 'Audi', 'A5', 700.00, 10, 'SEDAN', 0),
+       (2, 'BMW', 'X5', 900.00, 10, 'SUV', 0),
+       (3, 'Kia', 'Rio', 300.00, 10, 'HATCHBACK', 0),
+       (4, 'Skoda', 'Octavia', 400.00, 10, 'UNIVERSAL', 0),
+       (5, 'Toyota', 'Camry', 600.00, 10, 'SEDAN', 0);
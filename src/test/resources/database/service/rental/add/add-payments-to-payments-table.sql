@@ -0,0 +1,3 @@
+INSERT INTO payments (id, status, type, rental_id, user_id, amount_to_pay)
+VALUES (1, 'PAID', 'PAYMENT', 3, 1, 1200.00),
+       (2, 'PENDING', 'FINE', 2, 1, 300.00);
@@ -0,0 +1,2 @@
+INSERT INTO users (id, email, password, first_name, last_name)
+VALUES (1, "nikolya.cr@gmail.com", "12345678", "Mykola", "Kovbasiuk");